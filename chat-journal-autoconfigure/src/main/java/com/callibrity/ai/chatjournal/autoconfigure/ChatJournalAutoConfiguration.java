@@ -16,30 +16,46 @@
 package com.callibrity.ai.chatjournal.autoconfigure;
 
 import com.callibrity.ai.chatjournal.memory.ChatJournalChatMemory;
+import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointExecutor;
 import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointFactory;
+import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointScheduler;
 import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointer;
 import com.callibrity.ai.chatjournal.memory.ChatJournalEntryMapper;
+import com.callibrity.ai.chatjournal.memory.ChatJournalTokenUsageAdvisor;
+import com.callibrity.ai.chatjournal.memory.ReactiveChatJournalCheckpointer;
+import com.callibrity.ai.chatjournal.memory.ReactiveChatJournalMemory;
+import com.callibrity.ai.chatjournal.repository.CachingChatJournalRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalBatchWriter;
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalDeadLetterWriter;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimScheduler;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimer;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.WriteBehindChatJournalEntryRepository;
 import com.callibrity.ai.chatjournal.summary.ChatClientMessageSummarizer;
+import com.callibrity.ai.chatjournal.summary.ChunkingMessageSummarizer;
 import com.callibrity.ai.chatjournal.summary.MessageSummarizer;
+import com.callibrity.ai.chatjournal.token.CachingTokenUsageCalculator;
 import com.callibrity.ai.chatjournal.token.SimpleTokenUsageCalculator;
 import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import org.springframework.core.task.TaskExecutor;
+import org.springframework.context.annotation.Primary;
 
+@Slf4j
 @AutoConfiguration(
-        after = {JdbcAutoConfiguration.class, JTokkitAutoConfiguration.class},
-        afterName = {
-                "org.springframework.ai.model.chat.client.autoconfigure.ChatClientAutoConfiguration",
-                "org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration"
-        },
+        after = {ShardingAutoConfiguration.class, PostgresAutoConfiguration.class, JdbcAutoConfiguration.class, R2dbcAutoConfiguration.class, JTokkitAutoConfiguration.class},
+        afterName = "org.springframework.ai.model.chat.client.autoconfigure.ChatClientAutoConfiguration",
         beforeName = "org.springframework.ai.model.chat.memory.autoconfigure.ChatMemoryAutoConfiguration"
 )
 @EnableConfigurationProperties(ChatJournalProperties.class)
@@ -51,6 +67,15 @@ public class ChatJournalAutoConfiguration {
         return new SimpleTokenUsageCalculator(properties.getCharactersPerToken());
     }
 
+    @Bean
+    @Primary
+    @ConditionalOnMissingBean(CachingTokenUsageCalculator.class)
+    @ConditionalOnProperty(prefix = "chat.journal.token-cache", name = "enabled", havingValue = "true")
+    public CachingTokenUsageCalculator cachingTokenUsageCalculator(TokenUsageCalculator tokenUsageCalculator,
+                                                                   ChatJournalProperties properties) {
+        return new CachingTokenUsageCalculator(tokenUsageCalculator, properties.getTokenCache().getMaxEntries());
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(ChatClient.Builder.class)
@@ -58,6 +83,12 @@ public class ChatJournalAutoConfiguration {
         return new ChatClientMessageSummarizer(builder.build());
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    public ChatJournalTokenUsageAdvisor chatJournalTokenUsageAdvisor() {
+        return new ChatJournalTokenUsageAdvisor();
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public ChatJournalEntryMapper chatJournalEntryMapper(TokenUsageCalculator tokenUsageCalculator) {
@@ -69,10 +100,90 @@ public class ChatJournalAutoConfiguration {
     @ConditionalOnBean(MessageSummarizer.class)
     public ChatJournalCheckpointFactory chatJournalCheckpointFactory(
             MessageSummarizer summarizer,
-            TokenUsageCalculator tokenUsageCalculator) {
+            TokenUsageCalculator tokenUsageCalculator,
+            ChatJournalProperties properties) {
+        ChatJournalProperties.Summary summary = properties.getSummary();
+        if (summary.isChunkingEnabled()) {
+            summarizer = new ChunkingMessageSummarizer(
+                    summarizer,
+                    tokenUsageCalculator,
+                    summary.getMaxChunkTokens(),
+                    summary.getMaxConcurrency()
+            );
+        }
         return new ChatJournalCheckpointFactory(summarizer, tokenUsageCalculator);
     }
 
+    @Bean
+    @Primary
+    @ConditionalOnMissingBean(WriteBehindChatJournalEntryRepository.class)
+    @ConditionalOnBean(value = {
+            ChatJournalEntryRepository.class,
+            ChatJournalBatchWriter.class
+    })
+    @ConditionalOnProperty(prefix = "chat.journal.write-behind", name = "enabled", havingValue = "true")
+    public WriteBehindChatJournalEntryRepository writeBehindChatJournalEntryRepository(
+            ChatJournalEntryRepository entryRepository,
+            ChatJournalBatchWriter batchWriter,
+            ObjectProvider<ChatJournalDeadLetterWriter> deadLetterWriter,
+            ChatJournalProperties properties) {
+        if (properties.getCache().isEnabled()) {
+            // Cached entries need the message indexes assigned on insert, which buffered saves do not have yet
+            throw new IllegalStateException("chat.journal.write-behind cannot be combined with chat.journal.cache; enable only one");
+        }
+        ChatJournalProperties.WriteBehind writeBehind = properties.getWriteBehind();
+        ChatJournalDeadLetterWriter writer = deadLetterWriter.getIfAvailable(() -> writeBehind.isDiscardAfterMaxAttempts()
+                ? WriteBehindChatJournalEntryRepository.discardingDeadLetterWriter()
+                : null);
+        if (writer == null) {
+            return new WriteBehindChatJournalEntryRepository(
+                    entryRepository,
+                    batchWriter,
+                    writeBehind.getFlushInterval(),
+                    writeBehind.getMaxBatchSize(),
+                    writeBehind.getMaxPendingEntries()
+            );
+        }
+        return new WriteBehindChatJournalEntryRepository(
+                entryRepository,
+                batchWriter,
+                writeBehind.getFlushInterval(),
+                writeBehind.getMaxBatchSize(),
+                writeBehind.getMaxPendingEntries(),
+                writeBehind.getMaxAttempts(),
+                writer
+        );
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnMissingBean({CachingChatJournalRepository.class, WriteBehindChatJournalEntryRepository.class})
+    @ConditionalOnBean(value = {
+            ChatJournalEntryRepository.class,
+            ChatJournalCheckpointRepository.class
+    })
+    @ConditionalOnProperty(prefix = "chat.journal.cache", name = "enabled", havingValue = "true")
+    public CachingChatJournalRepository cachingChatJournalRepository(
+            ChatJournalEntryRepository entryRepository,
+            ChatJournalCheckpointRepository checkpointRepository,
+            ChatJournalProperties properties) {
+        log.warn("The chat journal conversation cache is per process and does not see writes from other instances; "
+                + "serve each conversation from a single instance");
+        return new CachingChatJournalRepository(
+                entryRepository,
+                checkpointRepository,
+                properties.getCache().getMaxCharacters()
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(ChatJournalReclaimer.class)
+    public ChatJournalReclaimScheduler chatJournalReclaimScheduler(ChatJournalReclaimer reclaimer,
+                                                                   ChatJournalProperties properties) {
+        return new ChatJournalReclaimScheduler(reclaimer, properties.getReclaim().getSweepInterval());
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(value = {
@@ -93,32 +204,113 @@ public class ChatJournalAutoConfiguration {
                 checkpointFactory,
                 entryMapper,
                 properties.getMaxTokens(),
+                lowWatermarkTokens(properties),
                 properties.getMinRetainedEntries()
         );
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(ChatJournalCheckpointer.class)
+    public ChatJournalCheckpointExecutor chatJournalCheckpointExecutor(ChatJournalProperties properties) {
+        ChatJournalProperties.Checkpoint checkpoint = properties.getCheckpoint();
+        return new ChatJournalCheckpointExecutor(
+                checkpoint.getMaxConcurrency(),
+                checkpoint.getQueueCapacity(),
+                checkpoint.getOverflowPolicy()
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(value = {
+            ChatJournalCheckpointer.class,
+            ChatJournalCheckpointExecutor.class
+    })
+    public ChatJournalCheckpointScheduler chatJournalCheckpointScheduler(
+            ChatJournalCheckpointer checkpointer,
+            ChatJournalCheckpointExecutor checkpointExecutor) {
+        return new ChatJournalCheckpointScheduler(checkpointer, checkpointExecutor);
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(value = {
             ChatJournalEntryRepository.class,
             ChatJournalCheckpointRepository.class,
             ChatJournalCheckpointer.class,
-            TaskExecutor.class
+            ChatJournalCheckpointScheduler.class
     })
     public ChatMemory chatJournalChatMemory(
             ChatJournalEntryRepository entryRepository,
             ChatJournalCheckpointRepository checkpointRepository,
             ChatJournalEntryMapper entryMapper,
             ChatJournalCheckpointer checkpointer,
-            TaskExecutor taskExecutor,
+            ChatJournalCheckpointScheduler checkpointScheduler,
             ChatJournalProperties properties) {
         return new ChatJournalChatMemory(
                 entryRepository,
                 checkpointRepository,
                 entryMapper,
                 checkpointer,
-                taskExecutor,
+                checkpointScheduler,
+                properties.getMaxConversationLength()
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(value = {
+            ReactiveChatJournalEntryRepository.class,
+            ReactiveChatJournalCheckpointRepository.class,
+            ChatJournalCheckpointFactory.class,
+            ChatJournalEntryMapper.class
+    })
+    public ReactiveChatJournalCheckpointer reactiveChatJournalCheckpointer(
+            ReactiveChatJournalEntryRepository entryRepository,
+            ReactiveChatJournalCheckpointRepository checkpointRepository,
+            ChatJournalCheckpointFactory checkpointFactory,
+            ChatJournalEntryMapper entryMapper,
+            ChatJournalProperties properties) {
+        return new ReactiveChatJournalCheckpointer(
+                entryRepository,
+                checkpointRepository,
+                checkpointFactory,
+                entryMapper,
+                properties.getMaxTokens(),
+                lowWatermarkTokens(properties),
+                properties.getMinRetainedEntries()
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(value = {
+            ReactiveChatJournalEntryRepository.class,
+            ReactiveChatJournalCheckpointRepository.class,
+            ReactiveChatJournalCheckpointer.class
+    })
+    public ReactiveChatJournalMemory reactiveChatJournalMemory(
+            ReactiveChatJournalEntryRepository entryRepository,
+            ReactiveChatJournalCheckpointRepository checkpointRepository,
+            ChatJournalEntryMapper entryMapper,
+            ReactiveChatJournalCheckpointer checkpointer,
+            ChatJournalProperties properties) {
+        return new ReactiveChatJournalMemory(
+                entryRepository,
+                checkpointRepository,
+                entryMapper,
+                checkpointer,
                 properties.getMaxConversationLength()
         );
     }
+
+    /**
+     * Converts the low-watermark ratio to a token count, clamped below max-tokens so that a
+     * small max-tokens still yields a valid watermark instead of failing at startup.
+     */
+    static int lowWatermarkTokens(ChatJournalProperties properties) {
+        int maxTokens = properties.getMaxTokens();
+        return Math.min(maxTokens - 1, (int) (maxTokens * properties.getLowWatermarkRatio()));
+    }
 }
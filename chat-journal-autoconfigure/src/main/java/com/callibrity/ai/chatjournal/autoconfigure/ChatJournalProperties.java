@@ -15,13 +15,27 @@
  */
 package com.callibrity.ai.chatjournal.autoconfigure;
 
+import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointExecutor.OverflowPolicy;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimPolicy;
+import com.callibrity.ai.chatjournal.repository.WriteBehindChatJournalEntryRepository;
 import com.knuddels.jtokkit.api.EncodingType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @ConfigurationProperties(prefix = "chat.journal")
 @Validated
@@ -40,7 +54,16 @@ public class ChatJournalProperties {
     private int maxConversationLength = 10000;
 
     /**
-     * Minimum number of entries to retain after compaction.
+     * Fraction of max-tokens that compaction aims to get the conversation under; the
+     * summary plus the retained recent entries must fit within this low watermark.
+     */
+    @DecimalMin(value = "0.0", inclusive = false)
+    @DecimalMax(value = "1.0", inclusive = false)
+    private double lowWatermarkRatio = 0.5;
+
+    /**
+     * Minimum number of recent entries to retain after compaction, even when they do not
+     * fit under the low watermark.
      */
     @Positive
     private int minRetainedEntries = 6;
@@ -56,4 +79,417 @@ public class ChatJournalProperties {
      */
     @NotNull
     private EncodingType encodingType = EncodingType.O200K_BASE;
+
+    /**
+     * In-memory caching of active conversations.
+     */
+    @Valid
+    private final Cache cache = new Cache();
+
+    /**
+     * In-memory cache of per-message token counts.
+     */
+    @Valid
+    private final TokenCache tokenCache = new TokenCache();
+
+    /**
+     * How the JTokkit token calculator counts long messages.
+     */
+    @Valid
+    private final Tokenizer tokenizer = new Tokenizer();
+
+    /**
+     * JDBC repository settings.
+     */
+    @Valid
+    private final Jdbc jdbc = new Jdbc();
+
+    /**
+     * Compression of message content and checkpoint summaries in the JDBC repositories.
+     */
+    @Valid
+    private final Compression compression = new Compression();
+
+    /**
+     * PostgreSQL-optimized repository settings, used when chat-journal-postgres is on the classpath.
+     */
+    @Valid
+    private final Postgres postgres = new Postgres();
+
+    /**
+     * Spreading conversations across several JDBC databases.
+     */
+    @Valid
+    private final Sharding sharding = new Sharding();
+
+    /**
+     * Reclamation of journal entries already summarized by a checkpoint.
+     */
+    @Valid
+    private final Reclaim reclaim = new Reclaim();
+
+    /**
+     * Token encoding recording and recount settings (JDBC only).
+     */
+    @Valid
+    private final TokenEncoding tokenEncoding = new TokenEncoding();
+
+    /**
+     * Write-behind batching of journal appends.
+     */
+    @Valid
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * Execution of asynchronous checkpoint (summarization) tasks.
+     */
+    @Valid
+    private final Checkpoint checkpoint = new Checkpoint();
+
+    /**
+     * Summarization of compacted messages.
+     */
+    @Valid
+    private final Summary summary = new Summary();
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Whether to cache the checkpoint and recent entries of active conversations in memory.
+         * The cache is per process and does not see writes made by other instances, so enable it
+         * only when each conversation is served by a single instance.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of content characters (entries plus checkpoint summaries) to cache
+         * across all conversations before evicting the least recently used.
+         */
+        @Positive
+        private long maxCharacters = 10_000_000;
+    }
+
+    @Data
+    public static class TokenCache {
+
+        /**
+         * Whether to remember the token count of recently counted message text, so repeated text
+         * (system prompts, tool outputs, retries) is only tokenized once.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of distinct message token counts to cache before evicting the least recently used.
+         */
+        @Positive
+        private int maxEntries = 10_000;
+    }
+
+    @Data
+    public static class Tokenizer {
+
+        /**
+         * Whether to tokenize every message exactly, or to estimate messages of at least
+         * exact-threshold characters from exactly counted samples.
+         */
+        @NotNull
+        private Mode mode = Mode.EXACT;
+
+        /**
+         * Shortest message, in characters, that the hybrid mode estimates rather than counts exactly.
+         */
+        @Min(16_384)
+        private int exactThreshold = 32_768;
+
+        /**
+         * Largest relative error, at 95% confidence, that the hybrid mode accepts in an estimate
+         * before sampling more of the message.
+         */
+        @DecimalMin(value = "0.0", inclusive = false)
+        @DecimalMax("0.5")
+        private double maxRelativeError = 0.02;
+
+        /**
+         * Whether to load the encoding's vocabulary on a background thread once the application has
+         * started, rather than when the first message is counted.
+         */
+        private boolean warmUp = true;
+
+        public enum Mode {
+            EXACT,
+            HYBRID
+        }
+    }
+
+    @Data
+    public static class Jdbc {
+
+        /**
+         * Number of rows fetched per round trip when streaming a conversation's entries.
+         */
+        @Positive
+        private int fetchSize = 500;
+
+        /**
+         * How long after a conversation is written its history keeps being read from the primary
+         * rather than the {@link ChatJournalReadReplica read replica}, to hide replication lag.
+         */
+        @NotNull
+        private Duration replicaMaxStaleness = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Compression {
+
+        /**
+         * Whether to deflate content and summaries before storing them. Requires the binary columns
+         * of the schema-*-compressed.sql scripts.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Smallest content, in UTF-8 bytes, that is deflated; shorter content is stored uncompressed.
+         */
+        @PositiveOrZero
+        private int threshold = 512;
+
+        /**
+         * Deflate compression level, from 0 to 9, or -1 for the default level.
+         */
+        @Min(-1)
+        @Max(9)
+        private int level = -1;
+    }
+
+    @Data
+    public static class Postgres {
+
+        /**
+         * Whether to use the PostgreSQL-optimized repository when chat-journal-postgres is on the classpath.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Smallest number of entries appended at once (or flushed in one write-behind batch)
+         * that is loaded with COPY rather than INSERT statements.
+         */
+        @Positive
+        private int copyThreshold = 8;
+    }
+
+    @Data
+    public static class Sharding {
+
+        /**
+         * Whether to spread conversations across the configured shards instead of storing
+         * them through the application's own JdbcTemplate.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The shard databases. Shards are identified by name, so renaming one moves its
+         * conversations; add new shards with new names and run the rebalancer.
+         */
+        @Valid
+        private List<Shard> shards = new ArrayList<>();
+
+        /**
+         * Number of points each shard is placed at on the consistent hash ring.
+         */
+        @Positive
+        private int virtualNodes = 160;
+
+        /**
+         * Whether to migrate misplaced conversations to their owning shard in the background
+         * at startup.
+         */
+        private boolean rebalanceOnStartup = false;
+
+        /**
+         * Names of the shards in use before shards were last added. While set, a conversation
+         * whose owner changed is served by its previous shard until it has been migrated; clear
+         * it once rebalancing is complete.
+         */
+        private List<String> previousShards = new ArrayList<>();
+    }
+
+    @Data
+    public static class Shard {
+
+        /**
+         * Name of the shard; determines which conversations it owns.
+         */
+        @NotBlank
+        private String name;
+
+        /**
+         * JDBC URL of the shard database.
+         */
+        @NotBlank
+        private String url;
+
+        /**
+         * Login username of the shard database.
+         */
+        private String username;
+
+        /**
+         * Login password of the shard database.
+         */
+        private String password;
+    }
+
+    @Data
+    public static class Reclaim {
+
+        /**
+         * What to do with entries at or below a conversation's checkpoint: keep them in the
+         * journal table, move them to the archive table, or delete them (JDBC only).
+         */
+        @NotNull
+        private ChatJournalReclaimPolicy policy = ChatJournalReclaimPolicy.KEEP;
+
+        /**
+         * Delay between background reclaim sweeps.
+         */
+        @NotNull
+        private Duration sweepInterval = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of entries reclaimed per transaction.
+         */
+        @Positive
+        private int batchSize = 1000;
+
+        /**
+         * Pause between reclaim batches, throttling the sweep's load on the database.
+         */
+        @NotNull
+        private Duration batchPause = Duration.ofMillis(100);
+    }
+
+    @Data
+    public static class TokenEncoding {
+
+        /**
+         * Whether to record the name of the encoding that produced each entry's token count in
+         * the token_encoding column. Requires the column (see the upgrade scripts).
+         */
+        private boolean enabled = false;
+
+        /**
+         * Whether to recount, in the background at startup, the tokens of every entry whose
+         * recorded encoding differs from the current one or is unknown. Enable it on one instance
+         * only; recounts on several instances are safe but repeat each other's work.
+         */
+        private boolean recountOnStartup = false;
+
+        /**
+         * Maximum number of entries recounted per transaction.
+         */
+        @Positive
+        private int batchSize = 500;
+
+        /**
+         * Pause between recount batches, throttling the recount's load on the database.
+         */
+        @NotNull
+        private Duration batchPause = Duration.ofMillis(100);
+
+        /**
+         * Number of threads re-tokenizing each batch, or 0 to use the common fork-join pool.
+         */
+        @PositiveOrZero
+        private int parallelism = 0;
+    }
+
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * Whether to buffer journal appends in memory and write them to the database in
+         * periodic batches spanning all conversations. Buffered entries are lost if the
+         * process dies before they are flushed.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long appends are buffered before being flushed.
+         */
+        @NotNull
+        private Duration flushInterval = Duration.ofMillis(100);
+
+        /**
+         * Number of buffered entries that triggers an immediate flush.
+         */
+        @Positive
+        private int maxBatchSize = 500;
+
+        /**
+         * Maximum number of buffered entries; a save that would exceed it flushes on the
+         * caller's thread first.
+         */
+        @Positive
+        private int maxPendingEntries = WriteBehindChatJournalEntryRepository.DEFAULT_MAX_PENDING_ENTRIES;
+
+        /**
+         * Number of consecutive failed flushes after which a conversation's buffered entries
+         * are handed to the {@code ChatJournalDeadLetterWriter} bean, or discarded if
+         * discard-after-max-attempts is set. Without either, failed conversations are retried
+         * indefinitely with backoff.
+         */
+        @Positive
+        private int maxAttempts = WriteBehindChatJournalEntryRepository.DEFAULT_MAX_ATTEMPTS;
+
+        /**
+         * Whether to log and discard a conversation's buffered entries after max-attempts
+         * failed flushes when no {@code ChatJournalDeadLetterWriter} bean is defined.
+         */
+        private boolean discardAfterMaxAttempts = false;
+    }
+
+    @Data
+    public static class Checkpoint {
+
+        /**
+         * Maximum number of checkpoint tasks (summarizer calls) running concurrently.
+         */
+        @Positive
+        private int maxConcurrency = 2;
+
+        /**
+         * Maximum number of checkpoint tasks waiting to run.
+         */
+        @Positive
+        private int queueCapacity = 100;
+
+        /**
+         * What to do with checkpoint tasks submitted while the queue is full.
+         */
+        @NotNull
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DEFER;
+    }
+
+    @Data
+    public static class Summary {
+
+        /**
+         * Whether to summarize large compaction backlogs in token-bounded chunks (map-reduce)
+         * rather than in a single summarizer call.
+         */
+        private boolean chunkingEnabled = false;
+
+        /**
+         * Maximum number of tokens sent to the summarizer in a single call when chunking.
+         */
+        @Positive
+        private int maxChunkTokens = 8192;
+
+        /**
+         * Maximum number of chunks summarized concurrently.
+         */
+        @Positive
+        private int maxConcurrency = 4;
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.autoconfigure;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Qualifier for a read-only {@link javax.sql.DataSource} (typically a replica of the primary
+ * database) that the JDBC journal repository should use for history and analytics reads.
+ *
+ * <p>When declaring such a data source, mark the primary one {@code @Primary} so that it remains
+ * the one injected everywhere else:
+ *
+ * <pre>{@code
+ * @Bean
+ * @ChatJournalReadReplica
+ * public DataSource chatJournalReplicaDataSource() {
+ *     return DataSourceBuilder.create().url("jdbc:postgresql://replica/chat").build();
+ * }
+ * }</pre>
+ */
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Qualifier
+public @interface ChatJournalReadReplica {
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.autoconfigure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The data sources of the configured {@code chat.journal.sharding.shards}, keyed by shard name.
+ *
+ * <p>The data sources are created from the shard properties and are deliberately not exposed
+ * as {@link DataSource} beans, so they never compete with the application's own data source.
+ * They are closed along with this bean.
+ */
+@Slf4j
+public class ChatJournalShards implements AutoCloseable {
+
+    private final Map<String, DataSource> dataSources;
+    private final Map<String, JdbcTemplate> jdbcTemplates;
+
+    ChatJournalShards(List<ChatJournalProperties.Shard> shards) {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        Map<String, JdbcTemplate> jdbcTemplates = new LinkedHashMap<>();
+        for (ChatJournalProperties.Shard shard : shards) {
+            DataSource dataSource = DataSourceBuilder.create()
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            if (dataSources.putIfAbsent(shard.getName(), dataSource) != null) {
+                throw new IllegalArgumentException("Duplicate shard name: " + shard.getName());
+            }
+            jdbcTemplates.put(shard.getName(), new JdbcTemplate(dataSource));
+        }
+        this.dataSources = Collections.unmodifiableMap(dataSources);
+        this.jdbcTemplates = Collections.unmodifiableMap(jdbcTemplates);
+    }
+
+    /**
+     * Returns a JdbcTemplate for each shard, keyed by shard name, in configuration order.
+     *
+     * @return the shard JdbcTemplates
+     */
+    public Map<String, JdbcTemplate> jdbcTemplates() {
+        return jdbcTemplates;
+    }
+
+    @Override
+    public void close() {
+        dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Unable to close data source of shard {}", name, e);
+                }
+            }
+        });
+    }
+}
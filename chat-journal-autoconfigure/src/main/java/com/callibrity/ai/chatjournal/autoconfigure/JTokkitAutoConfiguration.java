@@ -16,21 +16,55 @@
 package com.callibrity.ai.chatjournal.autoconfigure;
 
 import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import com.callibrity.ai.chatjournal.jtokkit.HybridJTokkitTokenUsageCalculator;
+import com.callibrity.ai.chatjournal.jtokkit.JTokkitEncodings;
 import com.callibrity.ai.chatjournal.jtokkit.JTokkitTokenUsageCalculator;
+import com.knuddels.jtokkit.api.EncodingType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 
+@Slf4j
 @AutoConfiguration
 @AutoConfigureBefore(ChatJournalAutoConfiguration.class)
 @ConditionalOnClass(JTokkitTokenUsageCalculator.class)
 public class JTokkitAutoConfiguration {
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "chat.journal.tokenizer", name = "mode", havingValue = "hybrid")
+    public TokenUsageCalculator hybridJTokkitTokenUsageCalculator(ChatJournalProperties properties) {
+        ChatJournalProperties.Tokenizer tokenizer = properties.getTokenizer();
+        return new HybridJTokkitTokenUsageCalculator(
+                properties.getEncodingType(),
+                tokenizer.getExactThreshold(),
+                tokenizer.getMaxRelativeError()
+        );
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public TokenUsageCalculator jtokkitTokenUsageCalculator(ChatJournalProperties properties) {
         return new JTokkitTokenUsageCalculator(properties.getEncodingType());
     }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "chat.journal.tokenizer", name = "warm-up", havingValue = "true", matchIfMissing = true)
+    public ApplicationRunner jtokkitEncodingWarmUpRunner(ChatJournalProperties properties) {
+        EncodingType encodingType = properties.getEncodingType();
+        return args -> Thread.ofVirtual().name("chat-journal-jtokkit-warm-up").start(() -> {
+            try {
+                long start = System.nanoTime();
+                JTokkitEncodings.getEncoding(encodingType);
+                log.debug("Loaded {} encoding in {} ms", encodingType, (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.warn("Loading {} encoding failed", encodingType, e);
+            }
+        });
+    }
 }
@@ -15,35 +15,163 @@
  */
 package com.callibrity.ai.chatjournal.autoconfigure;
 
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalBatchWriter;
 import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalCheckpointRepository;
 import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalOptions;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalReclaimer;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalTokenRecounter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalBatchWriter;
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimer;
+import com.callibrity.ai.chatjournal.repository.DeflateChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ShardedChatJournalRepository;
+import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import javax.sql.DataSource;
+
+@Slf4j
 @AutoConfiguration
 @AutoConfigureAfter(JdbcTemplateAutoConfiguration.class)
 @ConditionalOnClass(JdbcChatJournalEntryRepository.class)
+@EnableConfigurationProperties(ChatJournalProperties.class)
 public class JdbcAutoConfiguration {
 
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "chat.journal.compression", name = "enabled", havingValue = "true")
+    public ChatJournalContentCodec chatJournalContentCodec(ChatJournalProperties properties) {
+        ChatJournalProperties.Compression compression = properties.getCompression();
+        return new DeflateChatJournalContentCodec(compression.getThreshold(), compression.getLevel());
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(JdbcTemplate.class)
-    public ChatJournalEntryRepository jdbcChatJournalEntryRepository(JdbcTemplate jdbcTemplate) {
-        return new JdbcChatJournalEntryRepository(jdbcTemplate);
+    public ChatJournalEntryRepository jdbcChatJournalEntryRepository(JdbcTemplate jdbcTemplate,
+                                                                     @ChatJournalReadReplica ObjectProvider<DataSource> replicaDataSource,
+                                                                     ObjectProvider<ChatJournalContentCodec> contentCodec,
+                                                                     ObjectProvider<TokenUsageCalculator> tokenUsageCalculator,
+                                                                     ChatJournalProperties properties) {
+        return new JdbcChatJournalEntryRepository(jdbcTemplate,
+                entryRepositoryOptions(replicaDataSource, contentCodec, tokenUsageCalculator, properties));
+    }
+
+    static JdbcChatJournalOptions entryRepositoryOptions(ObjectProvider<DataSource> replicaDataSource,
+                                                         ObjectProvider<ChatJournalContentCodec> contentCodec,
+                                                         ObjectProvider<TokenUsageCalculator> tokenUsageCalculator,
+                                                         ChatJournalProperties properties) {
+        ChatJournalProperties.Jdbc jdbc = properties.getJdbc();
+        JdbcChatJournalOptions.JdbcChatJournalOptionsBuilder options = JdbcChatJournalOptions.builder()
+                .fetchSize(jdbc.getFetchSize())
+                .reclaimPolicy(properties.getReclaim().getPolicy())
+                .contentCodec(contentCodec.getIfAvailable())
+                .tokenEncoding(tokenEncoding(properties, tokenUsageCalculator));
+        DataSource replica = replicaDataSource.getIfAvailable();
+        if (replica != null) {
+            options.replicaJdbcTemplate(new JdbcTemplate(replica)).maxStaleness(jdbc.getReplicaMaxStaleness());
+        }
+        return options.build();
     }
 
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(JdbcTemplate.class)
-    public ChatJournalCheckpointRepository jdbcChatJournalCheckpointRepository(JdbcTemplate jdbcTemplate) {
-        return new JdbcChatJournalCheckpointRepository(jdbcTemplate);
+    public ChatJournalCheckpointRepository jdbcChatJournalCheckpointRepository(JdbcTemplate jdbcTemplate,
+                                                                               ObjectProvider<ChatJournalContentCodec> contentCodec) {
+        ChatJournalContentCodec codec = contentCodec.getIfAvailable();
+        return codec == null
+                ? new JdbcChatJournalCheckpointRepository(jdbcTemplate)
+                : new JdbcChatJournalCheckpointRepository(jdbcTemplate, codec);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean({ChatJournalBatchWriter.class, ShardedChatJournalRepository.class})
+    @ConditionalOnBean(JdbcTemplate.class)
+    @ConditionalOnProperty(prefix = "chat.journal.write-behind", name = "enabled", havingValue = "true")
+    public ChatJournalBatchWriter jdbcChatJournalBatchWriter(JdbcTemplate jdbcTemplate,
+                                                             ObjectProvider<ChatJournalContentCodec> contentCodec,
+                                                             ObjectProvider<TokenUsageCalculator> tokenUsageCalculator,
+                                                             ChatJournalProperties properties) {
+        return new JdbcChatJournalBatchWriter(jdbcTemplate, contentCodec.getIfAvailable(),
+                tokenEncoding(properties, tokenUsageCalculator));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean({ChatJournalReclaimer.class, ShardedChatJournalRepository.class})
+    @ConditionalOnBean(JdbcTemplate.class)
+    @ConditionalOnExpression("!'${chat.journal.reclaim.policy:keep}'.equalsIgnoreCase('keep')")
+    public ChatJournalReclaimer jdbcChatJournalReclaimer(JdbcTemplate jdbcTemplate, ChatJournalProperties properties) {
+        ChatJournalProperties.Reclaim reclaim = properties.getReclaim();
+        return new JdbcChatJournalReclaimer(
+                jdbcTemplate,
+                reclaim.getPolicy(),
+                reclaim.getBatchSize(),
+                reclaim.getBatchPause()
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean({JdbcChatJournalTokenRecounter.class, ShardedChatJournalRepository.class})
+    @ConditionalOnBean(JdbcTemplate.class)
+    @ConditionalOnProperty(prefix = "chat.journal.token-encoding", name = "enabled", havingValue = "true")
+    public JdbcChatJournalTokenRecounter jdbcChatJournalTokenRecounter(JdbcTemplate jdbcTemplate,
+                                                                       TokenUsageCalculator tokenUsageCalculator,
+                                                                       ObjectProvider<ChatJournalContentCodec> contentCodec,
+                                                                       ChatJournalProperties properties) {
+        ChatJournalProperties.TokenEncoding tokenEncoding = properties.getTokenEncoding();
+        return new JdbcChatJournalTokenRecounter(
+                jdbcTemplate,
+                tokenUsageCalculator,
+                contentCodec.getIfAvailable(),
+                tokenEncoding.getBatchSize(),
+                tokenEncoding.getBatchPause(),
+                tokenEncoding.getParallelism()
+        );
+    }
+
+    @Bean
+    @ConditionalOnBean(JdbcChatJournalTokenRecounter.class)
+    @ConditionalOnProperty(prefix = "chat.journal.token-encoding", name = "recount-on-startup", havingValue = "true")
+    public ApplicationRunner chatJournalTokenRecountRunner(JdbcChatJournalTokenRecounter recounter) {
+        return args -> Thread.ofVirtual().name("chat-journal-token-recounter").start(() -> {
+            try {
+                int recounted = recounter.recount();
+                log.info("Recounted tokens of {} journal entries with {}", recounted, recounter.encodingName());
+            } catch (RuntimeException e) {
+                log.error("Token recount failed after message index {}", recounter.lastMessageIndex(), e);
+            }
+        });
+    }
+
+    /**
+     * Returns the encoding name to record with saved entries, or null if recording is disabled.
+     */
+    static String tokenEncoding(ChatJournalProperties properties, ObjectProvider<TokenUsageCalculator> tokenUsageCalculator) {
+        if (!properties.getTokenEncoding().isEnabled()) {
+            return null;
+        }
+        TokenUsageCalculator calculator = tokenUsageCalculator.getIfAvailable();
+        String encodingName = calculator == null ? null : calculator.encodingName();
+        if (encodingName == null) {
+            throw new IllegalStateException("chat.journal.token-encoding.enabled requires a TokenUsageCalculator that reports an encoding name");
+        }
+        return encodingName;
     }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.autoconfigure;
+
+import com.callibrity.ai.chatjournal.postgres.PostgresChatJournalBatchWriter;
+import com.callibrity.ai.chatjournal.postgres.PostgresChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalBatchWriter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ShardedChatJournalRepository;
+import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+@AutoConfiguration(
+        after = {JdbcTemplateAutoConfiguration.class, ShardingAutoConfiguration.class},
+        before = JdbcAutoConfiguration.class
+)
+@ConditionalOnClass(PostgresChatJournalEntryRepository.class)
+@ConditionalOnProperty(prefix = "chat.journal.postgres", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(ChatJournalProperties.class)
+public class PostgresAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(JdbcTemplate.class)
+    public ChatJournalEntryRepository postgresChatJournalEntryRepository(JdbcTemplate jdbcTemplate,
+                                                                         @ChatJournalReadReplica ObjectProvider<DataSource> replicaDataSource,
+                                                                         ObjectProvider<ChatJournalContentCodec> contentCodec,
+                                                                         ObjectProvider<TokenUsageCalculator> tokenUsageCalculator,
+                                                                         ChatJournalProperties properties) {
+        return new PostgresChatJournalEntryRepository(jdbcTemplate,
+                JdbcAutoConfiguration.entryRepositoryOptions(replicaDataSource, contentCodec, tokenUsageCalculator, properties),
+                properties.getPostgres().getCopyThreshold());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean({ChatJournalBatchWriter.class, ShardedChatJournalRepository.class})
+    @ConditionalOnBean(JdbcTemplate.class)
+    @ConditionalOnProperty(prefix = "chat.journal.write-behind", name = "enabled", havingValue = "true")
+    public ChatJournalBatchWriter postgresChatJournalBatchWriter(JdbcTemplate jdbcTemplate,
+                                                                 ObjectProvider<ChatJournalContentCodec> contentCodec,
+                                                                 ObjectProvider<TokenUsageCalculator> tokenUsageCalculator,
+                                                                 ChatJournalProperties properties) {
+        return new PostgresChatJournalBatchWriter(
+                jdbcTemplate,
+                properties.getPostgres().getCopyThreshold(),
+                contentCodec.getIfAvailable(),
+                JdbcAutoConfiguration.tokenEncoding(properties, tokenUsageCalculator)
+        );
+    }
+}
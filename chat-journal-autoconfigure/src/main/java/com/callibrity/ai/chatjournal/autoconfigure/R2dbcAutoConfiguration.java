@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.autoconfigure;
+
+import com.callibrity.ai.chatjournal.r2dbc.R2dbcChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.r2dbc.R2dbcChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalEntryRepository;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+@AutoConfiguration(afterName = {
+        "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration"
+})
+@ConditionalOnClass(R2dbcChatJournalEntryRepository.class)
+public class R2dbcAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(ConnectionFactory.class)
+    public ReactiveChatJournalEntryRepository r2dbcChatJournalEntryRepository(
+            ObjectProvider<DatabaseClient> databaseClient,
+            ConnectionFactory connectionFactory) {
+        return new R2dbcChatJournalEntryRepository(
+                databaseClient.getIfAvailable(() -> DatabaseClient.create(connectionFactory)));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(ConnectionFactory.class)
+    public ReactiveChatJournalCheckpointRepository r2dbcChatJournalCheckpointRepository(
+            ObjectProvider<DatabaseClient> databaseClient,
+            ConnectionFactory connectionFactory) {
+        return new R2dbcChatJournalCheckpointRepository(
+                databaseClient.getIfAvailable(() -> DatabaseClient.create(connectionFactory)));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.autoconfigure;
+
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalOptions;
+import com.callibrity.ai.chatjournal.jdbc.JdbcShardRebalancer;
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalShard;
+import com.callibrity.ai.chatjournal.repository.ConsistentHashRing;
+import com.callibrity.ai.chatjournal.repository.ShardedChatJournalRepository;
+import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@Slf4j
+@AutoConfiguration(before = JdbcAutoConfiguration.class)
+@ConditionalOnClass(JdbcChatJournalEntryRepository.class)
+@ConditionalOnProperty(prefix = "chat.journal.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ChatJournalProperties.class)
+public class ShardingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ChatJournalShards chatJournalShards(ChatJournalProperties properties) {
+        return new ChatJournalShards(properties.getSharding().getShards());
+    }
+
+    /**
+     * Creates the sharded repository. Each shard's repositories are created here rather than as
+     * beans, so their {@code @Transactional} methods are proxied against the shard's own data
+     * source. The shards use the same reclaim policy, content codec and token encoding as the
+     * single-database repository; a read replica cannot be mapped to a shard and is rejected.
+     */
+    @Bean
+    @ConditionalOnMissingBean({ChatJournalEntryRepository.class, ChatJournalCheckpointRepository.class})
+    public ShardedChatJournalRepository shardedChatJournalRepository(ChatJournalShards shards,
+                                                                     @ChatJournalReadReplica ObjectProvider<DataSource> replicaDataSource,
+                                                                     ObjectProvider<ChatJournalContentCodec> contentCodec,
+                                                                     ObjectProvider<TokenUsageCalculator> tokenUsageCalculator,
+                                                                     ChatJournalProperties properties) {
+        if (replicaDataSource.getIfAvailable() != null) {
+            throw new IllegalStateException("chat.journal.sharding does not support a @ChatJournalReadReplica data source");
+        }
+        ChatJournalContentCodec codec = contentCodec.getIfAvailable();
+        JdbcChatJournalOptions options = JdbcChatJournalOptions.builder()
+                .fetchSize(properties.getJdbc().getFetchSize())
+                .reclaimPolicy(properties.getReclaim().getPolicy())
+                .contentCodec(codec)
+                .tokenEncoding(JdbcAutoConfiguration.tokenEncoding(properties, tokenUsageCalculator))
+                .build();
+        Map<String, ChatJournalShard> nodes = new LinkedHashMap<>();
+        shards.jdbcTemplates().forEach((name, jdbcTemplate) -> {
+            TransactionInterceptor transactions = transactionInterceptor(jdbcTemplate);
+            nodes.put(name, new ChatJournalShard(
+                    transactional(ChatJournalEntryRepository.class, transactions, new JdbcChatJournalEntryRepository(
+                            jdbcTemplate, options)),
+                    transactional(ChatJournalCheckpointRepository.class, transactions, codec == null
+                            ? new JdbcChatJournalCheckpointRepository(jdbcTemplate)
+                            : new JdbcChatJournalCheckpointRepository(jdbcTemplate, codec))
+            ));
+        });
+        ChatJournalProperties.Sharding sharding = properties.getSharding();
+        ConsistentHashRing<ChatJournalShard> ring = new ConsistentHashRing<>(nodes, sharding.getVirtualNodes());
+        if (sharding.getPreviousShards().isEmpty()) {
+            return new ShardedChatJournalRepository(ring);
+        }
+        Map<String, ChatJournalShard> previousNodes = new LinkedHashMap<>();
+        for (String name : sharding.getPreviousShards()) {
+            ChatJournalShard shard = nodes.get(name);
+            if (shard == null) {
+                throw new IllegalStateException("chat.journal.sharding.previous-shards names unknown shard " + name);
+            }
+            previousNodes.put(name, shard);
+        }
+        return new ShardedChatJournalRepository(ring, new ConsistentHashRing<>(previousNodes, sharding.getVirtualNodes()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JdbcShardRebalancer jdbcShardRebalancer(ChatJournalShards shards,
+                                                   ObjectProvider<ChatJournalContentCodec> contentCodec,
+                                                   ObjectProvider<TokenUsageCalculator> tokenUsageCalculator,
+                                                   ChatJournalProperties properties) {
+        return new JdbcShardRebalancer(shards.jdbcTemplates(), properties.getSharding().getVirtualNodes(),
+                contentCodec.getIfAvailable(), properties.getReclaim().getPolicy(),
+                JdbcAutoConfiguration.tokenEncoding(properties, tokenUsageCalculator));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "chat.journal.sharding", name = "rebalance-on-startup", havingValue = "true")
+    public ApplicationRunner chatJournalShardRebalanceRunner(JdbcShardRebalancer rebalancer) {
+        return args -> Thread.ofVirtual().name("chat-journal-shard-rebalancer").start(() -> {
+            try {
+                rebalancer.rebalance();
+            } catch (RuntimeException e) {
+                log.error("Shard rebalancing failed", e);
+            }
+        });
+    }
+
+    private static TransactionInterceptor transactionInterceptor(JdbcTemplate jdbcTemplate) {
+        DataSource dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource());
+        return new TransactionInterceptor(new DataSourceTransactionManager(dataSource),
+                new AnnotationTransactionAttributeSource());
+    }
+
+    private static <T> T transactional(Class<T> type, TransactionInterceptor transactions, T repository) {
+        ProxyFactory proxyFactory = new ProxyFactory(repository);
+        proxyFactory.setInterfaces(type);
+        proxyFactory.addAdvice(transactions);
+        return type.cast(proxyFactory.getProxy(ShardingAutoConfiguration.class.getClassLoader()));
+    }
+}
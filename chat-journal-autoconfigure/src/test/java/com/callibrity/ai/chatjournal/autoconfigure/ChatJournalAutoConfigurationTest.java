@@ -16,11 +16,20 @@
 package com.callibrity.ai.chatjournal.autoconfigure;
 
 import com.callibrity.ai.chatjournal.memory.ChatJournalChatMemory;
+import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointExecutor;
+import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointExecutor.OverflowPolicy;
 import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointFactory;
+import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointScheduler;
 import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointer;
 import com.callibrity.ai.chatjournal.memory.ChatJournalEntryMapper;
+import com.callibrity.ai.chatjournal.memory.ChatJournalTokenUsageAdvisor;
+import com.callibrity.ai.chatjournal.repository.CachingChatJournalRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalBatchWriter;
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalDeadLetterWriter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.WriteBehindChatJournalEntryRepository;
 import com.callibrity.ai.chatjournal.summary.ChatClientMessageSummarizer;
 import com.callibrity.ai.chatjournal.summary.MessageSummarizer;
 import com.callibrity.ai.chatjournal.token.SimpleTokenUsageCalculator;
@@ -28,14 +37,25 @@ import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.TaskExecutor;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ChatJournalAutoConfigurationTest {
@@ -92,6 +112,11 @@ class ChatJournalAutoConfigurationTest {
                 });
     }
 
+    @Test
+    void shouldCreateTokenUsageAdvisor() {
+        contextRunner.run(context -> assertThat(context).hasSingleBean(ChatJournalTokenUsageAdvisor.class));
+    }
+
     @Test
     void shouldCreateEntryMapper() {
         contextRunner
@@ -109,6 +134,31 @@ class ChatJournalAutoConfigurationTest {
                 });
     }
 
+    @Test
+    void shouldSummarizeInChunksWhenChunkingEnabled() {
+        contextRunner
+                .withUserConfiguration(CustomMessageSummarizerConfig.class)
+                .withPropertyValues(
+                        "chat.journal.summary.chunking-enabled=true",
+                        "chat.journal.summary.max-chunk-tokens=4"
+                )
+                .run(context -> {
+                    MessageSummarizer summarizer = context.getBean(MessageSummarizer.class);
+                    when(summarizer.summarize(anyList())).thenReturn("summary");
+                    List<Message> messages = List.of(
+                            new UserMessage("12345678"),
+                            new UserMessage("12345678"),
+                            new UserMessage("12345678"),
+                            new UserMessage("12345678")
+                    );
+
+                    context.getBean(ChatJournalCheckpointFactory.class).createCheckpoint(messages, 4);
+
+                    // two chunks of two messages, then one reduce call
+                    verify(summarizer, times(3)).summarize(anyList());
+                });
+    }
+
     @Test
     void shouldNotCreateCheckpointFactoryWhenMessageSummarizerMissing() {
         contextRunner.run(context -> {
@@ -151,6 +201,94 @@ class ChatJournalAutoConfigurationTest {
                 });
     }
 
+    @Test
+    void shouldCreateCheckpointSchedulerWhenAllDependenciesExist() {
+        contextRunner
+                .withUserConfiguration(
+                        ChatClientBuilderConfig.class,
+                        RepositoriesConfig.class
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ChatJournalCheckpointScheduler.class);
+                });
+    }
+
+    @Test
+    void shouldCreateDedicatedCheckpointExecutorFromProperties() {
+        contextRunner
+                .withUserConfiguration(
+                        ChatClientBuilderConfig.class,
+                        RepositoriesConfig.class
+                )
+                .withPropertyValues(
+                        "chat.journal.checkpoint.max-concurrency=3",
+                        "chat.journal.checkpoint.queue-capacity=7",
+                        "chat.journal.checkpoint.overflow-policy=drop"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ChatJournalCheckpointExecutor.class);
+                    ChatJournalProperties.Checkpoint checkpoint = context.getBean(ChatJournalProperties.class).getCheckpoint();
+                    assertThat(checkpoint.getMaxConcurrency()).isEqualTo(3);
+                    assertThat(checkpoint.getQueueCapacity()).isEqualTo(7);
+                    assertThat(checkpoint.getOverflowPolicy()).isEqualTo(OverflowPolicy.DROP);
+                });
+    }
+
+    @Test
+    void shouldFailOnInvalidCheckpointProperties() {
+        contextRunner
+                .withUserConfiguration(
+                        ChatClientBuilderConfig.class,
+                        RepositoriesConfig.class
+                )
+                .withPropertyValues("chat.journal.checkpoint.max-concurrency=0")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldFailOnLowWatermarkRatioOutOfRange() {
+        contextRunner
+                .withUserConfiguration(
+                        ChatClientBuilderConfig.class,
+                        RepositoriesConfig.class
+                )
+                .withPropertyValues("chat.journal.low-watermark-ratio=1.0")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldStartWithSmallMaxTokens() {
+        contextRunner
+                .withUserConfiguration(
+                        ChatClientBuilderConfig.class,
+                        RepositoriesConfig.class
+                )
+                .withPropertyValues("chat.journal.max-tokens=1")
+                .run(context -> assertThat(context).hasNotFailed().hasSingleBean(ChatJournalCheckpointer.class));
+    }
+
+    @Test
+    void shouldFailOnNonPositiveMinRetainedEntries() {
+        contextRunner
+                .withUserConfiguration(
+                        ChatClientBuilderConfig.class,
+                        RepositoriesConfig.class
+                )
+                .withPropertyValues("chat.journal.min-retained-entries=0")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldClampLowWatermarkBelowMaxTokens() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        properties.setMaxTokens(1);
+        properties.setLowWatermarkRatio(0.99);
+        assertThat(ChatJournalAutoConfiguration.lowWatermarkTokens(properties)).isZero();
+
+        properties.setMaxTokens(1000);
+        assertThat(ChatJournalAutoConfiguration.lowWatermarkTokens(properties)).isEqualTo(990);
+    }
+
     @Test
     void shouldNotCreateChatMemoryWhenRepositoriesMissing() {
         contextRunner
@@ -169,6 +307,133 @@ class ChatJournalAutoConfigurationTest {
                 });
     }
 
+    @Test
+    void shouldNotCreateCachingRepositoryByDefault() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class)
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(CachingChatJournalRepository.class);
+                });
+    }
+
+    @Test
+    void shouldWrapRepositoriesWithCacheWhenEnabled() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class)
+                .withPropertyValues("chat.journal.cache.enabled=true", "chat.journal.cache.max-characters=500")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(CachingChatJournalRepository.class);
+                    assertThat(context.getBean(ChatJournalEntryRepository.class))
+                            .isInstanceOf(CachingChatJournalRepository.class);
+                    assertThat(context.getBean(ChatJournalCheckpointRepository.class))
+                            .isInstanceOf(CachingChatJournalRepository.class);
+                    assertThat(context).hasSingleBean(ChatMemory.class);
+                });
+    }
+
+    @Test
+    void shouldNotCreateWriteBehindRepositoryByDefault() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class, BatchWriterConfig.class)
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(WriteBehindChatJournalEntryRepository.class);
+                });
+    }
+
+    @Test
+    void shouldWrapEntryRepositoryWithWriteBehindWhenEnabled() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class, BatchWriterConfig.class)
+                .withPropertyValues("chat.journal.write-behind.enabled=true", "chat.journal.write-behind.flush-interval=50ms")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(WriteBehindChatJournalEntryRepository.class);
+                    assertThat(context.getBean(ChatJournalEntryRepository.class))
+                            .isInstanceOf(WriteBehindChatJournalEntryRepository.class);
+                    assertThat(context).hasSingleBean(ChatMemory.class);
+                });
+    }
+
+    @Test
+    void shouldFailOnNonPositiveWriteBehindMaxAttempts() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class, BatchWriterConfig.class)
+                .withPropertyValues("chat.journal.write-behind.enabled=true", "chat.journal.write-behind.max-attempts=0")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldRetryFailedWriteBehindFlushesByDefault() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class, FailingBatchWriterConfig.class)
+                .withPropertyValues("chat.journal.write-behind.enabled=true", "chat.journal.write-behind.flush-interval=1h",
+                        "chat.journal.write-behind.max-attempts=1")
+                .run(context -> {
+                    WriteBehindChatJournalEntryRepository repository = context.getBean(WriteBehindChatJournalEntryRepository.class);
+                    repository.save("conversation", List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+
+                    assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+
+                    assertThat(repository.pendingCount()).isEqualTo(1);
+                    assertThat(repository.divertedCount()).isZero();
+                });
+    }
+
+    @Test
+    void shouldDiscardAfterMaxAttemptsWhenOptedIn() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class, FailingBatchWriterConfig.class)
+                .withPropertyValues("chat.journal.write-behind.enabled=true", "chat.journal.write-behind.flush-interval=1h",
+                        "chat.journal.write-behind.max-attempts=1", "chat.journal.write-behind.discard-after-max-attempts=true")
+                .run(context -> {
+                    WriteBehindChatJournalEntryRepository repository = context.getBean(WriteBehindChatJournalEntryRepository.class);
+                    repository.save("conversation", List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+
+                    assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+
+                    assertThat(repository.pendingCount()).isZero();
+                    assertThat(repository.divertedCount()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void shouldDivertToDeadLetterWriterBean() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class, FailingBatchWriterConfig.class,
+                        DeadLetterWriterConfig.class)
+                .withPropertyValues("chat.journal.write-behind.enabled=true", "chat.journal.write-behind.flush-interval=1h",
+                        "chat.journal.write-behind.max-attempts=1")
+                .run(context -> {
+                    WriteBehindChatJournalEntryRepository repository = context.getBean(WriteBehindChatJournalEntryRepository.class);
+                    List<ChatJournalEntry> entries = List.of(new ChatJournalEntry(0, "USER", "Hello", 10));
+                    repository.save("conversation", entries);
+
+                    assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+
+                    verify(context.getBean(ChatJournalDeadLetterWriter.class))
+                            .write(eq("conversation"), eq(entries), any(IllegalStateException.class));
+                    assertThat(repository.pendingCount()).isZero();
+                });
+    }
+
+    @Test
+    void shouldNotCreateWriteBehindRepositoryWithoutBatchWriter() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class)
+                .withPropertyValues("chat.journal.write-behind.enabled=true")
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(WriteBehindChatJournalEntryRepository.class);
+                });
+    }
+
+    @Test
+    void shouldFailWhenWriteBehindAndCacheAreBothEnabled() {
+        contextRunner
+                .withUserConfiguration(ChatClientBuilderConfig.class, RepositoriesConfig.class, BatchWriterConfig.class)
+                .withPropertyValues("chat.journal.write-behind.enabled=true", "chat.journal.cache.enabled=true")
+                .run(context -> assertThat(context).hasFailed()
+                        .getFailure().rootCause().hasMessageContaining("cannot be combined with chat.journal.cache"));
+    }
+
     @Test
     void shouldApplyPropertiesConfiguration() {
         contextRunner
@@ -216,10 +481,31 @@ class ChatJournalAutoConfigurationTest {
         public ChatJournalCheckpointRepository chatJournalCheckpointRepository() {
             return mock(ChatJournalCheckpointRepository.class);
         }
+    }
+
+    @Configuration
+    static class BatchWriterConfig {
+        @Bean
+        public ChatJournalBatchWriter chatJournalBatchWriter() {
+            return mock(ChatJournalBatchWriter.class);
+        }
+    }
 
+    @Configuration
+    static class FailingBatchWriterConfig {
+        @Bean
+        public ChatJournalBatchWriter chatJournalBatchWriter() {
+            ChatJournalBatchWriter batchWriter = mock(ChatJournalBatchWriter.class);
+            doThrow(new IllegalStateException("boom")).when(batchWriter).saveAll(anyMap());
+            return batchWriter;
+        }
+    }
+
+    @Configuration
+    static class DeadLetterWriterConfig {
         @Bean
-        public TaskExecutor taskExecutor() {
-            return mock(TaskExecutor.class);
+        public ChatJournalDeadLetterWriter chatJournalDeadLetterWriter() {
+            return mock(ChatJournalDeadLetterWriter.class);
         }
     }
 }
@@ -15,9 +15,13 @@
  */
 package com.callibrity.ai.chatjournal.autoconfigure;
 
+import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointExecutor.OverflowPolicy;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimPolicy;
 import com.knuddels.jtokkit.api.EncodingType;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class ChatJournalPropertiesTest {
@@ -36,16 +40,22 @@ class ChatJournalPropertiesTest {
     }
 
     @Test
-    void shouldHaveDefaultMinRetainedEntries() {
+    void shouldHaveDefaultLowWatermarkRatio() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getLowWatermarkRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldDefaultMinRetainedEntriesToSix() {
         ChatJournalProperties properties = new ChatJournalProperties();
         assertThat(properties.getMinRetainedEntries()).isEqualTo(6);
     }
 
     @Test
-    void shouldSetMinRetainedEntries() {
+    void shouldSetLowWatermarkRatio() {
         ChatJournalProperties properties = new ChatJournalProperties();
-        properties.setMinRetainedEntries(10);
-        assertThat(properties.getMinRetainedEntries()).isEqualTo(10);
+        properties.setLowWatermarkRatio(0.25);
+        assertThat(properties.getLowWatermarkRatio()).isEqualTo(0.25);
     }
 
     @Test
@@ -73,4 +83,102 @@ class ChatJournalPropertiesTest {
         properties.setEncodingType(EncodingType.CL100K_BASE);
         assertThat(properties.getEncodingType()).isEqualTo(EncodingType.CL100K_BASE);
     }
+
+    @Test
+    void shouldHaveCacheDisabledByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getCache().isEnabled()).isFalse();
+        assertThat(properties.getCache().getMaxCharacters()).isEqualTo(10_000_000);
+    }
+
+    @Test
+    void shouldHaveDefaultJdbcSettings() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getJdbc().getFetchSize()).isEqualTo(500);
+        assertThat(properties.getJdbc().getReplicaMaxStaleness()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldNotCacheTokenCountsByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getTokenCache().isEnabled()).isFalse();
+        assertThat(properties.getTokenCache().getMaxEntries()).isEqualTo(10_000);
+    }
+
+    @Test
+    void shouldTokenizeExactlyByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getTokenizer().getMode()).isEqualTo(ChatJournalProperties.Tokenizer.Mode.EXACT);
+        assertThat(properties.getTokenizer().getExactThreshold()).isEqualTo(32_768);
+        assertThat(properties.getTokenizer().getMaxRelativeError()).isEqualTo(0.02);
+        assertThat(properties.getTokenizer().isWarmUp()).isTrue();
+    }
+
+    @Test
+    void shouldNotCompressContentByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getCompression().isEnabled()).isFalse();
+        assertThat(properties.getCompression().getThreshold()).isEqualTo(512);
+        assertThat(properties.getCompression().getLevel()).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldUsePostgresRepositoryWhenAvailableByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getPostgres().isEnabled()).isTrue();
+        assertThat(properties.getPostgres().getCopyThreshold()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldKeepCompactedEntriesByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getReclaim().getPolicy()).isEqualTo(ChatJournalReclaimPolicy.KEEP);
+        assertThat(properties.getReclaim().getSweepInterval()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(properties.getReclaim().getBatchSize()).isEqualTo(1000);
+        assertThat(properties.getReclaim().getBatchPause()).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void shouldNotRecordTokenEncodingByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getTokenEncoding().isEnabled()).isFalse();
+        assertThat(properties.getTokenEncoding().isRecountOnStartup()).isFalse();
+        assertThat(properties.getTokenEncoding().getBatchSize()).isEqualTo(500);
+        assertThat(properties.getTokenEncoding().getBatchPause()).isEqualTo(Duration.ofMillis(100));
+        assertThat(properties.getTokenEncoding().getParallelism()).isZero();
+    }
+
+    @Test
+    void shouldHaveShardingDisabledByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getSharding().isEnabled()).isFalse();
+        assertThat(properties.getSharding().getShards()).isEmpty();
+        assertThat(properties.getSharding().getVirtualNodes()).isEqualTo(160);
+        assertThat(properties.getSharding().isRebalanceOnStartup()).isFalse();
+    }
+
+    @Test
+    void shouldHaveWriteBehindDisabledByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getWriteBehind().isEnabled()).isFalse();
+        assertThat(properties.getWriteBehind().getFlushInterval()).isEqualTo(Duration.ofMillis(100));
+        assertThat(properties.getWriteBehind().getMaxBatchSize()).isEqualTo(500);
+        assertThat(properties.getWriteBehind().isDiscardAfterMaxAttempts()).isFalse();
+    }
+
+    @Test
+    void shouldHaveDefaultCheckpointExecution() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getCheckpoint().getMaxConcurrency()).isEqualTo(2);
+        assertThat(properties.getCheckpoint().getQueueCapacity()).isEqualTo(100);
+        assertThat(properties.getCheckpoint().getOverflowPolicy()).isEqualTo(OverflowPolicy.DEFER);
+    }
+
+    @Test
+    void shouldHaveSummaryChunkingDisabledByDefault() {
+        ChatJournalProperties properties = new ChatJournalProperties();
+        assertThat(properties.getSummary().isChunkingEnabled()).isFalse();
+        assertThat(properties.getSummary().getMaxChunkTokens()).isEqualTo(8192);
+        assertThat(properties.getSummary().getMaxConcurrency()).isEqualTo(4);
+    }
 }
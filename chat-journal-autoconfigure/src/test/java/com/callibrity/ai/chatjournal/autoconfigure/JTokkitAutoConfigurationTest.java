@@ -15,16 +15,24 @@
  */
 package com.callibrity.ai.chatjournal.autoconfigure;
 
+import com.callibrity.ai.chatjournal.jtokkit.HybridJTokkitTokenUsageCalculator;
 import com.callibrity.ai.chatjournal.jtokkit.JTokkitTokenUsageCalculator;
+import com.callibrity.ai.chatjournal.memory.ChatJournalEntryMapper;
+import com.callibrity.ai.chatjournal.token.CachingTokenUsageCalculator;
 import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
 import com.knuddels.jtokkit.api.EncodingType;
 import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.Mockito.mock;
 
 class JTokkitAutoConfigurationTest {
@@ -84,6 +92,94 @@ class JTokkitAutoConfigurationTest {
         });
     }
 
+    @Test
+    void shouldNotCacheTokenCountsByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(CachingTokenUsageCalculator.class));
+    }
+
+    @Test
+    void shouldCacheTokenCountsWhenTokenCacheEnabled() {
+        contextRunner
+                .withPropertyValues("chat.journal.token-cache.enabled=true")
+                .run(context -> {
+                    CachingTokenUsageCalculator calculator = context.getBean(CachingTokenUsageCalculator.class);
+                    assertThat(context.getBean(TokenUsageCalculator.class)).isSameAs(calculator);
+
+                    ChatJournalEntryMapper mapper = context.getBean(ChatJournalEntryMapper.class);
+                    mapper.toEntries(List.of(new UserMessage("Hello, world")));
+                    mapper.toEntries(List.of(new UserMessage("Hello, world")));
+
+                    assertThat(calculator.missCount()).isEqualTo(1);
+                    assertThat(calculator.hitCount()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void shouldRejectNonPositiveTokenCacheSize() {
+        contextRunner
+                .withPropertyValues("chat.journal.token-cache.enabled=true", "chat.journal.token-cache.max-entries=0")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldCreateHybridTokenUsageCalculatorWhenModeIsHybrid() {
+        contextRunner
+                .withPropertyValues("chat.journal.tokenizer.mode=hybrid")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(TokenUsageCalculator.class);
+                    assertThat(context.getBean(TokenUsageCalculator.class))
+                            .isInstanceOf(HybridJTokkitTokenUsageCalculator.class);
+                });
+    }
+
+    @Test
+    void shouldCacheHybridTokenCountsWhenTokenCacheEnabled() {
+        contextRunner
+                .withPropertyValues("chat.journal.tokenizer.mode=hybrid", "chat.journal.token-cache.enabled=true")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(HybridJTokkitTokenUsageCalculator.class);
+                    assertThat(context.getBean(TokenUsageCalculator.class))
+                            .isInstanceOf(CachingTokenUsageCalculator.class);
+                });
+    }
+
+    @Test
+    void shouldRejectTooSmallExactThreshold() {
+        contextRunner
+                .withPropertyValues("chat.journal.tokenizer.mode=hybrid", "chat.journal.tokenizer.exact-threshold=1000")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldRejectNonPositiveMaxRelativeError() {
+        contextRunner
+                .withPropertyValues("chat.journal.tokenizer.mode=hybrid", "chat.journal.tokenizer.max-relative-error=0")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldWarmUpEncodingByDefault() {
+        contextRunner.run(context -> assertThat(context).hasBean("jtokkitEncodingWarmUpRunner"));
+    }
+
+    @Test
+    void shouldNotWarmUpEncodingWhenDisabled() {
+        contextRunner
+                .withPropertyValues("chat.journal.tokenizer.warm-up=false")
+                .run(context -> assertThat(context).doesNotHaveBean("jtokkitEncodingWarmUpRunner"));
+    }
+
+    @Test
+    void shouldLoadEncodingWhenWarmUpRuns() {
+        contextRunner
+                .withPropertyValues("chat.journal.encoding-type=CL100K_BASE")
+                .run(context -> {
+                    ApplicationRunner runner = context.getBean("jtokkitEncodingWarmUpRunner", ApplicationRunner.class);
+
+                    assertThatCode(() -> runner.run(null)).doesNotThrowAnyException();
+                });
+    }
+
     @Configuration
     static class CustomTokenUsageCalculatorConfig {
         @Bean
@@ -15,18 +15,33 @@
  */
 package com.callibrity.ai.chatjournal.autoconfigure;
 
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalBatchWriter;
 import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalCheckpointRepository;
 import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalReclaimer;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalTokenRecounter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalBatchWriter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimScheduler;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimer;
+import com.callibrity.ai.chatjournal.repository.DeflateChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.WriteBehindChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 
 import javax.sql.DataSource;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -92,14 +107,183 @@ class JdbcAutoConfigurationTest {
     }
 
     @Test
-    void shouldApplyMinRetainedEntriesProperty() {
+    void shouldServeHistoryReadsFromReadReplica() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class, ReadReplicaConfig.class)
+                .run(context -> {
+                    // The primary JdbcTemplate wraps a bare mock, so only the replica can answer.
+                    ChatJournalEntryRepository repository = context.getBean(ChatJournalEntryRepository.class);
+                    assertThat(repository.countVisibleEntries("conversation")).isZero();
+                });
+    }
+
+    @Test
+    void shouldRejectNonPositiveFetchSize() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withPropertyValues("chat.journal.jdbc.fetch-size=0")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldNotCreateBatchWriterByDefault() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(ChatJournalBatchWriter.class);
+                });
+    }
+
+    @Test
+    void shouldCreateBatchWriterWhenWriteBehindEnabled() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withPropertyValues("chat.journal.write-behind.enabled=true")
+                .run(context -> {
+                    assertThat(context.getBean(ChatJournalBatchWriter.class))
+                            .isInstanceOf(JdbcChatJournalBatchWriter.class);
+                    assertThat(context.getBean(ChatJournalEntryRepository.class))
+                            .isInstanceOf(WriteBehindChatJournalEntryRepository.class);
+                });
+    }
+
+    @Test
+    void shouldNotReclaimByDefault() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(ChatJournalReclaimer.class);
+                    assertThat(context).doesNotHaveBean(ChatJournalReclaimScheduler.class);
+                });
+    }
+
+    @Test
+    void shouldScheduleReclaimSweepsWhenPolicyIsSet() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withPropertyValues("chat.journal.reclaim.policy=archive")
+                .run(context -> {
+                    assertThat(context.getBean(ChatJournalReclaimer.class)).isInstanceOf(JdbcChatJournalReclaimer.class);
+                    assertThat(context).hasSingleBean(ChatJournalReclaimScheduler.class);
+                });
+    }
+
+    @Test
+    void shouldReadArchivedHistoryWithArchivePolicy() {
+        contextRunner
+                .withUserConfiguration(ArchiveDataSourceConfig.class)
+                .withPropertyValues("chat.journal.reclaim.policy=ARCHIVE")
+                .run(context -> {
+                    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                    jdbcTemplate.update("INSERT INTO chat_journal_archive (conversation_id, message_index, message_type, content, tokens) "
+                            + "VALUES ('conversation', 1, 'USER', 'Archived', 10)");
+                    ChatJournalEntryRepository repository = context.getBean(ChatJournalEntryRepository.class);
+                    assertThat(repository.findAll("conversation")).extracting(ChatJournalEntry::content).containsExactly("Archived");
+                });
+    }
+
+    @Test
+    void shouldNotCreateContentCodecByDefault() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .run(context -> assertThat(context).doesNotHaveBean(ChatJournalContentCodec.class));
+    }
+
+    @Test
+    void shouldStoreCompressedContentWhenCompressionEnabled() {
+        String content = "A long pasted document. ".repeat(100);
+        contextRunner
+                .withUserConfiguration(CompressedDataSourceConfig.class)
+                .withPropertyValues("chat.journal.compression.enabled=true", "chat.journal.compression.threshold=64")
+                .run(context -> {
+                    assertThat(context.getBean(ChatJournalContentCodec.class)).isInstanceOf(DeflateChatJournalContentCodec.class);
+                    ChatJournalEntryRepository entries = context.getBean(ChatJournalEntryRepository.class);
+                    entries.save("conversation", List.of(new ChatJournalEntry(0, "USER", content, 100)));
+                    long index = entries.findAll("conversation").getFirst().messageIndex();
+                    ChatJournalCheckpointRepository checkpoints = context.getBean(ChatJournalCheckpointRepository.class);
+                    checkpoints.saveCheckpoint("conversation", new ChatJournalCheckpoint(index, content, 10));
+
+                    assertThat(entries.findContext("conversation", checkpoints).findCheckpoint())
+                            .map(ChatJournalCheckpoint::summary)
+                            .contains(content);
+                    byte[] stored = context.getBean(JdbcTemplate.class).queryForObject("SELECT content FROM chat_journal", byte[].class);
+                    assertThat(stored[0]).isEqualTo(DeflateChatJournalContentCodec.FORMAT_DEFLATE);
+                });
+    }
+
+    @Test
+    void shouldRejectOutOfRangeCompressionLevel() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withPropertyValues("chat.journal.compression.enabled=true", "chat.journal.compression.level=10")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldNotRecordTokenEncodingByDefault() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(JdbcChatJournalTokenRecounter.class);
+                    assertThat(context).doesNotHaveBean("chatJournalTokenRecountRunner");
+                });
+    }
+
+    @Test
+    void shouldRecordTokenEncodingWhenEnabled() {
+        contextRunner
+                .withUserConfiguration(ArchiveDataSourceConfig.class)
+                .withPropertyValues("chat.journal.token-encoding.enabled=true")
+                .run(context -> {
+                    context.getBean(ChatJournalEntryRepository.class)
+                            .save("conversation", List.of(new ChatJournalEntry(0, "USER", "Hello", 2)));
+
+                    assertThat(context.getBean(JdbcTemplate.class).queryForObject(
+                            "SELECT token_encoding FROM chat_journal", String.class)).isEqualTo("chars/4");
+                    assertThat(context.getBean(JdbcChatJournalTokenRecounter.class).encodingName()).isEqualTo("chars/4");
+                    assertThat(context).doesNotHaveBean("chatJournalTokenRecountRunner");
+                });
+    }
+
+    @Test
+    void shouldRecountTokensOnStartupWhenEnabled() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withPropertyValues(
+                        "chat.journal.token-encoding.enabled=true",
+                        "chat.journal.token-encoding.recount-on-startup=true")
+                .run(context -> assertThat(context).hasBean("chatJournalTokenRecountRunner"));
+    }
+
+    @Test
+    void shouldFailWhenTokenEncodingEnabledWithUnnamedCalculator() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withBean(TokenUsageCalculator.class, () -> messages -> 1)
+                .withPropertyValues("chat.journal.token-encoding.enabled=true")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldApplyLowWatermarkRatioProperty() {
         contextRunner
                 .withUserConfiguration(DataSourceConfig.class)
-                .withPropertyValues("chat.journal.min-retained-entries=10")
+                .withPropertyValues("chat.journal.low-watermark-ratio=0.25")
                 .run(context -> {
                     assertThat(context).hasSingleBean(ChatJournalEntryRepository.class);
                     ChatJournalProperties properties = context.getBean(ChatJournalProperties.class);
-                    assertThat(properties.getMinRetainedEntries()).isEqualTo(10);
+                    assertThat(properties.getLowWatermarkRatio()).isEqualTo(0.25);
+                });
+    }
+
+    @Test
+    void shouldBindMinRetainedEntriesProperty() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withPropertyValues("chat.journal.min-retained-entries=3")
+                .run(context -> {
+                    ChatJournalProperties properties = context.getBean(ChatJournalProperties.class);
+                    assertThat(properties.getMinRetainedEntries()).isEqualTo(3);
                 });
     }
 
@@ -111,6 +295,30 @@ class JdbcAutoConfigurationTest {
         }
     }
 
+    @Configuration
+    static class ArchiveDataSourceConfig {
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("schema-h2.sql")
+                    .build());
+        }
+    }
+
+    @Configuration
+    static class CompressedDataSourceConfig {
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("schema-h2-compressed.sql")
+                    .build());
+        }
+    }
+
     @Configuration
     static class CustomEntryRepositoryConfig {
         @Bean
@@ -126,4 +334,17 @@ class JdbcAutoConfigurationTest {
             return mock(ChatJournalCheckpointRepository.class);
         }
     }
+
+    @Configuration
+    static class ReadReplicaConfig {
+        @Bean
+        @ChatJournalReadReplica
+        public DataSource replicaDataSource() {
+            return new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("schema-h2.sql")
+                    .build();
+        }
+    }
 }
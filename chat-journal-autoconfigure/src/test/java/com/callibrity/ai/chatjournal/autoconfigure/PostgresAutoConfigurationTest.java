@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.autoconfigure;
+
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.postgres.PostgresChatJournalBatchWriter;
+import com.callibrity.ai.chatjournal.postgres.PostgresChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalBatchWriter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PostgresAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    PostgresAutoConfiguration.class,
+                    JdbcAutoConfiguration.class
+            ));
+
+    @Test
+    void shouldCreatePostgresEntryRepositoryWhenJdbcTemplateExists() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ChatJournalEntryRepository.class);
+                    assertThat(context.getBean(ChatJournalEntryRepository.class))
+                            .isInstanceOf(PostgresChatJournalEntryRepository.class);
+                    assertThat(context.getBean(ChatJournalCheckpointRepository.class))
+                            .isInstanceOf(JdbcChatJournalCheckpointRepository.class);
+                });
+    }
+
+    @Test
+    void shouldFallBackToJdbcEntryRepositoryWhenDisabled() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withPropertyValues("chat.journal.postgres.enabled=false")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ChatJournalEntryRepository.class);
+                    assertThat(context.getBean(ChatJournalEntryRepository.class))
+                            .isExactlyInstanceOf(JdbcChatJournalEntryRepository.class);
+                });
+    }
+
+    @Test
+    void shouldNotCreateRepositoryWhenJdbcTemplateIsMissing() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(ChatJournalEntryRepository.class));
+    }
+
+    @Test
+    void shouldCreatePostgresBatchWriterWhenWriteBehindEnabled() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withPropertyValues("chat.journal.write-behind.enabled=true")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ChatJournalBatchWriter.class);
+                    assertThat(context.getBean(ChatJournalBatchWriter.class))
+                            .isInstanceOf(PostgresChatJournalBatchWriter.class);
+                });
+    }
+
+    @Test
+    void shouldRejectNonPositiveCopyThreshold() {
+        contextRunner
+                .withUserConfiguration(DataSourceConfig.class)
+                .withPropertyValues("chat.journal.postgres.copy-threshold=0")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Configuration
+    static class DataSourceConfig {
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(mock(DataSource.class));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.autoconfigure;
+
+import com.callibrity.ai.chatjournal.memory.ReactiveChatJournalCheckpointer;
+import com.callibrity.ai.chatjournal.memory.ReactiveChatJournalMemory;
+import com.callibrity.ai.chatjournal.r2dbc.R2dbcChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.r2dbc.R2dbcChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.summary.MessageSummarizer;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class R2dbcAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    R2dbcAutoConfiguration.class,
+                    ChatJournalAutoConfiguration.class
+            ));
+
+    @Test
+    void shouldCreateR2dbcRepositoriesWhenConnectionFactoryExists() {
+        contextRunner
+                .withUserConfiguration(ConnectionFactoryConfig.class)
+                .run(context -> {
+                    assertThat(context.getBean(ReactiveChatJournalEntryRepository.class))
+                            .isInstanceOf(R2dbcChatJournalEntryRepository.class);
+                    assertThat(context.getBean(ReactiveChatJournalCheckpointRepository.class))
+                            .isInstanceOf(R2dbcChatJournalCheckpointRepository.class);
+                });
+    }
+
+    @Test
+    void shouldNotCreateRepositoriesWhenConnectionFactoryIsMissing() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(ReactiveChatJournalEntryRepository.class);
+            assertThat(context).doesNotHaveBean(ReactiveChatJournalCheckpointRepository.class);
+            assertThat(context).doesNotHaveBean(ReactiveChatJournalMemory.class);
+        });
+    }
+
+    @Test
+    void shouldCreateReactiveMemoryWhenSummarizerExists() {
+        contextRunner
+                .withUserConfiguration(ConnectionFactoryConfig.class, SummarizerConfig.class)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ReactiveChatJournalCheckpointer.class);
+                    assertThat(context).hasSingleBean(ReactiveChatJournalMemory.class);
+                });
+    }
+
+    @Test
+    void shouldNotCreateReactiveMemoryWithoutSummarizer() {
+        contextRunner
+                .withUserConfiguration(ConnectionFactoryConfig.class)
+                .run(context -> assertThat(context).doesNotHaveBean(ReactiveChatJournalMemory.class));
+    }
+
+    @Test
+    void shouldNotCreateEntryRepositoryWhenCustomBeanExists() {
+        contextRunner
+                .withUserConfiguration(ConnectionFactoryConfig.class, CustomEntryRepositoryConfig.class)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ReactiveChatJournalEntryRepository.class);
+                    assertThat(context.getBean(ReactiveChatJournalEntryRepository.class))
+                            .isNotInstanceOf(R2dbcChatJournalEntryRepository.class);
+                });
+    }
+
+    @Configuration
+    static class ConnectionFactoryConfig {
+        @Bean
+        public ConnectionFactory connectionFactory() {
+            return ConnectionFactories.get("r2dbc:h2:mem:///r2dbc-autoconfiguration-test");
+        }
+    }
+
+    @Configuration
+    static class SummarizerConfig {
+        @Bean
+        public MessageSummarizer messageSummarizer() {
+            return mock(MessageSummarizer.class);
+        }
+    }
+
+    @Configuration
+    static class CustomEntryRepositoryConfig {
+        @Bean
+        public ReactiveChatJournalEntryRepository reactiveChatJournalEntryRepository() {
+            return mock(ReactiveChatJournalEntryRepository.class);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.autoconfigure;
+
+import com.callibrity.ai.chatjournal.jdbc.JdbcShardRebalancer;
+import com.callibrity.ai.chatjournal.repository.ChatJournalBatchWriter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ShardedChatJournalRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ShardingAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    ShardingAutoConfiguration.class,
+                    JdbcAutoConfiguration.class,
+                    ChatJournalAutoConfiguration.class
+            ));
+
+    @Test
+    void shouldNotShardByDefault() {
+        contextRunner
+                .withPropertyValues(shardProperties())
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(ShardedChatJournalRepository.class);
+                    assertThat(context).doesNotHaveBean(JdbcShardRebalancer.class);
+                });
+    }
+
+    @Test
+    void shouldRouteRepositoriesAcrossConfiguredShards() {
+        contextRunner
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ChatJournalShards.class);
+                    assertThat(context.getBean(ChatJournalShards.class).jdbcTemplates()).containsOnlyKeys("a", "b");
+                    assertThat(context.getBean(ChatJournalEntryRepository.class))
+                            .isInstanceOf(ShardedChatJournalRepository.class);
+                    assertThat(context.getBean(ChatJournalCheckpointRepository.class))
+                            .isInstanceOf(ShardedChatJournalRepository.class);
+                    assertThat(context).hasSingleBean(JdbcShardRebalancer.class);
+                    assertThat(context).doesNotHaveBean(ApplicationRunner.class);
+
+                    ShardedChatJournalRepository repository = context.getBean(ShardedChatJournalRepository.class);
+                    repository.save("conversation", List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+                    long index = repository.findAll("conversation").getFirst().messageIndex();
+                    repository.saveCheckpoint("conversation", new ChatJournalCheckpoint(index, "Summary", 3));
+                    assertThat(repository.findContext("conversation", repository).checkpoint().summary()).isEqualTo("Summary");
+                    assertThat(repository.getEffectiveTokens("conversation", repository)).isEqualTo(3);
+                });
+    }
+
+    @Test
+    void shouldTakePrecedenceOverApplicationJdbcTemplate() {
+        contextRunner
+                .withUserConfiguration(JdbcTemplateConfig.class)
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true", "chat.journal.write-behind.enabled=true")
+                .run(context -> {
+                    assertThat(context.getBean(ChatJournalEntryRepository.class))
+                            .isInstanceOf(ShardedChatJournalRepository.class);
+                    assertThat(context).doesNotHaveBean(ChatJournalBatchWriter.class);
+                });
+    }
+
+    @Test
+    void shouldRegisterRebalanceRunnerWhenRequested() {
+        contextRunner
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true", "chat.journal.sharding.rebalance-on-startup=true")
+                .run(context -> assertThat(context).hasSingleBean(ApplicationRunner.class));
+    }
+
+    @Test
+    void shouldRollBackFailedShardWrites() {
+        contextRunner
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true")
+                .run(context -> {
+                    ShardedChatJournalRepository repository = context.getBean(ShardedChatJournalRepository.class);
+                    List<ChatJournalEntry> entries = List.of(
+                            new ChatJournalEntry(0, "USER", "Hello", 10),
+                            new ChatJournalEntry(0, "A_MESSAGE_TYPE_TOO_LONG_FOR_ITS_COLUMN", "Hi", 10));
+
+                    assertThatThrownBy(() -> repository.save("conversation", entries)).isInstanceOf(DataAccessException.class);
+
+                    assertThat(repository.findAll("conversation")).isEmpty();
+                    assertThat(repository.countEntries("conversation")).isZero();
+                });
+    }
+
+    @Test
+    void shouldApplyReclaimPolicyAndTokenEncodingToShards() {
+        contextRunner
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true", "chat.journal.reclaim.policy=archive",
+                        "chat.journal.token-encoding.enabled=true")
+                .run(context -> {
+                    ShardedChatJournalRepository repository = context.getBean(ShardedChatJournalRepository.class);
+                    JdbcTemplate shard = context.getBean(ChatJournalShards.class).jdbcTemplates()
+                            .get(repository.shardNameFor("conversation"));
+                    repository.save("conversation", List.of(new ChatJournalEntry(0, "USER", "Hello", 2)));
+                    shard.update("INSERT INTO chat_journal_archive (conversation_id, message_index, message_type, content, tokens) "
+                            + "VALUES ('conversation', 0, 'USER', 'Archived', 1)");
+
+                    assertThat(shard.queryForObject("SELECT token_encoding FROM chat_journal", String.class))
+                            .isEqualTo("chars/4");
+                    assertThat(repository.findAll("conversation"))
+                            .extracting(ChatJournalEntry::content)
+                            .containsExactly("Archived", "Hello");
+
+                    repository.deleteAll("conversation");
+
+                    assertThat(shard.queryForObject("SELECT COUNT(*) FROM chat_journal_archive", Integer.class)).isZero();
+                });
+    }
+
+    @Test
+    void shouldApplyTokenEncodingToRebalancer() {
+        contextRunner
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true", "chat.journal.token-encoding.enabled=true")
+                .run(context -> {
+                    ShardedChatJournalRepository repository = context.getBean(ShardedChatJournalRepository.class);
+                    Map<String, JdbcTemplate> shards = context.getBean(ChatJournalShards.class).jdbcTemplates();
+                    String owner = repository.shardNameFor("conversation");
+                    JdbcTemplate misplaced = shards.entrySet().stream()
+                            .filter(shard -> !shard.getKey().equals(owner))
+                            .findFirst().orElseThrow().getValue();
+                    misplaced.update("INSERT INTO chat_journal (conversation_id, message_type, content, tokens) "
+                            + "VALUES ('conversation', 'USER', 'Hello', 2)");
+
+                    context.getBean(JdbcShardRebalancer.class).rebalance();
+
+                    assertThat(shards.get(owner).queryForObject("SELECT token_encoding FROM chat_journal", String.class))
+                            .isEqualTo("chars/4");
+                });
+    }
+
+    @Test
+    void shouldFailWithReadReplica() {
+        contextRunner
+                .withUserConfiguration(ReadReplicaConfig.class)
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldServeUnmigratedConversationsFromPreviousShards() {
+        contextRunner
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true", "chat.journal.sharding.previous-shards=a")
+                .run(context -> {
+                    ShardedChatJournalRepository repository = context.getBean(ShardedChatJournalRepository.class);
+                    String conversationId = "conversation";
+                    for (int i = 0; repository.shardNameFor(conversationId).equals("a"); i++) {
+                        conversationId = "conversation-" + i;
+                    }
+                    context.getBean(ChatJournalShards.class).jdbcTemplates().get("a").update(
+                            "INSERT INTO chat_journal (conversation_id, message_type, content, tokens) VALUES (?, 'USER', 'Hello', 2)",
+                            conversationId);
+
+                    assertThat(repository.findAll(conversationId))
+                            .extracting(ChatJournalEntry::content)
+                            .containsExactly("Hello");
+                });
+    }
+
+    @Test
+    void shouldFailOnUnknownPreviousShard() {
+        contextRunner
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true", "chat.journal.sharding.previous-shards=z")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldFailOnDuplicateShardNames() {
+        contextRunner
+                .withPropertyValues(shardProperties())
+                .withPropertyValues("chat.journal.sharding.enabled=true", "chat.journal.sharding.shards[1].name=a")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void shouldFailWithoutShards() {
+        contextRunner
+                .withPropertyValues("chat.journal.sharding.enabled=true")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    private static String[] shardProperties() {
+        return new String[]{
+                "chat.journal.sharding.shards[0].name=a",
+                "chat.journal.sharding.shards[0].url=" + h2Url(),
+                "chat.journal.sharding.shards[1].name=b",
+                "chat.journal.sharding.shards[1].url=" + h2Url()
+        };
+    }
+
+    private static String h2Url() {
+        return "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema-h2.sql'";
+    }
+
+    @Configuration
+    static class ReadReplicaConfig {
+        @Bean
+        @ChatJournalReadReplica
+        public DataSource replicaDataSource() {
+            return mock(DataSource.class);
+        }
+    }
+
+    @Configuration
+    static class JdbcTemplateConfig {
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(mock(DataSource.class));
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.callibrity.ai.chatjournal.memory;
 
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContext;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -37,7 +38,8 @@ import java.util.Objects;
  *
  * <h2>Checkpoint-Based Compaction</h2>
  * <p>When entries are added, the checkpointer is consulted to determine if compaction
- * is needed. If so, compaction runs asynchronously via the provided TaskExecutor.
+ * is needed. If so, compaction is requested from the {@link ChatJournalCheckpointScheduler},
+ * which runs it asynchronously and coalesces concurrent requests for the same conversation.
  * Checkpoints store summaries of older messages, preserving full conversation history
  * while staying within LLM context window constraints.
  *
@@ -56,7 +58,7 @@ import java.util.Objects;
  *     checkpointRepository,
  *     entryMapper,
  *     checkpointer,
- *     taskExecutor,
+ *     new ChatJournalCheckpointScheduler(checkpointer, taskExecutor),
  *     10000  // maxConversationLength
  * );
  *
@@ -77,11 +79,12 @@ public class ChatJournalChatMemory implements ChatMemory, ChatMemoryUsageProvide
     private final ChatJournalCheckpointRepository checkpointRepository;
     private final ChatJournalEntryMapper entryMapper;
     private final ChatJournalCheckpointer checkpointer;
-    private final TaskExecutor taskExecutor;
+    private final ChatJournalCheckpointScheduler checkpointScheduler;
     private final int maxConversationLength;
 
     /**
-     * Creates a new ChatJournalChatMemory with the specified components.
+     * Creates a new ChatJournalChatMemory that runs compaction on the given executor through a
+     * {@link ChatJournalCheckpointScheduler} of its own.
      *
      * @param entryRepository the repository for persisting chat entries
      * @param checkpointRepository the repository for persisting checkpoints
@@ -98,11 +101,35 @@ public class ChatJournalChatMemory implements ChatMemory, ChatMemoryUsageProvide
                                  ChatJournalCheckpointer checkpointer,
                                  TaskExecutor taskExecutor,
                                  int maxConversationLength) {
+        this(entryRepository, checkpointRepository, entryMapper, checkpointer,
+                new ChatJournalCheckpointScheduler(
+                        Objects.requireNonNull(checkpointer, "checkpointer must not be null"), taskExecutor),
+                maxConversationLength);
+    }
+
+    /**
+     * Creates a new ChatJournalChatMemory with the specified components.
+     *
+     * @param entryRepository the repository for persisting chat entries
+     * @param checkpointRepository the repository for persisting checkpoints
+     * @param entryMapper the mapper for converting between messages and entries
+     * @param checkpointer the checkpointer for managing compaction
+     * @param checkpointScheduler the scheduler for running asynchronous compaction tasks
+     * @param maxConversationLength the maximum number of messages allowed per conversation; must be positive
+     * @throws NullPointerException if any object parameter is null
+     * @throws IllegalArgumentException if maxConversationLength is not positive
+     */
+    public ChatJournalChatMemory(ChatJournalEntryRepository entryRepository,
+                                 ChatJournalCheckpointRepository checkpointRepository,
+                                 ChatJournalEntryMapper entryMapper,
+                                 ChatJournalCheckpointer checkpointer,
+                                 ChatJournalCheckpointScheduler checkpointScheduler,
+                                 int maxConversationLength) {
         this.entryRepository = Objects.requireNonNull(entryRepository, "entryRepository must not be null");
         this.checkpointRepository = Objects.requireNonNull(checkpointRepository, "checkpointRepository must not be null");
         this.entryMapper = Objects.requireNonNull(entryMapper, "entryMapper must not be null");
         this.checkpointer = Objects.requireNonNull(checkpointer, "checkpointer must not be null");
-        this.taskExecutor = Objects.requireNonNull(taskExecutor, "taskExecutor must not be null");
+        this.checkpointScheduler = Objects.requireNonNull(checkpointScheduler, "checkpointScheduler must not be null");
         if (maxConversationLength <= 0) {
             throw new IllegalArgumentException("maxConversationLength must be positive");
         }
@@ -124,7 +151,7 @@ public class ChatJournalChatMemory implements ChatMemory, ChatMemoryUsageProvide
         validateConversationId(conversationId);
         Objects.requireNonNull(messages, "messages must not be null");
 
-        int currentLength = entryRepository.findAll(conversationId).size();
+        int currentLength = entryRepository.countEntries(conversationId);
         if (currentLength + messages.size() > maxConversationLength) {
             throw new ConversationLimitExceededException(
                     conversationId, currentLength, maxConversationLength, messages.size());
@@ -134,8 +161,9 @@ public class ChatJournalChatMemory implements ChatMemory, ChatMemoryUsageProvide
         entryRepository.save(conversationId, entries);
 
         if (checkpointer.requiresCheckpoint(conversationId)) {
-            log.info("Scheduling checkpointing for conversation {}", conversationId);
-            taskExecutor.execute(() -> checkpointer.checkpoint(conversationId));
+            if (checkpointScheduler.schedule(conversationId)) {
+                log.info("Scheduled checkpointing for conversation {}", conversationId);
+            }
         }
     }
 
@@ -144,7 +172,8 @@ public class ChatJournalChatMemory implements ChatMemory, ChatMemoryUsageProvide
      *
      * <p>Returns messages suitable for LLM context. If a checkpoint exists, returns
      * the checkpoint summary as a system message followed by entries after the checkpoint.
-     * If no checkpoint exists, returns all entries.
+     * If no checkpoint exists, returns all entries. The checkpoint and entries are loaded
+     * together via {@link ChatJournalEntryRepository#findContext(String, ChatJournalCheckpointRepository)}.
      *
      * @throws NullPointerException if conversationId is null
      * @throws IllegalArgumentException if conversationId is empty
@@ -153,17 +182,15 @@ public class ChatJournalChatMemory implements ChatMemory, ChatMemoryUsageProvide
     public List<Message> get(@NonNull String conversationId) {
         validateConversationId(conversationId);
 
+        ChatJournalContext context = entryRepository.findContext(conversationId, checkpointRepository);
+
         List<Message> messages = new ArrayList<>();
 
-        checkpointRepository.findCheckpoint(conversationId).ifPresent(checkpoint ->
+        context.findCheckpoint().ifPresent(checkpoint ->
                 messages.add(new SystemMessage(ChatJournalCheckpointFactory.getSummaryPrefix() + checkpoint.summary()))
         );
 
-        List<ChatJournalEntry> entries = checkpointRepository.findCheckpoint(conversationId)
-                .map(cp -> entryRepository.findEntriesAfterIndex(conversationId, cp.checkpointIndex()))
-                .orElseGet(() -> entryRepository.findAll(conversationId));
-
-        messages.addAll(entryMapper.toMessages(entries));
+        messages.addAll(entryMapper.toMessages(context.entries()));
 
         return messages;
     }
@@ -0,0 +1,323 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A dedicated, bounded {@link TaskExecutor} for checkpoint tasks.
+ *
+ * <p>Checkpointing calls the summarizer, which can take seconds per conversation. Running it on
+ * a shared application executor lets a burst of summarizations starve interactive work. This
+ * executor isolates checkpoint tasks:
+ * <ul>
+ *   <li>Tasks run on virtual threads, so a slow summarizer call never ties up a platform thread.</li>
+ *   <li>At most {@code maxConcurrency} tasks run at once; the rest wait in a bounded queue.</li>
+ *   <li>When the queue is full, the {@link OverflowPolicy} decides what happens to the task.</li>
+ * </ul>
+ *
+ * <p>When the queue is full and a task is submitted from one of this executor's own workers
+ * (for example, a task that re-submits itself), the task runs inline on that worker whatever
+ * the policy. The worker already holds a concurrency permit, and blocking it while it waits
+ * for the queue could deadlock the executor.
+ *
+ * <p>Closing the executor rejects new tasks and discards queued and deferred ones; tasks already
+ * running are allowed to finish. Discarded tasks that implement {@link DiscardableTask} are
+ * notified, so their submitters can release any state held for them.
+ *
+ * <p>This class is thread-safe.
+ */
+@Slf4j
+public class ChatJournalCheckpointExecutor implements TaskExecutor, AutoCloseable {
+
+    /**
+     * What to do with a task submitted while the queue is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Reject the task with a {@link TaskRejectedException}. The conversation will be
+         * checkpointed on a later request once the backlog has cleared.
+         */
+        DROP,
+
+        /**
+         * Accept the task and hand it to a parked virtual thread that enqueues it as soon as
+         * space is available. At most {@code queueCapacity} tasks are deferred at once; beyond
+         * that, the caller blocks until the queue has room.
+         */
+        DEFER,
+
+        /**
+         * Run the task on the submitting thread once a concurrency permit is free. This applies
+         * backpressure to the caller at the cost of its latency; caller-run tasks count toward
+         * {@code maxConcurrency} like any other.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * A task that wants to know when it is discarded without running.
+     */
+    public interface DiscardableTask extends Runnable {
+
+        /**
+         * Called instead of {@link #run()} when the executor is closed before the task starts.
+         */
+        void discard();
+    }
+
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Semaphore permits;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadFactory threadFactory;
+    private final AtomicInteger deferred = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ThreadLocal<Boolean> worker = ThreadLocal.withInitial(() -> false);
+    private volatile boolean closed;
+
+    /**
+     * Creates a new ChatJournalCheckpointExecutor.
+     *
+     * @param maxConcurrency the maximum number of tasks to run concurrently; must be positive
+     * @param queueCapacity the maximum number of tasks waiting to run; must be positive
+     * @param overflowPolicy what to do with tasks submitted while the queue is full
+     * @throws NullPointerException if overflowPolicy is null
+     * @throws IllegalArgumentException if maxConcurrency or queueCapacity is not positive
+     */
+    public ChatJournalCheckpointExecutor(int maxConcurrency, int queueCapacity, OverflowPolicy overflowPolicy) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy must not be null");
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.permits = new Semaphore(maxConcurrency);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.threadFactory = Thread.ofVirtual().name("chat-journal-checkpoint-", 0).factory();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws TaskRejectedException if the executor is closed, if the queue is full and the
+     *                               overflow policy is {@link OverflowPolicy#DROP}, or if the
+     *                               caller is interrupted while waiting for room to run the task
+     */
+    @Override
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task, "task must not be null");
+        if (closed) {
+            throw new TaskRejectedException("Checkpoint executor has been closed");
+        }
+        if (queue.offer(task)) {
+            enqueued();
+            return;
+        }
+        if (worker.get()) {
+            runSafely(task);
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP -> {
+                dropped.incrementAndGet();
+                throw new TaskRejectedException("Checkpoint queue is full (capacity " + queueCapacity + ")");
+            }
+            case DEFER -> defer(task);
+            case CALLER_RUNS -> runOnCaller(task);
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting in the queue.
+     *
+     * @return the queued task count
+     */
+    public int queuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of tasks currently running.
+     *
+     * @return the active task count
+     */
+    public int activeCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Returns the number of overflow tasks waiting for queue space under {@link OverflowPolicy#DEFER}.
+     *
+     * @return the deferred task count
+     */
+    public int deferredCount() {
+        return deferred.get();
+    }
+
+    /**
+     * Returns the total number of tasks rejected under {@link OverflowPolicy#DROP}.
+     *
+     * @return the dropped task count
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops accepting tasks and discards any that have not started.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        int discarded = discardQueued();
+        if (discarded > 0) {
+            log.info("Discarded {} queued checkpoint task(s) on close", discarded);
+        }
+    }
+
+    private void defer(Runnable task) {
+        if (deferred.incrementAndGet() > queueCapacity) {
+            deferred.decrementAndGet();
+            awaitQueueSpace(task);
+            return;
+        }
+        threadFactory.newThread(() -> {
+            try {
+                queue.put(task);
+                enqueued();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                discard(task);
+            } finally {
+                deferred.decrementAndGet();
+            }
+        }).start();
+    }
+
+    private void runOnCaller(Runnable task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("Interrupted while waiting for a checkpoint permit", e);
+        }
+        try {
+            if (closed) {
+                throw new TaskRejectedException("Checkpoint executor has been closed");
+            }
+            task.run();
+        } finally {
+            permits.release();
+            dispatch();
+        }
+    }
+
+    private void awaitQueueSpace(Runnable task) {
+        try {
+            queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TaskRejectedException("Interrupted while waiting for checkpoint queue space", e);
+        }
+        enqueued();
+    }
+
+    /**
+     * Dispatches a newly queued task, or discards it if the executor was closed while it was
+     * being queued.
+     */
+    private void enqueued() {
+        if (closed) {
+            discardQueued();
+        } else {
+            dispatch();
+        }
+    }
+
+    private int discardQueued() {
+        List<Runnable> discarded = new ArrayList<>();
+        queue.drainTo(discarded);
+        discarded.forEach(ChatJournalCheckpointExecutor::discard);
+        return discarded.size();
+    }
+
+    private static void discard(Runnable task) {
+        if (task instanceof DiscardableTask discardable) {
+            try {
+                discardable.discard();
+            } catch (RuntimeException e) {
+                log.error("Discarding checkpoint task failed", e);
+            }
+        }
+    }
+
+    /**
+     * Starts workers for queued tasks while permits are available. A worker keeps its permit
+     * and drains the queue until it is empty, so permits track running workers exactly.
+     */
+    private void dispatch() {
+        while (!closed && !queue.isEmpty() && permits.tryAcquire()) {
+            Runnable first = queue.poll();
+            if (first == null) {
+                permits.release();
+                continue;
+            }
+            threadFactory.newThread(() -> work(first)).start();
+        }
+    }
+
+    private void work(Runnable first) {
+        Runnable task = first;
+        worker.set(true);
+        try {
+            while (task != null) {
+                runSafely(task);
+                task = closed ? null : queue.poll();
+            }
+        } finally {
+            worker.remove();
+            permits.release();
+        }
+        // A task may have been queued after the last poll but before the permit was released.
+        dispatch();
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Checkpoint task failed", e);
+        }
+    }
+}
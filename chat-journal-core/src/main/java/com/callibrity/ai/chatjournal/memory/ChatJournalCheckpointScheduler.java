@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedules asynchronous checkpointing with at most one task per conversation.
+ *
+ * <p>Checkpointing involves an LLM summarization call, so launching it once per message
+ * during a burst wastes work: every task after the first summarizes the same entries.
+ * This scheduler coalesces requests per conversation:
+ * <ul>
+ *   <li>A request for a conversation with a task already queued is absorbed by that task.</li>
+ *   <li>A request for a conversation whose task is already running marks it dirty, and the
+ *       task runs exactly once more after it finishes, however many requests arrived.</li>
+ * </ul>
+ *
+ * <p>Each run re-checks {@link ChatJournalCheckpointer#requiresCheckpoint(String)} before
+ * checkpointing, so a queued or repeated run that is no longer needed is a cheap no-op.
+ *
+ * <p>If the executor rejects a task with a {@link TaskRejectedException} (for example, because
+ * its queue is full), the request is dropped and logged; the conversation will be scheduled
+ * again by a later request. Likewise, a task discarded by a closing
+ * {@link ChatJournalCheckpointExecutor} releases its conversation.
+ *
+ * <p>Coalescing is per scheduler instance; it does not coordinate across processes.
+ *
+ * <p>This class is thread-safe.
+ */
+@Slf4j
+public class ChatJournalCheckpointScheduler {
+
+    private enum State {
+        QUEUED,
+        RUNNING,
+        RUNNING_DIRTY
+    }
+
+    private final ChatJournalCheckpointer checkpointer;
+    private final TaskExecutor taskExecutor;
+    private final ConcurrentMap<String, State> states = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Creates a new ChatJournalCheckpointScheduler.
+     *
+     * @param checkpointer the checkpointer that performs compaction
+     * @param taskExecutor the executor for running asynchronous checkpoint tasks
+     * @throws NullPointerException if any parameter is null
+     */
+    public ChatJournalCheckpointScheduler(ChatJournalCheckpointer checkpointer, TaskExecutor taskExecutor) {
+        this.checkpointer = Objects.requireNonNull(checkpointer, "checkpointer must not be null");
+        this.taskExecutor = Objects.requireNonNull(taskExecutor, "taskExecutor must not be null");
+    }
+
+    /**
+     * Requests checkpointing for a conversation.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return true if a new task was submitted, false if the request was coalesced into an
+     *         existing queued or running task or was rejected by the executor
+     * @throws NullPointerException if conversationId is null
+     * @throws IllegalArgumentException if conversationId is empty
+     */
+    public boolean schedule(String conversationId) {
+        validateConversationId(conversationId);
+        while (true) {
+            if (states.putIfAbsent(conversationId, State.QUEUED) == null) {
+                return submit(conversationId);
+            }
+            State state = states.computeIfPresent(conversationId,
+                    (id, current) -> current == State.RUNNING ? State.RUNNING_DIRTY : current);
+            if (state != null) {
+                log.debug("Coalesced checkpoint request for conversation {} ({})", conversationId, state);
+                return false;
+            }
+            // The previous task finished between the two calls; try again to become the submitter.
+        }
+    }
+
+    /**
+     * Returns the number of conversations with a checkpoint task waiting to run.
+     *
+     * @return the queued task count
+     */
+    public int queuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Returns the number of checkpoint tasks currently running.
+     *
+     * @return the in-flight task count
+     */
+    public int inFlightCount() {
+        return inFlight.get();
+    }
+
+    private boolean submit(String conversationId) {
+        queued.incrementAndGet();
+        try {
+            taskExecutor.execute(new CheckpointTask(conversationId));
+            return true;
+        } catch (TaskRejectedException e) {
+            release(conversationId);
+            log.warn("Checkpoint request for conversation {} was rejected: {}", conversationId, e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            release(conversationId);
+            throw e;
+        }
+    }
+
+    private void release(String conversationId) {
+        queued.decrementAndGet();
+        states.remove(conversationId);
+    }
+
+    private void run(String conversationId) {
+        queued.decrementAndGet();
+        inFlight.incrementAndGet();
+        states.replace(conversationId, State.RUNNING);
+        try {
+            if (checkpointer.requiresCheckpoint(conversationId)) {
+                checkpointer.checkpoint(conversationId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Checkpointing failed for conversation {}", conversationId, e);
+        } finally {
+            inFlight.decrementAndGet();
+            State next = states.compute(conversationId,
+                    (id, current) -> current == State.RUNNING_DIRTY ? State.QUEUED : null);
+            if (next == State.QUEUED) {
+                resubmit(conversationId);
+            }
+        }
+    }
+
+    private void resubmit(String conversationId) {
+        try {
+            submit(conversationId);
+        } catch (RuntimeException e) {
+            log.warn("Unable to re-run checkpointing for conversation {}", conversationId, e);
+        }
+    }
+
+    private final class CheckpointTask implements ChatJournalCheckpointExecutor.DiscardableTask {
+
+        private final String conversationId;
+
+        private CheckpointTask(String conversationId) {
+            this.conversationId = conversationId;
+        }
+
+        @Override
+        public void run() {
+            ChatJournalCheckpointScheduler.this.run(conversationId);
+        }
+
+        @Override
+        public void discard() {
+            release(conversationId);
+            log.debug("Checkpoint task for conversation {} was discarded", conversationId);
+        }
+    }
+
+    private static void validateConversationId(String conversationId) {
+        Objects.requireNonNull(conversationId, "conversationId must not be null");
+        if (conversationId.isEmpty()) {
+            throw new IllegalArgumentException("conversationId must not be empty");
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryTokens;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.SystemMessage;
@@ -36,6 +37,17 @@ import java.util.Optional;
  * token usage and performs the actual checkpoint creation and storage. It separates
  * the "when" (token threshold) from the "how" (summarization via factory).
  *
+ * <h2>Watermarks</h2>
+ * <p>Checkpointing is triggered when the effective token count exceeds {@code maxTokens} (the
+ * high watermark). Compaction then summarizes enough of the oldest entries that the retained
+ * tail plus the summary fits under {@code lowWatermarkTokens}, so each summarizer call buys a
+ * predictable amount of headroom before the next one is needed. The size of the new summary is
+ * not known in advance, so the existing checkpoint's token count is used as its estimate.
+ * The most recent {@code minRetainedEntries} entries (at least one) are always retained, even if
+ * they alone exceed the low watermark.
+ * The split is planned from token metadata alone; message content is loaded only for the
+ * entries being summarized.
+ *
  * <p>Checkpointing preserves full conversation history in the entry repository while
  * creating summaries in the checkpoint repository, enabling long-running conversations
  * to stay within LLM context window constraints.
@@ -45,15 +57,18 @@ import java.util.Optional;
 @Slf4j
 public class ChatJournalCheckpointer {
 
+    static final long NO_CHECKPOINT_INDEX = -1L;
+
     private final ChatJournalEntryRepository entryRepository;
     private final ChatJournalCheckpointRepository checkpointRepository;
     private final ChatJournalCheckpointFactory checkpointFactory;
     private final ChatJournalEntryMapper entryMapper;
     private final int maxTokens;
+    private final int lowWatermarkTokens;
     private final int minRetainedEntries;
 
     /**
-     * Creates a new ChatJournalCheckpointer.
+     * Creates a new ChatJournalCheckpointer that always retains a fixed number of recent entries.
      *
      * @param entryRepository the repository for chat entries
      * @param checkpointRepository the repository for checkpoints
@@ -63,24 +78,51 @@ public class ChatJournalCheckpointer {
      * @param minRetainedEntries the minimum number of recent entries to retain; must be positive
      * @throws NullPointerException if any object parameter is null
      * @throws IllegalArgumentException if maxTokens or minRetainedEntries is not positive
+     * @deprecated use {@link #ChatJournalCheckpointer(ChatJournalEntryRepository, ChatJournalCheckpointRepository,
+     * ChatJournalCheckpointFactory, ChatJournalEntryMapper, int, int, int)}, which also retains as many
+     * recent entries as fit under a low watermark
+     */
+    @Deprecated(since = "0.0.1")
+    public ChatJournalCheckpointer(ChatJournalEntryRepository entryRepository,
+                                   ChatJournalCheckpointRepository checkpointRepository,
+                                   ChatJournalCheckpointFactory checkpointFactory,
+                                   ChatJournalEntryMapper entryMapper,
+                                   int maxTokens,
+                                   int minRetainedEntries) {
+        this(entryRepository, checkpointRepository, checkpointFactory, entryMapper, maxTokens, 0, minRetainedEntries);
+    }
+
+    /**
+     * Creates a new ChatJournalCheckpointer.
+     *
+     * @param entryRepository the repository for chat entries
+     * @param checkpointRepository the repository for checkpoints
+     * @param checkpointFactory the factory for creating checkpoints
+     * @param entryMapper the mapper for converting entries to messages
+     * @param maxTokens the token threshold that triggers checkpointing (high watermark); must be positive
+     * @param lowWatermarkTokens the token count that compaction aims to get under; must not be negative
+     *                           and must be less than maxTokens (0 retains only minRetainedEntries)
+     * @param minRetainedEntries the minimum number of recent entries to retain whatever their tokens;
+     *                           must be positive
+     * @throws NullPointerException if any object parameter is null
+     * @throws IllegalArgumentException if maxTokens or minRetainedEntries is not positive, if
+     *                                  lowWatermarkTokens is negative, or if lowWatermarkTokens is
+     *                                  not less than maxTokens
      */
     public ChatJournalCheckpointer(ChatJournalEntryRepository entryRepository,
                                    ChatJournalCheckpointRepository checkpointRepository,
                                    ChatJournalCheckpointFactory checkpointFactory,
                                    ChatJournalEntryMapper entryMapper,
                                    int maxTokens,
+                                   int lowWatermarkTokens,
                                    int minRetainedEntries) {
         this.entryRepository = Objects.requireNonNull(entryRepository, "entryRepository must not be null");
         this.checkpointRepository = Objects.requireNonNull(checkpointRepository, "checkpointRepository must not be null");
         this.checkpointFactory = Objects.requireNonNull(checkpointFactory, "checkpointFactory must not be null");
         this.entryMapper = Objects.requireNonNull(entryMapper, "entryMapper must not be null");
-        if (maxTokens <= 0) {
-            throw new IllegalArgumentException("maxTokens must be positive");
-        }
+        validateWatermarks(maxTokens, lowWatermarkTokens, minRetainedEntries);
         this.maxTokens = maxTokens;
-        if (minRetainedEntries <= 0) {
-            throw new IllegalArgumentException("minRetainedEntries must be positive");
-        }
+        this.lowWatermarkTokens = lowWatermarkTokens;
         this.minRetainedEntries = minRetainedEntries;
     }
 
@@ -107,14 +149,18 @@ public class ChatJournalCheckpointer {
      *
      * <p>This method:
      * <ol>
-     *   <li>Retrieves entries after the current checkpoint (or all entries if none)</li>
-     *   <li>Identifies entries to compact (all but the most recent minRetainedEntries)</li>
+     *   <li>Retrieves token metadata (no content) for entries after the current checkpoint</li>
+     *   <li>Identifies entries to compact: all but the longest recent tail whose tokens, plus the
+     *       existing summary's tokens, fit under the low watermark, and never any of the last
+     *       {@code minRetainedEntries} entries</li>
+     *   <li>Loads the content of only the entries to compact</li>
      *   <li>Creates a summary including any existing checkpoint summary</li>
      *   <li>Saves the new checkpoint</li>
      * </ol>
      *
-     * <p>If there are not enough entries to compact, this method returns without
-     * creating a checkpoint.
+     * <p>If the whole tail already fits under the low watermark (or no more than
+     * {@code minRetainedEntries} entries remain),
+     * there is nothing to compact and this method returns without creating a checkpoint.
      *
      * @param conversationId the unique identifier for the conversation
      * @throws NullPointerException if conversationId is null
@@ -125,18 +171,19 @@ public class ChatJournalCheckpointer {
 
         Optional<ChatJournalCheckpoint> existingCheckpoint = checkpointRepository.findCheckpoint(conversationId);
 
-        List<ChatJournalEntry> entriesAfterCheckpoint = existingCheckpoint
-                .map(cp -> entryRepository.findEntriesAfterIndex(conversationId, cp.checkpointIndex()))
-                .orElseGet(() -> entryRepository.findAll(conversationId));
+        long afterIndex = existingCheckpoint.map(ChatJournalCheckpoint::checkpointIndex).orElse(NO_CHECKPOINT_INDEX);
+        List<ChatJournalEntryTokens> entryTokens = entryRepository.findEntryTokensAfterIndex(conversationId, afterIndex);
 
-        if (entriesAfterCheckpoint.size() <= minRetainedEntries) {
-            log.info("Not enough messages to compact for conversation {}: {} entries, need more than {}",
-                    conversationId, entriesAfterCheckpoint.size(), minRetainedEntries);
+        int summaryTokens = existingCheckpoint.map(ChatJournalCheckpoint::tokens).orElse(0);
+        int retainFrom = retainedTailStart(entryTokens, lowWatermarkTokens - summaryTokens, minRetainedEntries);
+        if (retainFrom == 0) {
+            log.info("Nothing to compact for conversation {}: {} entries fit under the low watermark of {} tokens",
+                    conversationId, entryTokens.size(), lowWatermarkTokens);
             return;
         }
 
-        List<ChatJournalEntry> entriesToCompact = entriesAfterCheckpoint.subList(
-                0, entriesAfterCheckpoint.size() - minRetainedEntries);
+        long checkpointIndex = entryTokens.get(retainFrom - 1).messageIndex();
+        List<ChatJournalEntry> entriesToCompact = entryRepository.findEntriesInRange(conversationId, afterIndex, checkpointIndex);
 
         List<Message> messagesToSummarize = new ArrayList<>();
 
@@ -146,8 +193,6 @@ public class ChatJournalCheckpointer {
 
         messagesToSummarize.addAll(entryMapper.toMessages(entriesToCompact));
 
-        long checkpointIndex = entriesToCompact.getLast().messageIndex();
-
         var sw = StopwatchLogger.start(log);
         ChatJournalCheckpoint newCheckpoint = checkpointFactory.createCheckpoint(messagesToSummarize, checkpointIndex);
         sw.info("Created checkpoint for conversation {}", conversationId);
@@ -161,16 +206,46 @@ public class ChatJournalCheckpointer {
      * Gets the effective token count for a conversation.
      *
      * <p>If a checkpoint exists, returns checkpoint tokens plus entry tokens after
-     * the checkpoint. Otherwise, returns the sum of all entry tokens.
+     * the checkpoint. Otherwise, returns the sum of all entry tokens. The value is read
+     * from the entry repository's running total rather than summed on each call.
      *
      * @param conversationId the unique identifier for the conversation
      * @return the effective token count
      */
     public int getTotalTokens(String conversationId) {
         validateConversationId(conversationId);
-        return checkpointRepository.findCheckpoint(conversationId)
-                .map(cp -> cp.tokens() + entryRepository.sumTokensAfterIndex(conversationId, cp.checkpointIndex()))
-                .orElseGet(() -> entryRepository.sumTokens(conversationId));
+        return entryRepository.getEffectiveTokens(conversationId, checkpointRepository);
+    }
+
+    /**
+     * Finds the start of the longest tail of entries whose tokens fit within the budget,
+     * always retaining at least the last {@code minRetainedEntries} entries.
+     *
+     * @return the index of the first retained entry; 0 if all entries are retained
+     */
+    static int retainedTailStart(List<ChatJournalEntryTokens> entryTokens, int tailBudget, int minRetainedEntries) {
+        int start = Math.max(entryTokens.size() - minRetainedEntries, 0);
+        for (int i = 0; i < start; i++) {
+            if (entryTokens.get(i).tailTokens() <= tailBudget) {
+                return i;
+            }
+        }
+        return start;
+    }
+
+    static void validateWatermarks(int maxTokens, int lowWatermarkTokens, int minRetainedEntries) {
+        if (maxTokens <= 0) {
+            throw new IllegalArgumentException("maxTokens must be positive");
+        }
+        if (lowWatermarkTokens < 0) {
+            throw new IllegalArgumentException("lowWatermarkTokens must not be negative");
+        }
+        if (lowWatermarkTokens >= maxTokens) {
+            throw new IllegalArgumentException("lowWatermarkTokens must be less than maxTokens");
+        }
+        if (minRetainedEntries <= 0) {
+            throw new IllegalArgumentException("minRetainedEntries must be positive");
+        }
     }
 
     /**
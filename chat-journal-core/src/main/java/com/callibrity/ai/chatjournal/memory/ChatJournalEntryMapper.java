@@ -52,6 +52,9 @@ public class ChatJournalEntryMapper {
      * Converts a Spring AI Message to a ChatJournalEntry.
      *
      * <p>The entry is created with message index 0, to be assigned by the repository on save.
+     * Assistant messages carrying a provider-reported token count (recorded by the
+     * {@link ChatJournalTokenUsageAdvisor}) store that count; all other messages are counted
+     * with the {@link TokenUsageCalculator}.
      *
      * @param message the Spring AI message to convert
      * @return a new ChatJournalEntry representing the message
@@ -59,7 +62,12 @@ public class ChatJournalEntryMapper {
      */
     public ChatJournalEntry toEntry(Message message) {
         Objects.requireNonNull(message, "message must not be null");
-        int tokens = tokenUsageCalculator.calculateTokenUsage(List.of(message));
+        Integer recordedTokens = message instanceof AssistantMessage assistantMessage
+                ? ChatJournalTokenUsageAdvisor.recordedTokens(assistantMessage)
+                : null;
+        int tokens = recordedTokens != null
+                ? recordedTokens
+                : tokenUsageCalculator.calculateTokenUsage(List.of(message));
         return new ChatJournalEntry(0, message.getMessageType().name(), message.getText(), tokens);
     }
 
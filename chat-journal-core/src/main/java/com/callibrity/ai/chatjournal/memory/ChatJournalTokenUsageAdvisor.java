@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An advisor that records the provider-reported completion tokens of a response on its assistant message,
+ * so the {@link ChatJournalEntryMapper} stores them instead of re-tokenizing the message locally.
+ *
+ * <p>The count is put in the assistant message's metadata under {@link #TOKENS_METADATA_KEY}, which the
+ * chat memory advisor then hands to {@link ChatJournalChatMemory} (or {@link ReactiveChatJournalMemory})
+ * along with the message. It must therefore run inside the chat memory advisor, which its default
+ * {@link #getOrder() order} (just after {@link Advisor#DEFAULT_CHAT_MEMORY_PRECEDENCE_ORDER}) ensures.
+ * Responses without usage, or with several generations sharing one usage, are passed through unchanged,
+ * and their assistant messages are counted by the {@link com.callibrity.ai.chatjournal.token.TokenUsageCalculator}
+ * as before.
+ *
+ * <p>When streaming, the count is recorded on the chunk that carries the usage. If that chunk has no
+ * generation (as with OpenAI's trailing usage chunk), an empty assistant message carrying the count is
+ * added to it, so it survives aggregation of the chunks into the stored message.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * ChatClient client = ChatClient.builder(chatModel)
+ *     .defaultAdvisors(
+ *         MessageChatMemoryAdvisor.builder(memory).build(),
+ *         new ChatJournalTokenUsageAdvisor())
+ *     .build();
+ * }</pre>
+ *
+ * @see ChatJournalEntryMapper#toEntry(org.springframework.ai.chat.messages.Message)
+ */
+public class ChatJournalTokenUsageAdvisor implements CallAdvisor, StreamAdvisor {
+
+    /**
+     * The assistant message metadata key under which the provider-reported token count is recorded.
+     */
+    public static final String TOKENS_METADATA_KEY = "chatJournalTokens";
+
+    /**
+     * The order of this advisor unless another is given: just inside the chat memory advisor.
+     */
+    public static final int DEFAULT_ORDER = Advisor.DEFAULT_CHAT_MEMORY_PRECEDENCE_ORDER + 1;
+
+    private final int order;
+
+    /**
+     * Creates a new ChatJournalTokenUsageAdvisor with the {@link #DEFAULT_ORDER}.
+     */
+    public ChatJournalTokenUsageAdvisor() {
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * Creates a new ChatJournalTokenUsageAdvisor.
+     *
+     * @param order the order of this advisor; must be greater than that of the chat memory advisor
+     */
+    public ChatJournalTokenUsageAdvisor(int order) {
+        this.order = order;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        return recordTokens(chain.nextCall(request));
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        return chain.nextStream(request).map(ChatJournalTokenUsageAdvisor::recordTokens);
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the provider-reported token count recorded on an assistant message.
+     *
+     * @param message the assistant message
+     * @return the recorded token count, or {@code null} if none was recorded
+     */
+    public static Integer recordedTokens(AssistantMessage message) {
+        Object tokens = message.getMetadata().get(TOKENS_METADATA_KEY);
+        return tokens instanceof Number number && number.intValue() > 0 ? number.intValue() : null;
+    }
+
+    private static ChatClientResponse recordTokens(ChatClientResponse response) {
+        ChatResponse chatResponse = response.chatResponse();
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return response;
+        }
+        Usage usage = chatResponse.getMetadata().getUsage();
+        Integer tokens = usage == null ? null : usage.getCompletionTokens();
+        List<Generation> generations = chatResponse.getResults();
+        if (tokens == null || tokens <= 0 || generations.size() > 1) {
+            return response;
+        }
+        Generation generation = generations.isEmpty()
+                ? new Generation(new AssistantMessage(""))
+                : generations.getFirst();
+        AssistantMessage output = generation.getOutput();
+        Map<String, Object> metadata = new HashMap<>(output.getMetadata());
+        metadata.put(TOKENS_METADATA_KEY, tokens);
+        AssistantMessage recorded = AssistantMessage.builder()
+                .content(output.getText())
+                .properties(metadata)
+                .toolCalls(output.getToolCalls())
+                .media(output.getMedia())
+                .build();
+        ChatResponse recordedResponse = new ChatResponse(
+                List.of(new Generation(recorded, generation.getMetadata())),
+                chatResponse.getMetadata()
+        );
+        return response.mutate().chatResponse(recordedResponse).build();
+    }
+}
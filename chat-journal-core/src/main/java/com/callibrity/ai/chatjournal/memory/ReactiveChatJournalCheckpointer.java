@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Non-blocking counterpart of {@link ChatJournalCheckpointer}, backed by reactive repositories.
+ *
+ * <p>Checkpoints are planned and placed exactly as {@link ChatJournalCheckpointer} does
+ * (high/low token watermarks, planned from token metadata). Repository access is non-blocking;
+ * the summarizer call made through {@link ChatJournalCheckpointFactory} is blocking, so it runs
+ * on {@link Schedulers#boundedElastic()}.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @see ChatJournalCheckpointer
+ * @see ReactiveChatJournalMemory
+ */
+@Slf4j
+public class ReactiveChatJournalCheckpointer {
+
+    private final ReactiveChatJournalEntryRepository entryRepository;
+    private final ReactiveChatJournalCheckpointRepository checkpointRepository;
+    private final ChatJournalCheckpointFactory checkpointFactory;
+    private final ChatJournalEntryMapper entryMapper;
+    private final int maxTokens;
+    private final int lowWatermarkTokens;
+    private final int minRetainedEntries;
+    private final Scheduler summarizerScheduler = Schedulers.boundedElastic();
+
+    /**
+     * Creates a new ReactiveChatJournalCheckpointer.
+     *
+     * @param entryRepository the reactive repository for reading entries
+     * @param checkpointRepository the reactive repository for reading and writing checkpoints
+     * @param checkpointFactory the factory for creating checkpoints from messages
+     * @param entryMapper the mapper for converting entries to messages
+     * @param maxTokens the token threshold that triggers checkpointing (high watermark); must be positive
+     * @param lowWatermarkTokens the token count that compaction aims to get under; must not be negative
+     *                           and must be less than maxTokens (0 retains only minRetainedEntries)
+     * @param minRetainedEntries the minimum number of recent entries to retain whatever their tokens;
+     *                           must be positive
+     * @throws NullPointerException if any object parameter is null
+     * @throws IllegalArgumentException if maxTokens or minRetainedEntries is not positive, if
+     *                                  lowWatermarkTokens is negative, or if lowWatermarkTokens is
+     *                                  not less than maxTokens
+     */
+    public ReactiveChatJournalCheckpointer(ReactiveChatJournalEntryRepository entryRepository,
+                                           ReactiveChatJournalCheckpointRepository checkpointRepository,
+                                           ChatJournalCheckpointFactory checkpointFactory,
+                                           ChatJournalEntryMapper entryMapper,
+                                           int maxTokens,
+                                           int lowWatermarkTokens,
+                                           int minRetainedEntries) {
+        this.entryRepository = Objects.requireNonNull(entryRepository, "entryRepository must not be null");
+        this.checkpointRepository = Objects.requireNonNull(checkpointRepository, "checkpointRepository must not be null");
+        this.checkpointFactory = Objects.requireNonNull(checkpointFactory, "checkpointFactory must not be null");
+        this.entryMapper = Objects.requireNonNull(entryMapper, "entryMapper must not be null");
+        ChatJournalCheckpointer.validateWatermarks(maxTokens, lowWatermarkTokens, minRetainedEntries);
+        this.maxTokens = maxTokens;
+        this.lowWatermarkTokens = lowWatermarkTokens;
+        this.minRetainedEntries = minRetainedEntries;
+    }
+
+    /**
+     * Determines whether checkpointing is required for a conversation.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return true if the effective token count exceeds {@code maxTokens}
+     * @throws NullPointerException if conversationId is null
+     * @throws IllegalArgumentException if conversationId is empty
+     */
+    public Mono<Boolean> requiresCheckpoint(String conversationId) {
+        return getTotalTokens(conversationId).map(totalTokens -> totalTokens > maxTokens);
+    }
+
+    /**
+     * Returns the effective token count for a conversation: checkpoint tokens plus the tokens
+     * of entries after the checkpoint.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return the effective token count
+     * @throws NullPointerException if conversationId is null
+     * @throws IllegalArgumentException if conversationId is empty
+     */
+    public Mono<Integer> getTotalTokens(String conversationId) {
+        validateConversationId(conversationId);
+        return entryRepository.getEffectiveTokens(conversationId);
+    }
+
+    /**
+     * Performs checkpointing for a conversation.
+     *
+     * <p>If the whole tail already fits under the low watermark (or only one entry remains),
+     * the returned Mono completes without creating a checkpoint.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return a Mono that completes when the checkpoint (if any) has been saved
+     * @throws NullPointerException if conversationId is null
+     * @throws IllegalArgumentException if conversationId is empty
+     * @see ChatJournalCheckpointer#checkpoint(String)
+     */
+    public Mono<Void> checkpoint(String conversationId) {
+        validateConversationId(conversationId);
+        return checkpointRepository.findCheckpoint(conversationId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(existingCheckpoint -> checkpoint(conversationId, existingCheckpoint));
+    }
+
+    /**
+     * Returns the configured maximum token threshold.
+     *
+     * @return the maximum tokens before checkpointing is triggered
+     */
+    public int maxTokens() {
+        return maxTokens;
+    }
+
+    private Mono<Void> checkpoint(String conversationId, Optional<ChatJournalCheckpoint> existingCheckpoint) {
+        long afterIndex = existingCheckpoint.map(ChatJournalCheckpoint::checkpointIndex)
+                .orElse(ChatJournalCheckpointer.NO_CHECKPOINT_INDEX);
+        int summaryTokens = existingCheckpoint.map(ChatJournalCheckpoint::tokens).orElse(0);
+
+        return entryRepository.findEntryTokensAfterIndex(conversationId, afterIndex)
+                .collectList()
+                .flatMap(entryTokens -> {
+                    int retainFrom = ChatJournalCheckpointer.retainedTailStart(entryTokens, lowWatermarkTokens - summaryTokens, minRetainedEntries);
+                    if (retainFrom == 0) {
+                        log.info("Nothing to compact for conversation {}: {} entries fit under the low watermark of {} tokens",
+                                conversationId, entryTokens.size(), lowWatermarkTokens);
+                        return Mono.empty();
+                    }
+                    long checkpointIndex = entryTokens.get(retainFrom - 1).messageIndex();
+                    return entryRepository.findEntriesInRange(conversationId, afterIndex, checkpointIndex)
+                            .collectList()
+                            .flatMap(entriesToCompact -> createCheckpoint(existingCheckpoint, entriesToCompact, checkpointIndex))
+                            .flatMap(newCheckpoint -> checkpointRepository.saveCheckpoint(conversationId, newCheckpoint))
+                            .doOnSuccess(ignored -> log.info("Saved checkpoint for conversation {}", conversationId));
+                });
+    }
+
+    private Mono<ChatJournalCheckpoint> createCheckpoint(Optional<ChatJournalCheckpoint> existingCheckpoint,
+                                                         List<ChatJournalEntry> entriesToCompact,
+                                                         long checkpointIndex) {
+        return Mono.fromCallable(() -> {
+            List<Message> messagesToSummarize = new ArrayList<>();
+            existingCheckpoint.ifPresent(cp ->
+                    messagesToSummarize.add(new SystemMessage(ChatJournalCheckpointFactory.getSummaryPrefix() + cp.summary()))
+            );
+            messagesToSummarize.addAll(entryMapper.toMessages(entriesToCompact));
+            return checkpointFactory.createCheckpoint(messagesToSummarize, checkpointIndex);
+        }).subscribeOn(summarizerScheduler);
+    }
+
+    private static void validateConversationId(String conversationId) {
+        Objects.requireNonNull(conversationId, "conversationId must not be null");
+        if (conversationId.isEmpty()) {
+            throw new IllegalArgumentException("conversationId must not be empty");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Non-blocking counterpart of {@link ChatJournalChatMemory} for reactive (e.g. WebFlux)
+ * applications.
+ *
+ * <p>Offers the same operations as Spring AI's {@link org.springframework.ai.chat.memory.ChatMemory}
+ * ({@code add}, {@code get}, {@code clear}) plus {@code getMemoryUsage}, each returning a
+ * {@link Mono} backed by reactive repositories, so no request thread is blocked on storage.
+ *
+ * <h2>Checkpoint-Based Compaction</h2>
+ * <p>After entries are added, the checkpointer is consulted and, if compaction is required,
+ * checkpointing is started in the background; the {@code add} Mono does not wait for it.
+ * At most one checkpoint runs per conversation at a time; requests made while one is running
+ * are dropped, and the next {@code add} re-evaluates the need for compaction.
+ *
+ * <h2>Message Limits</h2>
+ * <p>Conversations are limited to {@code maxConversationLength} messages. Adding messages that
+ * would exceed the limit signals a {@link ConversationLimitExceededException}.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @see ChatJournalChatMemory
+ * @see ReactiveChatJournalCheckpointer
+ */
+@Slf4j
+public class ReactiveChatJournalMemory {
+
+    private final ReactiveChatJournalEntryRepository entryRepository;
+    private final ReactiveChatJournalCheckpointRepository checkpointRepository;
+    private final ChatJournalEntryMapper entryMapper;
+    private final ReactiveChatJournalCheckpointer checkpointer;
+    private final int maxConversationLength;
+    private final Set<String> checkpointsInFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new ReactiveChatJournalMemory with the specified components.
+     *
+     * @param entryRepository the reactive repository for persisting chat entries
+     * @param checkpointRepository the reactive repository for persisting checkpoints
+     * @param entryMapper the mapper for converting between messages and entries
+     * @param checkpointer the checkpointer for managing compaction
+     * @param maxConversationLength the maximum number of messages allowed per conversation; must be positive
+     * @throws NullPointerException if any object parameter is null
+     * @throws IllegalArgumentException if maxConversationLength is not positive
+     */
+    public ReactiveChatJournalMemory(ReactiveChatJournalEntryRepository entryRepository,
+                                     ReactiveChatJournalCheckpointRepository checkpointRepository,
+                                     ChatJournalEntryMapper entryMapper,
+                                     ReactiveChatJournalCheckpointer checkpointer,
+                                     int maxConversationLength) {
+        this.entryRepository = Objects.requireNonNull(entryRepository, "entryRepository must not be null");
+        this.checkpointRepository = Objects.requireNonNull(checkpointRepository, "checkpointRepository must not be null");
+        this.entryMapper = Objects.requireNonNull(entryMapper, "entryMapper must not be null");
+        this.checkpointer = Objects.requireNonNull(checkpointer, "checkpointer must not be null");
+        if (maxConversationLength <= 0) {
+            throw new IllegalArgumentException("maxConversationLength must be positive");
+        }
+        this.maxConversationLength = maxConversationLength;
+    }
+
+    /**
+     * Saves messages to a conversation and starts background checkpointing if required.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param messages the messages to add
+     * @return a Mono that completes when the messages have been saved, or signals
+     *         {@link ConversationLimitExceededException} if they would exceed the limit
+     * @throws NullPointerException if conversationId or messages is null
+     * @throws IllegalArgumentException if conversationId is empty
+     */
+    public Mono<Void> add(String conversationId, List<Message> messages) {
+        validateConversationId(conversationId);
+        Objects.requireNonNull(messages, "messages must not be null");
+
+        return entryRepository.countEntries(conversationId)
+                .flatMap(currentLength -> {
+                    if (currentLength + messages.size() > maxConversationLength) {
+                        return Mono.error(new ConversationLimitExceededException(
+                                conversationId, currentLength, maxConversationLength, messages.size()));
+                    }
+                    return entryRepository.save(conversationId, entryMapper.toEntries(messages));
+                })
+                .then(Mono.defer(() -> checkpointer.requiresCheckpoint(conversationId)))
+                .doOnNext(required -> {
+                    if (required) {
+                        scheduleCheckpoint(conversationId);
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Returns messages suitable for LLM context: the checkpoint summary (if any) as a system
+     * message, followed by the entries after the checkpoint.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return the conversation's context messages
+     * @throws NullPointerException if conversationId is null
+     * @throws IllegalArgumentException if conversationId is empty
+     */
+    public Mono<List<Message>> get(String conversationId) {
+        validateConversationId(conversationId);
+        return entryRepository.findContext(conversationId).map(context -> {
+            List<Message> messages = new ArrayList<>();
+            context.findCheckpoint().ifPresent(checkpoint ->
+                    messages.add(new SystemMessage(ChatJournalCheckpointFactory.getSummaryPrefix() + checkpoint.summary()))
+            );
+            messages.addAll(entryMapper.toMessages(context.entries()));
+            return messages;
+        });
+    }
+
+    /**
+     * Removes all entries and the checkpoint for the conversation.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return a Mono that completes when the conversation has been cleared
+     * @throws NullPointerException if conversationId is null
+     * @throws IllegalArgumentException if conversationId is empty
+     */
+    public Mono<Void> clear(String conversationId) {
+        validateConversationId(conversationId);
+        return checkpointRepository.deleteCheckpoint(conversationId)
+                .then(entryRepository.deleteAll(conversationId));
+    }
+
+    /**
+     * Returns the current memory usage statistics for a conversation.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return the memory usage statistics for the conversation
+     * @throws NullPointerException if conversationId is null
+     * @throws IllegalArgumentException if conversationId is empty
+     */
+    public Mono<ChatMemoryUsage> getMemoryUsage(String conversationId) {
+        validateConversationId(conversationId);
+        return checkpointer.getTotalTokens(conversationId)
+                .map(totalTokens -> new ChatMemoryUsage(totalTokens, checkpointer.maxTokens()));
+    }
+
+    private void scheduleCheckpoint(String conversationId) {
+        if (!checkpointsInFlight.add(conversationId)) {
+            return;
+        }
+        log.info("Scheduled checkpointing for conversation {}", conversationId);
+        checkpointer.checkpoint(conversationId)
+                .doFinally(signal -> checkpointsInFlight.remove(conversationId))
+                .subscribe(null, error -> log.error("Checkpointing failed for conversation {}", conversationId, error));
+    }
+
+    private static void validateConversationId(String conversationId) {
+        Objects.requireNonNull(conversationId, "conversationId must not be null");
+        if (conversationId.isEmpty()) {
+            throw new IllegalArgumentException("conversationId must not be empty");
+        }
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A write-through caching decorator for {@link ChatJournalEntryRepository} and
+ * {@link ChatJournalCheckpointRepository}.
+ *
+ * <p>For recently used conversations, this keeps the current checkpoint, the entries after it,
+ * the total entry count and the effective token count in memory. Since conversations are only
+ * ever appended to, {@link #save(String, List)} extends a cached conversation in place rather
+ * than invalidating it: cached conversations are saved with
+ * {@link ChatJournalEntryRepository#saveAndReturn(String, List) saveAndReturn}, so the cache holds
+ * the message indexes assigned by the underlying storage. With a repository that takes them from
+ * the insert, a steady-state turn ({@code countEntries}, {@code save}, {@code getEffectiveTokens},
+ * {@code findContext}) therefore costs only the write. Saving or deleting a checkpoint and
+ * deleting a conversation evict it.
+ *
+ * <p>The cache is bounded by the total number of content characters held (entry content plus
+ * checkpoint summaries) rather than by conversation count, so a few very long conversations
+ * cannot crowd out memory. When the bound is exceeded, the least recently used conversations
+ * are evicted first.
+ *
+ * <p>The cache is local to this process. Writes made through another instance sharing the same
+ * storage, or directly to the storage, are not seen until the conversation is evicted or
+ * {@link #invalidate(String) invalidated}, so it should only be used when each conversation is
+ * served by a single instance (for example with sticky sessions). Operations other than the
+ * steady-state turn above ({@link #findAll}, {@link #findEntriesAfterIndex},
+ * {@link #forEachEntryAfterIndex}, the visible-entry queries and the token sums) are always
+ * delegated.
+ *
+ * <p>This class is thread-safe. Operations on the same conversation are serialized, so that
+ * a cache load can never overwrite a concurrent append with stale data.
+ */
+public class CachingChatJournalRepository implements ChatJournalEntryRepository, ChatJournalCheckpointRepository {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ChatJournalEntryRepository entryRepository;
+    private final ChatJournalCheckpointRepository checkpointRepository;
+    private final long maxCharacters;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final LinkedHashMap<String, CachedConversation> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedCharacters;
+
+    /**
+     * Creates a new CachingChatJournalRepository.
+     *
+     * @param entryRepository the entry repository to delegate to
+     * @param checkpointRepository the checkpoint repository to delegate to
+     * @param maxCharacters the maximum number of content characters to cache; must be positive
+     * @throws NullPointerException if any repository is null
+     * @throws IllegalArgumentException if maxCharacters is not positive
+     */
+    public CachingChatJournalRepository(ChatJournalEntryRepository entryRepository,
+                                        ChatJournalCheckpointRepository checkpointRepository,
+                                        long maxCharacters) {
+        this.entryRepository = Objects.requireNonNull(entryRepository, "entryRepository must not be null");
+        this.checkpointRepository = Objects.requireNonNull(checkpointRepository, "checkpointRepository must not be null");
+        if (maxCharacters <= 0) {
+            throw new IllegalArgumentException("maxCharacters must be positive");
+        }
+        this.maxCharacters = maxCharacters;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public void save(String conversationId, List<ChatJournalEntry> entries) {
+        synchronized (lockFor(conversationId)) {
+            boolean cached;
+            synchronized (cache) {
+                cached = cache.containsKey(conversationId);
+            }
+            if (cached) {
+                saveAndReturn(conversationId, entries);
+            } else {
+                entryRepository.save(conversationId, entries);
+            }
+        }
+    }
+
+    @Override
+    public List<ChatJournalEntry> saveAndReturn(String conversationId, List<ChatJournalEntry> entries) {
+        synchronized (lockFor(conversationId)) {
+            List<ChatJournalEntry> saved = entryRepository.saveAndReturn(conversationId, entries);
+            synchronized (cache) {
+                CachedConversation cached = cache.get(conversationId);
+                if (cached != null) {
+                    long before = cached.characters;
+                    cached.append(saved);
+                    cachedCharacters += cached.characters - before;
+                    evictIfNecessary();
+                }
+            }
+            return saved;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The cached checkpoint is used, so the given checkpoint repository is not consulted.
+     */
+    @Override
+    public ChatJournalContext findContext(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        CachedConversation cached = load(conversationId);
+        synchronized (cache) {
+            return new ChatJournalContext(cached.checkpoint, cached.entries);
+        }
+    }
+
+    @Override
+    public int countEntries(String conversationId) {
+        synchronized (lockFor(conversationId)) {
+            CachedConversation cached = load(conversationId);
+            synchronized (cache) {
+                if (cached.entryCount != null) {
+                    return cached.entryCount;
+                }
+            }
+            int count = entryRepository.countEntries(conversationId);
+            synchronized (cache) {
+                cached.entryCount = count;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The cached checkpoint is used, so the given checkpoint repository is not consulted.
+     */
+    @Override
+    public int getEffectiveTokens(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        CachedConversation cached = load(conversationId);
+        synchronized (cache) {
+            return cached.effectiveTokens;
+        }
+    }
+
+    @Override
+    public void deleteAll(String conversationId) {
+        synchronized (lockFor(conversationId)) {
+            entryRepository.deleteAll(conversationId);
+            invalidate(conversationId);
+        }
+    }
+
+    @Override
+    public List<ChatJournalEntry> findAll(String conversationId) {
+        return entryRepository.findAll(conversationId);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findVisibleEntries(String conversationId, int offset, int limit) {
+        return entryRepository.findVisibleEntries(conversationId, offset, limit);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findVisibleEntriesBefore(String conversationId, long beforeIndex, int limit) {
+        return entryRepository.findVisibleEntriesBefore(conversationId, beforeIndex, limit);
+    }
+
+    @Override
+    public int countVisibleEntries(String conversationId) {
+        return entryRepository.countVisibleEntries(conversationId);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findEntriesAfterIndex(String conversationId, long messageIndex) {
+        return entryRepository.findEntriesAfterIndex(conversationId, messageIndex);
+    }
+
+    @Override
+    public void forEachEntryAfterIndex(String conversationId, long messageIndex, Consumer<ChatJournalEntry> visitor) {
+        entryRepository.forEachEntryAfterIndex(conversationId, messageIndex, visitor);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findEntriesInRange(String conversationId, long afterIndex, long upToIndex) {
+        return entryRepository.findEntriesInRange(conversationId, afterIndex, upToIndex);
+    }
+
+    @Override
+    public List<ChatJournalEntryTokens> findEntryTokensAfterIndex(String conversationId, long messageIndex) {
+        return entryRepository.findEntryTokensAfterIndex(conversationId, messageIndex);
+    }
+
+    @Override
+    public int sumTokens(String conversationId) {
+        return entryRepository.sumTokens(conversationId);
+    }
+
+    @Override
+    public int sumTokensAfterIndex(String conversationId, long messageIndex) {
+        return entryRepository.sumTokensAfterIndex(conversationId, messageIndex);
+    }
+
+    @Override
+    public Optional<ChatJournalCheckpoint> findCheckpoint(String conversationId) {
+        synchronized (cache) {
+            CachedConversation cached = cache.get(conversationId);
+            if (cached != null) {
+                return Optional.ofNullable(cached.checkpoint);
+            }
+        }
+        return checkpointRepository.findCheckpoint(conversationId);
+    }
+
+    @Override
+    public void saveCheckpoint(String conversationId, ChatJournalCheckpoint checkpoint) {
+        synchronized (lockFor(conversationId)) {
+            checkpointRepository.saveCheckpoint(conversationId, checkpoint);
+            invalidate(conversationId);
+        }
+    }
+
+    @Override
+    public void deleteCheckpoint(String conversationId) {
+        synchronized (lockFor(conversationId)) {
+            checkpointRepository.deleteCheckpoint(conversationId);
+            invalidate(conversationId);
+        }
+    }
+
+    /**
+     * Returns the number of conversations currently cached.
+     *
+     * @return the number of cached conversations
+     */
+    public int cachedConversations() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Returns the number of content characters currently cached.
+     *
+     * @return the total cached weight in characters
+     */
+    public long cachedCharacters() {
+        synchronized (cache) {
+            return cachedCharacters;
+        }
+    }
+
+    /**
+     * Evicts a conversation from the cache without modifying the underlying repositories.
+     *
+     * <p>This is useful when the underlying storage has been modified by another process.
+     *
+     * @param conversationId the unique identifier for the conversation
+     */
+    public void invalidate(String conversationId) {
+        synchronized (cache) {
+            CachedConversation removed = cache.remove(conversationId);
+            if (removed != null) {
+                cachedCharacters -= removed.characters;
+            }
+        }
+    }
+
+    private CachedConversation load(String conversationId) {
+        synchronized (lockFor(conversationId)) {
+            synchronized (cache) {
+                CachedConversation cached = cache.get(conversationId);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            CachedConversation loaded = new CachedConversation(entryRepository.findContext(conversationId, checkpointRepository));
+            synchronized (cache) {
+                cache.put(conversationId, loaded);
+                cachedCharacters += loaded.characters;
+                evictIfNecessary();
+            }
+            return loaded;
+        }
+    }
+
+    private void evictIfNecessary() {
+        Iterator<CachedConversation> iterator = cache.values().iterator();
+        while (cachedCharacters > maxCharacters && iterator.hasNext()) {
+            cachedCharacters -= iterator.next().characters;
+            iterator.remove();
+        }
+    }
+
+    private Object lockFor(String conversationId) {
+        Objects.requireNonNull(conversationId, "conversationId must not be null");
+        return locks[Math.floorMod(conversationId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static long characters(List<ChatJournalEntry> entries) {
+        long total = 0;
+        for (ChatJournalEntry entry : entries) {
+            total += entry.content() == null ? 0 : entry.content().length();
+        }
+        return total;
+    }
+
+    /**
+     * Mutable cached state for a single conversation. Guarded by the cache monitor.
+     */
+    private static final class CachedConversation {
+
+        private final ChatJournalCheckpoint checkpoint;
+        private final List<ChatJournalEntry> entries;
+        private int effectiveTokens;
+        private long characters;
+        private Integer entryCount;
+
+        private CachedConversation(ChatJournalContext context) {
+            this.checkpoint = context.checkpoint();
+            this.entries = new ArrayList<>(context.entries());
+            this.effectiveTokens = entries.stream().mapToInt(ChatJournalEntry::tokens).sum();
+            this.characters = characters(entries);
+            if (checkpoint != null) {
+                this.effectiveTokens += checkpoint.tokens();
+                this.characters += checkpoint.summary().length();
+            }
+        }
+
+        private void append(List<ChatJournalEntry> newEntries) {
+            entries.addAll(newEntries);
+            effectiveTokens += newEntries.stream().mapToInt(ChatJournalEntry::tokens).sum();
+            characters += characters(newEntries);
+            if (entryCount != null) {
+                entryCount += newEntries.size();
+            }
+        }
+    }
+}
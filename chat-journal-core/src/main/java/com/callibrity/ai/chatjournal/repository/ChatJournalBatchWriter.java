@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes journal entries for many conversations in a single batch.
+ *
+ * <p>This is the storage-side half of {@link WriteBehindChatJournalEntryRepository}: appends
+ * buffered across conversations are handed to {@link #saveAll(Map)} together, so that a busy
+ * deployment issues one multi-row write instead of one small write per turn.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @see WriteBehindChatJournalEntryRepository
+ */
+public interface ChatJournalBatchWriter {
+
+    /**
+     * Appends entries to their conversations, atomically if the store supports it.
+     *
+     * <p>Each conversation's entries must be appended in the order provided, with the same
+     * effect as calling {@link ChatJournalEntryRepository#save(String, List)} once per conversation.
+     *
+     * @param entriesByConversation the entries to append, keyed by conversation ID; must not be null
+     */
+    void saveAll(Map<String, List<ChatJournalEntry>> entriesByConversation);
+}
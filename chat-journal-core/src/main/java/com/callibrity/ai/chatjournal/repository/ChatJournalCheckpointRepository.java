@@ -44,8 +44,10 @@ public interface ChatJournalCheckpointRepository {
     /**
      * Saves or updates the checkpoint for a conversation.
      *
-     * <p>This performs a delete-then-insert operation to ensure only one
-     * checkpoint exists per conversation.
+     * <p>Only one checkpoint exists per conversation, so this replaces any existing one.
+     * Implementations should do so atomically, and must not replace an existing checkpoint
+     * whose {@link ChatJournalCheckpoint#checkpointIndex() index} is greater than the new one,
+     * so that a slow compaction cannot overwrite the result of a newer one.
      *
      * @param conversationId the unique identifier for the conversation
      * @param checkpoint the checkpoint to save; must not be null
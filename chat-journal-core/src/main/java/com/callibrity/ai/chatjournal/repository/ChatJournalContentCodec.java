@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+/**
+ * Encodes message content and checkpoint summaries for storage, typically compressing them.
+ *
+ * <p>Repositories configured with a codec store the encoded bytes in a binary column in place of
+ * text, and decode them on every read. Only content is encoded; message types and token counts are
+ * stored as before, so token aggregates and compaction planning never decode anything.
+ *
+ * <p>Encoded values are self-describing: implementations write a leading format byte, so values
+ * encoded with different settings (for example, below and above a size threshold) can be read
+ * back by the same codec. A replacement codec should keep decoding the formats of the codec it
+ * replaces, since rows written earlier are never re-encoded.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @see DeflateChatJournalContentCodec
+ */
+public interface ChatJournalContentCodec {
+
+    /**
+     * Encodes content for storage.
+     *
+     * @param content the content to encode; must not be null
+     * @return the encoded bytes, starting with a format byte; never null
+     */
+    byte[] encode(String content);
+
+    /**
+     * Decodes content previously produced by {@link #encode(String)}.
+     *
+     * @param encoded the encoded bytes; must not be null
+     * @return the original content; never null
+     * @throws IllegalArgumentException if the bytes use an unknown format or are corrupt
+     */
+    String decode(byte[] encoded);
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable record representing the effective context of a conversation: its current
+ * checkpoint (if any) together with the entries recorded after that checkpoint.
+ *
+ * <p>This is exactly what needs to be sent to the LLM, and is loaded as a single unit
+ * so that implementations can retrieve it in one round trip.
+ *
+ * @param checkpoint the current checkpoint, or {@code null} if the conversation has not been compacted
+ * @param entries the entries after the checkpoint (or all entries if there is no checkpoint),
+ *                ordered by message index
+ * @see ChatJournalEntryRepository#findContext(String, ChatJournalCheckpointRepository)
+ */
+public record ChatJournalContext(ChatJournalCheckpoint checkpoint, List<ChatJournalEntry> entries) {
+
+    /**
+     * Creates a new context, defensively copying the entries.
+     *
+     * @throws NullPointerException if entries is null
+     */
+    public ChatJournalContext {
+        entries = List.copyOf(Objects.requireNonNull(entries, "entries must not be null"));
+    }
+
+    /**
+     * Returns the current checkpoint, if one exists.
+     *
+     * @return the checkpoint, or empty if the conversation has not been compacted
+     */
+    public Optional<ChatJournalCheckpoint> findCheckpoint() {
+        return Optional.ofNullable(checkpoint);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import java.util.List;
+
+/**
+ * Receives buffered journal entries that {@link WriteBehindChatJournalEntryRepository} gave up
+ * writing to the store.
+ *
+ * <p>A conversation's entries are handed over once they have failed to flush
+ * {@code maxAttempts} times in a row. Without a dead-letter writer, failed conversations are
+ * retried indefinitely instead, so an implementation should persist the entries somewhere
+ * durable (a file, a queue, another store) rather than drop them.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @see WriteBehindChatJournalEntryRepository
+ */
+@FunctionalInterface
+public interface ChatJournalDeadLetterWriter {
+
+    /**
+     * Takes over entries that could not be written.
+     *
+     * @param conversationId the conversation the entries belong to
+     * @param entries the undelivered entries, in the order they were saved
+     * @param cause the failure of the last flush attempt
+     */
+    void write(String conversationId, List<ChatJournalEntry> entries, RuntimeException cause);
+}
@@ -16,6 +16,8 @@
 package com.callibrity.ai.chatjournal.repository;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for persisting and retrieving chat journal entries.
@@ -44,6 +46,27 @@ public interface ChatJournalEntryRepository {
      */
     void save(String conversationId, List<ChatJournalEntry> entries);
 
+    /**
+     * Saves a list of chat journal entries for a conversation and returns them as stored.
+     *
+     * <p>This is used by callers that keep saved entries in memory and therefore need the
+     * message indexes assigned by the storage, so implementations should take the indexes from
+     * the insert itself. The default implementation saves the entries and then reads back the
+     * conversation's last entries with {@link #findAll(String)}.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param entries the entries to save; must not be null
+     * @return the saved entries in the order given, carrying their assigned message indexes
+     */
+    default List<ChatJournalEntry> saveAndReturn(String conversationId, List<ChatJournalEntry> entries) {
+        save(conversationId, entries);
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        List<ChatJournalEntry> all = findAll(conversationId);
+        return List.copyOf(all.subList(all.size() - entries.size(), all.size()));
+    }
+
     /**
      * Retrieves all entries for a conversation in chronological order.
      *
@@ -66,6 +89,32 @@ public interface ChatJournalEntryRepository {
      */
     List<ChatJournalEntry> findVisibleEntries(String conversationId, int offset, int limit);
 
+    /**
+     * Retrieves visible entries (USER and ASSISTANT only) older than a given message index.
+     *
+     * <p>This is the keyset (cursor) variant of {@link #findVisibleEntries(String, int, int)}:
+     * rather than skipping {@code offset} rows, it seeks directly to {@code beforeIndex}, so
+     * loading a page deep in a long conversation costs the same as loading the first page.
+     * Pass {@link Long#MAX_VALUE} to start from the most recent entry, then the
+     * {@link ChatJournalEntry#messageIndex() message index} of the last entry returned to
+     * load the next (older) page.
+     *
+     * <p>The default implementation reads every visible entry with
+     * {@link #findVisibleEntries(String, int, int)} and filters them, so implementations
+     * should override it with an indexed seek.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param beforeIndex the index before which to retrieve entries (exclusive)
+     * @param limit the maximum number of entries to return
+     * @return visible entries with index less than beforeIndex in reverse chronological order; never null
+     */
+    default List<ChatJournalEntry> findVisibleEntriesBefore(String conversationId, long beforeIndex, int limit) {
+        return findVisibleEntries(conversationId, 0, Integer.MAX_VALUE).stream()
+                .filter(entry -> entry.messageIndex() < beforeIndex)
+                .limit(limit)
+                .toList();
+    }
+
     /**
      * Counts the total number of visible entries (USER and ASSISTANT only) for a conversation.
      *
@@ -76,6 +125,20 @@ public interface ChatJournalEntryRepository {
      */
     int countVisibleEntries(String conversationId);
 
+    /**
+     * Counts the total number of entries (of any message type) for a conversation.
+     *
+     * <p>This is used to enforce conversation length limits on every append, so
+     * implementations should answer it without loading the entries themselves. The default
+     * implementation counts the entries returned by {@link #findAll(String)}.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return the count of all entries in the conversation
+     */
+    default int countEntries(String conversationId) {
+        return findAll(conversationId).size();
+    }
+
     /**
      * Retrieves entries after a specific message index.
      *
@@ -87,6 +150,95 @@ public interface ChatJournalEntryRepository {
      */
     List<ChatJournalEntry> findEntriesAfterIndex(String conversationId, long messageIndex);
 
+    /**
+     * Visits entries after a specific message index, one at a time, in chronological order.
+     *
+     * <p>This is the streaming variant of {@link #findEntriesAfterIndex(String, long)}: entries
+     * are handed to the visitor as they are read rather than collected into a list, so jobs that
+     * walk an entire conversation (exports, token recounts) run in constant memory however long
+     * the conversation is. Pass {@code -1} to visit every entry. The visitor is called on the
+     * calling thread and must not call back into this repository for the same conversation.
+     *
+     * <p>The default implementation visits the list returned by
+     * {@link #findEntriesAfterIndex(String, long)}, so it does not save any memory; repositories
+     * backed by a cursor should override it.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param messageIndex the index after which to visit entries
+     * @param visitor the callback receiving each entry; must not be null
+     */
+    default void forEachEntryAfterIndex(String conversationId, long messageIndex, Consumer<ChatJournalEntry> visitor) {
+        Objects.requireNonNull(visitor, "visitor must not be null");
+        findEntriesAfterIndex(conversationId, messageIndex).forEach(visitor);
+    }
+
+    /**
+     * Retrieves entries within a range of message indexes.
+     *
+     * <p>This is used to load only the entries being summarized into a checkpoint.
+     *
+     * <p>The default implementation filters {@link #findEntriesAfterIndex(String, long)}, which
+     * reads the whole tail; implementations should bound the query at {@code upToIndex} instead.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param afterIndex the index after which to retrieve entries (exclusive)
+     * @param upToIndex the index up to which to retrieve entries (inclusive)
+     * @return entries with afterIndex &lt; index &lt;= upToIndex, ordered by message index; never null
+     */
+    default List<ChatJournalEntry> findEntriesInRange(String conversationId, long afterIndex, long upToIndex) {
+        return findEntriesAfterIndex(conversationId, afterIndex).stream()
+                .filter(entry -> entry.messageIndex() <= upToIndex)
+                .toList();
+    }
+
+    /**
+     * Retrieves token metadata (without content) for entries after a specific message index.
+     *
+     * <p>This is used to plan compaction, so implementations should avoid reading message
+     * content and should compute each row's {@link ChatJournalEntryTokens#tailTokens() tail tokens}
+     * (e.g. with a running sum window function) rather than leaving it to the caller. The
+     * default implementation derives the metadata from {@link #findEntriesAfterIndex(String, long)},
+     * so it still reads the content.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param messageIndex the index after which to retrieve token metadata
+     * @return token metadata for entries with index greater than messageIndex, ordered by message index; never null
+     */
+    default List<ChatJournalEntryTokens> findEntryTokensAfterIndex(String conversationId, long messageIndex) {
+        List<ChatJournalEntry> entries = findEntriesAfterIndex(conversationId, messageIndex);
+        ChatJournalEntryTokens[] tokens = new ChatJournalEntryTokens[entries.size()];
+        int tailTokens = 0;
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            ChatJournalEntry entry = entries.get(i);
+            tailTokens += entry.tokens();
+            tokens[i] = new ChatJournalEntryTokens(entry.messageIndex(), entry.tokens(), tailTokens);
+        }
+        return List.of(tokens);
+    }
+
+    /**
+     * Retrieves the effective context of a conversation: its current checkpoint (if any),
+     * as stored in the given checkpoint repository, and the entries after that checkpoint.
+     *
+     * <p>This is read before every LLM call, so repositories that can see the checkpoints
+     * themselves should override this to load the checkpoint and entries together in a single
+     * round trip, without consulting the checkpoint repository.
+     *
+     * <p>The default implementation reads the checkpoint from the checkpoint repository and
+     * then the entries after it with {@link #findEntriesAfterIndex(String, long)}, or all
+     * entries with {@link #findAll(String)} if the conversation has no checkpoint.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param checkpointRepository the repository holding the conversation's checkpoint
+     * @return the checkpoint and post-checkpoint entries; never null
+     */
+    default ChatJournalContext findContext(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        return checkpointRepository.findCheckpoint(conversationId)
+                .map(checkpoint -> new ChatJournalContext(checkpoint,
+                        findEntriesAfterIndex(conversationId, checkpoint.checkpointIndex())))
+                .orElseGet(() -> new ChatJournalContext(null, findAll(conversationId)));
+    }
+
     /**
      * Calculates the sum of tokens for all entries in a conversation.
      *
@@ -104,6 +256,30 @@ public interface ChatJournalEntryRepository {
      */
     int sumTokensAfterIndex(String conversationId, long messageIndex);
 
+    /**
+     * Returns the effective token count for a conversation: the tokens of its current
+     * checkpoint (if any), as stored in the given checkpoint repository, plus the tokens of all
+     * entries after that checkpoint.
+     *
+     * <p>This is consulted after every append to decide whether checkpointing is required,
+     * so implementations should maintain it incrementally as entries and checkpoints are
+     * saved rather than summing the journal on each call. Repositories that can see the
+     * checkpoints themselves may answer without consulting the checkpoint repository.
+     *
+     * <p>The default implementation adds the checkpoint's tokens to
+     * {@link #sumTokensAfterIndex(String, long)}, or returns {@link #sumTokens(String)} if the
+     * conversation has no checkpoint.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param checkpointRepository the repository holding the conversation's checkpoint
+     * @return the effective token count for the conversation
+     */
+    default int getEffectiveTokens(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        return checkpointRepository.findCheckpoint(conversationId)
+                .map(checkpoint -> checkpoint.tokens() + sumTokensAfterIndex(conversationId, checkpoint.checkpointIndex()))
+                .orElseGet(() -> sumTokens(conversationId));
+    }
+
     /**
      * Deletes all entries for a conversation.
      *
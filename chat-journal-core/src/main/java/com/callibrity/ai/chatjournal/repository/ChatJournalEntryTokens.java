@@ -0,0 +1,30 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+/**
+ * Token metadata for a chat journal entry, without its content.
+ *
+ * <p>Used to plan compaction: the checkpointer decides where to place a checkpoint
+ * from these lightweight rows and only loads the content of the entries it will summarize.
+ *
+ * @param messageIndex the ordinal position of the entry within the conversation
+ * @param tokens the token count of the entry
+ * @param tailTokens the token count of this entry plus all later entries in the result
+ * @see ChatJournalEntryRepository#findEntryTokensAfterIndex(String, long)
+ */
+public record ChatJournalEntryTokens(long messageIndex, int tokens, int tailTokens) {
+}
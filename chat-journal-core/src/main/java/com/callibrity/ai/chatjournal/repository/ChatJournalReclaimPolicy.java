@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+/**
+ * What happens to journal entries once a checkpoint has summarized them.
+ *
+ * <p>Entries at or below a conversation's checkpoint index are never part of its chat memory
+ * again; they only matter for browsing the full history. Reclaiming them keeps the journal
+ * table (and its indexes) limited to the live tails of conversations.
+ *
+ * @see ChatJournalReclaimer
+ */
+public enum ChatJournalReclaimPolicy {
+
+    /**
+     * Compacted entries stay in the journal table. This is the default.
+     */
+    KEEP,
+
+    /**
+     * Compacted entries are moved to an archive table; history reads include the archive.
+     */
+    ARCHIVE,
+
+    /**
+     * Compacted entries are deleted; the conversation's history starts at its checkpoint.
+     */
+    DELETE
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link ChatJournalReclaimer} sweep in the background at a fixed delay.
+ *
+ * <p>Sweeps run one at a time on a single virtual thread, starting one {@code interval} after
+ * construction and then {@code interval} after each sweep completes, so a slow sweep never
+ * overlaps the next. A failed sweep is logged and retried at the next interval.
+ *
+ * <p>This class is thread-safe.
+ */
+@Slf4j
+public class ChatJournalReclaimScheduler implements AutoCloseable {
+
+    private final ChatJournalReclaimer reclaimer;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a new ChatJournalReclaimScheduler and schedules its sweeps.
+     *
+     * @param reclaimer the reclaimer to run
+     * @param interval the delay between sweeps; must be positive
+     * @throws NullPointerException if any parameter is null
+     * @throws IllegalArgumentException if interval is not positive
+     */
+    public ChatJournalReclaimScheduler(ChatJournalReclaimer reclaimer, Duration interval) {
+        this.reclaimer = Objects.requireNonNull(reclaimer, "reclaimer must not be null");
+        Objects.requireNonNull(interval, "interval must not be null");
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("chat-journal-reclaimer-", 0).factory());
+        long intervalNanos = interval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::sweepQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void sweepQuietly() {
+        try {
+            int reclaimed = reclaimer.sweep();
+            if (reclaimed > 0) {
+                log.info("Reclaimed {} compacted journal entries", reclaimed);
+            }
+        } catch (RuntimeException e) {
+            log.error("Reclaim sweep failed", e);
+        }
+    }
+
+    /**
+     * Stops scheduling sweeps, interrupting a sweep in progress.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
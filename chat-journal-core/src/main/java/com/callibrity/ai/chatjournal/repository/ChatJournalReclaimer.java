@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+/**
+ * Reclaims journal entries that checkpoints have already summarized, according to a
+ * {@link ChatJournalReclaimPolicy}.
+ *
+ * <p>Implementations must only touch entries at or below each conversation's current checkpoint
+ * index, must work in bounded batches so a sweep never holds long locks on the journal, and
+ * must be safe to run concurrently with normal repository use.
+ *
+ * @see ChatJournalReclaimScheduler
+ */
+public interface ChatJournalReclaimer {
+
+    /**
+     * Reclaims the compacted entries of every conversation.
+     *
+     * @return the number of entries archived or deleted
+     */
+    int sweep();
+}
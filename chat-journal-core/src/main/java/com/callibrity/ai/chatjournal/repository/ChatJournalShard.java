@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import java.util.Objects;
+
+/**
+ * One shard of a {@link ShardedChatJournalRepository}: the entry and checkpoint repositories
+ * backed by the same database.
+ *
+ * <p>Both repositories must share a database, since a conversation's entries and checkpoint are
+ * always placed on the same shard and some implementations read them together.
+ *
+ * @param entryRepository the shard's entry repository
+ * @param checkpointRepository the shard's checkpoint repository
+ */
+public record ChatJournalShard(ChatJournalEntryRepository entryRepository,
+                               ChatJournalCheckpointRepository checkpointRepository) {
+
+    /**
+     * Creates a new shard.
+     *
+     * @throws NullPointerException if either repository is null
+     */
+    public ChatJournalShard {
+        Objects.requireNonNull(entryRepository, "entryRepository must not be null");
+        Objects.requireNonNull(checkpointRepository, "checkpointRepository must not be null");
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Maps keys to named nodes using consistent hashing.
+ *
+ * <p>Each node is placed on a hash ring at {@code virtualNodes} points derived from its name, and a
+ * key belongs to the first node point at or after the key's own hash. Adding a node therefore only
+ * moves the keys that now fall just before one of its points (roughly {@code 1/(n+1)} of them),
+ * and placement depends only on node names, never on their order or on the values attached to
+ * them. Two rings built from the same names always agree, whatever their value types.
+ *
+ * <p>This class is immutable and thread-safe.
+ *
+ * @param <T> the type of value attached to each node
+ */
+public class ConsistentHashRing<T> {
+
+    /**
+     * The number of points each node is placed at unless another count is given.
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    // Looking up the provider on every key costs more than the digest itself; MessageDigest is
+    // not thread-safe, so each thread keeps its own. The algorithm must stay MD5: changing it
+    // would move every key on existing rings.
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(ConsistentHashRing::md5);
+
+    private final Map<String, T> nodes;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * Creates a new ConsistentHashRing with {@link #DEFAULT_VIRTUAL_NODES} points per node.
+     *
+     * @param nodes the nodes, keyed by name; must not be empty
+     * @throws NullPointerException if nodes is null
+     * @throws IllegalArgumentException if nodes is empty
+     */
+    public ConsistentHashRing(Map<String, T> nodes) {
+        this(nodes, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Creates a new ConsistentHashRing.
+     *
+     * @param nodes the nodes, keyed by name; must not be empty
+     * @param virtualNodes the number of points each node is placed at; must be positive
+     * @throws NullPointerException if nodes is null
+     * @throws IllegalArgumentException if nodes is empty or virtualNodes is not positive
+     */
+    public ConsistentHashRing(Map<String, T> nodes, int virtualNodes) {
+        Objects.requireNonNull(nodes, "nodes must not be null");
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("nodes must not be empty");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.nodes = Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+        for (String name : this.nodes.keySet()) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the (vanishingly rare) collision, keep the smaller name so placement stays order-independent.
+                ring.merge(hash(name + "#" + i), name, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the node that owns a key.
+     *
+     * @param key the key
+     * @return the owning node's name
+     * @throws NullPointerException if key is null
+     */
+    public String nodeNameFor(String key) {
+        Objects.requireNonNull(key, "key must not be null");
+        Map.Entry<Long, String> point = ring.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * Returns the node that owns a key.
+     *
+     * @param key the key
+     * @return the owning node
+     * @throws NullPointerException if key is null
+     */
+    public T nodeFor(String key) {
+        return nodes.get(nodeNameFor(key));
+    }
+
+    /**
+     * Returns all nodes, keyed by name, in the order they were given.
+     *
+     * @return an unmodifiable view of the nodes
+     */
+    public Map<String, T> nodes() {
+        return nodes;
+    }
+
+    private static long hash(String value) {
+        byte[] digest = MD5.get().digest(value.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
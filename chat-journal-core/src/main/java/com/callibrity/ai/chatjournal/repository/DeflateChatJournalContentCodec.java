@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link ChatJournalContentCodec} that compresses content with the JDK's deflate implementation.
+ *
+ * <p>Content whose UTF-8 encoding is shorter than {@code threshold} bytes is stored as plain UTF-8,
+ * since short chat turns barely compress and are not worth the CPU. Longer content (pasted
+ * documents, long code answers) is deflated, unless deflating would not make it smaller. The first
+ * byte of every encoded value records which of the two was done:
+ *
+ * <ul>
+ *   <li>{@link #FORMAT_PLAIN} - the remaining bytes are the UTF-8 content</li>
+ *   <li>{@link #FORMAT_DEFLATE} - the remaining bytes are the zlib-wrapped deflated UTF-8 content</li>
+ * </ul>
+ *
+ * <p>This class is thread-safe; every call uses its own {@link Deflater} or {@link Inflater}.
+ */
+public class DeflateChatJournalContentCodec implements ChatJournalContentCodec {
+
+    /**
+     * Format byte of content stored as plain UTF-8.
+     */
+    public static final byte FORMAT_PLAIN = 0;
+
+    /**
+     * Format byte of content stored as deflated UTF-8.
+     */
+    public static final byte FORMAT_DEFLATE = 1;
+
+    /**
+     * The smallest content, in UTF-8 bytes, that is deflated unless another threshold is given.
+     */
+    public static final int DEFAULT_THRESHOLD = 512;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int threshold;
+    private final int level;
+
+    /**
+     * Creates a new DeflateChatJournalContentCodec with the {@link #DEFAULT_THRESHOLD} and the
+     * default compression level.
+     */
+    public DeflateChatJournalContentCodec() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a new DeflateChatJournalContentCodec with the default compression level.
+     *
+     * @param threshold the smallest content, in UTF-8 bytes, that is deflated; must not be negative
+     * @throws IllegalArgumentException if threshold is negative
+     */
+    public DeflateChatJournalContentCodec(int threshold) {
+        this(threshold, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a new DeflateChatJournalContentCodec.
+     *
+     * @param threshold the smallest content, in UTF-8 bytes, that is deflated; must not be negative
+     * @param level the deflate compression level, from 0 to 9, or -1 for the default level
+     * @throws IllegalArgumentException if threshold is negative or level is out of range
+     */
+    public DeflateChatJournalContentCodec(int threshold, int level) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative");
+        }
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("level must be between -1 and 9");
+        }
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    @Override
+    public byte[] encode(String content) {
+        Objects.requireNonNull(content, "content must not be null");
+        byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= threshold) {
+            byte[] deflated = deflate(utf8);
+            if (deflated.length <= utf8.length) {
+                return deflated;
+            }
+        }
+        byte[] plain = new byte[utf8.length + 1];
+        plain[0] = FORMAT_PLAIN;
+        System.arraycopy(utf8, 0, plain, 1, utf8.length);
+        return plain;
+    }
+
+    @Override
+    public String decode(byte[] encoded) {
+        Objects.requireNonNull(encoded, "encoded must not be null");
+        if (encoded.length == 0) {
+            throw new IllegalArgumentException("encoded content must not be empty");
+        }
+        return switch (encoded[0]) {
+            case FORMAT_PLAIN -> new String(encoded, 1, encoded.length - 1, StandardCharsets.UTF_8);
+            case FORMAT_DEFLATE -> new String(inflate(encoded), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown content format: " + encoded[0]);
+        };
+    }
+
+    // Returns the deflated input already prefixed with FORMAT_DEFLATE, saving a copy
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(input.length, BUFFER_SIZE));
+            out.write(FORMAT_DEFLATE);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] encoded) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(encoded, 1, encoded.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Deflated content is truncated");
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Deflated content is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link ChatJournalCheckpointRepository}.
+ *
+ * <p>Each conversation may have at most one checkpoint. Implementations must be thread-safe
+ * and must not block the subscribing thread.
+ *
+ * @see ChatJournalCheckpoint
+ * @see ChatJournalCheckpointRepository
+ */
+public interface ReactiveChatJournalCheckpointRepository {
+
+    /**
+     * Retrieves the checkpoint for a conversation, if one exists.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return the checkpoint, or an empty Mono if no checkpoint exists
+     */
+    Mono<ChatJournalCheckpoint> findCheckpoint(String conversationId);
+
+    /**
+     * Saves or updates the checkpoint for a conversation.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param checkpoint the checkpoint to save; must not be null
+     * @return a Mono that completes when the checkpoint has been saved
+     */
+    Mono<Void> saveCheckpoint(String conversationId, ChatJournalCheckpoint checkpoint);
+
+    /**
+     * Deletes the checkpoint for a conversation, if one exists.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return a Mono that completes when the checkpoint has been deleted
+     */
+    Mono<Void> deleteCheckpoint(String conversationId);
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link ChatJournalEntryRepository}, for applications built on
+ * a reactive stack (e.g. WebFlux with R2DBC).
+ *
+ * <p>This interface covers the operations needed by
+ * {@link com.callibrity.ai.chatjournal.memory.ReactiveChatJournalMemory} and its checkpointer;
+ * each method has the same semantics as its blocking namesake.
+ *
+ * <p>Implementations must be thread-safe and must not block the subscribing thread.
+ *
+ * @see ChatJournalEntry
+ * @see ChatJournalEntryRepository
+ */
+public interface ReactiveChatJournalEntryRepository {
+
+    /**
+     * Saves a list of chat journal entries for a conversation.
+     *
+     * <p>Entries are appended to the existing conversation history in the order provided.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param entries the entries to save; must not be null
+     * @return a Mono that completes when the entries have been saved
+     */
+    Mono<Void> save(String conversationId, List<ChatJournalEntry> entries);
+
+    /**
+     * Retrieves visible entries (USER and ASSISTANT only) in reverse chronological order.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param offset the number of entries to skip (0 = start from most recent)
+     * @param limit the maximum number of entries to return
+     * @return visible entries in reverse chronological order
+     * @see ChatJournalEntryRepository#findVisibleEntries(String, int, int)
+     */
+    Flux<ChatJournalEntry> findVisibleEntries(String conversationId, int offset, int limit);
+
+    /**
+     * Counts the total number of entries (of any message type) for a conversation.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return the count of all entries in the conversation
+     * @see ChatJournalEntryRepository#countEntries(String)
+     */
+    Mono<Integer> countEntries(String conversationId);
+
+    /**
+     * Retrieves the current checkpoint (if any) and the entries after it.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return the checkpoint and post-checkpoint entries; never empty
+     * @see ChatJournalEntryRepository#findContext(String, ChatJournalCheckpointRepository)
+     */
+    Mono<ChatJournalContext> findContext(String conversationId);
+
+    /**
+     * Retrieves token metadata (without content) for entries after a specific message index.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param messageIndex the index after which to retrieve token metadata
+     * @return token metadata ordered by message index
+     * @see ChatJournalEntryRepository#findEntryTokensAfterIndex(String, long)
+     */
+    Flux<ChatJournalEntryTokens> findEntryTokensAfterIndex(String conversationId, long messageIndex);
+
+    /**
+     * Retrieves entries with afterIndex &lt; index &lt;= upToIndex.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param afterIndex the index after which to retrieve entries (exclusive)
+     * @param upToIndex the index up to which to retrieve entries (inclusive)
+     * @return entries ordered by message index
+     * @see ChatJournalEntryRepository#findEntriesInRange(String, long, long)
+     */
+    Flux<ChatJournalEntry> findEntriesInRange(String conversationId, long afterIndex, long upToIndex);
+
+    /**
+     * Returns the effective token count: checkpoint tokens plus the tokens of entries after it.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return the effective token count for the conversation
+     * @see ChatJournalEntryRepository#getEffectiveTokens(String, ChatJournalCheckpointRepository)
+     */
+    Mono<Integer> getEffectiveTokens(String conversationId);
+
+    /**
+     * Deletes all entries for a conversation.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return a Mono that completes when the entries have been deleted
+     */
+    Mono<Void> deleteAll(String conversationId);
+}
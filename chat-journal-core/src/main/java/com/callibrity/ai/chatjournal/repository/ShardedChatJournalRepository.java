@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ChatJournalEntryRepository} and {@link ChatJournalCheckpointRepository} that spreads
+ * conversations across several {@link ChatJournalShard shards}.
+ *
+ * <p>Every operation is keyed by conversation ID, so each call is simply forwarded to the shard
+ * that owns the conversation, as chosen by a {@link ConsistentHashRing}. A conversation's entries
+ * and checkpoint always live on the same shard, and no operation ever spans shards.
+ *
+ * <p>Adding a shard moves ownership of roughly {@code 1/n} of the conversations to it. Their
+ * existing data stays on the previous owner until it is migrated (see
+ * {@code JdbcShardRebalancer} in the {@code chat-journal-jdbc} module). When constructed with the
+ * ring from before the change, a conversation whose owner changed is served by its previous owner
+ * for as long as the new owner holds nothing for it and the previous owner does, so it keeps its
+ * history and new entries are appended where the rebalancer will find them. Deciding this costs
+ * one or two extra lookups per call, paid only for the conversations whose owner changed; drop
+ * the previous ring once rebalancing is complete. Without it, those conversations appear empty or
+ * only show what was written since the change until they are migrated.
+ *
+ * <p>This class is thread-safe if the shard repositories are.
+ */
+public class ShardedChatJournalRepository implements ChatJournalEntryRepository, ChatJournalCheckpointRepository {
+
+    private final ConsistentHashRing<ChatJournalShard> ring;
+    private final ConsistentHashRing<ChatJournalShard> previousRing;
+
+    /**
+     * Creates a new ShardedChatJournalRepository.
+     *
+     * @param ring the ring mapping conversation IDs to shards
+     * @throws NullPointerException if ring is null
+     */
+    public ShardedChatJournalRepository(ConsistentHashRing<ChatJournalShard> ring) {
+        this.ring = Objects.requireNonNull(ring, "ring must not be null");
+        this.previousRing = null;
+    }
+
+    /**
+     * Creates a new ShardedChatJournalRepository that serves conversations from their previous
+     * owner until they have been migrated.
+     *
+     * @param ring the ring mapping conversation IDs to shards
+     * @param previousRing the ring in use before the shard list changed, built from the same shard
+     *                     instances as {@code ring} so that unmoved conversations skip the lookups
+     * @throws NullPointerException if ring or previousRing is null
+     */
+    public ShardedChatJournalRepository(ConsistentHashRing<ChatJournalShard> ring,
+                                        ConsistentHashRing<ChatJournalShard> previousRing) {
+        this.ring = Objects.requireNonNull(ring, "ring must not be null");
+        this.previousRing = Objects.requireNonNull(previousRing, "previousRing must not be null");
+    }
+
+    /**
+     * Returns the name of the shard that owns a conversation on the current ring, regardless of
+     * whether it has been migrated there yet.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @return the owning shard's name
+     * @throws NullPointerException if conversationId is null
+     */
+    public String shardNameFor(String conversationId) {
+        Objects.requireNonNull(conversationId, "conversationId must not be null");
+        return ring.nodeNameFor(conversationId);
+    }
+
+    @Override
+    public void save(String conversationId, List<ChatJournalEntry> entries) {
+        entries(conversationId).save(conversationId, entries);
+    }
+
+    @Override
+    public List<ChatJournalEntry> saveAndReturn(String conversationId, List<ChatJournalEntry> entries) {
+        return entries(conversationId).saveAndReturn(conversationId, entries);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findAll(String conversationId) {
+        return entries(conversationId).findAll(conversationId);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findVisibleEntries(String conversationId, int offset, int limit) {
+        return entries(conversationId).findVisibleEntries(conversationId, offset, limit);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findVisibleEntriesBefore(String conversationId, long beforeIndex, int limit) {
+        return entries(conversationId).findVisibleEntriesBefore(conversationId, beforeIndex, limit);
+    }
+
+    @Override
+    public int countVisibleEntries(String conversationId) {
+        return entries(conversationId).countVisibleEntries(conversationId);
+    }
+
+    @Override
+    public int countEntries(String conversationId) {
+        return entries(conversationId).countEntries(conversationId);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findEntriesAfterIndex(String conversationId, long messageIndex) {
+        return entries(conversationId).findEntriesAfterIndex(conversationId, messageIndex);
+    }
+
+    @Override
+    public void forEachEntryAfterIndex(String conversationId, long messageIndex, Consumer<ChatJournalEntry> visitor) {
+        entries(conversationId).forEachEntryAfterIndex(conversationId, messageIndex, visitor);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findEntriesInRange(String conversationId, long afterIndex, long upToIndex) {
+        return entries(conversationId).findEntriesInRange(conversationId, afterIndex, upToIndex);
+    }
+
+    @Override
+    public List<ChatJournalEntryTokens> findEntryTokensAfterIndex(String conversationId, long messageIndex) {
+        return entries(conversationId).findEntryTokensAfterIndex(conversationId, messageIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The checkpoint is read from the owning shard, so the given checkpoint repository is not consulted.
+     */
+    @Override
+    public ChatJournalContext findContext(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        return entries(conversationId).findContext(conversationId, checkpoints(conversationId));
+    }
+
+    @Override
+    public int sumTokens(String conversationId) {
+        return entries(conversationId).sumTokens(conversationId);
+    }
+
+    @Override
+    public int sumTokensAfterIndex(String conversationId, long messageIndex) {
+        return entries(conversationId).sumTokensAfterIndex(conversationId, messageIndex);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The checkpoint is read from the owning shard, so the given checkpoint repository is not consulted.
+     */
+    @Override
+    public int getEffectiveTokens(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        return entries(conversationId).getEffectiveTokens(conversationId, checkpoints(conversationId));
+    }
+
+    @Override
+    public void deleteAll(String conversationId) {
+        entries(conversationId).deleteAll(conversationId);
+    }
+
+    @Override
+    public Optional<ChatJournalCheckpoint> findCheckpoint(String conversationId) {
+        return checkpoints(conversationId).findCheckpoint(conversationId);
+    }
+
+    @Override
+    public void saveCheckpoint(String conversationId, ChatJournalCheckpoint checkpoint) {
+        checkpoints(conversationId).saveCheckpoint(conversationId, checkpoint);
+    }
+
+    @Override
+    public void deleteCheckpoint(String conversationId) {
+        checkpoints(conversationId).deleteCheckpoint(conversationId);
+    }
+
+    private ChatJournalEntryRepository entries(String conversationId) {
+        return shardFor(conversationId).entryRepository();
+    }
+
+    private ChatJournalCheckpointRepository checkpoints(String conversationId) {
+        return shardFor(conversationId).checkpointRepository();
+    }
+
+    private ChatJournalShard shardFor(String conversationId) {
+        Objects.requireNonNull(conversationId, "conversationId must not be null");
+        if (conversationId.isEmpty()) {
+            throw new IllegalArgumentException("conversationId must not be empty");
+        }
+        ChatJournalShard owner = ring.nodeFor(conversationId);
+        if (previousRing == null) {
+            return owner;
+        }
+        ChatJournalShard previousOwner = previousRing.nodeFor(conversationId);
+        if (previousOwner == owner || holds(owner, conversationId) || !holds(previousOwner, conversationId)) {
+            return owner;
+        }
+        return previousOwner;
+    }
+
+    private static boolean holds(ChatJournalShard shard, String conversationId) {
+        return shard.entryRepository().countEntries(conversationId) > 0
+                || shard.checkpointRepository().findCheckpoint(conversationId).isPresent();
+    }
+}
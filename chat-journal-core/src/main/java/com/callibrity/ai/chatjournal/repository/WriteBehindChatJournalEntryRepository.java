@@ -0,0 +1,639 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ChatJournalEntryRepository} decorator that buffers appends in memory and writes them
+ * behind the caller in multi-conversation batches.
+ *
+ * <p>{@link #save(String, List)} only queues entries. A background thread hands everything queued
+ * to the {@link ChatJournalBatchWriter} every {@code flushInterval}, or sooner once
+ * {@code maxBatchSize} entries are waiting, so that thousands of small per-turn writes become a
+ * few large ones.
+ *
+ * <h2>Read Consistency</h2>
+ * <p>Reads see the conversation's pending appends. The reads on the {@code ChatMemory} hot path
+ * ({@link #countEntries}, {@link #countVisibleEntries}, {@link #getEffectiveTokens} and
+ * {@link #findContext}) merge pending entries with the stored ones without writing; pending
+ * entries carry the placeholder indexes they were saved with. All other reads depend on
+ * storage-assigned message indexes, so they first flush the queue if the conversation has
+ * pending entries.
+ *
+ * <h2>Backpressure</h2>
+ * <p>At most {@code maxPendingEntries} entries are queued. A save that would exceed the limit
+ * flushes the queue on the caller's thread first, so a stalled store slows callers down rather
+ * than exhausting memory; if that flush fails, the save fails with it.
+ *
+ * <h2>Durability</h2>
+ * <p>Queued entries are lost if the process dies before they are flushed. When a batch fails,
+ * its conversations are written one at a time so that one bad conversation cannot hold back the
+ * others; the ones that still fail are put back at the front of the queue. The background thread
+ * backs off from a failing conversation, retrying it after {@code flushInterval} and doubling
+ * the delay with each further failure up to {@link #MAX_BACKOFF}; explicit {@link #flush()} calls
+ * retry it straight away. Failed conversations are retried indefinitely, with
+ * {@code maxPendingEntries} bounding the memory they hold, unless a
+ * {@link ChatJournalDeadLetterWriter} is given: then a conversation that fails
+ * {@code maxAttempts} flushes in a row is handed to it instead. {@link #close()} stops the
+ * background thread and flushes whatever remains; after that, saves are written through to the
+ * delegate.
+ * Callers that need an entry on disk before continuing can call {@link #flush()}.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @see ChatJournalBatchWriter
+ */
+@Slf4j
+public class WriteBehindChatJournalEntryRepository implements ChatJournalEntryRepository, AutoCloseable {
+
+    /**
+     * The default maximum number of queued entries.
+     */
+    public static final int DEFAULT_MAX_PENDING_ENTRIES = 10_000;
+
+    /**
+     * The default number of failed flushes after which a conversation's entries are diverted.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    /**
+     * The longest the background thread waits before retrying a failing conversation, unless
+     * the flush interval is longer still.
+     */
+    public static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ChatJournalEntryRepository delegate;
+    private final ChatJournalBatchWriter batchWriter;
+    private final int maxBatchSize;
+    private final int maxPendingEntries;
+    private final int maxAttempts;
+    private final ChatJournalDeadLetterWriter deadLetterWriter;
+    private final long intervalNanos;
+    private final long maxBackoffNanos;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Held for reading while a read combines stored and pending entries, and for writing while
+     * a batch is in flight, so that no read sees a batch both pending and stored (or neither).
+     */
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private final Object pendingLock = new Object();
+    private Map<String, List<ChatJournalEntry>> pending = new LinkedHashMap<>();
+    private int pendingCount;
+    private final Map<String, Integer> failedAttempts = new HashMap<>();
+    private final Map<String, Long> retryAt = new HashMap<>();
+    private final AtomicLong divertedCount = new AtomicLong();
+    private boolean flushScheduled;
+    private boolean closed;
+
+    /**
+     * Creates a new WriteBehindChatJournalEntryRepository with the default pending-entry limit
+     * that retries failed conversations indefinitely, and starts its flush thread.
+     *
+     * @param delegate the repository to read from and to delete through
+     * @param batchWriter the writer that persists queued entries
+     * @param flushInterval how often queued entries are flushed; must be positive
+     * @param maxBatchSize the number of queued entries that triggers an immediate flush; must be positive
+     * @throws NullPointerException if any object parameter is null
+     * @throws IllegalArgumentException if flushInterval or maxBatchSize is not positive
+     */
+    public WriteBehindChatJournalEntryRepository(ChatJournalEntryRepository delegate,
+                                                 ChatJournalBatchWriter batchWriter,
+                                                 Duration flushInterval,
+                                                 int maxBatchSize) {
+        this(delegate, batchWriter, flushInterval, maxBatchSize, DEFAULT_MAX_PENDING_ENTRIES);
+    }
+
+    /**
+     * Creates a new WriteBehindChatJournalEntryRepository that retries failed conversations
+     * indefinitely, and starts its flush thread.
+     *
+     * @param delegate the repository to read from and to delete through
+     * @param batchWriter the writer that persists queued entries
+     * @param flushInterval how often queued entries are flushed; must be positive
+     * @param maxBatchSize the number of queued entries that triggers an immediate flush; must be positive
+     * @param maxPendingEntries the number of queued entries beyond which saves flush on the caller's
+     *                          thread; must be positive
+     * @throws NullPointerException if any object parameter is null
+     * @throws IllegalArgumentException if any numeric parameter or flushInterval is not positive
+     */
+    public WriteBehindChatJournalEntryRepository(ChatJournalEntryRepository delegate,
+                                                 ChatJournalBatchWriter batchWriter,
+                                                 Duration flushInterval,
+                                                 int maxBatchSize,
+                                                 int maxPendingEntries) {
+        this(delegate, batchWriter, flushInterval, maxBatchSize, maxPendingEntries, Integer.MAX_VALUE, Optional.empty());
+    }
+
+    /**
+     * Creates a new WriteBehindChatJournalEntryRepository that hands conversations exhausting
+     * their attempts to a dead-letter writer, and starts its flush thread.
+     *
+     * @param delegate the repository to read from and to delete through
+     * @param batchWriter the writer that persists queued entries
+     * @param flushInterval how often queued entries are flushed; must be positive
+     * @param maxBatchSize the number of queued entries that triggers an immediate flush; must be positive
+     * @param maxPendingEntries the number of queued entries beyond which saves flush on the caller's
+     *                          thread; must be positive
+     * @param maxAttempts the number of consecutive failed flushes after which a conversation's
+     *                    entries are diverted; must be positive
+     * @param deadLetterWriter receives the entries of conversations that exhausted their attempts
+     * @throws NullPointerException if any object parameter is null
+     * @throws IllegalArgumentException if any numeric parameter or flushInterval is not positive
+     */
+    public WriteBehindChatJournalEntryRepository(ChatJournalEntryRepository delegate,
+                                                 ChatJournalBatchWriter batchWriter,
+                                                 Duration flushInterval,
+                                                 int maxBatchSize,
+                                                 int maxPendingEntries,
+                                                 int maxAttempts,
+                                                 ChatJournalDeadLetterWriter deadLetterWriter) {
+        this(delegate, batchWriter, flushInterval, maxBatchSize, maxPendingEntries, maxAttempts,
+                Optional.of(Objects.requireNonNull(deadLetterWriter, "deadLetterWriter must not be null")));
+    }
+
+    private WriteBehindChatJournalEntryRepository(ChatJournalEntryRepository delegate,
+                                                  ChatJournalBatchWriter batchWriter,
+                                                  Duration flushInterval,
+                                                  int maxBatchSize,
+                                                  int maxPendingEntries,
+                                                  int maxAttempts,
+                                                  Optional<ChatJournalDeadLetterWriter> deadLetterWriter) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.batchWriter = Objects.requireNonNull(batchWriter, "batchWriter must not be null");
+        this.deadLetterWriter = deadLetterWriter.orElse(null);
+        Objects.requireNonNull(flushInterval, "flushInterval must not be null");
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("flushInterval must be positive");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        if (maxPendingEntries <= 0) {
+            throw new IllegalArgumentException("maxPendingEntries must be positive");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxPendingEntries = maxPendingEntries;
+        this.maxAttempts = maxAttempts;
+        this.intervalNanos = flushInterval.toNanos();
+        this.maxBackoffNanos = Math.max(MAX_BACKOFF.toNanos(), intervalNanos);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("chat-journal-write-behind-", 0).factory());
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns a dead-letter writer that logs diverted entries and discards them, for deployments
+     * that prefer losing a conversation's buffered entries to retrying them indefinitely.
+     *
+     * @return the discarding dead-letter writer
+     */
+    public static ChatJournalDeadLetterWriter discardingDeadLetterWriter() {
+        return WriteBehindChatJournalEntryRepository::discard;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Queues the entries to be written by the next flush. If the queue is full, it is
+     * flushed on the calling thread first. Once this repository has been closed, entries are
+     * written through to the delegate instead.
+     */
+    @Override
+    public void save(String conversationId, List<ChatJournalEntry> entries) {
+        validateConversationId(conversationId);
+        Objects.requireNonNull(entries, "entries must not be null");
+        if (entries.isEmpty()) {
+            return;
+        }
+        while (true) {
+            synchronized (pendingLock) {
+                if (closed) {
+                    break;
+                }
+                if (pendingCount == 0 || pendingCount + entries.size() <= maxPendingEntries) {
+                    enqueue(conversationId, entries);
+                    return;
+                }
+            }
+            flush();
+        }
+        // Anything queued before close must reach the store ahead of these entries.
+        flush();
+        delegate.save(conversationId, entries);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findAll(String conversationId) {
+        return withFlushedConversation(conversationId, () -> delegate.findAll(conversationId));
+    }
+
+    @Override
+    public List<ChatJournalEntry> findVisibleEntries(String conversationId, int offset, int limit) {
+        return withFlushedConversation(conversationId, () -> delegate.findVisibleEntries(conversationId, offset, limit));
+    }
+
+    @Override
+    public List<ChatJournalEntry> findVisibleEntriesBefore(String conversationId, long beforeIndex, int limit) {
+        return withFlushedConversation(conversationId, () -> delegate.findVisibleEntriesBefore(conversationId, beforeIndex, limit));
+    }
+
+    @Override
+    public int countVisibleEntries(String conversationId) {
+        validateConversationId(conversationId);
+        return withReadLock(() -> delegate.countVisibleEntries(conversationId)
+                + (int) pendingEntries(conversationId).stream().filter(WriteBehindChatJournalEntryRepository::isVisible).count());
+    }
+
+    @Override
+    public int countEntries(String conversationId) {
+        validateConversationId(conversationId);
+        return withReadLock(() -> delegate.countEntries(conversationId) + pendingEntries(conversationId).size());
+    }
+
+    @Override
+    public List<ChatJournalEntry> findEntriesAfterIndex(String conversationId, long messageIndex) {
+        return withFlushedConversation(conversationId, () -> delegate.findEntriesAfterIndex(conversationId, messageIndex));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Pending entries for the conversation are flushed first. The visit itself runs without
+     * holding the flush lock, so a long scan never stalls flushes for other conversations;
+     * entries appended while it runs may or may not be visited.
+     */
+    @Override
+    public void forEachEntryAfterIndex(String conversationId, long messageIndex, Consumer<ChatJournalEntry> visitor) {
+        validateConversationId(conversationId);
+        Objects.requireNonNull(visitor, "visitor must not be null");
+        if (!pendingEntries(conversationId).isEmpty()) {
+            flush();
+        }
+        delegate.forEachEntryAfterIndex(conversationId, messageIndex, visitor);
+    }
+
+    @Override
+    public List<ChatJournalEntry> findEntriesInRange(String conversationId, long afterIndex, long upToIndex) {
+        return withFlushedConversation(conversationId, () -> delegate.findEntriesInRange(conversationId, afterIndex, upToIndex));
+    }
+
+    @Override
+    public List<ChatJournalEntryTokens> findEntryTokensAfterIndex(String conversationId, long messageIndex) {
+        return withFlushedConversation(conversationId, () -> delegate.findEntryTokensAfterIndex(conversationId, messageIndex));
+    }
+
+    @Override
+    public ChatJournalContext findContext(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        validateConversationId(conversationId);
+        return withReadLock(() -> withPendingEntries(conversationId,
+                delegate.findContext(conversationId, checkpointRepository)));
+    }
+
+    @Override
+    public int sumTokens(String conversationId) {
+        return withFlushedConversation(conversationId, () -> delegate.sumTokens(conversationId));
+    }
+
+    @Override
+    public int sumTokensAfterIndex(String conversationId, long messageIndex) {
+        return withFlushedConversation(conversationId, () -> delegate.sumTokensAfterIndex(conversationId, messageIndex));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Pending entries are always newer than the conversation's checkpoint, so their tokens
+     * are added to the delegate's effective token count.
+     */
+    @Override
+    public int getEffectiveTokens(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        validateConversationId(conversationId);
+        return withReadLock(() -> delegate.getEffectiveTokens(conversationId, checkpointRepository)
+                + pendingEntries(conversationId).stream().mapToInt(ChatJournalEntry::tokens).sum());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Discards the conversation's pending entries, waiting for any batch in flight to
+     * complete first so that none of its entries outlive the deletion.
+     */
+    @Override
+    public void deleteAll(String conversationId) {
+        validateConversationId(conversationId);
+        Lock lock = flushLock.writeLock();
+        lock.lock();
+        try {
+            synchronized (pendingLock) {
+                List<ChatJournalEntry> discarded = pending.remove(conversationId);
+                if (discarded != null) {
+                    pendingCount -= discarded.size();
+                }
+                failedAttempts.remove(conversationId);
+                retryAt.remove(conversationId);
+            }
+            delegate.deleteAll(conversationId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes all pending entries to the batch writer now, including those of conversations the
+     * background thread is backing off from.
+     *
+     * <p>If the write fails, the entries are put back at the front of the queue before the
+     * exception is rethrown.
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    private void flush(boolean dueOnly) {
+        Lock lock = flushLock.writeLock();
+        lock.lock();
+        try {
+            Map<String, List<ChatJournalEntry>> batch;
+            synchronized (pendingLock) {
+                batch = dueOnly && !retryAt.isEmpty() ? takeDue() : takeAll();
+                flushScheduled = false;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                batchWriter.saveAll(batch);
+                succeeded(batch.keySet());
+            } catch (RuntimeException e) {
+                if (batch.size() == 1) {
+                    failed(batch, e);
+                    throw e;
+                }
+                flushEachConversation(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries waiting to be flushed.
+     *
+     * @return the pending entry count
+     */
+    public int pendingCount() {
+        synchronized (pendingLock) {
+            return pendingCount;
+        }
+    }
+
+    /**
+     * Returns the total number of entries diverted to the dead-letter writer.
+     *
+     * @return the diverted entry count
+     */
+    public long divertedCount() {
+        return divertedCount.get();
+    }
+
+    /**
+     * Stops the flush thread and flushes any pending entries. Subsequent saves are written
+     * through to the delegate.
+     */
+    @Override
+    public void close() {
+        synchronized (pendingLock) {
+            closed = true;
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Write-behind flush thread did not stop within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Final write-behind flush failed; {} journal entries were not persisted", pendingCount(), e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush(true);
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed; {} journal entries will be retried", pendingCount(), e);
+        }
+    }
+
+    private Map<String, List<ChatJournalEntry>> takeAll() {
+        Map<String, List<ChatJournalEntry>> batch = pending;
+        pending = new LinkedHashMap<>();
+        pendingCount = 0;
+        return batch;
+    }
+
+    /**
+     * Takes the pending conversations that are not being backed off from, leaving the rest queued.
+     */
+    private Map<String, List<ChatJournalEntry>> takeDue() {
+        long now = System.nanoTime();
+        Map<String, List<ChatJournalEntry>> batch = new LinkedHashMap<>();
+        Map<String, List<ChatJournalEntry>> deferred = new LinkedHashMap<>();
+        pending.forEach((conversationId, entries) -> {
+            Long due = retryAt.get(conversationId);
+            (due == null || now - due >= 0 ? batch : deferred).put(conversationId, entries);
+        });
+        pending = deferred;
+        pendingCount = deferred.values().stream().mapToInt(List::size).sum();
+        return batch;
+    }
+
+    private void enqueue(String conversationId, List<ChatJournalEntry> entries) {
+        pending.computeIfAbsent(conversationId, id -> new ArrayList<>()).addAll(entries);
+        pendingCount += entries.size();
+        if (pendingCount >= maxBatchSize && !flushScheduled) {
+            flushScheduled = true;
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Writes each conversation of a failed batch on its own, so that the conversations that can
+     * be written are, and only the ones that cannot count a failed attempt.
+     */
+    private void flushEachConversation(Map<String, List<ChatJournalEntry>> batch) {
+        Map<String, List<ChatJournalEntry>> failures = new LinkedHashMap<>();
+        RuntimeException failure = null;
+        for (Map.Entry<String, List<ChatJournalEntry>> conversation : batch.entrySet()) {
+            Map<String, List<ChatJournalEntry>> single = Map.of(conversation.getKey(), conversation.getValue());
+            try {
+                batchWriter.saveAll(single);
+                succeeded(single.keySet());
+            } catch (RuntimeException e) {
+                failures.put(conversation.getKey(), conversation.getValue());
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            failed(failures, failure);
+            throw failure;
+        }
+    }
+
+    private void succeeded(Collection<String> conversationIds) {
+        synchronized (pendingLock) {
+            conversationIds.forEach(conversationId -> {
+                failedAttempts.remove(conversationId);
+                retryAt.remove(conversationId);
+            });
+        }
+    }
+
+    /**
+     * Requeues the failed conversations with a backoff, diverting those that have exhausted their
+     * attempts if there is a dead-letter writer.
+     */
+    private void failed(Map<String, List<ChatJournalEntry>> failures, RuntimeException cause) {
+        Map<String, List<ChatJournalEntry>> retries = new LinkedHashMap<>();
+        Map<String, List<ChatJournalEntry>> exhausted = new LinkedHashMap<>();
+        long now = System.nanoTime();
+        synchronized (pendingLock) {
+            failures.forEach((conversationId, entries) -> {
+                int attempts = failedAttempts.merge(conversationId, 1, Integer::sum);
+                if (deadLetterWriter != null && attempts >= maxAttempts) {
+                    failedAttempts.remove(conversationId);
+                    retryAt.remove(conversationId);
+                    exhausted.put(conversationId, entries);
+                } else {
+                    retryAt.put(conversationId, now + backoffNanos(attempts));
+                    retries.put(conversationId, entries);
+                }
+            });
+            requeue(retries);
+        }
+        exhausted.forEach((conversationId, entries) -> divert(conversationId, entries, cause));
+    }
+
+    /**
+     * Returns the delay before the background thread retries a conversation: the flush interval,
+     * doubled for each failure after the first, up to the maximum backoff.
+     */
+    private long backoffNanos(int attempts) {
+        int doublings = Math.min(attempts - 1, 62);
+        return intervalNanos > maxBackoffNanos >> doublings ? maxBackoffNanos : intervalNanos << doublings;
+    }
+
+    private void divert(String conversationId, List<ChatJournalEntry> entries, RuntimeException cause) {
+        log.error("Diverting {} journal entries for conversation {} after {} failed flushes",
+                entries.size(), conversationId, maxAttempts, cause);
+        divertedCount.addAndGet(entries.size());
+        try {
+            deadLetterWriter.write(conversationId, entries, cause);
+        } catch (RuntimeException e) {
+            log.error("Dead-letter writer failed; {} journal entries for conversation {} were not persisted",
+                    entries.size(), conversationId, e);
+        }
+    }
+
+    private static void discard(String conversationId, List<ChatJournalEntry> entries, RuntimeException cause) {
+        log.warn("Discarded {} journal entries for conversation {}", entries.size(), conversationId);
+    }
+
+    private void requeue(Map<String, List<ChatJournalEntry>> batch) {
+        synchronized (pendingLock) {
+            Map<String, List<ChatJournalEntry>> requeued = new LinkedHashMap<>();
+            batch.forEach((conversationId, entries) -> requeued.put(conversationId, new ArrayList<>(entries)));
+            pending.forEach((conversationId, entries) ->
+                    requeued.computeIfAbsent(conversationId, id -> new ArrayList<>()).addAll(entries));
+            pending = requeued;
+            pendingCount = requeued.values().stream().mapToInt(List::size).sum();
+        }
+    }
+
+    private ChatJournalContext withPendingEntries(String conversationId, ChatJournalContext context) {
+        List<ChatJournalEntry> pendingEntries = pendingEntries(conversationId);
+        if (pendingEntries.isEmpty()) {
+            return context;
+        }
+        List<ChatJournalEntry> entries = new ArrayList<>(context.entries());
+        entries.addAll(pendingEntries);
+        return new ChatJournalContext(context.checkpoint(), entries);
+    }
+
+    private List<ChatJournalEntry> pendingEntries(String conversationId) {
+        synchronized (pendingLock) {
+            List<ChatJournalEntry> entries = pending.get(conversationId);
+            return entries == null ? List.of() : List.copyOf(entries);
+        }
+    }
+
+    private <T> T withFlushedConversation(String conversationId, Supplier<T> read) {
+        validateConversationId(conversationId);
+        if (!pendingEntries(conversationId).isEmpty()) {
+            flush();
+        }
+        return withReadLock(read);
+    }
+
+    private <T> T withReadLock(Supplier<T> read) {
+        Lock lock = flushLock.readLock();
+        lock.lock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isVisible(ChatJournalEntry entry) {
+        return "USER".equals(entry.messageType()) || "ASSISTANT".equals(entry.messageType());
+    }
+
+    private static void validateConversationId(String conversationId) {
+        Objects.requireNonNull(conversationId, "conversationId must not be null");
+        if (conversationId.isEmpty()) {
+            throw new IllegalArgumentException("conversationId must not be empty");
+        }
+    }
+}
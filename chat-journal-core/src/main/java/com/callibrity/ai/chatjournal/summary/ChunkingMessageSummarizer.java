@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.summary;
+
+import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A {@link MessageSummarizer} decorator that summarizes large backlogs hierarchically
+ * (map-reduce) rather than in a single prompt.
+ *
+ * <p>Messages that fit within {@code maxChunkTokens} are passed to the delegate unchanged.
+ * Larger backlogs are split into consecutive, token-bounded chunks which are summarized in
+ * parallel (map); the partial summaries, in order, are then summarized into the final
+ * summary (reduce). If the partial summaries themselves exceed {@code maxChunkTokens}, the
+ * reduce step is chunked in the same way, so no single delegate call is larger than
+ * {@code maxChunkTokens} unless one message alone exceeds it.
+ *
+ * <p>At most {@code maxConcurrency} delegate calls run at once across all callers of
+ * this summarizer. Chunks are summarized on virtual threads.
+ *
+ * <p>This class is thread-safe if the delegate and token usage calculator are.
+ *
+ * @see MessageSummarizer
+ */
+@Slf4j
+public class ChunkingMessageSummarizer implements MessageSummarizer {
+
+    private static final String PART_PREFIX = "Summary of conversation part %d of %d: ";
+
+    private final MessageSummarizer delegate;
+    private final TokenUsageCalculator tokenUsageCalculator;
+    private final int maxChunkTokens;
+    private final Semaphore permits;
+    private final ThreadFactory threadFactory;
+
+    /**
+     * Creates a new ChunkingMessageSummarizer.
+     *
+     * @param delegate the summarizer used for each chunk and for the final reduction
+     * @param tokenUsageCalculator the calculator used to size chunks
+     * @param maxChunkTokens the maximum number of tokens sent to the delegate in one call; must be positive
+     * @param maxConcurrency the maximum number of concurrent delegate calls; must be positive
+     * @throws NullPointerException if delegate or tokenUsageCalculator is null
+     * @throws IllegalArgumentException if maxChunkTokens or maxConcurrency is not positive
+     */
+    public ChunkingMessageSummarizer(MessageSummarizer delegate,
+                                     TokenUsageCalculator tokenUsageCalculator,
+                                     int maxChunkTokens,
+                                     int maxConcurrency) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.tokenUsageCalculator = Objects.requireNonNull(tokenUsageCalculator, "tokenUsageCalculator must not be null");
+        if (maxChunkTokens <= 0) {
+            throw new IllegalArgumentException("maxChunkTokens must be positive");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.maxChunkTokens = maxChunkTokens;
+        this.permits = new Semaphore(maxConcurrency);
+        this.threadFactory = Thread.ofVirtual().name("chat-journal-summary-", 0).factory();
+    }
+
+    /**
+     * Summarizes the given messages, chunking them if they exceed {@code maxChunkTokens}.
+     *
+     * @param messages the list of messages to summarize; must not be null or empty
+     * @return the summary of the conversation
+     * @throws NullPointerException if messages is null
+     * @throws IllegalArgumentException if messages is empty
+     */
+    @Override
+    public String summarize(List<Message> messages) {
+        Objects.requireNonNull(messages, "messages must not be null");
+        if (messages.isEmpty()) {
+            throw new IllegalArgumentException("messages must not be empty");
+        }
+
+        List<List<Message>> chunks = chunk(messages);
+        if (chunks.size() == 1 || chunks.size() == messages.size()) {
+            // Either everything fits, or no two messages fit together and chunking cannot shrink the input.
+            return summarizeChunk(messages);
+        }
+
+        log.info("Summarizing {} messages in {} chunks of up to {} tokens", messages.size(), chunks.size(), maxChunkTokens);
+        List<String> partialSummaries = summarizeChunks(chunks);
+
+        List<Message> partialMessages = new ArrayList<>(partialSummaries.size());
+        for (int i = 0; i < partialSummaries.size(); i++) {
+            partialMessages.add(new SystemMessage(PART_PREFIX.formatted(i + 1, partialSummaries.size()) + partialSummaries.get(i)));
+        }
+        return summarize(partialMessages);
+    }
+
+    private List<List<Message>> chunk(List<Message> messages) {
+        List<List<Message>> chunks = new ArrayList<>();
+        List<Message> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (Message message : messages) {
+            int tokens = tokenUsageCalculator.calculateTokenUsage(List.of(message));
+            if (!current.isEmpty() && currentTokens + tokens > maxChunkTokens) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            current.add(message);
+            currentTokens += tokens;
+        }
+        chunks.add(current);
+        return chunks;
+    }
+
+    private List<String> summarizeChunks(List<List<Message>> chunks) {
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(threadFactory)) {
+            List<CompletableFuture<String>> futures = chunks.stream()
+                    .map(chunk -> CompletableFuture.supplyAsync(() -> summarizeChunk(chunk), executor))
+                    .toList();
+            return futures.stream().map(ChunkingMessageSummarizer::join).toList();
+        }
+    }
+
+    private String summarizeChunk(List<Message> chunk) {
+        permits.acquireUninterruptibly();
+        try {
+            return delegate.summarize(chunk);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.token;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A memoizing decorator for {@link TokenUsageCalculator}.
+ *
+ * <p>Tokenizing with a BPE encoding costs time proportional to the text, and the same text is
+ * often counted again and again: system prompt fragments, tool outputs, retried messages, and
+ * entries counted once when appended and again when a checkpoint is planned. This decorator
+ * counts each message separately and remembers the count of every distinct message it has seen,
+ * so repeated text is only tokenized once.
+ *
+ * <p>Counts are keyed by a 64-bit hash of the message text together with its length and message
+ * type, rather than by the text itself, so the cache never holds on to large message content.
+ * Each instance caches the counts of a single delegate, so counts produced by different encodings
+ * are never mixed. The cache holds at most {@code maxEntries} counts and evicts the least
+ * recently used first. Messages without text are delegated without caching.
+ *
+ * <p>{@link #hitCount()} and {@link #missCount()} report how effective the cache is.
+ *
+ * <p>This class is thread-safe. Tokenization runs outside the cache lock, so concurrent misses
+ * never wait on one another.
+ */
+public class CachingTokenUsageCalculator implements TokenUsageCalculator {
+
+    /**
+     * The number of counts held unless another maximum is given.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final TokenUsageCalculator delegate;
+    private final Map<Key, Integer> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new CachingTokenUsageCalculator holding up to {@link #DEFAULT_MAX_ENTRIES} counts.
+     *
+     * @param delegate the calculator to cache the counts of
+     * @throws NullPointerException if delegate is null
+     */
+    public CachingTokenUsageCalculator(TokenUsageCalculator delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a new CachingTokenUsageCalculator.
+     *
+     * @param delegate the calculator to cache the counts of
+     * @param maxEntries the maximum number of counts to cache; must be positive
+     * @throws NullPointerException if delegate is null
+     * @throws IllegalArgumentException if maxEntries is not positive
+     */
+    public CachingTokenUsageCalculator(TokenUsageCalculator delegate, int maxEntries) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public int calculateTokenUsage(List<Message> messages) {
+        return messages.stream()
+                .mapToInt(this::calculateTokenUsage)
+                .sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the delegate's encoding name
+     */
+    @Override
+    public String encodingName() {
+        return delegate.encodingName();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return this calculator if the delegate counts exactly, otherwise the delegate's exact calculator
+     */
+    @Override
+    public TokenUsageCalculator exactCalculator() {
+        TokenUsageCalculator exact = delegate.exactCalculator();
+        return exact == delegate ? this : exact;
+    }
+
+    /**
+     * Returns the number of messages whose count was served from the cache.
+     *
+     * @return the cache hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of messages that had to be counted by the delegate.
+     *
+     * @return the cache miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of counts currently cached.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private int calculateTokenUsage(Message message) {
+        String text = message.getText();
+        if (text == null) {
+            return delegate.calculateTokenUsage(List.of(message));
+        }
+        Key key = new Key(hash(text), text.length(), message.getMessageType());
+        Integer cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        int tokens = delegate.calculateTokenUsage(List.of(message));
+        synchronized (cache) {
+            cache.put(key, tokens);
+        }
+        return tokens;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units; far cheaper than tokenizing the same text
+    private static long hash(String text) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private record Key(long hash, int length, MessageType messageType) {
+    }
+}
@@ -74,4 +74,14 @@ public class SimpleTokenUsageCalculator implements TokenUsageCalculator {
                 .mapToInt(this::calculateTokenUsage)
                 .sum();
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code chars/} followed by the characters-per-token ratio, e.g. {@code chars/4}
+     */
+    @Override
+    public String encodingName() {
+        return "chars/" + charactersPerToken;
+    }
 }
@@ -40,4 +40,30 @@ public interface TokenUsageCalculator {
      * @return the total estimated or actual token count for all messages
      */
     int calculateTokenUsage(List<Message> messages);
+
+    /**
+     * Returns the name of the encoding whose token counts this calculator produces.
+     *
+     * <p>Repositories record it alongside stored token counts, so counts produced by a different
+     * encoding can be found and recounted after the encoding changes. Calculators counting with
+     * different tokenizers must return different names.
+     *
+     * @return the encoding name, or {@code null} if it is unknown and should not be recorded
+     */
+    default String encodingName() {
+        return null;
+    }
+
+    /**
+     * Returns a calculator that counts exactly with the same encoding as this one.
+     *
+     * <p>A calculator that estimates some counts reports its own {@link #encodingName()} for them,
+     * and recounts use the calculator returned here, so the estimates are found and replaced with
+     * exact counts. Calculators that always count exactly return themselves.
+     *
+     * @return the exact calculator
+     */
+    default TokenUsageCalculator exactCalculator() {
+        return this;
+    }
 }
@@ -17,6 +17,7 @@ package com.callibrity.ai.chatjournal.memory;
 
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContext;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,7 +37,6 @@ import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -44,6 +44,7 @@ import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -65,21 +66,22 @@ class ChatJournalChatMemoryTest {
     @Mock
     private ChatJournalCheckpointer checkpointer;
 
+    @Mock
+    private ChatJournalCheckpointScheduler checkpointScheduler;
+
     @Captor
     private ArgumentCaptor<List<ChatJournalEntry>> entriesCaptor;
 
-    private TaskExecutor taskExecutor;
     private ChatJournalChatMemory chatMemory;
 
     @BeforeEach
     void setUp() {
-        taskExecutor = new SyncTaskExecutor();
         chatMemory = new ChatJournalChatMemory(
                 entryRepository,
                 checkpointRepository,
                 entryMapper,
                 checkpointer,
-                taskExecutor,
+                checkpointScheduler,
                 MAX_ENTRIES
         );
     }
@@ -89,7 +91,7 @@ class ChatJournalChatMemoryTest {
 
         @Test
         void shouldSaveEntriesToRepository() {
-            when(entryRepository.findAll(CONVERSATION_ID)).thenReturn(List.of());
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(0);
             when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(false);
 
             List<Message> messages = List.of(
@@ -117,27 +119,61 @@ class ChatJournalChatMemoryTest {
 
         @Test
         void shouldTriggerCheckpointingWhenRequired() {
-            when(entryRepository.findAll(CONVERSATION_ID)).thenReturn(List.of());
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(0);
             when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(true);
             when(entryMapper.toEntries(any())).thenReturn(List.of());
 
             chatMemory.add(CONVERSATION_ID, List.of(new UserMessage("Hello")));
 
+            verify(checkpointScheduler).schedule(CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldCheckpointOnGivenTaskExecutor() {
+            ChatJournalChatMemory executorMemory = new ChatJournalChatMemory(
+                    entryRepository, checkpointRepository, entryMapper, checkpointer, new SyncTaskExecutor(), MAX_ENTRIES);
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(0);
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(true);
+            when(entryMapper.toEntries(any())).thenReturn(List.of());
+
+            executorMemory.add(CONVERSATION_ID, List.of(new UserMessage("Hello")));
+
             verify(checkpointer).checkpoint(CONVERSATION_ID);
         }
 
+        @Test
+        void shouldNotScheduleCheckpointingWhenNotRequired() {
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(0);
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(false);
+            when(entryMapper.toEntries(any())).thenReturn(List.of());
+
+            chatMemory.add(CONVERSATION_ID, List.of(new UserMessage("Hello")));
+
+            verify(checkpointScheduler, never()).schedule(any());
+        }
+
+        @Test
+        void shouldEnforceLimitWithoutLoadingEntries() {
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(5);
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(false);
+            when(entryMapper.toEntries(any())).thenReturn(List.of());
+
+            chatMemory.add(CONVERSATION_ID, List.of(new UserMessage("Hello")));
+
+            verify(entryRepository).countEntries(CONVERSATION_ID);
+            verify(entryRepository, never()).findAll(any());
+        }
+
         @Test
         void shouldRejectMessagesWhenMaxEntriesExceeded() {
-            when(entryRepository.findAll(CONVERSATION_ID)).thenReturn(
-                    List.of(new ChatJournalEntry(1, "USER", "Existing", 10))
-            );
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(1);
 
             ChatJournalChatMemory smallMemory = new ChatJournalChatMemory(
                     entryRepository,
                     checkpointRepository,
                     entryMapper,
                     checkpointer,
-                    taskExecutor,
+                    checkpointScheduler,
                     2  // maxConversationLength = 2
             );
 
@@ -162,12 +198,11 @@ class ChatJournalChatMemoryTest {
 
         @Test
         void shouldRetrieveMessagesWithoutCheckpoint() {
-            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
             List<ChatJournalEntry> entries = List.of(
                     new ChatJournalEntry(1, MessageType.USER.name(), "Hello", 10),
                     new ChatJournalEntry(2, MessageType.ASSISTANT.name(), "Hi!", 10)
             );
-            when(entryRepository.findAll(CONVERSATION_ID)).thenReturn(entries);
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(null, entries));
 
             List<Message> expectedMessages = List.of(
                     new UserMessage("Hello"),
@@ -187,13 +222,11 @@ class ChatJournalChatMemoryTest {
         @Test
         void shouldIncludeCheckpointSummaryAsSystemMessage() {
             ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(10, "Previous conversation summary", 50);
-            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.of(checkpoint));
-
             List<ChatJournalEntry> entries = List.of(
                     new ChatJournalEntry(11, MessageType.USER.name(), "Hello", 10),
                     new ChatJournalEntry(12, MessageType.ASSISTANT.name(), "Hi!", 10)
             );
-            when(entryRepository.findEntriesAfterIndex(CONVERSATION_ID, 10)).thenReturn(entries);
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(checkpoint, entries));
 
             List<Message> expectedMessages = List.of(
                     new UserMessage("Hello"),
@@ -212,14 +245,24 @@ class ChatJournalChatMemoryTest {
 
         @Test
         void shouldReturnEmptyListWhenNoMessages() {
-            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
-            when(entryRepository.findAll(CONVERSATION_ID)).thenReturn(List.of());
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(null, List.of()));
             when(entryMapper.toMessages(List.of())).thenReturn(List.of());
 
             List<Message> messages = chatMemory.get(CONVERSATION_ID);
 
             assertThat(messages).isEmpty();
         }
+
+        @Test
+        void shouldLoadContextWithoutSeparateCheckpointLookup() {
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(null, List.of()));
+            when(entryMapper.toMessages(List.of())).thenReturn(List.of());
+
+            chatMemory.get(CONVERSATION_ID);
+
+            verify(checkpointRepository, never()).findCheckpoint(any());
+            verify(entryRepository, never()).findAll(any());
+        }
     }
 
     @Nested
@@ -245,7 +288,7 @@ class ChatJournalChatMemoryTest {
                             checkpointRepository,
                             entryMapper,
                             checkpointer,
-                            taskExecutor,
+                            checkpointScheduler,
                             MAX_ENTRIES
                     ))
                     .withMessage("entryRepository must not be null");
@@ -259,7 +302,7 @@ class ChatJournalChatMemoryTest {
                             null,
                             entryMapper,
                             checkpointer,
-                            taskExecutor,
+                            checkpointScheduler,
                             MAX_ENTRIES
                     ))
                     .withMessage("checkpointRepository must not be null");
@@ -273,7 +316,7 @@ class ChatJournalChatMemoryTest {
                             checkpointRepository,
                             null,
                             checkpointer,
-                            taskExecutor,
+                            checkpointScheduler,
                             MAX_ENTRIES
                     ))
                     .withMessage("entryMapper must not be null");
@@ -287,12 +330,26 @@ class ChatJournalChatMemoryTest {
                             checkpointRepository,
                             entryMapper,
                             null,
-                            taskExecutor,
+                            checkpointScheduler,
                             MAX_ENTRIES
                     ))
                     .withMessage("checkpointer must not be null");
         }
 
+        @Test
+        void shouldRejectNullCheckpointScheduler() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ChatJournalChatMemory(
+                            entryRepository,
+                            checkpointRepository,
+                            entryMapper,
+                            checkpointer,
+                            (ChatJournalCheckpointScheduler) null,
+                            MAX_ENTRIES
+                    ))
+                    .withMessage("checkpointScheduler must not be null");
+        }
+
         @Test
         void shouldRejectNullTaskExecutor() {
             assertThatNullPointerException()
@@ -301,7 +358,7 @@ class ChatJournalChatMemoryTest {
                             checkpointRepository,
                             entryMapper,
                             checkpointer,
-                            null,
+                            (TaskExecutor) null,
                             MAX_ENTRIES
                     ))
                     .withMessage("taskExecutor must not be null");
@@ -315,7 +372,7 @@ class ChatJournalChatMemoryTest {
                             checkpointRepository,
                             entryMapper,
                             checkpointer,
-                            taskExecutor,
+                            checkpointScheduler,
                             0
                     ))
                     .withMessage("maxConversationLength must be positive");
@@ -329,7 +386,7 @@ class ChatJournalChatMemoryTest {
                             checkpointRepository,
                             entryMapper,
                             checkpointer,
-                            taskExecutor,
+                            checkpointScheduler,
                             -100
                     ))
                     .withMessage("maxConversationLength must be positive");
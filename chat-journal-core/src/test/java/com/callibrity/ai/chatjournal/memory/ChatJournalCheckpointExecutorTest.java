@@ -0,0 +1,333 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import com.callibrity.ai.chatjournal.memory.ChatJournalCheckpointExecutor.OverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatJournalCheckpointExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<ChatJournalCheckpointExecutor> executors = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executors.forEach(ChatJournalCheckpointExecutor::close);
+    }
+
+    private ChatJournalCheckpointExecutor executor(int maxConcurrency, int queueCapacity, OverflowPolicy policy) {
+        ChatJournalCheckpointExecutor executor = new ChatJournalCheckpointExecutor(maxConcurrency, queueCapacity, policy);
+        executors.add(executor);
+        return executor;
+    }
+
+    private Runnable blockingTask(CountDownLatch started) {
+        return () -> {
+            started.countDown();
+            awaitQuietly(release);
+        };
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Nested
+    class Execution {
+
+        @Test
+        void shouldRunTasksOnVirtualThreads() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(2, 10, OverflowPolicy.DROP);
+            AtomicReference<Thread> thread = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+
+            executor.execute(() -> {
+                thread.set(Thread.currentThread());
+                done.countDown();
+            });
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(thread.get().isVirtual()).isTrue();
+            assertThat(thread.get().getName()).startsWith("chat-journal-checkpoint-");
+        }
+
+        @Test
+        void shouldLimitConcurrency() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(2, 10, OverflowPolicy.DROP);
+            CountDownLatch started = new CountDownLatch(2);
+
+            for (int i = 0; i < 5; i++) {
+                executor.execute(blockingTask(started));
+            }
+
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(executor.activeCount()).isEqualTo(2);
+            assertThat(executor.queuedCount()).isEqualTo(3);
+        }
+
+        @Test
+        void shouldDrainQueueAfterTasksComplete() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(1, 10, OverflowPolicy.DROP);
+            CountDownLatch done = new CountDownLatch(5);
+            CountDownLatch started = new CountDownLatch(1);
+            executor.execute(blockingTask(started));
+            for (int i = 0; i < 5; i++) {
+                executor.execute(done::countDown);
+            }
+
+            release.countDown();
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            awaitUntil(() -> executor.activeCount() == 0);
+        }
+
+        @Test
+        void shouldContinueAfterTaskFailure() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(1, 10, OverflowPolicy.DROP);
+            CountDownLatch done = new CountDownLatch(1);
+
+            executor.execute(() -> {
+                throw new IllegalStateException("boom");
+            });
+            executor.execute(done::countDown);
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Nested
+    class Overflow {
+
+        @Test
+        void shouldRejectWhenFullWithDropPolicy() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(1, 1, OverflowPolicy.DROP);
+            CountDownLatch started = new CountDownLatch(1);
+            executor.execute(blockingTask(started));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.execute(() -> { });
+
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(TaskRejectedException.class);
+            assertThat(executor.droppedCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldRunOnCallerWhenFullWithCallerRunsPolicy() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(1, 1, OverflowPolicy.CALLER_RUNS);
+            CountDownLatch started = new CountDownLatch(1);
+            executor.execute(blockingTask(started));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.execute(() -> { });
+            AtomicReference<Thread> thread = new AtomicReference<>();
+            AtomicInteger activeDuringRun = new AtomicInteger();
+            Thread caller = Thread.ofVirtual().start(() -> executor.execute(() -> {
+                thread.set(Thread.currentThread());
+                activeDuringRun.set(executor.activeCount());
+            }));
+
+            awaitUntil(() -> caller.getState() == Thread.State.WAITING);
+            assertThat(thread.get()).isNull();
+
+            release.countDown();
+            caller.join(TimeUnit.SECONDS.toMillis(5));
+
+            assertThat(thread.get()).isSameAs(caller);
+            assertThat(activeDuringRun).hasValue(1);
+        }
+
+        @Test
+        void shouldRunOverflowInlineWhenSubmittedFromWorker() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(1, 1, OverflowPolicy.CALLER_RUNS);
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicReference<Thread> worker = new AtomicReference<>();
+            AtomicReference<Thread> overflow = new AtomicReference<>();
+            executor.execute(() -> {
+                worker.set(Thread.currentThread());
+                executor.execute(() -> { });
+                executor.execute(() -> overflow.set(Thread.currentThread()));
+                started.countDown();
+            });
+
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(overflow.get()).isSameAs(worker.get());
+        }
+
+        @Test
+        void shouldEventuallyRunDeferredTasks() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(1, 2, OverflowPolicy.DEFER);
+            CountDownLatch started = new CountDownLatch(1);
+            executor.execute(blockingTask(started));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            AtomicInteger completed = new AtomicInteger();
+            for (int i = 0; i < 4; i++) {
+                executor.execute(completed::incrementAndGet);
+            }
+
+            assertThat(executor.deferredCount()).isEqualTo(2);
+
+            release.countDown();
+
+            awaitUntil(() -> completed.get() == 4);
+            assertThat(executor.deferredCount()).isZero();
+        }
+
+        @Test
+        void shouldBlockCallerOnceDeferredTasksReachQueueCapacity() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(1, 1, OverflowPolicy.DEFER);
+            CountDownLatch started = new CountDownLatch(1);
+            executor.execute(blockingTask(started));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            AtomicInteger completed = new AtomicInteger();
+            executor.execute(completed::incrementAndGet);
+            executor.execute(completed::incrementAndGet);
+            Thread caller = Thread.ofVirtual().start(() -> executor.execute(completed::incrementAndGet));
+
+            awaitUntil(() -> caller.getState() == Thread.State.WAITING);
+            assertThat(executor.deferredCount()).isEqualTo(1);
+
+            release.countDown();
+            caller.join(TimeUnit.SECONDS.toMillis(5));
+
+            awaitUntil(() -> completed.get() == 3);
+        }
+    }
+
+    @Nested
+    class Close {
+
+        @Test
+        void shouldRejectTasksAfterClose() {
+            ChatJournalCheckpointExecutor executor = executor(1, 1, OverflowPolicy.DROP);
+
+            executor.close();
+
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(TaskRejectedException.class)
+                    .hasMessage("Checkpoint executor has been closed");
+        }
+
+        @Test
+        void shouldDiscardQueuedTasksOnClose() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(1, 5, OverflowPolicy.DROP);
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicInteger completed = new AtomicInteger();
+            executor.execute(blockingTask(started));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.execute(completed::incrementAndGet);
+
+            executor.close();
+            release.countDown();
+
+            awaitUntil(() -> executor.activeCount() == 0);
+            assertThat(executor.queuedCount()).isZero();
+            assertThat(completed).hasValue(0);
+        }
+
+        @Test
+        void shouldNotifyDiscardableTasksOnClose() throws InterruptedException {
+            ChatJournalCheckpointExecutor executor = executor(1, 1, OverflowPolicy.DEFER);
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicInteger discarded = new AtomicInteger();
+            AtomicInteger completed = new AtomicInteger();
+            executor.execute(blockingTask(started));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.execute(discardable(completed, discarded));
+            executor.execute(discardable(completed, discarded));
+
+            executor.close();
+            release.countDown();
+
+            awaitUntil(() -> discarded.get() == 2);
+            awaitUntil(() -> executor.deferredCount() == 0);
+            assertThat(completed).hasValue(0);
+        }
+
+        private static ChatJournalCheckpointExecutor.DiscardableTask discardable(AtomicInteger completed, AtomicInteger discarded) {
+            return new ChatJournalCheckpointExecutor.DiscardableTask() {
+                @Override
+                public void run() {
+                    completed.incrementAndGet();
+                }
+
+                @Override
+                public void discard() {
+                    discarded.incrementAndGet();
+                }
+            };
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void shouldRejectNonPositiveMaxConcurrency() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ChatJournalCheckpointExecutor(0, 1, OverflowPolicy.DROP))
+                    .withMessage("maxConcurrency must be positive");
+        }
+
+        @Test
+        void shouldRejectNonPositiveQueueCapacity() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ChatJournalCheckpointExecutor(1, 0, OverflowPolicy.DROP))
+                    .withMessage("queueCapacity must be positive");
+        }
+
+        @Test
+        void shouldRejectNullOverflowPolicy() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ChatJournalCheckpointExecutor(1, 1, null))
+                    .withMessage("overflowPolicy must not be null");
+        }
+
+        @Test
+        void shouldRejectNullTask() {
+            ChatJournalCheckpointExecutor executor = executor(1, 1, OverflowPolicy.DROP);
+            assertThatNullPointerException()
+                    .isThrownBy(() -> executor.execute(null))
+                    .withMessage("task must not be null");
+        }
+    }
+}
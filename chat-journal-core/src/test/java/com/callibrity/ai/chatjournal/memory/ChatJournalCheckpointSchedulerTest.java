@@ -0,0 +1,266 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatJournalCheckpointSchedulerTest {
+
+    private static final String CONVERSATION_ID = "test-conversation";
+
+    @Mock
+    private ChatJournalCheckpointer checkpointer;
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final TaskExecutor taskExecutor = tasks::add;
+
+    private ChatJournalCheckpointScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ChatJournalCheckpointScheduler(checkpointer, taskExecutor);
+    }
+
+    private void runNextTask() {
+        tasks.remove().run();
+    }
+
+    @Nested
+    class Schedule {
+
+        @Test
+        void shouldSubmitTaskForIdleConversation() {
+            boolean submitted = scheduler.schedule(CONVERSATION_ID);
+
+            assertThat(submitted).isTrue();
+            assertThat(tasks).hasSize(1);
+            assertThat(scheduler.queuedCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldCoalesceRequestsWhileQueued() {
+            scheduler.schedule(CONVERSATION_ID);
+
+            boolean submitted = scheduler.schedule(CONVERSATION_ID);
+
+            assertThat(submitted).isFalse();
+            assertThat(tasks).hasSize(1);
+            assertThat(scheduler.queuedCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldScheduleConversationsIndependently() {
+            scheduler.schedule("conversation-1");
+            scheduler.schedule("conversation-2");
+
+            assertThat(tasks).hasSize(2);
+            assertThat(scheduler.queuedCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldCheckpointWhenStillRequired() {
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(true);
+            scheduler.schedule(CONVERSATION_ID);
+
+            runNextTask();
+
+            verify(checkpointer).checkpoint(CONVERSATION_ID);
+            assertThat(scheduler.queuedCount()).isZero();
+            assertThat(scheduler.inFlightCount()).isZero();
+        }
+
+        @Test
+        void shouldSkipCheckpointWhenNoLongerRequired() {
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(false);
+            scheduler.schedule(CONVERSATION_ID);
+
+            runNextTask();
+
+            verify(checkpointer, never()).checkpoint(CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldAllowNewTaskAfterCompletion() {
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(false);
+            scheduler.schedule(CONVERSATION_ID);
+            runNextTask();
+
+            boolean submitted = scheduler.schedule(CONVERSATION_ID);
+
+            assertThat(submitted).isTrue();
+        }
+    }
+
+    @Nested
+    class WhileRunning {
+
+        @Test
+        void shouldReportInFlightTask() {
+            AtomicInteger inFlightDuringRun = new AtomicInteger(-1);
+            AtomicInteger queuedDuringRun = new AtomicInteger(-1);
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(true);
+            doAnswer(invocation -> {
+                inFlightDuringRun.set(scheduler.inFlightCount());
+                queuedDuringRun.set(scheduler.queuedCount());
+                return null;
+            }).when(checkpointer).checkpoint(CONVERSATION_ID);
+            scheduler.schedule(CONVERSATION_ID);
+
+            runNextTask();
+
+            assertThat(inFlightDuringRun).hasValue(1);
+            assertThat(queuedDuringRun).hasValue(0);
+        }
+
+        @Test
+        void shouldRerunOnceWhenRequestedDuringRun() {
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(true);
+            doAnswer(invocation -> {
+                assertThat(scheduler.schedule(CONVERSATION_ID)).isFalse();
+                assertThat(scheduler.schedule(CONVERSATION_ID)).isFalse();
+                assertThat(scheduler.schedule(CONVERSATION_ID)).isFalse();
+                return null;
+            }).doNothing().when(checkpointer).checkpoint(CONVERSATION_ID);
+            scheduler.schedule(CONVERSATION_ID);
+
+            runNextTask();
+
+            assertThat(tasks).hasSize(1);
+            assertThat(scheduler.queuedCount()).isEqualTo(1);
+
+            runNextTask();
+
+            assertThat(tasks).isEmpty();
+            verify(checkpointer, times(2)).checkpoint(CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldNotRerunWithoutNewRequests() {
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(true);
+            scheduler.schedule(CONVERSATION_ID);
+
+            runNextTask();
+
+            assertThat(tasks).isEmpty();
+        }
+    }
+
+    @Nested
+    class Failures {
+
+        @Test
+        void shouldReleaseConversationWhenCheckpointFails() {
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(true);
+            doThrow(new IllegalStateException("boom")).when(checkpointer).checkpoint(CONVERSATION_ID);
+            scheduler.schedule(CONVERSATION_ID);
+
+            runNextTask();
+
+            assertThat(scheduler.inFlightCount()).isZero();
+            assertThat(scheduler.schedule(CONVERSATION_ID)).isTrue();
+        }
+
+        @Test
+        void shouldDropRequestWhenExecutorRejects() {
+            ChatJournalCheckpointScheduler rejecting = new ChatJournalCheckpointScheduler(checkpointer, task -> {
+                throw new TaskRejectedException("full");
+            });
+
+            assertThat(rejecting.schedule(CONVERSATION_ID)).isFalse();
+            assertThat(rejecting.queuedCount()).isZero();
+        }
+
+        @Test
+        void shouldReleaseConversationWhenTaskIsDiscarded() {
+            scheduler.schedule(CONVERSATION_ID);
+
+            ((ChatJournalCheckpointExecutor.DiscardableTask) tasks.remove()).discard();
+
+            assertThat(scheduler.queuedCount()).isZero();
+            assertThat(scheduler.schedule(CONVERSATION_ID)).isTrue();
+            verify(checkpointer, never()).checkpoint(CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldReleaseConversationWhenExecutorFails() {
+            ChatJournalCheckpointScheduler failing = new ChatJournalCheckpointScheduler(checkpointer, task -> {
+                throw new IllegalStateException("broken");
+            });
+
+            assertThatExceptionOfType(IllegalStateException.class)
+                    .isThrownBy(() -> failing.schedule(CONVERSATION_ID));
+
+            assertThat(failing.queuedCount()).isZero();
+            assertThatExceptionOfType(IllegalStateException.class)
+                    .isThrownBy(() -> failing.schedule(CONVERSATION_ID));
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void shouldRejectNullCheckpointer() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ChatJournalCheckpointScheduler(null, taskExecutor))
+                    .withMessage("checkpointer must not be null");
+        }
+
+        @Test
+        void shouldRejectNullTaskExecutor() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ChatJournalCheckpointScheduler(checkpointer, null))
+                    .withMessage("taskExecutor must not be null");
+        }
+
+        @Test
+        void shouldRejectNullConversationId() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> scheduler.schedule(null))
+                    .withMessage("conversationId must not be null");
+        }
+
+        @Test
+        void shouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> scheduler.schedule(""))
+                    .withMessage("conversationId must not be empty");
+        }
+    }
+}
@@ -19,6 +19,7 @@ import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryTokens;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -30,13 +31,16 @@ import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -70,7 +74,8 @@ class ChatJournalCheckpointerTest {
                 checkpointFactory,
                 entryMapper,
                 1000,  // maxTokens
-                2      // minRetainedEntries
+                500,   // lowWatermarkTokens
+                1      // minRetainedEntries
         );
     }
 
@@ -79,8 +84,7 @@ class ChatJournalCheckpointerTest {
 
         @Test
         void shouldReturnTrueWhenTokensExceedMax() {
-            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
-            when(entryRepository.sumTokens(CONVERSATION_ID)).thenReturn(1500);
+            when(entryRepository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).thenReturn(1500);
 
             boolean result = checkpointer.requiresCheckpoint(CONVERSATION_ID);
 
@@ -89,8 +93,7 @@ class ChatJournalCheckpointerTest {
 
         @Test
         void shouldReturnFalseWhenTokensWithinLimit() {
-            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
-            when(entryRepository.sumTokens(CONVERSATION_ID)).thenReturn(500);
+            when(entryRepository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).thenReturn(500);
 
             boolean result = checkpointer.requiresCheckpoint(CONVERSATION_ID);
 
@@ -99,8 +102,7 @@ class ChatJournalCheckpointerTest {
 
         @Test
         void shouldReturnFalseWhenTokensEqualMax() {
-            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
-            when(entryRepository.sumTokens(CONVERSATION_ID)).thenReturn(1000);
+            when(entryRepository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).thenReturn(1000);
 
             boolean result = checkpointer.requiresCheckpoint(CONVERSATION_ID);
 
@@ -108,14 +110,14 @@ class ChatJournalCheckpointerTest {
         }
 
         @Test
-        void shouldConsiderExistingCheckpointTokens() {
-            ChatJournalCheckpoint existingCheckpoint = new ChatJournalCheckpoint(10, "Previous summary", 400);
-            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.of(existingCheckpoint));
-            when(entryRepository.sumTokensAfterIndex(CONVERSATION_ID, 10)).thenReturn(700);
+        void shouldNotSumJournalOrLoadCheckpoint() {
+            when(entryRepository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).thenReturn(1100);
 
-            boolean result = checkpointer.requiresCheckpoint(CONVERSATION_ID);
+            checkpointer.requiresCheckpoint(CONVERSATION_ID);
 
-            assertThat(result).isTrue();  // 400 + 700 = 1100 > 1000
+            verify(checkpointRepository, never()).findCheckpoint(anyString());
+            verify(entryRepository, never()).sumTokens(anyString());
+            verify(entryRepository, never()).sumTokensAfterIndex(anyString(), anyLong());
         }
     }
 
@@ -124,15 +126,15 @@ class ChatJournalCheckpointerTest {
 
         @Test
         void shouldCreateCheckpointWhenNoExistingCheckpoint() {
-            List<ChatJournalEntry> entries = List.of(
-                    new ChatJournalEntry(1, "USER", "Hello", 10),
-                    new ChatJournalEntry(2, "ASSISTANT", "Hi!", 10),
-                    new ChatJournalEntry(3, "USER", "How are you?", 10),
-                    new ChatJournalEntry(4, "ASSISTANT", "I'm good!", 10)
-            );
             when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
-            when(entryRepository.findAll(CONVERSATION_ID)).thenReturn(entries);
-            when(entryMapper.toMessages(any())).thenReturn(List.of(
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1))
+                    .thenReturn(entryTokens(1, 200, 200, 200, 200));
+            List<ChatJournalEntry> entriesToCompact = List.of(
+                    new ChatJournalEntry(1, "USER", "Hello", 200),
+                    new ChatJournalEntry(2, "ASSISTANT", "Hi!", 200)
+            );
+            when(entryRepository.findEntriesInRange(CONVERSATION_ID, -1, 2)).thenReturn(entriesToCompact);
+            when(entryMapper.toMessages(entriesToCompact)).thenReturn(List.of(
                     new UserMessage("Hello"),
                     new AssistantMessage("Hi!")
             ));
@@ -147,16 +149,15 @@ class ChatJournalCheckpointerTest {
         @Test
         void shouldIncludeExistingCheckpointSummaryInMessages() {
             ChatJournalCheckpoint existingCheckpoint = new ChatJournalCheckpoint(2, "Previous summary", 50);
-            List<ChatJournalEntry> entriesAfterCheckpoint = List.of(
-                    new ChatJournalEntry(3, "USER", "Continue", 10),
-                    new ChatJournalEntry(4, "ASSISTANT", "Sure!", 10),
-                    new ChatJournalEntry(5, "USER", "Thanks", 10),
-                    new ChatJournalEntry(6, "ASSISTANT", "You're welcome", 10)
-            );
-
             when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.of(existingCheckpoint));
-            when(entryRepository.findEntriesAfterIndex(CONVERSATION_ID, 2)).thenReturn(entriesAfterCheckpoint);
-            when(entryMapper.toMessages(any())).thenReturn(List.of(
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, 2))
+                    .thenReturn(entryTokens(3, 200, 200, 200, 200));
+            List<ChatJournalEntry> entriesToCompact = List.of(
+                    new ChatJournalEntry(3, "USER", "Continue", 200),
+                    new ChatJournalEntry(4, "ASSISTANT", "Sure!", 200)
+            );
+            when(entryRepository.findEntriesInRange(CONVERSATION_ID, 2, 4)).thenReturn(entriesToCompact);
+            when(entryMapper.toMessages(entriesToCompact)).thenReturn(List.of(
                     new UserMessage("Continue"),
                     new AssistantMessage("Sure!")
             ));
@@ -174,56 +175,134 @@ class ChatJournalCheckpointerTest {
                     .contains("Summary of previous conversation: Previous summary");
         }
 
+        @Test
+        void shouldNotLoadContentOfRetainedEntries() {
+            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1))
+                    .thenReturn(entryTokens(1, 200, 200, 200, 200));
+            when(checkpointFactory.createCheckpoint(any(), eq(2L)))
+                    .thenReturn(new ChatJournalCheckpoint(2, "Summary", 20));
+
+            checkpointer.checkpoint(CONVERSATION_ID);
+
+            verify(entryRepository).findEntriesInRange(CONVERSATION_ID, -1, 2);
+            verify(entryRepository, never()).findAll(anyString());
+            verify(entryRepository, never()).findEntriesAfterIndex(anyString(), anyLong());
+        }
+
+        @Test
+        void shouldRetainMinRetainedEntriesEvenUnderTheLowWatermark() {
+            ChatJournalCheckpointer retainingCheckpointer = new ChatJournalCheckpointer(
+                    entryRepository, checkpointRepository, checkpointFactory, entryMapper, 1000, 500, 3);
+            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1))
+                    .thenReturn(entryTokens(1, 100, 100, 300, 300, 300));
+            when(checkpointFactory.createCheckpoint(any(), eq(2L)))
+                    .thenReturn(new ChatJournalCheckpoint(2, "Summary", 20));
+
+            retainingCheckpointer.checkpoint(CONVERSATION_ID);
+
+            verify(entryRepository).findEntriesInRange(CONVERSATION_ID, -1, 2);
+        }
+
+        @Test
+        @SuppressWarnings("deprecation")
+        void shouldRetainFixedEntryCountWithDeprecatedConstructor() {
+            ChatJournalCheckpointer fixedCheckpointer = new ChatJournalCheckpointer(
+                    entryRepository, checkpointRepository, checkpointFactory, entryMapper, 1000, 2);
+            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1))
+                    .thenReturn(entryTokens(1, 10, 10, 10, 10, 10));
+            when(checkpointFactory.createCheckpoint(any(), eq(3L)))
+                    .thenReturn(new ChatJournalCheckpoint(3, "Summary", 20));
+
+            fixedCheckpointer.checkpoint(CONVERSATION_ID);
+
+            verify(entryRepository).findEntriesInRange(CONVERSATION_ID, -1, 3);
+        }
+
         @Test
         void shouldSkipWhenNotEnoughEntries() {
-            List<ChatJournalEntry> entries = List.of(
-                    new ChatJournalEntry(1, "USER", "Hello", 10)
-            );
             when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
-            when(entryRepository.findAll(CONVERSATION_ID)).thenReturn(entries);
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1)).thenReturn(entryTokens(1, 10));
 
             checkpointer.checkpoint(CONVERSATION_ID);
 
+            verify(entryRepository, never()).findEntriesInRange(anyString(), anyLong(), anyLong());
             verify(checkpointRepository, never()).saveCheckpoint(anyString(), any());
         }
 
         @Test
-        void shouldSkipWhenEntriesEqualMinRetained() {
-            List<ChatJournalEntry> entries = List.of(
-                    new ChatJournalEntry(1, "USER", "Hello", 10),
-                    new ChatJournalEntry(2, "ASSISTANT", "Hi!", 10)
-            );
+        void shouldSkipWhenNoEntries() {
             when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
-            when(entryRepository.findAll(CONVERSATION_ID)).thenReturn(entries);
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1)).thenReturn(List.of());
 
             checkpointer.checkpoint(CONVERSATION_ID);
 
             verify(checkpointRepository, never()).saveCheckpoint(anyString(), any());
         }
-    }
 
-    @Nested
-    class GetTotalTokens {
+        @Test
+        void shouldSkipWhenAllEntriesFitUnderLowWatermark() {
+            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1)).thenReturn(entryTokens(1, 10, 10));
+
+            checkpointer.checkpoint(CONVERSATION_ID);
+
+            verify(entryRepository, never()).findEntriesInRange(anyString(), anyLong(), anyLong());
+            verify(checkpointRepository, never()).saveCheckpoint(anyString(), any());
+        }
 
         @Test
-        void shouldReturnSumOfAllTokensWhenNoCheckpoint() {
+        void shouldAlwaysRetainMostRecentEntryEvenIfOverLowWatermark() {
             when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
-            when(entryRepository.sumTokens(CONVERSATION_ID)).thenReturn(500);
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1))
+                    .thenReturn(entryTokens(1, 100, 100, 900));
+            ChatJournalCheckpoint newCheckpoint = new ChatJournalCheckpoint(2, "Greeting exchange", 20);
+            when(checkpointFactory.createCheckpoint(any(), eq(2L))).thenReturn(newCheckpoint);
 
-            int totalTokens = checkpointer.getTotalTokens(CONVERSATION_ID);
+            checkpointer.checkpoint(CONVERSATION_ID);
 
-            assertThat(totalTokens).isEqualTo(500);
+            verify(entryRepository).findEntriesInRange(CONVERSATION_ID, -1, 2);
+            verify(checkpointRepository).saveCheckpoint(CONVERSATION_ID, newCheckpoint);
         }
 
         @Test
-        void shouldReturnCheckpointPlusRecentTokensWhenCheckpointExists() {
-            ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(10, "Summary", 200);
-            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.of(checkpoint));
-            when(entryRepository.sumTokensAfterIndex(CONVERSATION_ID, 10)).thenReturn(300);
+        void shouldReserveExistingSummaryTokensFromLowWatermark() {
+            ChatJournalCheckpoint existingCheckpoint = new ChatJournalCheckpoint(2, "Long summary", 400);
+            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.of(existingCheckpoint));
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, 2))
+                    .thenReturn(entryTokens(3, 60, 60, 60));
+            ChatJournalCheckpoint newCheckpoint = new ChatJournalCheckpoint(4, "Combined summary", 400);
+            when(checkpointFactory.createCheckpoint(any(), eq(4L))).thenReturn(newCheckpoint);
+
+            checkpointer.checkpoint(CONVERSATION_ID);
+
+            verify(entryRepository).findEntriesInRange(CONVERSATION_ID, 2, 4);
+            verify(checkpointRepository).saveCheckpoint(CONVERSATION_ID, newCheckpoint);
+        }
+
+        private static List<ChatJournalEntryTokens> entryTokens(long firstIndex, int... tokens) {
+            List<ChatJournalEntryTokens> result = new ArrayList<>();
+            int tailTokens = IntStream.of(tokens).sum();
+            for (int i = 0; i < tokens.length; i++) {
+                result.add(new ChatJournalEntryTokens(firstIndex + i, tokens[i], tailTokens));
+                tailTokens -= tokens[i];
+            }
+            return result;
+        }
+    }
+
+    @Nested
+    class GetTotalTokens {
+
+        @Test
+        void shouldReturnEffectiveTokensFromRepository() {
+            when(entryRepository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).thenReturn(500);
 
             int totalTokens = checkpointer.getTotalTokens(CONVERSATION_ID);
 
-            assertThat(totalTokens).isEqualTo(500);  // 200 + 300
+            assertThat(totalTokens).isEqualTo(500);
         }
     }
 
@@ -243,7 +322,7 @@ class ChatJournalCheckpointerTest {
         void shouldRejectNullEntryRepository() {
             assertThatNullPointerException()
                     .isThrownBy(() -> new ChatJournalCheckpointer(
-                            null, checkpointRepository, checkpointFactory, entryMapper, 1000, 2))
+                            null, checkpointRepository, checkpointFactory, entryMapper, 1000, 500, 1))
                     .withMessage("entryRepository must not be null");
         }
 
@@ -251,7 +330,7 @@ class ChatJournalCheckpointerTest {
         void shouldRejectNullCheckpointRepository() {
             assertThatNullPointerException()
                     .isThrownBy(() -> new ChatJournalCheckpointer(
-                            entryRepository, null, checkpointFactory, entryMapper, 1000, 2))
+                            entryRepository, null, checkpointFactory, entryMapper, 1000, 500, 1))
                     .withMessage("checkpointRepository must not be null");
         }
 
@@ -259,7 +338,7 @@ class ChatJournalCheckpointerTest {
         void shouldRejectNullCheckpointFactory() {
             assertThatNullPointerException()
                     .isThrownBy(() -> new ChatJournalCheckpointer(
-                            entryRepository, checkpointRepository, null, entryMapper, 1000, 2))
+                            entryRepository, checkpointRepository, null, entryMapper, 1000, 500, 1))
                     .withMessage("checkpointFactory must not be null");
         }
 
@@ -267,7 +346,7 @@ class ChatJournalCheckpointerTest {
         void shouldRejectNullEntryMapper() {
             assertThatNullPointerException()
                     .isThrownBy(() -> new ChatJournalCheckpointer(
-                            entryRepository, checkpointRepository, checkpointFactory, null, 1000, 2))
+                            entryRepository, checkpointRepository, checkpointFactory, null, 1000, 500, 1))
                     .withMessage("entryMapper must not be null");
         }
 
@@ -275,7 +354,7 @@ class ChatJournalCheckpointerTest {
         void shouldRejectZeroMaxTokens() {
             assertThatIllegalArgumentException()
                     .isThrownBy(() -> new ChatJournalCheckpointer(
-                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, 0, 2))
+                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, 0, 500, 1))
                     .withMessage("maxTokens must be positive");
         }
 
@@ -283,25 +362,42 @@ class ChatJournalCheckpointerTest {
         void shouldRejectNegativeMaxTokens() {
             assertThatIllegalArgumentException()
                     .isThrownBy(() -> new ChatJournalCheckpointer(
-                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, -100, 2))
+                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, -100, 500, 1))
                     .withMessage("maxTokens must be positive");
         }
 
+        @Test
+        void shouldRejectNegativeLowWatermarkTokens() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ChatJournalCheckpointer(
+                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, 1000, -1, 1))
+                    .withMessage("lowWatermarkTokens must not be negative");
+        }
+
         @Test
         void shouldRejectZeroMinRetainedEntries() {
             assertThatIllegalArgumentException()
                     .isThrownBy(() -> new ChatJournalCheckpointer(
-                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, 1000, 0))
+                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, 1000, 500, 0))
                     .withMessage("minRetainedEntries must be positive");
         }
 
         @Test
-        void shouldRejectNegativeMinRetainedEntries() {
+        @SuppressWarnings("deprecation")
+        void shouldRejectZeroMinRetainedEntriesInDeprecatedConstructor() {
             assertThatIllegalArgumentException()
                     .isThrownBy(() -> new ChatJournalCheckpointer(
-                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, 1000, -1))
+                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, 1000, 0))
                     .withMessage("minRetainedEntries must be positive");
         }
+
+        @Test
+        void shouldRejectLowWatermarkTokensNotLessThanMaxTokens() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ChatJournalCheckpointer(
+                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, 1000, 1000, 1))
+                    .withMessage("lowWatermarkTokens must be less than maxTokens");
+        }
     }
 
     @Nested
@@ -29,11 +29,13 @@ import org.springframework.ai.chat.messages.MessageType;
 import org.springframework.ai.chat.messages.UserMessage;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class ChatJournalEntryMapperTest {
@@ -74,6 +76,38 @@ class ChatJournalEntryMapperTest {
             assertThat(entry.content()).isEqualTo("Hi there!");
         }
 
+        @Test
+        void shouldUseRecordedTokensForAssistantMessage() {
+            AssistantMessage message = AssistantMessage.builder()
+                    .content("Hi there!")
+                    .properties(Map.of(ChatJournalTokenUsageAdvisor.TOKENS_METADATA_KEY, 42))
+                    .build();
+
+            ChatJournalEntry entry = mapper.toEntry(message);
+
+            assertThat(entry.tokens()).isEqualTo(42);
+            verifyNoInteractions(tokenUsageCalculator);
+        }
+
+        @Test
+        void shouldCalculateTokensWhenNoneRecorded() {
+            ChatJournalEntry entry = mapper.toEntry(new AssistantMessage("Hi there!"));
+
+            assertThat(entry.tokens()).isEqualTo(100);
+        }
+
+        @Test
+        void shouldIgnoreRecordedTokensOnUserMessage() {
+            UserMessage message = UserMessage.builder()
+                    .text("Hello")
+                    .metadata(Map.of(ChatJournalTokenUsageAdvisor.TOKENS_METADATA_KEY, 42))
+                    .build();
+
+            ChatJournalEntry entry = mapper.toEntry(message);
+
+            assertThat(entry.tokens()).isEqualTo(100);
+        }
+
         @Test
         void shouldRejectNullMessage() {
             assertThatNullPointerException()
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.MessageAggregator;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatJournalTokenUsageAdvisorTest {
+
+    private final ChatClientRequest request = ChatClientRequest.builder().prompt(new Prompt("Hello")).build();
+
+    private final ChatJournalTokenUsageAdvisor advisor = new ChatJournalTokenUsageAdvisor();
+
+    private static ChatClientResponse response(List<Generation> generations, Integer completionTokens) {
+        ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+        if (completionTokens != null) {
+            metadata.usage(new DefaultUsage(10, completionTokens));
+        }
+        return ChatClientResponse.builder()
+                .chatResponse(new ChatResponse(generations, metadata.build()))
+                .build();
+    }
+
+    private static ChatClientResponse response(String text, Integer completionTokens) {
+        return response(List.of(new Generation(new AssistantMessage(text))), completionTokens);
+    }
+
+    private static AssistantMessage output(ChatClientResponse response) {
+        return response.chatResponse().getResult().getOutput();
+    }
+
+    @Test
+    void shouldRunInsideChatMemoryAdvisorByDefault() {
+        assertThat(advisor.getOrder()).isGreaterThan(Advisor.DEFAULT_CHAT_MEMORY_PRECEDENCE_ORDER);
+        assertThat(new ChatJournalTokenUsageAdvisor(42).getOrder()).isEqualTo(42);
+    }
+
+    @Nested
+    class Call {
+
+        @Mock
+        private CallAdvisorChain chain;
+
+        @Test
+        void shouldRecordCompletionTokensOnAssistantMessage() {
+            when(chain.nextCall(request)).thenReturn(response("Hi there!", 7));
+
+            ChatClientResponse response = advisor.adviseCall(request, chain);
+
+            assertThat(output(response).getText()).isEqualTo("Hi there!");
+            assertThat(ChatJournalTokenUsageAdvisor.recordedTokens(output(response))).isEqualTo(7);
+            assertThat(response.chatResponse().getMetadata().getUsage().getCompletionTokens()).isEqualTo(7);
+        }
+
+        @Test
+        void shouldPassThroughResponseWithoutUsage() {
+            ChatClientResponse original = response("Hi there!", null);
+            when(chain.nextCall(request)).thenReturn(original);
+
+            assertThat(advisor.adviseCall(request, chain)).isSameAs(original);
+        }
+
+        @Test
+        void shouldPassThroughResponseWithZeroCompletionTokens() {
+            ChatClientResponse original = response("Hi there!", 0);
+            when(chain.nextCall(request)).thenReturn(original);
+
+            assertThat(advisor.adviseCall(request, chain)).isSameAs(original);
+        }
+
+        @Test
+        void shouldPassThroughResponseWithSeveralGenerations() {
+            ChatClientResponse original = response(List.of(
+                    new Generation(new AssistantMessage("One")),
+                    new Generation(new AssistantMessage("Two"))
+            ), 7);
+            when(chain.nextCall(request)).thenReturn(original);
+
+            assertThat(advisor.adviseCall(request, chain)).isSameAs(original);
+        }
+
+        @Test
+        void shouldPassThroughResponseWithoutChatResponse() {
+            ChatClientResponse original = ChatClientResponse.builder().build();
+            when(chain.nextCall(request)).thenReturn(original);
+
+            assertThat(advisor.adviseCall(request, chain)).isSameAs(original);
+        }
+    }
+
+    @Nested
+    class Stream {
+
+        @Mock
+        private StreamAdvisorChain chain;
+
+        @Test
+        void shouldRecordTokensThatSurviveAggregation() {
+            when(chain.nextStream(request)).thenReturn(Flux.just(
+                    response("Hi ", null),
+                    response("there!", null),
+                    response(List.of(), 7)
+            ));
+            AtomicReference<ChatResponse> aggregated = new AtomicReference<>();
+
+            new MessageAggregator()
+                    .aggregate(advisor.adviseStream(request, chain).map(ChatClientResponse::chatResponse), aggregated::set)
+                    .blockLast();
+
+            AssistantMessage message = aggregated.get().getResult().getOutput();
+            assertThat(message.getText()).isEqualTo("Hi there!");
+            assertThat(ChatJournalTokenUsageAdvisor.recordedTokens(message)).isEqualTo(7);
+        }
+    }
+
+    @Test
+    void shouldNotReportTokensWhenNoneRecorded() {
+        assertThat(ChatJournalTokenUsageAdvisor.recordedTokens(new AssistantMessage("Hi"))).isNull();
+    }
+}
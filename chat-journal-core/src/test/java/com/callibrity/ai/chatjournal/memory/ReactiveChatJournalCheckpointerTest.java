@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryTokens;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveChatJournalCheckpointerTest {
+
+    private static final String CONVERSATION_ID = "test-conversation";
+
+    @Mock
+    private ReactiveChatJournalEntryRepository entryRepository;
+
+    @Mock
+    private ReactiveChatJournalCheckpointRepository checkpointRepository;
+
+    @Mock
+    private ChatJournalCheckpointFactory checkpointFactory;
+
+    @Mock
+    private ChatJournalEntryMapper entryMapper;
+
+    private ReactiveChatJournalCheckpointer checkpointer;
+
+    @BeforeEach
+    void setUp() {
+        checkpointer = new ReactiveChatJournalCheckpointer(
+                entryRepository,
+                checkpointRepository,
+                checkpointFactory,
+                entryMapper,
+                1000,  // maxTokens
+                500,   // lowWatermarkTokens
+                1      // minRetainedEntries
+        );
+    }
+
+    @Nested
+    class RequiresCheckpoint {
+
+        @Test
+        void shouldReturnTrueWhenTokensExceedMax() {
+            when(entryRepository.getEffectiveTokens(CONVERSATION_ID)).thenReturn(Mono.just(1001));
+
+            assertThat(checkpointer.requiresCheckpoint(CONVERSATION_ID).block()).isTrue();
+        }
+
+        @Test
+        void shouldReturnFalseWhenTokensEqualMax() {
+            when(entryRepository.getEffectiveTokens(CONVERSATION_ID)).thenReturn(Mono.just(1000));
+
+            assertThat(checkpointer.requiresCheckpoint(CONVERSATION_ID).block()).isFalse();
+        }
+    }
+
+    @Nested
+    class Checkpoint {
+
+        @Test
+        void shouldSummarizeOnlyEntriesOutsideRetainedTail() {
+            ChatJournalCheckpoint existingCheckpoint = new ChatJournalCheckpoint(2, "Previous summary", 50);
+            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Mono.just(existingCheckpoint));
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, 2)).thenReturn(Flux.just(
+                    new ChatJournalEntryTokens(3, 200, 800),
+                    new ChatJournalEntryTokens(4, 200, 600),
+                    new ChatJournalEntryTokens(5, 200, 400),
+                    new ChatJournalEntryTokens(6, 200, 200)
+            ));
+            List<ChatJournalEntry> entriesToCompact = List.of(
+                    new ChatJournalEntry(3, "USER", "Continue", 200),
+                    new ChatJournalEntry(4, "ASSISTANT", "Sure!", 200)
+            );
+            when(entryRepository.findEntriesInRange(CONVERSATION_ID, 2, 4)).thenReturn(Flux.fromIterable(entriesToCompact));
+            when(entryMapper.toMessages(entriesToCompact)).thenReturn(List.of(new UserMessage("Continue")));
+            ChatJournalCheckpoint newCheckpoint = new ChatJournalCheckpoint(4, "Combined summary", 60);
+            when(checkpointFactory.createCheckpoint(any(), eq(4L))).thenReturn(newCheckpoint);
+            when(checkpointRepository.saveCheckpoint(CONVERSATION_ID, newCheckpoint)).thenReturn(Mono.empty());
+
+            checkpointer.checkpoint(CONVERSATION_ID).block();
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Message>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+            verify(checkpointFactory).createCheckpoint(messagesCaptor.capture(), eq(4L));
+            assertThat(messagesCaptor.getValue()).extracting(Message::getText).containsExactly(
+                    "Summary of previous conversation: Previous summary",
+                    "Continue"
+            );
+            verify(checkpointRepository).saveCheckpoint(CONVERSATION_ID, newCheckpoint);
+        }
+
+        @Test
+        void shouldPlanFromStartWhenNoExistingCheckpoint() {
+            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Mono.empty());
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1)).thenReturn(Flux.just(
+                    new ChatJournalEntryTokens(1, 600, 900),
+                    new ChatJournalEntryTokens(2, 300, 300)
+            ));
+            when(entryRepository.findEntriesInRange(CONVERSATION_ID, -1, 1)).thenReturn(Flux.empty());
+            ChatJournalCheckpoint newCheckpoint = new ChatJournalCheckpoint(1, "Summary", 20);
+            when(checkpointFactory.createCheckpoint(any(), eq(1L))).thenReturn(newCheckpoint);
+            when(checkpointRepository.saveCheckpoint(CONVERSATION_ID, newCheckpoint)).thenReturn(Mono.empty());
+
+            checkpointer.checkpoint(CONVERSATION_ID).block();
+
+            verify(checkpointRepository).saveCheckpoint(CONVERSATION_ID, newCheckpoint);
+        }
+
+        @Test
+        void shouldSkipWhenAllEntriesFitUnderLowWatermark() {
+            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Mono.empty());
+            when(entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1)).thenReturn(Flux.just(
+                    new ChatJournalEntryTokens(1, 10, 20),
+                    new ChatJournalEntryTokens(2, 10, 10)
+            ));
+
+            checkpointer.checkpoint(CONVERSATION_ID).block();
+
+            verify(entryRepository, never()).findEntriesInRange(anyString(), anyLong(), anyLong());
+            verify(checkpointRepository, never()).saveCheckpoint(anyString(), any());
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void shouldRejectNullEntryRepository() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ReactiveChatJournalCheckpointer(
+                            null, checkpointRepository, checkpointFactory, entryMapper, 1000, 500, 1))
+                    .withMessage("entryRepository must not be null");
+        }
+
+        @Test
+        void shouldRejectLowWatermarkTokensNotLessThanMaxTokens() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ReactiveChatJournalCheckpointer(
+                            entryRepository, checkpointRepository, checkpointFactory, entryMapper, 1000, 1000, 1))
+                    .withMessage("lowWatermarkTokens must be less than maxTokens");
+        }
+
+        @Test
+        void checkpointShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> checkpointer.checkpoint(""))
+                    .withMessage("conversationId must not be empty");
+        }
+
+        @Test
+        void getTotalTokensShouldRejectNullConversationId() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> checkpointer.getTotalTokens(null))
+                    .withMessage("conversationId must not be null");
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.memory;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContext;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveChatJournalMemoryTest {
+
+    private static final String CONVERSATION_ID = "test-conversation";
+    private static final int MAX_ENTRIES = 100;
+
+    @Mock
+    private ReactiveChatJournalEntryRepository entryRepository;
+
+    @Mock
+    private ReactiveChatJournalCheckpointRepository checkpointRepository;
+
+    @Mock
+    private ChatJournalEntryMapper entryMapper;
+
+    @Mock
+    private ReactiveChatJournalCheckpointer checkpointer;
+
+    private ReactiveChatJournalMemory memory;
+
+    @BeforeEach
+    void setUp() {
+        memory = new ReactiveChatJournalMemory(entryRepository, checkpointRepository, entryMapper, checkpointer, MAX_ENTRIES);
+    }
+
+    @Nested
+    class Add {
+
+        @Test
+        void shouldSaveEntriesToRepository() {
+            List<Message> messages = List.of(new UserMessage("Hello"));
+            List<ChatJournalEntry> entries = List.of(new ChatJournalEntry(0, "USER", "Hello", 5));
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(Mono.just(0));
+            when(entryMapper.toEntries(messages)).thenReturn(entries);
+            when(entryRepository.save(CONVERSATION_ID, entries)).thenReturn(Mono.empty());
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(Mono.just(false));
+
+            memory.add(CONVERSATION_ID, messages).block();
+
+            verify(entryRepository).save(CONVERSATION_ID, entries);
+            verify(checkpointer, never()).checkpoint(anyString());
+        }
+
+        @Test
+        void shouldStartCheckpointingWhenRequired() {
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(Mono.just(0));
+            when(entryRepository.save(anyString(), anyList())).thenReturn(Mono.empty());
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(Mono.just(true));
+            when(checkpointer.checkpoint(CONVERSATION_ID)).thenReturn(Mono.empty());
+
+            memory.add(CONVERSATION_ID, List.of(new UserMessage("Hello"))).block();
+
+            verify(checkpointer).checkpoint(CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldNotStartSecondCheckpointWhileOneIsRunning() {
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(Mono.just(0));
+            when(entryRepository.save(anyString(), anyList())).thenReturn(Mono.empty());
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(Mono.just(true));
+            when(checkpointer.checkpoint(CONVERSATION_ID)).thenReturn(Mono.never());
+
+            memory.add(CONVERSATION_ID, List.of(new UserMessage("Hello"))).block();
+            memory.add(CONVERSATION_ID, List.of(new UserMessage("Again"))).block();
+
+            verify(checkpointer, times(1)).checkpoint(CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldAllowNewCheckpointAfterPreviousOneFails() {
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(Mono.just(0));
+            when(entryRepository.save(anyString(), anyList())).thenReturn(Mono.empty());
+            when(checkpointer.requiresCheckpoint(CONVERSATION_ID)).thenReturn(Mono.just(true));
+            when(checkpointer.checkpoint(CONVERSATION_ID)).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+            memory.add(CONVERSATION_ID, List.of(new UserMessage("Hello"))).block();
+            memory.add(CONVERSATION_ID, List.of(new UserMessage("Again"))).block();
+
+            verify(checkpointer, times(2)).checkpoint(CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldSignalLimitExceededWithoutSaving() {
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(Mono.just(MAX_ENTRIES));
+
+            Mono<Void> result = memory.add(CONVERSATION_ID, List.of(new UserMessage("Hello")));
+
+            assertThatExceptionOfType(ConversationLimitExceededException.class).isThrownBy(result::block);
+            verify(entryRepository, never()).save(anyString(), anyList());
+        }
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        void shouldPrependCheckpointSummaryAsSystemMessage() {
+            List<ChatJournalEntry> entries = List.of(new ChatJournalEntry(3, "USER", "Hello", 5));
+            when(entryRepository.findContext(CONVERSATION_ID))
+                    .thenReturn(Mono.just(new ChatJournalContext(new ChatJournalCheckpoint(2, "Earlier", 10), entries)));
+            when(entryMapper.toMessages(entries)).thenReturn(List.of(new UserMessage("Hello")));
+
+            List<Message> messages = memory.get(CONVERSATION_ID).block();
+
+            assertThat(messages).hasSize(2);
+            assertThat(messages.get(0).getMessageType()).isEqualTo(MessageType.SYSTEM);
+            assertThat(messages.get(0).getText()).isEqualTo("Summary of previous conversation: Earlier");
+            assertThat(messages.get(1).getText()).isEqualTo("Hello");
+        }
+
+        @Test
+        void shouldReturnEntriesWhenNoCheckpoint() {
+            when(entryRepository.findContext(CONVERSATION_ID)).thenReturn(Mono.just(new ChatJournalContext(null, List.of())));
+            when(entryMapper.toMessages(List.of())).thenReturn(List.of());
+
+            assertThat(memory.get(CONVERSATION_ID).block()).isEmpty();
+        }
+    }
+
+    @Nested
+    class Clear {
+
+        @Test
+        void shouldDeleteCheckpointAndEntries() {
+            when(checkpointRepository.deleteCheckpoint(CONVERSATION_ID)).thenReturn(Mono.empty());
+            when(entryRepository.deleteAll(CONVERSATION_ID)).thenReturn(Mono.empty());
+
+            memory.clear(CONVERSATION_ID).block();
+
+            verify(checkpointRepository).deleteCheckpoint(CONVERSATION_ID);
+            verify(entryRepository).deleteAll(CONVERSATION_ID);
+        }
+    }
+
+    @Nested
+    class GetMemoryUsage {
+
+        @Test
+        void shouldReturnTokensFromCheckpointer() {
+            when(checkpointer.getTotalTokens(CONVERSATION_ID)).thenReturn(Mono.just(500));
+            when(checkpointer.maxTokens()).thenReturn(1000);
+
+            ChatMemoryUsage usage = memory.getMemoryUsage(CONVERSATION_ID).block();
+
+            assertThat(usage).isEqualTo(new ChatMemoryUsage(500, 1000));
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void shouldRejectNullEntryRepository() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ReactiveChatJournalMemory(null, checkpointRepository, entryMapper, checkpointer, MAX_ENTRIES))
+                    .withMessage("entryRepository must not be null");
+        }
+
+        @Test
+        void shouldRejectNullCheckpointer() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ReactiveChatJournalMemory(entryRepository, checkpointRepository, entryMapper, null, MAX_ENTRIES))
+                    .withMessage("checkpointer must not be null");
+        }
+
+        @Test
+        void shouldRejectNonPositiveMaxConversationLength() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ReactiveChatJournalMemory(entryRepository, checkpointRepository, entryMapper, checkpointer, 0))
+                    .withMessage("maxConversationLength must be positive");
+        }
+
+        @Test
+        void addShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> memory.add("", List.of()))
+                    .withMessage("conversationId must not be empty");
+        }
+
+        @Test
+        void addShouldRejectNullMessages() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> memory.add(CONVERSATION_ID, null))
+                    .withMessage("messages must not be null");
+        }
+
+        @Test
+        void getShouldRejectNullConversationId() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> memory.get(null))
+                    .withMessage("conversationId must not be null");
+        }
+
+        @Test
+        void clearShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> memory.clear(""))
+                    .withMessage("conversationId must not be empty");
+        }
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingChatJournalRepositoryTest {
+
+    private static final String CONVERSATION_ID = "test-conversation";
+
+    @Mock
+    private ChatJournalEntryRepository entryRepository;
+
+    @Mock
+    private ChatJournalCheckpointRepository checkpointRepository;
+
+    private CachingChatJournalRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CachingChatJournalRepository(entryRepository, checkpointRepository, 1000);
+    }
+
+    private static ChatJournalEntry entry(long index, String content, int tokens) {
+        return new ChatJournalEntry(index, "USER", content, tokens);
+    }
+
+    @Nested
+    class FindContext {
+
+        @Test
+        void shouldLoadFromDelegateOnlyOnce() {
+            ChatJournalContext context = new ChatJournalContext(null, List.of(entry(1, "Hello", 10)));
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(context);
+
+            assertThat(repository.findContext(CONVERSATION_ID, repository)).isEqualTo(context);
+            assertThat(repository.findContext(CONVERSATION_ID, repository)).isEqualTo(context);
+
+            verify(entryRepository, times(1)).findContext(CONVERSATION_ID, checkpointRepository);
+        }
+
+        @Test
+        void shouldAppendSavedEntriesToCachedContext() {
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository))
+                    .thenReturn(new ChatJournalContext(null, List.of(entry(1, "Hello", 10))));
+            repository.findContext(CONVERSATION_ID, repository);
+            when(entryRepository.saveAndReturn(eq(CONVERSATION_ID), anyList())).thenReturn(List.of(entry(2, "World", 20)));
+
+            repository.save(CONVERSATION_ID, List.of(entry(0, "World", 20)));
+
+            assertThat(repository.findContext(CONVERSATION_ID, repository).entries())
+                    .extracting(ChatJournalEntry::content)
+                    .containsExactly("Hello", "World");
+            verify(entryRepository).saveAndReturn(CONVERSATION_ID, List.of(entry(0, "World", 20)));
+            verify(entryRepository, never()).save(eq(CONVERSATION_ID), anyList());
+            verify(entryRepository, never()).findEntriesAfterIndex(eq(CONVERSATION_ID), anyLong());
+            verify(entryRepository, times(1)).findContext(CONVERSATION_ID, checkpointRepository);
+        }
+
+        @Test
+        void shouldCacheIndexesAssignedByStorage() {
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository))
+                    .thenReturn(new ChatJournalContext(null, List.of(entry(1, "Hello", 10))));
+            repository.findContext(CONVERSATION_ID, repository);
+            when(entryRepository.saveAndReturn(eq(CONVERSATION_ID), anyList())).thenReturn(List.of(entry(2, "World", 20)));
+            repository.save(CONVERSATION_ID, List.of(entry(0, "World", 20)));
+            when(entryRepository.saveAndReturn(eq(CONVERSATION_ID), anyList())).thenReturn(List.of(entry(3, "Again", 5)));
+
+            repository.save(CONVERSATION_ID, List.of(entry(0, "Again", 5)));
+
+            assertThat(repository.findContext(CONVERSATION_ID, repository).entries())
+                    .extracting(ChatJournalEntry::messageIndex)
+                    .containsExactly(1L, 2L, 3L);
+        }
+
+        @Test
+        void shouldAppendSavedEntriesAfterCheckpointWhenNoEntriesAreCached() {
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository))
+                    .thenReturn(new ChatJournalContext(new ChatJournalCheckpoint(5, "Summary", 100), List.of()));
+            repository.findContext(CONVERSATION_ID, repository);
+            when(entryRepository.saveAndReturn(eq(CONVERSATION_ID), anyList())).thenReturn(List.of(entry(6, "Hello", 10)));
+
+            repository.save(CONVERSATION_ID, List.of(entry(0, "Hello", 10)));
+
+            assertThat(repository.findContext(CONVERSATION_ID, repository).entries()).containsExactly(entry(6, "Hello", 10));
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, repository)).isEqualTo(110);
+        }
+
+        @Test
+        void shouldNotCacheSavesForUncachedConversations() {
+            repository.save(CONVERSATION_ID, List.of(entry(0, "Hello", 10)));
+
+            assertThat(repository.cachedConversations()).isZero();
+            verify(entryRepository).save(CONVERSATION_ID, List.of(entry(0, "Hello", 10)));
+            verify(entryRepository, never()).saveAndReturn(eq(CONVERSATION_ID), anyList());
+        }
+    }
+
+    @Nested
+    class EffectiveTokens {
+
+        @Test
+        void shouldComputeFromLoadedContext() {
+            ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(5, "Summary", 100);
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository))
+                    .thenReturn(new ChatJournalContext(checkpoint, List.of(entry(6, "Hello", 10))));
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, repository)).isEqualTo(110);
+            verify(entryRepository, never()).getEffectiveTokens(eq(CONVERSATION_ID), any());
+        }
+
+        @Test
+        void shouldAddTokensOfSavedEntries() {
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository))
+                    .thenReturn(new ChatJournalContext(null, List.of(entry(1, "Hello", 10))));
+            repository.getEffectiveTokens(CONVERSATION_ID, repository);
+            when(entryRepository.saveAndReturn(eq(CONVERSATION_ID), anyList()))
+                    .thenReturn(List.of(entry(2, "World", 20), entry(3, "Again", 5)));
+
+            repository.save(CONVERSATION_ID, List.of(entry(0, "World", 20), entry(0, "Again", 5)));
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, repository)).isEqualTo(35);
+        }
+    }
+
+    @Nested
+    class CountEntries {
+
+        @Test
+        void shouldLoadCountOnceAndTrackSaves() {
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(null, List.of()));
+            when(entryRepository.countEntries(CONVERSATION_ID)).thenReturn(7);
+
+            assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(7);
+            when(entryRepository.saveAndReturn(eq(CONVERSATION_ID), anyList()))
+                    .thenReturn(List.of(entry(8, "Hello", 10), entry(9, "World", 10)));
+            repository.save(CONVERSATION_ID, List.of(entry(0, "Hello", 10), entry(0, "World", 10)));
+
+            assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(9);
+            verify(entryRepository, times(1)).countEntries(CONVERSATION_ID);
+        }
+    }
+
+    @Nested
+    class Invalidation {
+
+        @BeforeEach
+        void setUp() {
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(null, List.of()));
+            repository.findContext(CONVERSATION_ID, repository);
+        }
+
+        @Test
+        void shouldInvalidateOnSaveCheckpoint() {
+            ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(1, "Summary", 10);
+
+            repository.saveCheckpoint(CONVERSATION_ID, checkpoint);
+            repository.findContext(CONVERSATION_ID, repository);
+
+            verify(checkpointRepository).saveCheckpoint(CONVERSATION_ID, checkpoint);
+            verify(entryRepository, times(2)).findContext(CONVERSATION_ID, checkpointRepository);
+        }
+
+        @Test
+        void shouldInvalidateOnDeleteCheckpoint() {
+            repository.deleteCheckpoint(CONVERSATION_ID);
+            repository.findContext(CONVERSATION_ID, repository);
+
+            verify(checkpointRepository).deleteCheckpoint(CONVERSATION_ID);
+            verify(entryRepository, times(2)).findContext(CONVERSATION_ID, checkpointRepository);
+        }
+
+        @Test
+        void shouldInvalidateOnDeleteAll() {
+            repository.deleteAll(CONVERSATION_ID);
+
+            verify(entryRepository).deleteAll(CONVERSATION_ID);
+            assertThat(repository.cachedConversations()).isZero();
+            assertThat(repository.cachedCharacters()).isZero();
+        }
+    }
+
+    @Nested
+    class FindCheckpoint {
+
+        @Test
+        void shouldServeCachedCheckpoint() {
+            ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(5, "Summary", 100);
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(checkpoint, List.of()));
+            repository.findContext(CONVERSATION_ID, repository);
+
+            assertThat(repository.findCheckpoint(CONVERSATION_ID)).contains(checkpoint);
+            verify(checkpointRepository, never()).findCheckpoint(CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldDelegateWhenNotCached() {
+            when(checkpointRepository.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
+
+            assertThat(repository.findCheckpoint(CONVERSATION_ID)).isEmpty();
+            assertThat(repository.cachedConversations()).isZero();
+        }
+    }
+
+    @Nested
+    class Eviction {
+
+        @Test
+        void shouldEvictLeastRecentlyUsedWhenOverCapacity() {
+            when(entryRepository.findContext("a", checkpointRepository)).thenReturn(new ChatJournalContext(null, List.of(entry(1, "x".repeat(400), 1))));
+            when(entryRepository.findContext("b", checkpointRepository)).thenReturn(new ChatJournalContext(null, List.of(entry(2, "x".repeat(400), 1))));
+            when(entryRepository.findContext("c", checkpointRepository)).thenReturn(new ChatJournalContext(null, List.of(entry(3, "x".repeat(400), 1))));
+
+            repository.findContext("a", repository);
+            repository.findContext("b", repository);
+            repository.findContext("a", repository);
+            repository.findContext("c", repository);
+
+            assertThat(repository.cachedConversations()).isEqualTo(2);
+            assertThat(repository.cachedCharacters()).isEqualTo(800);
+            repository.findContext("a", repository);
+            verify(entryRepository, times(1)).findContext("a", checkpointRepository);
+            repository.findContext("b", repository);
+            verify(entryRepository, times(2)).findContext("b", checkpointRepository);
+        }
+
+        @Test
+        void shouldWeighCheckpointSummaries() {
+            ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(5, "x".repeat(300), 100);
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository))
+                    .thenReturn(new ChatJournalContext(checkpoint, List.of(entry(6, "x".repeat(200), 10))));
+
+            repository.findContext(CONVERSATION_ID, repository);
+
+            assertThat(repository.cachedCharacters()).isEqualTo(500);
+        }
+
+        @Test
+        void shouldEvictWhenAppendsExceedCapacity() {
+            when(entryRepository.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(null, List.of()));
+            repository.findContext(CONVERSATION_ID, repository);
+            when(entryRepository.saveAndReturn(eq(CONVERSATION_ID), anyList())).thenReturn(List.of(entry(1, "x".repeat(1001), 10)));
+
+            repository.save(CONVERSATION_ID, List.of(entry(0, "x".repeat(1001), 10)));
+
+            assertThat(repository.cachedConversations()).isZero();
+            assertThat(repository.cachedCharacters()).isZero();
+        }
+    }
+
+    @Nested
+    class Delegation {
+
+        @Test
+        void shouldDelegateIndexBasedReads() {
+            Consumer<ChatJournalEntry> visitor = entry -> {
+            };
+            repository.findAll(CONVERSATION_ID);
+            repository.findVisibleEntries(CONVERSATION_ID, 0, 10);
+            repository.findVisibleEntriesBefore(CONVERSATION_ID, 20, 10);
+            repository.countVisibleEntries(CONVERSATION_ID);
+            repository.findEntriesAfterIndex(CONVERSATION_ID, 5);
+            repository.forEachEntryAfterIndex(CONVERSATION_ID, 5, visitor);
+            repository.findEntriesInRange(CONVERSATION_ID, 5, 9);
+            repository.findEntryTokensAfterIndex(CONVERSATION_ID, 5);
+            repository.sumTokens(CONVERSATION_ID);
+            repository.sumTokensAfterIndex(CONVERSATION_ID, 5);
+
+            verify(entryRepository).findAll(CONVERSATION_ID);
+            verify(entryRepository).findVisibleEntries(CONVERSATION_ID, 0, 10);
+            verify(entryRepository).findVisibleEntriesBefore(CONVERSATION_ID, 20, 10);
+            verify(entryRepository).countVisibleEntries(CONVERSATION_ID);
+            verify(entryRepository).findEntriesAfterIndex(CONVERSATION_ID, 5);
+            verify(entryRepository).forEachEntryAfterIndex(CONVERSATION_ID, 5, visitor);
+            verify(entryRepository).findEntriesInRange(CONVERSATION_ID, 5, 9);
+            verify(entryRepository).findEntryTokensAfterIndex(CONVERSATION_ID, 5);
+            verify(entryRepository).sumTokens(CONVERSATION_ID);
+            verify(entryRepository).sumTokensAfterIndex(CONVERSATION_ID, 5);
+        }
+    }
+
+    @Nested
+    class ConstructorValidation {
+
+        @Test
+        void shouldRejectNullEntryRepository() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new CachingChatJournalRepository(null, checkpointRepository, 1000))
+                    .withMessage("entryRepository must not be null");
+        }
+
+        @Test
+        void shouldRejectNullCheckpointRepository() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new CachingChatJournalRepository(entryRepository, null, 1000))
+                    .withMessage("checkpointRepository must not be null");
+        }
+
+        @Test
+        void shouldRejectNonPositiveMaxCharacters() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new CachingChatJournalRepository(entryRepository, checkpointRepository, 0))
+                    .withMessage("maxCharacters must be positive");
+        }
+
+        @Test
+        void shouldRejectNullConversationId() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> repository.findContext(null, repository))
+                    .withMessage("conversationId must not be null");
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatJournalEntryRepositoryDefaultsTest {
+
+    private static final String CONVERSATION_ID = "conversation";
+
+    private MinimalRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MinimalRepository();
+        repository.save(CONVERSATION_ID, List.of(
+                new ChatJournalEntry(0, "SYSTEM", "Be brief", 2),
+                new ChatJournalEntry(0, "USER", "Hello", 3),
+                new ChatJournalEntry(0, "ASSISTANT", "Hi", 4),
+                new ChatJournalEntry(0, "USER", "Bye", 5)
+        ));
+    }
+
+    @Test
+    void shouldReturnSavedEntriesWithAssignedIndexes() {
+        List<ChatJournalEntry> saved = repository.saveAndReturn(CONVERSATION_ID, List.of(
+                new ChatJournalEntry(0, "USER", "Again", 6),
+                new ChatJournalEntry(0, "ASSISTANT", "Sure", 7)
+        ));
+
+        assertThat(saved).extracting(ChatJournalEntry::messageIndex).containsExactly(5L, 6L);
+        assertThat(saved).extracting(ChatJournalEntry::content).containsExactly("Again", "Sure");
+        assertThat(repository.saveAndReturn(CONVERSATION_ID, List.of())).isEmpty();
+    }
+
+    @Test
+    void shouldCountEntriesFromFindAll() {
+        assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(4);
+        assertThat(repository.countEntries("unknown")).isZero();
+    }
+
+    @Test
+    void shouldComputeEffectiveTokensFromCheckpointRepository() {
+        ChatJournalCheckpointRepository checkpoints = mock(ChatJournalCheckpointRepository.class);
+        when(checkpoints.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.of(new ChatJournalCheckpoint(2, "Summary", 10)));
+
+        assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpoints)).isEqualTo(10 + 4 + 5);
+    }
+
+    @Test
+    void shouldSumAllTokensWithoutCheckpoint() {
+        ChatJournalCheckpointRepository checkpoints = mock(ChatJournalCheckpointRepository.class);
+        when(checkpoints.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
+
+        assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpoints)).isEqualTo(14);
+    }
+
+    @Test
+    void shouldFindContextFromCheckpointAndLaterEntries() {
+        ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(2, "Summary", 10);
+        ChatJournalCheckpointRepository checkpoints = mock(ChatJournalCheckpointRepository.class);
+        when(checkpoints.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.of(checkpoint));
+
+        ChatJournalContext context = repository.findContext(CONVERSATION_ID, checkpoints);
+
+        assertThat(context.checkpoint()).isEqualTo(checkpoint);
+        assertThat(context.entries()).extracting(ChatJournalEntry::messageIndex).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void shouldFindContextWithAllEntriesWithoutCheckpoint() {
+        ChatJournalCheckpointRepository checkpoints = mock(ChatJournalCheckpointRepository.class);
+        when(checkpoints.findCheckpoint(CONVERSATION_ID)).thenReturn(Optional.empty());
+
+        ChatJournalContext context = repository.findContext(CONVERSATION_ID, checkpoints);
+
+        assertThat(context.findCheckpoint()).isEmpty();
+        assertThat(context.entries()).hasSize(4);
+    }
+
+    @Test
+    void shouldFindEntriesInRangeFromEntriesAfterIndex() {
+        assertThat(repository.findEntriesInRange(CONVERSATION_ID, 1, 3))
+                .extracting(ChatJournalEntry::messageIndex)
+                .containsExactly(2L, 3L);
+    }
+
+    @Test
+    void shouldComputeTailTokensFromEntriesAfterIndex() {
+        assertThat(repository.findEntryTokensAfterIndex(CONVERSATION_ID, 1)).containsExactly(
+                new ChatJournalEntryTokens(2, 3, 12),
+                new ChatJournalEntryTokens(3, 4, 9),
+                new ChatJournalEntryTokens(4, 5, 5));
+    }
+
+    @Test
+    void shouldFindVisibleEntriesBeforeIndexFromVisibleEntries() {
+        assertThat(repository.findVisibleEntriesBefore(CONVERSATION_ID, 4, 10))
+                .extracting(ChatJournalEntry::content)
+                .containsExactly("Hi", "Hello");
+    }
+
+    @Test
+    void shouldLimitVisibleEntriesBeforeIndex() {
+        assertThat(repository.findVisibleEntriesBefore(CONVERSATION_ID, Long.MAX_VALUE, 2))
+                .extracting(ChatJournalEntry::content)
+                .containsExactly("Bye", "Hi");
+    }
+
+    @Test
+    void shouldVisitEntriesAfterIndexInOrder() {
+        List<Long> visited = new ArrayList<>();
+
+        repository.forEachEntryAfterIndex(CONVERSATION_ID, 2, entry -> visited.add(entry.messageIndex()));
+
+        assertThat(visited).containsExactly(3L, 4L);
+    }
+
+    /**
+     * An implementation written against the original interface, relying on every default.
+     */
+    private static class MinimalRepository implements ChatJournalEntryRepository {
+
+        private final Map<String, List<ChatJournalEntry>> conversations = new HashMap<>();
+
+        @Override
+        public void save(String conversationId, List<ChatJournalEntry> entries) {
+            List<ChatJournalEntry> stored = conversations.computeIfAbsent(conversationId, id -> new ArrayList<>());
+            for (ChatJournalEntry entry : entries) {
+                stored.add(new ChatJournalEntry(stored.size() + 1, entry.messageType(), entry.content(), entry.tokens()));
+            }
+        }
+
+        @Override
+        public List<ChatJournalEntry> findAll(String conversationId) {
+            return List.copyOf(conversations.getOrDefault(conversationId, List.of()));
+        }
+
+        @Override
+        public List<ChatJournalEntry> findVisibleEntries(String conversationId, int offset, int limit) {
+            return findAll(conversationId).reversed().stream()
+                    .filter(entry -> !"SYSTEM".equals(entry.messageType()))
+                    .skip(offset)
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public int countVisibleEntries(String conversationId) {
+            return findVisibleEntries(conversationId, 0, Integer.MAX_VALUE).size();
+        }
+
+        @Override
+        public List<ChatJournalEntry> findEntriesAfterIndex(String conversationId, long messageIndex) {
+            return findAll(conversationId).stream().filter(entry -> entry.messageIndex() > messageIndex).toList();
+        }
+
+        @Override
+        public int sumTokens(String conversationId) {
+            return sumTokensAfterIndex(conversationId, -1);
+        }
+
+        @Override
+        public int sumTokensAfterIndex(String conversationId, long messageIndex) {
+            return findEntriesAfterIndex(conversationId, messageIndex).stream().mapToInt(ChatJournalEntry::tokens).sum();
+        }
+
+        @Override
+        public void deleteAll(String conversationId) {
+            conversations.remove(conversationId);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatJournalReclaimSchedulerTest {
+
+    @Mock
+    private ChatJournalReclaimer reclaimer;
+
+    @Test
+    void shouldRejectNullReclaimer() {
+        Duration interval = Duration.ofSeconds(1);
+
+        assertThatNullPointerException()
+                .isThrownBy(() -> new ChatJournalReclaimScheduler(null, interval))
+                .withMessage("reclaimer must not be null");
+    }
+
+    @Test
+    void shouldRejectNonPositiveInterval() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ChatJournalReclaimScheduler(reclaimer, Duration.ZERO))
+                .withMessage("interval must be positive");
+    }
+
+    @Test
+    void shouldSweepRepeatedly() {
+        when(reclaimer.sweep()).thenReturn(3, 0);
+
+        try (ChatJournalReclaimScheduler ignored = new ChatJournalReclaimScheduler(reclaimer, Duration.ofMillis(10))) {
+            verify(reclaimer, timeout(1000).atLeast(2)).sweep();
+        }
+    }
+
+    @Test
+    void shouldKeepSweepingAfterAFailure() {
+        when(reclaimer.sweep()).thenThrow(new IllegalStateException("database unavailable")).thenReturn(0);
+
+        try (ChatJournalReclaimScheduler ignored = new ChatJournalReclaimScheduler(reclaimer, Duration.ofMillis(10))) {
+            verify(reclaimer, timeout(1000).atLeast(2)).sweep();
+        }
+    }
+
+    @Test
+    void shouldNotSweepBeforeTheFirstInterval() {
+        try (ChatJournalReclaimScheduler ignored = new ChatJournalReclaimScheduler(reclaimer, Duration.ofHours(1))) {
+            verify(reclaimer, after(50).never()).sweep();
+        }
+    }
+
+    @Test
+    void shouldStopSweepingWhenClosed() {
+        ChatJournalReclaimScheduler scheduler = new ChatJournalReclaimScheduler(reclaimer, Duration.ofMillis(10));
+        verify(reclaimer, timeout(1000).atLeast(1)).sweep();
+
+        scheduler.close();
+        clearInvocations(reclaimer);
+
+        verify(reclaimer, after(100).never()).sweep();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 10_000;
+
+    @Nested
+    class Placement {
+
+        @Test
+        void shouldPlaceKeysDeterministically() {
+            ConsistentHashRing<String> ring = ring("a", "b", "c");
+
+            assertThat(ring.nodeNameFor("conversation-42")).isEqualTo(ring("a", "b", "c").nodeNameFor("conversation-42"));
+        }
+
+        @Test
+        void shouldNotDependOnNodeOrderOrValues() {
+            ConsistentHashRing<String> ring = ring("a", "b", "c");
+            Map<String, Integer> reversed = new LinkedHashMap<>();
+            reversed.put("c", 3);
+            reversed.put("b", 2);
+            reversed.put("a", 1);
+            ConsistentHashRing<Integer> other = new ConsistentHashRing<>(reversed);
+
+            for (int i = 0; i < 1000; i++) {
+                assertThat(other.nodeNameFor("conversation-" + i)).isEqualTo(ring.nodeNameFor("conversation-" + i));
+            }
+        }
+
+        @Test
+        void shouldReturnValueOfOwningNode() {
+            ConsistentHashRing<String> ring = ring("a", "b", "c");
+
+            assertThat(ring.nodeFor("conversation-1")).isEqualTo("value-" + ring.nodeNameFor("conversation-1"));
+        }
+
+        @Test
+        void shouldSpreadKeysAcrossNodes() {
+            ConsistentHashRing<String> ring = ring("a", "b", "c", "d");
+            Map<String, Integer> counts = new HashMap<>();
+            for (int i = 0; i < KEYS; i++) {
+                counts.merge(ring.nodeNameFor("conversation-" + i), 1, Integer::sum);
+            }
+
+            assertThat(counts).hasSize(4);
+            assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 8, KEYS / 2));
+        }
+
+        @Test
+        void shouldOnlyMoveKeysToAddedNode() {
+            ConsistentHashRing<String> before = ring("a", "b", "c");
+            ConsistentHashRing<String> after = ring("a", "b", "c", "d");
+            int moved = 0;
+            for (int i = 0; i < KEYS; i++) {
+                String key = "conversation-" + i;
+                if (!before.nodeNameFor(key).equals(after.nodeNameFor(key))) {
+                    assertThat(after.nodeNameFor(key)).isEqualTo("d");
+                    moved++;
+                }
+            }
+
+            assertThat(moved).isBetween(KEYS / 8, KEYS / 2);
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void shouldRejectNullNodes() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ConsistentHashRing<>(null))
+                    .withMessage("nodes must not be null");
+        }
+
+        @Test
+        void shouldRejectEmptyNodes() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ConsistentHashRing<>(Map.of()))
+                    .withMessage("nodes must not be empty");
+        }
+
+        @Test
+        void shouldRejectNonPositiveVirtualNodes() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ConsistentHashRing<>(Map.of("a", "a"), 0))
+                    .withMessage("virtualNodes must be positive");
+        }
+
+        @Test
+        void shouldRejectNullKey() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> ring("a").nodeNameFor(null))
+                    .withMessage("key must not be null");
+        }
+    }
+
+    private static ConsistentHashRing<String> ring(String... names) {
+        Map<String, String> nodes = new LinkedHashMap<>();
+        for (String name : names) {
+            nodes.put(name, "value-" + name);
+        }
+        return new ConsistentHashRing<>(nodes);
+    }
+}
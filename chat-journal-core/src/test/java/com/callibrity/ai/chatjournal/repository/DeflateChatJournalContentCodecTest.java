@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class DeflateChatJournalContentCodecTest {
+
+    private static final String LONG_CONTENT = "The quick brown fox jumps over the lazy dog. ".repeat(100);
+
+    private final DeflateChatJournalContentCodec codec = new DeflateChatJournalContentCodec();
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void shouldRejectNegativeThreshold() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new DeflateChatJournalContentCodec(-1))
+                    .withMessage("threshold must not be negative");
+        }
+
+        @Test
+        void shouldRejectOutOfRangeLevel() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new DeflateChatJournalContentCodec(0, 10))
+                    .withMessage("level must be between -1 and 9");
+        }
+    }
+
+    @Nested
+    class Encode {
+
+        @Test
+        void shouldStoreShortContentAsPlainUtf8() {
+            byte[] encoded = codec.encode("Hello, wörld");
+
+            assertThat(encoded[0]).isEqualTo(DeflateChatJournalContentCodec.FORMAT_PLAIN);
+            assertThat(Arrays.copyOfRange(encoded, 1, encoded.length))
+                    .isEqualTo("Hello, wörld".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        void shouldDeflateContentAtOrAboveThreshold() {
+            byte[] encoded = codec.encode(LONG_CONTENT);
+
+            assertThat(encoded[0]).isEqualTo(DeflateChatJournalContentCodec.FORMAT_DEFLATE);
+            assertThat(encoded.length).isLessThan(LONG_CONTENT.length() / 5);
+        }
+
+        @Test
+        void shouldStoreIncompressibleContentAsPlainUtf8() {
+            StringBuilder random = new StringBuilder();
+            Random rnd = new Random(42);
+            for (int i = 0; i < 64; i++) {
+                random.append((char) ('!' + rnd.nextInt(90)));
+            }
+            byte[] encoded = new DeflateChatJournalContentCodec(0).encode(random.toString());
+
+            assertThat(encoded[0]).isEqualTo(DeflateChatJournalContentCodec.FORMAT_PLAIN);
+        }
+
+        @Test
+        void shouldEncodeEmptyContent() {
+            assertThat(codec.encode("")).containsExactly(DeflateChatJournalContentCodec.FORMAT_PLAIN);
+        }
+
+        @Test
+        void shouldRejectNullContent() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> codec.encode(null))
+                    .withMessage("content must not be null");
+        }
+    }
+
+    @Nested
+    class Decode {
+
+        @Test
+        void shouldRoundTripPlainContent() {
+            assertThat(codec.decode(codec.encode("Hello, wörld"))).isEqualTo("Hello, wörld");
+        }
+
+        @Test
+        void shouldRoundTripDeflatedContent() {
+            String content = LONG_CONTENT + "日本語のテキスト";
+
+            assertThat(codec.decode(codec.encode(content))).isEqualTo(content);
+        }
+
+        @Test
+        void shouldDecodeContentEncodedWithOtherSettings() {
+            byte[] encoded = new DeflateChatJournalContentCodec(0, 9).encode(LONG_CONTENT);
+
+            assertThat(codec.decode(encoded)).isEqualTo(LONG_CONTENT);
+        }
+
+        @Test
+        void shouldRejectEmptyBytes() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> codec.decode(new byte[0]))
+                    .withMessage("encoded content must not be empty");
+        }
+
+        @Test
+        void shouldRejectUnknownFormat() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> codec.decode(new byte[]{7, 1, 2}))
+                    .withMessage("Unknown content format: 7");
+        }
+
+        @Test
+        void shouldRejectTruncatedContent() {
+            byte[] encoded = codec.encode(LONG_CONTENT);
+            byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> codec.decode(truncated))
+                    .withMessage("Deflated content is truncated");
+        }
+
+        @Test
+        void shouldRejectCorruptContent() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> codec.decode(new byte[]{DeflateChatJournalContentCodec.FORMAT_DEFLATE, 1, 2, 3}))
+                    .withMessage("Deflated content is corrupt");
+        }
+
+        @Test
+        void shouldRejectNullBytes() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> codec.decode(null))
+                    .withMessage("encoded must not be null");
+        }
+    }
+}
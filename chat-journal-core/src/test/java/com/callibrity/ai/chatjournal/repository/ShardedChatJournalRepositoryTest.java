@@ -0,0 +1,259 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedChatJournalRepositoryTest {
+
+    @Mock
+    private ChatJournalEntryRepository entriesA;
+
+    @Mock
+    private ChatJournalCheckpointRepository checkpointsA;
+
+    @Mock
+    private ChatJournalEntryRepository entriesB;
+
+    @Mock
+    private ChatJournalCheckpointRepository checkpointsB;
+
+    private ConsistentHashRing<ChatJournalShard> ring;
+    private ShardedChatJournalRepository repository;
+    private String conversationOnA;
+    private String conversationOnB;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, ChatJournalShard> shards = new LinkedHashMap<>();
+        shards.put("a", new ChatJournalShard(entriesA, checkpointsA));
+        shards.put("b", new ChatJournalShard(entriesB, checkpointsB));
+        ring = new ConsistentHashRing<>(shards);
+        repository = new ShardedChatJournalRepository(ring);
+        conversationOnA = conversationOn("a");
+        conversationOnB = conversationOn("b");
+    }
+
+    @Nested
+    class Routing {
+
+        @Test
+        void shouldReportOwningShard() {
+            assertThat(repository.shardNameFor(conversationOnA)).isEqualTo("a");
+            assertThat(repository.shardNameFor(conversationOnB)).isEqualTo("b");
+        }
+
+        @Test
+        void shouldRouteEntryWritesToOwningShard() {
+            List<ChatJournalEntry> entries = List.of(new ChatJournalEntry(0, "USER", "Hello", 10));
+
+            repository.save(conversationOnA, entries);
+            repository.saveAndReturn(conversationOnB, entries);
+            repository.deleteAll(conversationOnB);
+
+            verify(entriesA).save(conversationOnA, entries);
+            verify(entriesB).saveAndReturn(conversationOnB, entries);
+            verify(entriesB).deleteAll(conversationOnB);
+        }
+
+        @Test
+        void shouldRouteEntryReadsToOwningShard() {
+            ChatJournalContext context = new ChatJournalContext(null, List.of());
+            when(entriesB.findContext(conversationOnB, checkpointsB)).thenReturn(context);
+            when(entriesB.getEffectiveTokens(conversationOnB, checkpointsB)).thenReturn(42);
+
+            assertThat(repository.findContext(conversationOnB, repository)).isSameAs(context);
+            assertThat(repository.getEffectiveTokens(conversationOnB, repository)).isEqualTo(42);
+            verifyNoInteractions(entriesA);
+        }
+
+        @Test
+        void shouldDelegateEveryEntryRead() {
+            Consumer<ChatJournalEntry> visitor = entry -> {
+            };
+            repository.findAll(conversationOnA);
+            repository.findVisibleEntries(conversationOnA, 0, 10);
+            repository.findVisibleEntriesBefore(conversationOnA, 20, 10);
+            repository.countVisibleEntries(conversationOnA);
+            repository.countEntries(conversationOnA);
+            repository.findEntriesAfterIndex(conversationOnA, 5);
+            repository.forEachEntryAfterIndex(conversationOnA, 5, visitor);
+            repository.findEntriesInRange(conversationOnA, 5, 9);
+            repository.findEntryTokensAfterIndex(conversationOnA, 5);
+            repository.sumTokens(conversationOnA);
+            repository.sumTokensAfterIndex(conversationOnA, 5);
+
+            verify(entriesA).findAll(conversationOnA);
+            verify(entriesA).findVisibleEntries(conversationOnA, 0, 10);
+            verify(entriesA).findVisibleEntriesBefore(conversationOnA, 20, 10);
+            verify(entriesA).countVisibleEntries(conversationOnA);
+            verify(entriesA).countEntries(conversationOnA);
+            verify(entriesA).findEntriesAfterIndex(conversationOnA, 5);
+            verify(entriesA).forEachEntryAfterIndex(conversationOnA, 5, visitor);
+            verify(entriesA).findEntriesInRange(conversationOnA, 5, 9);
+            verify(entriesA).findEntryTokensAfterIndex(conversationOnA, 5);
+            verify(entriesA).sumTokens(conversationOnA);
+            verify(entriesA).sumTokensAfterIndex(conversationOnA, 5);
+            verifyNoInteractions(entriesB);
+        }
+
+        @Test
+        void shouldRouteCheckpointsToSameShardAsEntries() {
+            ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(5, "Summary", 20);
+            when(checkpointsB.findCheckpoint(conversationOnB)).thenReturn(Optional.of(checkpoint));
+
+            repository.saveCheckpoint(conversationOnB, checkpoint);
+            repository.deleteCheckpoint(conversationOnB);
+
+            assertThat(repository.findCheckpoint(conversationOnB)).contains(checkpoint);
+            verify(checkpointsB).saveCheckpoint(conversationOnB, checkpoint);
+            verify(checkpointsB).deleteCheckpoint(conversationOnB);
+            verifyNoInteractions(checkpointsA);
+        }
+    }
+
+    @Nested
+    class PreviousRing {
+
+        private ShardedChatJournalRepository migrating;
+
+        @BeforeEach
+        void setUp() {
+            migrating = new ShardedChatJournalRepository(ring,
+                    new ConsistentHashRing<>(Map.of("a", ring.nodes().get("a"))));
+        }
+
+        @Test
+        void shouldServeUnmigratedConversationFromPreviousOwner() {
+            when(entriesA.countEntries(conversationOnB)).thenReturn(2);
+
+            migrating.findAll(conversationOnB);
+
+            verify(entriesA).findAll(conversationOnB);
+            verify(entriesB, never()).findAll(conversationOnB);
+        }
+
+        @Test
+        void shouldServeMigratedConversationFromNewOwner() {
+            when(entriesB.countEntries(conversationOnB)).thenReturn(2);
+
+            migrating.findAll(conversationOnB);
+
+            verify(entriesB).findAll(conversationOnB);
+            verifyNoInteractions(entriesA, checkpointsA);
+        }
+
+        @Test
+        void shouldServeCheckpointOnlyConversationFromPreviousOwner() {
+            ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(-1, "Summary", 5);
+            when(checkpointsA.findCheckpoint(conversationOnB)).thenReturn(Optional.of(checkpoint));
+
+            assertThat(migrating.findCheckpoint(conversationOnB)).contains(checkpoint);
+            verify(checkpointsB, never()).saveCheckpoint(conversationOnB, checkpoint);
+        }
+
+        @Test
+        void shouldServeNewConversationFromNewOwner() {
+            List<ChatJournalEntry> entries = List.of(new ChatJournalEntry(0, "USER", "Hello", 10));
+
+            migrating.save(conversationOnB, entries);
+
+            verify(entriesB).save(conversationOnB, entries);
+            verify(entriesA, never()).save(conversationOnB, entries);
+        }
+
+        @Test
+        void shouldNotLookUpConversationsThatKeptTheirOwner() {
+            migrating.findAll(conversationOnA);
+
+            verify(entriesA).findAll(conversationOnA);
+            verifyNoMoreInteractions(entriesA);
+            verifyNoInteractions(entriesB, checkpointsA, checkpointsB);
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void shouldRejectNullRing() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ShardedChatJournalRepository(null))
+                    .withMessage("ring must not be null");
+        }
+
+        @Test
+        void shouldRejectNullPreviousRing() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ShardedChatJournalRepository(ring, null))
+                    .withMessage("previousRing must not be null");
+        }
+
+        @Test
+        void shouldRejectNullConversationId() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> repository.findContext(null, repository))
+                    .withMessage("conversationId must not be null");
+        }
+
+        @Test
+        void shouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.countEntries(""))
+                    .withMessage("conversationId must not be empty");
+        }
+
+        @Test
+        void shouldRejectNullShardRepositories() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ChatJournalShard(null, checkpointsA))
+                    .withMessage("entryRepository must not be null");
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ChatJournalShard(entriesA, null))
+                    .withMessage("checkpointRepository must not be null");
+        }
+    }
+
+    private String conversationOn(String shard) {
+        for (int i = 0; ; i++) {
+            String conversationId = "conversation-" + i;
+            if (ring.nodeNameFor(conversationId).equals(shard)) {
+                return conversationId;
+            }
+        }
+    }
+}
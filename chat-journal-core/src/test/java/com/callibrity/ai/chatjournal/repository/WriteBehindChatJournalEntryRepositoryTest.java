@@ -0,0 +1,509 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindChatJournalEntryRepositoryTest {
+
+    private static final String CONVERSATION_ID = "test-conversation";
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    @Mock
+    private ChatJournalEntryRepository delegate;
+
+    @Mock
+    private ChatJournalCheckpointRepository checkpointRepository;
+
+    @Mock
+    private ChatJournalBatchWriter batchWriter;
+
+    @Mock
+    private ChatJournalDeadLetterWriter deadLetterWriter;
+
+    private WriteBehindChatJournalEntryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private static ChatJournalEntry entry(String type, String content, int tokens) {
+        return new ChatJournalEntry(0, type, content, tokens);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, List<ChatJournalEntry>> captureBatch() {
+        ArgumentCaptor<Map<String, List<ChatJournalEntry>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(batchWriter).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @Nested
+    class Save {
+
+        @Test
+        void shouldQueueWithoutWriting() {
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10)));
+
+            assertThat(repository.pendingCount()).isEqualTo(1);
+            verify(delegate, never()).save(any(), any());
+            verify(batchWriter, never()).saveAll(anyMap());
+        }
+
+        @Test
+        void shouldIgnoreEmptyList() {
+            repository.save(CONVERSATION_ID, List.of());
+
+            assertThat(repository.pendingCount()).isZero();
+        }
+
+        @Test
+        void shouldFlushWhenMaxBatchSizeReached() {
+            repository.close();
+            repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 2);
+
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10), entry("ASSISTANT", "Hi", 5)));
+
+            verify(batchWriter, timeout(5000)).saveAll(anyMap());
+        }
+
+        @Test
+        void shouldFlushOnInterval() {
+            repository.close();
+            repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, Duration.ofMillis(10), 100);
+
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10)));
+
+            verify(batchWriter, timeout(5000)).saveAll(anyMap());
+        }
+
+        @Test
+        void shouldWriteThroughAfterClose() {
+            repository.close();
+            List<ChatJournalEntry> entries = List.of(entry("USER", "Hello", 10));
+
+            repository.save(CONVERSATION_ID, entries);
+
+            verify(delegate).save(CONVERSATION_ID, entries);
+        }
+
+        @Test
+        void shouldFlushOnCallerWhenMaxPendingEntriesExceeded() {
+            repository.close();
+            repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 100, 2);
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "One", 10), entry("ASSISTANT", "Two", 10)));
+
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Three", 10)));
+
+            assertThat(captureBatch().get(CONVERSATION_ID)).extracting(ChatJournalEntry::content).containsExactly("One", "Two");
+            assertThat(repository.pendingCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldFailSaveWhenFlushForRoomFails() {
+            repository.close();
+            repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 100, 1);
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "One", 10)));
+            doThrow(new IllegalStateException("boom")).when(batchWriter).saveAll(anyMap());
+            List<ChatJournalEntry> entries = List.of(entry("ASSISTANT", "Two", 10));
+
+            assertThatThrownBy(() -> repository.save(CONVERSATION_ID, entries)).isInstanceOf(IllegalStateException.class);
+            assertThat(repository.pendingCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldAcceptOversizedSaveIntoEmptyQueue() {
+            repository.close();
+            repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 100, 1);
+
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "One", 10), entry("ASSISTANT", "Two", 10)));
+
+            assertThat(repository.pendingCount()).isEqualTo(2);
+            verify(batchWriter, never()).saveAll(anyMap());
+        }
+    }
+
+    @Nested
+    class Flush {
+
+        @Test
+        void shouldWriteAllConversationsInOneBatch() {
+            repository.save("conversation-1", List.of(entry("USER", "One", 10)));
+            repository.save("conversation-2", List.of(entry("USER", "Two", 10)));
+            repository.save("conversation-1", List.of(entry("ASSISTANT", "Three", 10)));
+
+            repository.flush();
+
+            Map<String, List<ChatJournalEntry>> batch = captureBatch();
+            assertThat(batch).containsOnlyKeys("conversation-1", "conversation-2");
+            assertThat(batch.get("conversation-1")).extracting(ChatJournalEntry::content).containsExactly("One", "Three");
+            assertThat(repository.pendingCount()).isZero();
+        }
+
+        @Test
+        void shouldNotWriteWhenNothingPending() {
+            repository.flush();
+
+            verify(batchWriter, never()).saveAll(anyMap());
+        }
+
+        @Test
+        void shouldRequeueAheadOfNewerEntriesWhenWriteFails() {
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "First", 10)));
+            doThrow(new IllegalStateException("boom")).when(batchWriter).saveAll(anyMap());
+
+            assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+            assertThat(repository.pendingCount()).isEqualTo(1);
+
+            repository.save(CONVERSATION_ID, List.of(entry("ASSISTANT", "Second", 10)));
+            when(delegate.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(null, List.of()));
+
+            assertThat(repository.findContext(CONVERSATION_ID, checkpointRepository).entries())
+                    .extracting(ChatJournalEntry::content)
+                    .containsExactly("First", "Second");
+        }
+
+        @Test
+        void shouldWriteHealthyConversationsWhenBatchFails() {
+            repository.save("healthy", List.of(entry("USER", "Fine", 10)));
+            repository.save("poison", List.of(entry("USER", "Bad", 10)));
+            doThrow(new IllegalStateException("boom")).when(batchWriter).saveAll(argThat(batch -> batch.containsKey("poison")));
+
+            assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+
+            verify(batchWriter).saveAll(Map.of("healthy", List.of(entry("USER", "Fine", 10))));
+            assertThat(repository.pendingCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldDivertConversationAfterMaxAttempts() {
+            repository.close();
+            repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 100, 100, 2,
+                    deadLetterWriter);
+            List<ChatJournalEntry> entries = List.of(entry("USER", "Bad", 10));
+            repository.save(CONVERSATION_ID, entries);
+            doThrow(new IllegalStateException("boom")).when(batchWriter).saveAll(anyMap());
+
+            assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+            assertThat(repository.pendingCount()).isEqualTo(1);
+            verify(deadLetterWriter, never()).write(any(), any(), any());
+
+            assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+
+            verify(deadLetterWriter).write(eq(CONVERSATION_ID), eq(entries), any(IllegalStateException.class));
+            assertThat(repository.pendingCount()).isZero();
+            assertThat(repository.divertedCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldResetAttemptsAfterSuccessfulFlush() {
+            repository.close();
+            repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 100, 100, 2,
+                    deadLetterWriter);
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "First", 10)));
+            doThrow(new IllegalStateException("boom")).doNothing().doThrow(new IllegalStateException("boom"))
+                    .when(batchWriter).saveAll(anyMap());
+
+            assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+            repository.flush();
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Second", 10)));
+            assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+
+            verify(deadLetterWriter, never()).write(any(), any(), any());
+            assertThat(repository.pendingCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldRetryIndefinitelyWithoutDeadLetterWriter() {
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Bad", 10)));
+            doThrow(new IllegalStateException("boom")).when(batchWriter).saveAll(anyMap());
+
+            for (int attempt = 0; attempt < WriteBehindChatJournalEntryRepository.DEFAULT_MAX_ATTEMPTS * 2; attempt++) {
+                assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+            }
+
+            assertThat(repository.pendingCount()).isEqualTo(1);
+            assertThat(repository.divertedCount()).isZero();
+        }
+
+        @Test
+        void shouldBackOffFromFailingConversationInBackground() {
+            repository.close();
+            repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 1);
+            doThrow(new IllegalStateException("boom")).when(batchWriter).saveAll(argThat(batch -> batch.containsKey("poison")));
+
+            repository.save("poison", List.of(entry("USER", "Bad", 10)));
+            verify(batchWriter, timeout(1000)).saveAll(anyMap());
+            repository.save("healthy", List.of(entry("USER", "Fine", 10)));
+
+            verify(batchWriter, timeout(1000)).saveAll(Map.of("healthy", List.of(entry("USER", "Fine", 10))));
+            verify(batchWriter, times(2)).saveAll(anyMap());
+            assertThat(repository.pendingCount()).isEqualTo(1);
+
+            assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+            verify(batchWriter, times(3)).saveAll(anyMap());
+        }
+
+        @Test
+        void shouldLogAndDiscardWithDiscardingDeadLetterWriter() {
+            repository.close();
+            repository = new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 100, 100, 1,
+                    WriteBehindChatJournalEntryRepository.discardingDeadLetterWriter());
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Bad", 10)));
+            doThrow(new IllegalStateException("boom")).when(batchWriter).saveAll(anyMap());
+
+            assertThatThrownBy(repository::flush).isInstanceOf(IllegalStateException.class);
+
+            assertThat(repository.pendingCount()).isZero();
+            assertThat(repository.divertedCount()).isEqualTo(1);
+        }
+
+        @Test
+        void closeShouldFlushPendingEntries() {
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10)));
+
+            repository.close();
+
+            assertThat(captureBatch()).containsOnlyKeys(CONVERSATION_ID);
+        }
+    }
+
+    @Nested
+    class MergedReads {
+
+        @Test
+        void countEntriesShouldIncludePendingEntries() {
+            when(delegate.countEntries(CONVERSATION_ID)).thenReturn(5);
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10), entry("SYSTEM", "Note", 3)));
+
+            assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(7);
+        }
+
+        @Test
+        void countVisibleEntriesShouldIncludeOnlyVisiblePendingEntries() {
+            when(delegate.countVisibleEntries(CONVERSATION_ID)).thenReturn(4);
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10), entry("SYSTEM", "Note", 3)));
+
+            assertThat(repository.countVisibleEntries(CONVERSATION_ID)).isEqualTo(5);
+        }
+
+        @Test
+        void getEffectiveTokensShouldIncludePendingTokens() {
+            when(delegate.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).thenReturn(100);
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10), entry("ASSISTANT", "Hi", 15)));
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(125);
+        }
+
+        @Test
+        void findContextShouldAppendPendingEntries() {
+            ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(3, "Summary", 20);
+            ChatJournalEntry stored = new ChatJournalEntry(4, "USER", "Stored", 10);
+            when(delegate.findContext(CONVERSATION_ID, checkpointRepository)).thenReturn(new ChatJournalContext(checkpoint, List.of(stored)));
+            repository.save(CONVERSATION_ID, List.of(entry("ASSISTANT", "Pending", 10)));
+
+            ChatJournalContext context = repository.findContext(CONVERSATION_ID, checkpointRepository);
+
+            assertThat(context.checkpoint()).isEqualTo(checkpoint);
+            assertThat(context.entries()).extracting(ChatJournalEntry::content).containsExactly("Stored", "Pending");
+        }
+
+        @Test
+        void shouldNotIncludeOtherConversationsPendingEntries() {
+            when(delegate.countEntries(CONVERSATION_ID)).thenReturn(0);
+            repository.save("other-conversation", List.of(entry("USER", "Hello", 10)));
+
+            assertThat(repository.countEntries(CONVERSATION_ID)).isZero();
+        }
+    }
+
+    @Nested
+    class IndexedReads {
+
+        @Test
+        void shouldFlushPendingEntriesBeforeDelegating() {
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10)));
+
+            repository.findEntryTokensAfterIndex(CONVERSATION_ID, 5);
+
+            InOrder inOrder = inOrder(batchWriter, delegate);
+            inOrder.verify(batchWriter).saveAll(anyMap());
+            inOrder.verify(delegate).findEntryTokensAfterIndex(CONVERSATION_ID, 5);
+        }
+
+        @Test
+        void shouldFlushPendingEntriesBeforeStreaming() {
+            Consumer<ChatJournalEntry> visitor = entry -> {
+            };
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10)));
+
+            repository.forEachEntryAfterIndex(CONVERSATION_ID, -1, visitor);
+
+            InOrder inOrder = inOrder(batchWriter, delegate);
+            inOrder.verify(batchWriter).saveAll(anyMap());
+            inOrder.verify(delegate).forEachEntryAfterIndex(CONVERSATION_ID, -1, visitor);
+        }
+
+        @Test
+        void shouldNotFlushWhenConversationHasNoPendingEntries() {
+            repository.save("other-conversation", List.of(entry("USER", "Hello", 10)));
+
+            repository.findAll(CONVERSATION_ID);
+
+            verify(batchWriter, never()).saveAll(anyMap());
+            verify(delegate).findAll(CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldDelegateIndexBasedReads() {
+            repository.findVisibleEntries(CONVERSATION_ID, 0, 10);
+            repository.findVisibleEntriesBefore(CONVERSATION_ID, 20, 10);
+            repository.findEntriesAfterIndex(CONVERSATION_ID, 5);
+            repository.findEntriesInRange(CONVERSATION_ID, 5, 9);
+            repository.sumTokens(CONVERSATION_ID);
+            repository.sumTokensAfterIndex(CONVERSATION_ID, 5);
+
+            verify(delegate).findVisibleEntries(CONVERSATION_ID, 0, 10);
+            verify(delegate).findVisibleEntriesBefore(CONVERSATION_ID, 20, 10);
+            verify(delegate).findEntriesAfterIndex(CONVERSATION_ID, 5);
+            verify(delegate).findEntriesInRange(CONVERSATION_ID, 5, 9);
+            verify(delegate).sumTokens(CONVERSATION_ID);
+            verify(delegate).sumTokensAfterIndex(CONVERSATION_ID, 5);
+        }
+    }
+
+    @Nested
+    class DeleteAll {
+
+        @Test
+        void shouldDiscardPendingEntriesAndDelegate() {
+            repository.save(CONVERSATION_ID, List.of(entry("USER", "Hello", 10)));
+            repository.save("other-conversation", List.of(entry("USER", "Other", 10)));
+
+            repository.deleteAll(CONVERSATION_ID);
+            repository.flush();
+
+            verify(delegate).deleteAll(CONVERSATION_ID);
+            assertThat(captureBatch()).containsOnlyKeys("other-conversation");
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void shouldRejectNullDelegate() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new WriteBehindChatJournalEntryRepository(null, batchWriter, NEVER, 10))
+                    .withMessage("delegate must not be null");
+        }
+
+        @Test
+        void shouldRejectNullBatchWriter() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new WriteBehindChatJournalEntryRepository(delegate, null, NEVER, 10))
+                    .withMessage("batchWriter must not be null");
+        }
+
+        @Test
+        void shouldRejectNonPositiveFlushInterval() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new WriteBehindChatJournalEntryRepository(delegate, batchWriter, Duration.ZERO, 10))
+                    .withMessage("flushInterval must be positive");
+        }
+
+        @Test
+        void shouldRejectNonPositiveMaxBatchSize() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 0))
+                    .withMessage("maxBatchSize must be positive");
+        }
+
+        @Test
+        void shouldRejectNonPositiveMaxPendingEntries() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 10, 0, 5,
+                            deadLetterWriter))
+                    .withMessage("maxPendingEntries must be positive");
+        }
+
+        @Test
+        void shouldRejectNonPositiveMaxAttempts() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 10, 100, 0,
+                            deadLetterWriter))
+                    .withMessage("maxAttempts must be positive");
+        }
+
+        @Test
+        void shouldRejectNullDeadLetterWriter() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new WriteBehindChatJournalEntryRepository(delegate, batchWriter, NEVER, 10, 100, 5,
+                            null))
+                    .withMessage("deadLetterWriter must not be null");
+        }
+
+        @Test
+        void saveShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.save("", List.of()))
+                    .withMessage("conversationId must not be empty");
+        }
+
+        @Test
+        void saveShouldRejectNullEntries() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> repository.save(CONVERSATION_ID, null))
+                    .withMessage("entries must not be null");
+        }
+    }
+}
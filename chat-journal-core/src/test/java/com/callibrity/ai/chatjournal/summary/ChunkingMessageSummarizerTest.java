@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.summary;
+
+import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class ChunkingMessageSummarizerTest {
+
+    private static final TokenUsageCalculator TEN_TOKENS_PER_MESSAGE = messages -> messages.size() * 10;
+
+    private final Queue<List<Message>> calls = new ConcurrentLinkedQueue<>();
+
+    private final MessageSummarizer delegate = messages -> {
+        calls.add(messages);
+        return "summary of " + messages.size();
+    };
+
+    @Nested
+    class Summarize {
+
+        @Test
+        void shouldDelegateDirectlyWhenMessagesFitInOneChunk() {
+            var summarizer = new ChunkingMessageSummarizer(delegate, TEN_TOKENS_PER_MESSAGE, 50, 2);
+            List<Message> messages = messages(5);
+
+            String summary = summarizer.summarize(messages);
+
+            assertThat(summary).isEqualTo("summary of 5");
+            assertThat(calls).containsExactly(messages);
+        }
+
+        @Test
+        void shouldSummarizeChunksThenReducePartialSummaries() {
+            var summarizer = new ChunkingMessageSummarizer(delegate, TEN_TOKENS_PER_MESSAGE, 20, 2);
+
+            String summary = summarizer.summarize(messages(4));
+
+            assertThat(summary).isEqualTo("summary of 2");
+            assertThat(calls).hasSize(3);
+            List<Message> reduceCall = List.copyOf(calls).getLast();
+            assertThat(reduceCall).extracting(Message::getText).containsExactly(
+                    "Summary of conversation part 1 of 2: summary of 2",
+                    "Summary of conversation part 2 of 2: summary of 2"
+            );
+        }
+
+        @Test
+        void shouldReduceHierarchicallyWhenPartialSummariesExceedChunkSize() {
+            var summarizer = new ChunkingMessageSummarizer(delegate, TEN_TOKENS_PER_MESSAGE, 25, 2);
+
+            summarizer.summarize(messages(5));
+
+            // 5 messages -> 3 chunks -> 3 partials -> 2 chunks -> 2 partials -> final summary
+            assertThat(calls).extracting(List::size).containsExactlyInAnyOrder(2, 2, 1, 2, 1, 2);
+        }
+
+        @Test
+        void shouldDelegateDirectlyWhenNoMessagesFitTogether() {
+            var summarizer = new ChunkingMessageSummarizer(delegate, TEN_TOKENS_PER_MESSAGE, 5, 2);
+            List<Message> messages = messages(3);
+
+            summarizer.summarize(messages);
+
+            assertThat(calls).containsExactly(messages);
+        }
+
+        @Test
+        void shouldBoundConcurrentDelegateCalls() {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            MessageSummarizer slowDelegate = messages -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return "summary";
+            };
+            var summarizer = new ChunkingMessageSummarizer(slowDelegate, TEN_TOKENS_PER_MESSAGE, 20, 2);
+
+            summarizer.summarize(messages(8));
+
+            assertThat(maxRunning.get()).isBetween(1, 2);
+        }
+
+        @Test
+        void shouldPropagateDelegateFailure() {
+            MessageSummarizer failingDelegate = messages -> {
+                throw new IllegalStateException("model unavailable");
+            };
+            var summarizer = new ChunkingMessageSummarizer(failingDelegate, TEN_TOKENS_PER_MESSAGE, 20, 2);
+
+            assertThatIllegalStateException()
+                    .isThrownBy(() -> summarizer.summarize(messages(4)))
+                    .withMessage("model unavailable");
+        }
+
+        @Test
+        void shouldRejectNullMessages() {
+            var summarizer = new ChunkingMessageSummarizer(delegate, TEN_TOKENS_PER_MESSAGE, 10, 2);
+            assertThatNullPointerException()
+                    .isThrownBy(() -> summarizer.summarize(null))
+                    .withMessage("messages must not be null");
+        }
+
+        @Test
+        void shouldRejectEmptyMessages() {
+            var summarizer = new ChunkingMessageSummarizer(delegate, TEN_TOKENS_PER_MESSAGE, 10, 2);
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> summarizer.summarize(List.of()))
+                    .withMessage("messages must not be empty");
+        }
+    }
+
+    @Nested
+    class ConstructorValidation {
+
+        @Test
+        void shouldRejectNullDelegate() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ChunkingMessageSummarizer(null, TEN_TOKENS_PER_MESSAGE, 10, 2))
+                    .withMessage("delegate must not be null");
+        }
+
+        @Test
+        void shouldRejectNullTokenUsageCalculator() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new ChunkingMessageSummarizer(delegate, null, 10, 2))
+                    .withMessage("tokenUsageCalculator must not be null");
+        }
+
+        @Test
+        void shouldRejectNonPositiveMaxChunkTokens() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ChunkingMessageSummarizer(delegate, TEN_TOKENS_PER_MESSAGE, 0, 2))
+                    .withMessage("maxChunkTokens must be positive");
+        }
+
+        @Test
+        void shouldRejectNonPositiveMaxConcurrency() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ChunkingMessageSummarizer(delegate, TEN_TOKENS_PER_MESSAGE, 10, 0))
+                    .withMessage("maxConcurrency must be positive");
+        }
+    }
+
+    private static List<Message> messages(int count) {
+        return IntStream.rangeClosed(1, count)
+                .<Message>mapToObj(i -> new UserMessage("Message " + i))
+                .toList();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.token;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingTokenUsageCalculatorTest {
+
+    @Mock
+    private TokenUsageCalculator delegate;
+
+    private CachingTokenUsageCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        calculator = new CachingTokenUsageCalculator(delegate, 2);
+    }
+
+    @Test
+    void shouldRejectNullDelegate() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> new CachingTokenUsageCalculator(null))
+                .withMessage("delegate must not be null");
+    }
+
+    @Test
+    void shouldRejectNonPositiveMaxEntries() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new CachingTokenUsageCalculator(delegate, 0))
+                .withMessage("maxEntries must be positive");
+    }
+
+    @Test
+    void shouldCountEachMessageSeparatelyAndSum() {
+        UserMessage question = new UserMessage("Hello");
+        AssistantMessage answer = new AssistantMessage("Hi there");
+        when(delegate.calculateTokenUsage(List.of(question))).thenReturn(2);
+        when(delegate.calculateTokenUsage(List.of(answer))).thenReturn(3);
+
+        assertThat(calculator.calculateTokenUsage(List.of(question, answer))).isEqualTo(5);
+        assertThat(calculator.missCount()).isEqualTo(2);
+        assertThat(calculator.hitCount()).isZero();
+    }
+
+    @Test
+    void shouldServeRepeatedTextFromCache() {
+        when(delegate.calculateTokenUsage(anyList())).thenReturn(7);
+
+        calculator.calculateTokenUsage(List.of(new UserMessage("Repeated prompt")));
+        int tokens = calculator.calculateTokenUsage(List.of(new UserMessage("Repeated prompt")));
+
+        assertThat(tokens).isEqualTo(7);
+        verify(delegate, times(1)).calculateTokenUsage(anyList());
+        assertThat(calculator.hitCount()).isEqualTo(1);
+        assertThat(calculator.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepMessageTypesApart() {
+        when(delegate.calculateTokenUsage(anyList())).thenReturn(4);
+
+        calculator.calculateTokenUsage(List.of(new UserMessage("Same text")));
+        calculator.calculateTokenUsage(List.of(new AssistantMessage("Same text")));
+
+        verify(delegate, times(2)).calculateTokenUsage(anyList());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedCounts() {
+        when(delegate.calculateTokenUsage(anyList())).thenReturn(1);
+        Message first = new UserMessage("first");
+        Message second = new UserMessage("second");
+        Message third = new UserMessage("third");
+
+        calculator.calculateTokenUsage(List.of(first));
+        calculator.calculateTokenUsage(List.of(second));
+        calculator.calculateTokenUsage(List.of(first));
+        calculator.calculateTokenUsage(List.of(third));
+        calculator.calculateTokenUsage(List.of(first));
+        calculator.calculateTokenUsage(List.of(second));
+
+        assertThat(calculator.size()).isEqualTo(2);
+        assertThat(calculator.hitCount()).isEqualTo(2);
+        assertThat(calculator.missCount()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldDelegateMessagesWithoutTextUncached() {
+        AssistantMessage toolCallOnly = new AssistantMessage(null);
+        when(delegate.calculateTokenUsage(List.of(toolCallOnly))).thenReturn(0);
+
+        calculator.calculateTokenUsage(List.of(toolCallOnly));
+        calculator.calculateTokenUsage(List.of(toolCallOnly));
+
+        verify(delegate, times(2)).calculateTokenUsage(List.of(toolCallOnly));
+        assertThat(calculator.size()).isZero();
+    }
+
+    @Test
+    void shouldMatchDelegateCounts() {
+        CachingTokenUsageCalculator caching = new CachingTokenUsageCalculator(new SimpleTokenUsageCalculator(4));
+        List<Message> messages = List.of(new UserMessage("Hello World!"), new AssistantMessage("Hello"));
+
+        assertThat(caching.calculateTokenUsage(messages)).isEqualTo(4);
+        assertThat(caching.calculateTokenUsage(messages)).isEqualTo(4);
+    }
+
+    @Test
+    void shouldReportDelegateEncodingName() {
+        when(delegate.encodingName()).thenReturn("o200k_base");
+
+        assertThat(calculator.encodingName()).isEqualTo("o200k_base");
+    }
+
+    @Test
+    void shouldBeItsOwnExactCalculatorWhenDelegateCountsExactly() {
+        when(delegate.exactCalculator()).thenReturn(delegate);
+
+        assertThat(calculator.exactCalculator()).isSameAs(calculator);
+    }
+
+    @Test
+    void shouldReturnDelegateExactCalculatorWhenDelegateEstimates() {
+        TokenUsageCalculator exact = new SimpleTokenUsageCalculator(4);
+        when(delegate.exactCalculator()).thenReturn(exact);
+
+        assertThat(calculator.exactCalculator()).isSameAs(exact);
+    }
+}
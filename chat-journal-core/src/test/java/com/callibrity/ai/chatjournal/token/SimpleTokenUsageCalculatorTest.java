@@ -118,4 +118,9 @@ class SimpleTokenUsageCalculatorTest {
                 .isThrownBy(() -> new SimpleTokenUsageCalculator(-1))
                 .withMessage("charactersPerToken must be positive");
     }
+
+    @Test
+    void shouldNameEncodingAfterCharactersPerToken() {
+        assertThat(calculator.encodingName()).isEqualTo("chars/4");
+    }
 }
@@ -16,6 +16,7 @@
 package com.callibrity.ai.chatjournal.example;
 
 import com.callibrity.ai.chatjournal.example.sse.StreamingChatClient;
+import com.callibrity.ai.chatjournal.memory.ChatJournalTokenUsageAdvisor;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor;
@@ -33,11 +34,13 @@ public class ChatConfiguration {
     public ChatClient chatClient(
             ChatClient.Builder builder,
             ChatMemory chatMemory,
+            ChatJournalTokenUsageAdvisor tokenUsageAdvisor,
             @Value("${chat.system-prompt}") String systemPrompt) {
         return builder
                 .defaultSystem(systemPrompt)
                 .defaultAdvisors(
                         MessageChatMemoryAdvisor.builder(chatMemory).build(),
+                        tokenUsageAdvisor,
                         SimpleLoggerAdvisor.builder().build()
                 )
                 .build();
@@ -20,12 +20,16 @@ import com.callibrity.ai.chatjournal.memory.ChatMemoryUsage;
 import com.callibrity.ai.chatjournal.memory.ChatMemoryUsageProvider;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 
 @RestController
@@ -62,10 +66,11 @@ public class ChatController {
     @GetMapping("/chat/history")
     public HistoryResponse history(
             @RequestParam String conversationId,
-            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "50") int limit) {
 
-        List<ChatJournalEntry> entries = entryRepository.findVisibleEntries(conversationId, offset, limit);
+        long beforeIndex = cursor == null ? Long.MAX_VALUE : decodeCursor(cursor);
+        List<ChatJournalEntry> entries = entryRepository.findVisibleEntriesBefore(conversationId, beforeIndex, limit);
         int totalCount = entryRepository.countVisibleEntries(conversationId);
         ChatMemoryUsage usage = memoryUsageProvider.getMemoryUsage(conversationId);
 
@@ -73,8 +78,11 @@ public class ChatController {
                 .map(e -> new HistoryMessage(e.messageType(), e.content()))
                 .toList();
 
+        String nextCursor = entries.size() < limit ? null : encodeCursor(entries.getLast().messageIndex());
+
         return new HistoryResponse(
                 messages,
+                nextCursor,
                 totalCount,
                 usage.currentTokens(),
                 usage.maxTokens(),
@@ -82,8 +90,22 @@ public class ChatController {
         );
     }
 
+    static String encodeCursor(long messageIndex) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(messageIndex).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid history cursor", e);
+        }
+    }
+
     public record HistoryResponse(
             List<HistoryMessage> messages,
+            String nextCursor,
             int totalCount,
             int currentTokens,
             int maxTokens,
@@ -16,6 +16,7 @@
 package com.callibrity.ai.chatjournal.example;
 
 import com.callibrity.ai.chatjournal.example.sse.StreamingChatClient;
+import com.callibrity.ai.chatjournal.memory.ChatJournalTokenUsageAdvisor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
@@ -48,7 +49,7 @@ class ChatConfigurationTest {
         var config = new ChatConfiguration();
         when(chatClientBuilder.build()).thenReturn(chatClient);
 
-        var result = config.chatClient(chatClientBuilder, chatMemory, "Test system prompt");
+        var result = config.chatClient(chatClientBuilder, chatMemory, new ChatJournalTokenUsageAdvisor(), "Test system prompt");
 
         assertThat(result).isEqualTo(chatClient);
     }
@@ -27,10 +27,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -129,12 +132,12 @@ class ChatControllerTest {
                     new ChatJournalEntry(2, "ASSISTANT", "Hello!", 10),
                     new ChatJournalEntry(1, "USER", "Hi", 5)
             );
-            when(entryRepository.findVisibleEntries("conv-123", 0, 50)).thenReturn(entries);
+            when(entryRepository.findVisibleEntriesBefore("conv-123", Long.MAX_VALUE, 50)).thenReturn(entries);
             when(entryRepository.countVisibleEntries("conv-123")).thenReturn(2);
             when(memoryUsageProvider.getMemoryUsage("conv-123"))
                     .thenReturn(new ChatMemoryUsage(500, 1000));
 
-            var response = controller.history("conv-123", 0, 50);
+            var response = controller.history("conv-123", null, 50);
 
             assertThat(response.messages()).hasSize(2);
             assertThat(response.totalCount()).isEqualTo(2);
@@ -149,12 +152,12 @@ class ChatControllerTest {
                     new ChatJournalEntry(1, "USER", "Hello", 5),
                     new ChatJournalEntry(2, "ASSISTANT", "Hi there!", 10)
             );
-            when(entryRepository.findVisibleEntries("conv-123", 0, 50)).thenReturn(entries);
+            when(entryRepository.findVisibleEntriesBefore("conv-123", Long.MAX_VALUE, 50)).thenReturn(entries);
             when(entryRepository.countVisibleEntries("conv-123")).thenReturn(2);
             when(memoryUsageProvider.getMemoryUsage("conv-123"))
                     .thenReturn(new ChatMemoryUsage(100, 1000));
 
-            var response = controller.history("conv-123", 0, 50);
+            var response = controller.history("conv-123", null, 50);
 
             assertThat(response.messages().get(0).type()).isEqualTo("USER");
             assertThat(response.messages().get(0).content()).isEqualTo("Hello");
@@ -163,27 +166,66 @@ class ChatControllerTest {
         }
 
         @Test
-        void shouldPassOffsetAndLimitToRepository() {
-            when(entryRepository.findVisibleEntries("conv-123", 10, 25)).thenReturn(List.of());
+        void shouldReturnNextCursorWhenPageIsFull() {
+            var entries = List.of(
+                    new ChatJournalEntry(7, "ASSISTANT", "Hello!", 10),
+                    new ChatJournalEntry(5, "USER", "Hi", 5)
+            );
+            when(entryRepository.findVisibleEntriesBefore("conv-123", Long.MAX_VALUE, 2)).thenReturn(entries);
+            when(entryRepository.countVisibleEntries("conv-123")).thenReturn(4);
+            when(memoryUsageProvider.getMemoryUsage("conv-123"))
+                    .thenReturn(new ChatMemoryUsage(0, 1000));
+
+            var response = controller.history("conv-123", null, 2);
+
+            assertThat(response.nextCursor()).isNotNull();
+            assertThat(ChatController.decodeCursor(response.nextCursor())).isEqualTo(5);
+        }
+
+        @Test
+        void shouldNotReturnNextCursorOnLastPage() {
+            when(entryRepository.findVisibleEntriesBefore("conv-123", Long.MAX_VALUE, 50))
+                    .thenReturn(List.of(new ChatJournalEntry(1, "USER", "Hi", 5)));
+            when(entryRepository.countVisibleEntries("conv-123")).thenReturn(1);
+            when(memoryUsageProvider.getMemoryUsage("conv-123"))
+                    .thenReturn(new ChatMemoryUsage(0, 1000));
+
+            var response = controller.history("conv-123", null, 50);
+
+            assertThat(response.nextCursor()).isNull();
+        }
+
+        @Test
+        void shouldPassCursorIndexAndLimitToRepository() {
+            when(entryRepository.findVisibleEntriesBefore("conv-123", 42, 25)).thenReturn(List.of());
             when(entryRepository.countVisibleEntries("conv-123")).thenReturn(0);
             when(memoryUsageProvider.getMemoryUsage("conv-123"))
                     .thenReturn(new ChatMemoryUsage(0, 1000));
 
-            controller.history("conv-123", 10, 25);
+            controller.history("conv-123", ChatController.encodeCursor(42), 25);
+
+            verify(entryRepository).findVisibleEntriesBefore("conv-123", 42, 25);
+        }
 
-            verify(entryRepository).findVisibleEntries("conv-123", 10, 25);
+        @Test
+        void shouldRejectInvalidCursor() {
+            assertThatThrownBy(() -> controller.history("conv-123", "not a cursor!", 50))
+                    .isInstanceOf(ResponseStatusException.class)
+                    .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
         }
 
         @Test
         void shouldReturnEmptyListWhenNoMessages() {
-            when(entryRepository.findVisibleEntries("conv-123", 0, 50)).thenReturn(List.of());
+            when(entryRepository.findVisibleEntriesBefore("conv-123", Long.MAX_VALUE, 50)).thenReturn(List.of());
             when(entryRepository.countVisibleEntries("conv-123")).thenReturn(0);
             when(memoryUsageProvider.getMemoryUsage("conv-123"))
                     .thenReturn(new ChatMemoryUsage(0, 1000));
 
-            var response = controller.history("conv-123", 0, 50);
+            var response = controller.history("conv-123", null, 50);
 
             assertThat(response.messages()).isEmpty();
+            assertThat(response.nextCursor()).isNull();
             assertThat(response.totalCount()).isZero();
         }
     }
@@ -194,9 +236,10 @@ class ChatControllerTest {
         @Test
         void shouldCreateHistoryResponseWithAllFields() {
             var messages = List.of(new ChatController.HistoryMessage("USER", "Hello"));
-            var response = new ChatController.HistoryResponse(messages, 10, 500, 1000, 50.0);
+            var response = new ChatController.HistoryResponse(messages, "cursor", 10, 500, 1000, 50.0);
 
             assertThat(response.messages()).isEqualTo(messages);
+            assertThat(response.nextCursor()).isEqualTo("cursor");
             assertThat(response.totalCount()).isEqualTo(10);
             assertThat(response.currentTokens()).isEqualTo(500);
             assertThat(response.maxTokens()).isEqualTo(1000);
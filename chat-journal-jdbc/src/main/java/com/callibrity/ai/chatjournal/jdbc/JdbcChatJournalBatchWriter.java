@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalBatchWriter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JDBC-based implementation of {@link ChatJournalBatchWriter}.
+ *
+ * <p>All entries, across every conversation in the batch, are inserted into {@code chat_journal}
+ * with a single JDBC batch, followed by one batched update of the {@code chat_journal_conversation}
+ * statistics rows, all in one transaction. Entries are inserted in conversation order, so each
+ * conversation's entries receive ascending message indexes in the order they were appended.
+ *
+ * <p>When constructed with a {@link ChatJournalContentCodec}, content is stored as the codec's
+ * encoded bytes, as by a {@link JdbcChatJournalEntryRepository} configured with the same codec.
+ * Likewise, a token encoding name given at construction is stored in the {@code token_encoding}
+ * column of every entry.
+ *
+ * <p>This class is thread-safe as it delegates all operations to the thread-safe JdbcTemplate.
+ *
+ * @see com.callibrity.ai.chatjournal.repository.WriteBehindChatJournalEntryRepository
+ */
+public class JdbcChatJournalBatchWriter implements ChatJournalBatchWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcConversationStats stats;
+    private final JdbcContentColumn contentColumn;
+    private final String tokenEncoding;
+
+    /**
+     * Creates a new JdbcChatJournalBatchWriter.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @throws NullPointerException if jdbcTemplate is null
+     */
+    public JdbcChatJournalBatchWriter(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, JdbcContentColumn.TEXT, null);
+    }
+
+    /**
+     * Creates a new JdbcChatJournalBatchWriter that stores content encoded with the given codec.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param contentCodec the codec for message content, which is then stored in a binary column
+     * @throws NullPointerException if any parameter is null
+     */
+    public JdbcChatJournalBatchWriter(JdbcTemplate jdbcTemplate, ChatJournalContentCodec contentCodec) {
+        this(jdbcTemplate, JdbcContentColumn.encodedWith(contentCodec), null);
+    }
+
+    /**
+     * Creates a new JdbcChatJournalBatchWriter that records the encoding of every token count it writes.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param contentCodec the codec for message content, which is then stored in a binary column; or null
+     *                     to store content as text
+     * @param tokenEncoding the name of the encoding that produced the token counts of saved entries, stored
+     *                      in the {@code token_encoding} column; or null to leave the column unset
+     * @throws NullPointerException if jdbcTemplate is null
+     */
+    public JdbcChatJournalBatchWriter(JdbcTemplate jdbcTemplate, ChatJournalContentCodec contentCodec, String tokenEncoding) {
+        this(jdbcTemplate, contentCodec == null ? JdbcContentColumn.TEXT : JdbcContentColumn.encodedWith(contentCodec), tokenEncoding);
+    }
+
+    private JdbcChatJournalBatchWriter(JdbcTemplate jdbcTemplate, JdbcContentColumn contentColumn, String tokenEncoding) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate, "jdbcTemplate must not be null");
+        this.stats = new JdbcConversationStats(jdbcTemplate);
+        this.contentColumn = contentColumn;
+        this.tokenEncoding = tokenEncoding;
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(Map<String, List<ChatJournalEntry>> entriesByConversation) {
+        Objects.requireNonNull(entriesByConversation, "entriesByConversation must not be null");
+        List<JdbcConversationStats.Delta> deltas = new ArrayList<>();
+        entriesByConversation.forEach((conversationId, entries) -> {
+            if (!entries.isEmpty()) {
+                deltas.add(new JdbcConversationStats.Delta(
+                        conversationId,
+                        entries.size(),
+                        entries.stream().mapToInt(ChatJournalEntry::tokens).sum()
+                ));
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        insertEntries(entriesByConversation);
+        stats.recordSaves(deltas);
+    }
+
+    /**
+     * Inserts the entries of a batch into {@code chat_journal}, conversation by conversation,
+     * in the order given. Called within the {@link #saveAll(Map)} transaction, before the
+     * statistics are updated.
+     *
+     * <p>The default implementation uses a single JDBC batch of {@code INSERT} statements.
+     * Subclasses may override this to use a faster database-specific bulk load.
+     *
+     * @param entriesByConversation the entries to insert, keyed by conversation ID; some lists may be empty
+     */
+    protected void insertEntries(Map<String, List<ChatJournalEntry>> entriesByConversation) {
+        List<Row> rows = new ArrayList<>();
+        entriesByConversation.forEach((conversationId, entries) ->
+                entries.forEach(entry -> rows.add(new Row(conversationId, entry))));
+        jdbcTemplate.batchUpdate(
+                tokenEncoding == null
+                        ? JdbcChatJournalEntryRepository.INSERT_SQL
+                        : JdbcChatJournalEntryRepository.INSERT_WITH_TOKEN_ENCODING_SQL,
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setString(1, row.conversationId());
+                    ps.setString(2, row.entry().messageType());
+                    contentColumn.set(ps, 3, row.entry().content());
+                    ps.setInt(4, row.entry().tokens());
+                    if (tokenEncoding != null) {
+                        ps.setString(5, tokenEncoding);
+                    }
+                }
+        );
+    }
+
+    private record Row(String conversationId, ChatJournalEntry entry) {
+    }
+}
@@ -17,7 +17,10 @@ package com.callibrity.ai.chatjournal.jdbc;
 
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
 import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -30,6 +33,17 @@ import java.util.Optional;
  * <p>This implementation stores chat journal checkpoints in a relational database
  * using Spring's {@link JdbcTemplate}. It requires a table named {@code chat_journal_checkpoint}.
  *
+ * <p>{@link #saveCheckpoint(String, ChatJournalCheckpoint)} writes the checkpoint with a single
+ * dialect-specific upsert statement (see {@link JdbcDialect}), detected from the
+ * {@link javax.sql.DataSource} metadata on first use unless supplied explicitly. An existing
+ * checkpoint with a greater index is never replaced by an older one.
+ *
+ * <p>When constructed with a {@link ChatJournalContentCodec}, summaries are stored as the codec's
+ * encoded bytes in a binary {@code summary} column; the entry repository must use the same codec.
+ *
+ * <p>Saving or deleting a checkpoint also refreshes the effective token count held in the
+ * {@code chat_journal_conversation} table, since that count depends on the checkpoint.
+ *
  * <p>This class is thread-safe as it delegates all operations to the thread-safe JdbcTemplate.
  *
  * @see ChatJournalCheckpointRepository
@@ -41,15 +55,64 @@ public class JdbcChatJournalCheckpointRepository implements ChatJournalCheckpoin
     private static final String COL_TOKENS = "tokens";
 
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final JdbcConversationStats stats;
+    private final JdbcContentColumn summaryColumn;
+    private volatile JdbcDialect dialect;
 
     /**
-     * Creates a new JdbcChatJournalCheckpointRepository.
+     * Creates a new JdbcChatJournalCheckpointRepository that detects its dialect from the
+     * JdbcTemplate's data source on first save.
      *
      * @param jdbcTemplate the JdbcTemplate for database operations
      * @throws NullPointerException if jdbcTemplate is null
      */
     public JdbcChatJournalCheckpointRepository(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, null, JdbcContentColumn.TEXT);
+    }
+
+    /**
+     * Creates a new JdbcChatJournalCheckpointRepository for a known dialect.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param dialect the SQL dialect of the database
+     * @throws NullPointerException if any parameter is null
+     */
+    public JdbcChatJournalCheckpointRepository(JdbcTemplate jdbcTemplate, JdbcDialect dialect) {
+        this(jdbcTemplate, Objects.requireNonNull(dialect, "dialect must not be null"), JdbcContentColumn.TEXT);
+    }
+
+    /**
+     * Creates a new JdbcChatJournalCheckpointRepository that stores summaries encoded with the given
+     * codec and detects its dialect from the JdbcTemplate's data source on first save.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param contentCodec the codec for checkpoint summaries, which are then stored in a binary column
+     * @throws NullPointerException if any parameter is null
+     */
+    public JdbcChatJournalCheckpointRepository(JdbcTemplate jdbcTemplate, ChatJournalContentCodec contentCodec) {
+        this(jdbcTemplate, null, JdbcContentColumn.encodedWith(contentCodec));
+    }
+
+    /**
+     * Creates a new JdbcChatJournalCheckpointRepository for a known dialect that stores summaries
+     * encoded with the given codec.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param dialect the SQL dialect of the database
+     * @param contentCodec the codec for checkpoint summaries, which are then stored in a binary column
+     * @throws NullPointerException if any parameter is null
+     */
+    public JdbcChatJournalCheckpointRepository(JdbcTemplate jdbcTemplate, JdbcDialect dialect, ChatJournalContentCodec contentCodec) {
+        this(jdbcTemplate, Objects.requireNonNull(dialect, "dialect must not be null"), JdbcContentColumn.encodedWith(contentCodec));
+    }
+
+    private JdbcChatJournalCheckpointRepository(JdbcTemplate jdbcTemplate, JdbcDialect dialect, JdbcContentColumn summaryColumn) {
         this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate, "jdbcTemplate must not be null");
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.stats = new JdbcConversationStats(jdbcTemplate);
+        this.summaryColumn = summaryColumn;
+        this.dialect = dialect;
     }
 
     @Override
@@ -68,20 +131,51 @@ public class JdbcChatJournalCheckpointRepository implements ChatJournalCheckpoin
     public void saveCheckpoint(String conversationId, ChatJournalCheckpoint checkpoint) {
         validateConversationId(conversationId);
         Objects.requireNonNull(checkpoint, "checkpoint must not be null");
-        jdbcTemplate.update("DELETE FROM chat_journal_checkpoint WHERE conversation_id = ?", conversationId);
-        jdbcTemplate.update(
-                "INSERT INTO chat_journal_checkpoint (conversation_id, checkpoint_index, summary, tokens) VALUES (?, ?, ?, ?)",
-                conversationId,
-                checkpoint.checkpointIndex(),
-                checkpoint.summary(),
-                checkpoint.tokens()
-        );
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("conversationId", conversationId)
+                .addValue("checkpointIndex", checkpoint.checkpointIndex())
+                .addValue("summary", summaryColumn.parameter(checkpoint.summary()))
+                .addValue("tokens", checkpoint.tokens());
+        String upsertSql = dialect().checkpointUpsertSql();
+        if (upsertSql != null) {
+            namedParameterJdbcTemplate.update(upsertSql, params);
+        } else {
+            saveCheckpointGeneric(params);
+        }
+        stats.recomputeEffectiveTokens(conversationId);
     }
 
     @Override
+    @Transactional
     public void deleteCheckpoint(String conversationId) {
         validateConversationId(conversationId);
         jdbcTemplate.update("DELETE FROM chat_journal_checkpoint WHERE conversation_id = ?", conversationId);
+        stats.recomputeEffectiveTokens(conversationId);
+    }
+
+    private void saveCheckpointGeneric(MapSqlParameterSource params) {
+        int updated = namedParameterJdbcTemplate.update(
+                "UPDATE chat_journal_checkpoint SET checkpoint_index = :checkpointIndex, summary = :summary, tokens = :tokens, "
+                        + "created_at = CURRENT_TIMESTAMP WHERE conversation_id = :conversationId AND checkpoint_index <= :checkpointIndex",
+                params
+        );
+        if (updated == 0 && findCheckpoint((String) params.getValue("conversationId")).isEmpty()) {
+            // No checkpoint exists yet; a newer existing checkpoint is left in place
+            namedParameterJdbcTemplate.update(
+                    "INSERT INTO chat_journal_checkpoint (conversation_id, checkpoint_index, summary, tokens) "
+                            + "VALUES (:conversationId, :checkpointIndex, :summary, :tokens)",
+                    params
+            );
+        }
+    }
+
+    private JdbcDialect dialect() {
+        JdbcDialect current = dialect;
+        if (current == null) {
+            current = JdbcDialect.detect(Objects.requireNonNull(jdbcTemplate.getDataSource(), "dataSource must not be null"));
+            dialect = current;
+        }
+        return current;
     }
 
     private static void validateConversationId(String conversationId) {
@@ -94,7 +188,7 @@ public class JdbcChatJournalCheckpointRepository implements ChatJournalCheckpoin
     private ChatJournalCheckpoint mapRow(java.sql.ResultSet rs, int rowNum) throws java.sql.SQLException {
         return new ChatJournalCheckpoint(
                 rs.getLong(COL_CHECKPOINT_INDEX),
-                rs.getString(COL_SUMMARY),
+                summaryColumn.get(rs, COL_SUMMARY),
                 rs.getInt(COL_TOKENS)
         );
     }
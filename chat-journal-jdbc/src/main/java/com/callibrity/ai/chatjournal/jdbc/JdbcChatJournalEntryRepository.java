@@ -15,12 +15,33 @@
  */
 package com.callibrity.ai.chatjournal.jdbc;
 
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContext;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryTokens;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimPolicy;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * JDBC-based implementation of {@link ChatJournalEntryRepository}.
@@ -28,53 +49,270 @@ import java.util.Objects;
  * <p>This implementation stores chat journal entries in a relational database
  * using Spring's {@link JdbcTemplate}. It requires a table named {@code chat_journal}.
  *
+ * <p>Per-conversation statistics (entry count and effective tokens) are maintained in the
+ * {@code chat_journal_conversation} table alongside every save, so that {@link #countEntries(String)}
+ * and {@link #getEffectiveTokens(String, ChatJournalCheckpointRepository)} are single primary key
+ * lookups regardless of conversation length.
+ *
+ * <p>{@link #findContext(String, ChatJournalCheckpointRepository)} loads the checkpoint and the
+ * post-checkpoint entries with a single {@code UNION ALL} statement. The statement uses only ANSI
+ * constructs ({@code LEFT JOIN}, {@code COALESCE}, {@code UNION ALL} and ordering by output column)
+ * and is valid as written on every database with a shipped schema file, so no dialect-specific
+ * variants are needed.
+ *
+ * <p>{@link #forEachEntryAfterIndex(String, long, Consumer)} reads with a JDBC fetch size (see
+ * {@link #DEFAULT_FETCH_SIZE}) inside a read-only transaction, so drivers that otherwise buffer
+ * the whole result set (notably PostgreSQL, which only uses a cursor when auto-commit is off)
+ * hold at most one fetch of rows at a time. MySQL Connector/J additionally requires
+ * {@code useCursorFetch=true} on the connection URL to honour the fetch size.
+ *
+ * <h2>Read Replicas</h2>
+ * <p>An optional second {@link JdbcTemplate}, typically backed by a read-only replica, serves the
+ * history and analytics reads: {@link #findAll(String)}, {@link #findVisibleEntries(String, int, int)},
+ * {@link #findVisibleEntriesBefore(String, long, int)}, {@link #countVisibleEntries(String)},
+ * {@link #sumTokens(String)} and {@link #sumTokensAfterIndex(String, long)}. A conversation
+ * written by this repository within the last {@code maxStaleness} is read from the primary instead,
+ * so a client reloading its history right after sending a message never misses that message to
+ * replication lag. All other reads feed chat memory and checkpointing, must see the latest writes,
+ * and always use the primary. Recent writes are tracked in memory, so writes made by other
+ * application instances are not taken into account; set {@code maxStaleness} comfortably above
+ * the replica's typical lag.
+ *
+ * <h2>Archived Entries</h2>
+ * <p>When constructed with {@link ChatJournalReclaimPolicy#ARCHIVE}, the same history and analytics
+ * reads also include entries that a {@link JdbcChatJournalReclaimer} has moved to the
+ * {@code chat_journal_archive} table, so browsing a conversation is unaffected by reclaiming, and
+ * {@link #deleteAll(String)} deletes archived entries too. Chat memory and checkpointing only read
+ * entries after the checkpoint, which are never archived, so they keep reading {@code chat_journal}
+ * alone.
+ *
+ * <h2>Content Encoding</h2>
+ * <p>When constructed with a {@link ChatJournalContentCodec}, message content and checkpoint
+ * summaries are stored as the codec's encoded bytes, which requires the binary {@code content}
+ * and {@code summary} columns of a {@code schema-<platform>-compressed.sql} script. Token counts
+ * are stored unencoded either way, so token sums and compaction planning never decode content.
+ * The checkpoint repository and batch writer sharing the tables must use the same codec.
+ *
+ * <h2>Token Encodings</h2>
+ * <p>When constructed with a token encoding name, it is stored in the {@code token_encoding}
+ * column of every saved entry, so that a {@link JdbcChatJournalTokenRecounter} can later find and
+ * recount the entries whose counts were produced by a different encoding. Without one, the column
+ * is left unset (it need not exist), and such entries count as of unknown encoding.
+ *
  * <p>This class is thread-safe as it delegates all operations to the thread-safe JdbcTemplate.
  *
  * @see ChatJournalEntryRepository
  */
 public class JdbcChatJournalEntryRepository implements ChatJournalEntryRepository {
 
+    /**
+     * The number of rows fetched per round trip by {@link #forEachEntryAfterIndex(String, long, Consumer)}
+     * unless another fetch size is given.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
     private static final String COL_MESSAGE_INDEX = "message_index";
     private static final String COL_MESSAGE_TYPE = "message_type";
     private static final String COL_CONTENT = "content";
     private static final String COL_TOKENS = "tokens";
+    private static final String COL_ROW_KIND = "row_kind";
+    private static final String COL_TAIL_TOKENS = "tail_tokens";
+
+    private static final int ROW_KIND_CHECKPOINT = 0;
+
+    private static final int RECENT_WRITES_PRUNE_THRESHOLD = 10_000;
+
+    static final String INSERT_SQL = "INSERT INTO chat_journal (conversation_id, message_type, content, tokens) VALUES (?, ?, ?, ?)";
+
+    static final String INSERT_WITH_TOKEN_ENCODING_SQL = "INSERT INTO chat_journal "
+            + "(conversation_id, message_type, content, tokens, token_encoding) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String HISTORY_SELECT = "SELECT message_index, message_type, content, tokens FROM ";
+
+    private static final String VISIBLE_PREDICATE = "conversation_id = ? AND message_type IN ('USER', 'ASSISTANT')";
+
+    private static final String FIND_CONTEXT_SQL = "SELECT 0 AS row_kind, c.checkpoint_index AS message_index, NULL AS message_type, c.summary AS content, c.tokens AS tokens "
+            + "FROM chat_journal_checkpoint c WHERE c.conversation_id = ? "
+            + "UNION ALL "
+            + "SELECT 1 AS row_kind, j.message_index, j.message_type, j.content, j.tokens "
+            + "FROM chat_journal j LEFT JOIN chat_journal_checkpoint c ON c.conversation_id = j.conversation_id "
+            + "WHERE j.conversation_id = ? AND j.message_index > COALESCE(c.checkpoint_index, -1) "
+            + "ORDER BY row_kind, message_index";
+
+    private static final String FIND_ENTRIES_AFTER_INDEX_SQL = "SELECT message_index, message_type, content, tokens "
+            + "FROM chat_journal WHERE conversation_id = ? AND message_index > ? ORDER BY message_index";
+
+    private static final String FIND_ENTRY_TOKENS_SQL = "SELECT message_index, tokens, "
+            + "SUM(tokens) OVER (ORDER BY message_index DESC ROWS BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW) AS tail_tokens "
+            + "FROM chat_journal WHERE conversation_id = ? AND message_index > ? ORDER BY message_index";
 
     private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxStalenessNanos;
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+    private final AtomicLong nextPruneNanos = new AtomicLong(System.nanoTime());
+    private final JdbcConversationStats stats;
+    private final int fetchSize;
+    private final boolean archived;
+    private final JdbcContentColumn contentColumn;
+    private final String tokenEncoding;
 
     /**
-     * Creates a new JdbcChatJournalEntryRepository.
+     * Creates a new JdbcChatJournalEntryRepository with the {@linkplain JdbcChatJournalOptions#defaults() default options}.
      *
      * @param jdbcTemplate the JdbcTemplate for database operations
      * @throws NullPointerException if jdbcTemplate is null
      */
     public JdbcChatJournalEntryRepository(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, JdbcChatJournalOptions.defaults());
+    }
+
+    /**
+     * Creates a new JdbcChatJournalEntryRepository.
+     *
+     * @param jdbcTemplate the JdbcTemplate for writes and consistent reads
+     * @param options the replica, streaming, reclaim, content and token encoding settings
+     * @throws NullPointerException if jdbcTemplate, options, or the options' maxStaleness or reclaimPolicy is null
+     * @throws IllegalArgumentException if maxStaleness is negative or fetchSize is not positive
+     */
+    public JdbcChatJournalEntryRepository(JdbcTemplate jdbcTemplate, JdbcChatJournalOptions options) {
         this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate, "jdbcTemplate must not be null");
+        Objects.requireNonNull(options, "options must not be null");
+        this.replicaJdbcTemplate = options.getReplicaJdbcTemplate() == null ? jdbcTemplate : options.getReplicaJdbcTemplate();
+        Duration maxStaleness = Objects.requireNonNull(options.getMaxStaleness(), "maxStaleness must not be null");
+        if (maxStaleness.isNegative()) {
+            throw new IllegalArgumentException("maxStaleness must not be negative");
+        }
+        if (options.getFetchSize() <= 0) {
+            throw new IllegalArgumentException("fetchSize must be positive");
+        }
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.stats = new JdbcConversationStats(jdbcTemplate);
+        this.fetchSize = options.getFetchSize();
+        this.archived = Objects.requireNonNull(options.getReclaimPolicy(), "reclaimPolicy must not be null") == ChatJournalReclaimPolicy.ARCHIVE;
+        this.contentColumn = options.getContentCodec() == null
+                ? JdbcContentColumn.TEXT
+                : JdbcContentColumn.encodedWith(options.getContentCodec());
+        this.tokenEncoding = options.getTokenEncoding();
     }
 
     @Override
+    @Transactional
     public void save(String conversationId, List<ChatJournalEntry> entries) {
         validateConversationId(conversationId);
         Objects.requireNonNull(entries, "entries must not be null");
+        if (entries.isEmpty()) {
+            return;
+        }
+        insertEntries(conversationId, entries);
+        stats.recordSave(conversationId, entries.size(), entries.stream().mapToInt(ChatJournalEntry::tokens).sum());
+        recordWrite(conversationId);
+    }
+
+    /**
+     * Inserts entries into {@code chat_journal} in the order given. Called within the
+     * {@link #save(String, List)} transaction, before the statistics are updated.
+     *
+     * <p>The default implementation uses a JDBC batch of {@code INSERT} statements. Subclasses
+     * may override this to use a faster database-specific bulk load.
+     *
+     * @param conversationId the unique identifier for the conversation
+     * @param entries the entries to insert; never empty
+     */
+    protected void insertEntries(String conversationId, List<ChatJournalEntry> entries) {
+        jdbcTemplate.batchUpdate(insertSql(), entries, entries.size(), (ps, entry) -> bindInsert(ps, conversationId, entry));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The message indexes are taken from the generated keys of the batched {@code INSERT}, so
+     * nothing is read back. On SQL Server, Oracle and unrecognized databases, whose drivers do not
+     * report generated keys for batches, the entries are saved with {@link #insertEntries} and
+     * their indexes are read back from the primary with one query.
+     */
+    @Override
+    @Transactional
+    public List<ChatJournalEntry> saveAndReturn(String conversationId, List<ChatJournalEntry> entries) {
+        validateConversationId(conversationId);
+        Objects.requireNonNull(entries, "entries must not be null");
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        List<Long> indexes = stats.dialect().batchGeneratedKeys()
+                ? insertEntriesReturningIndexes(conversationId, entries)
+                : insertEntriesAndReadIndexes(conversationId, entries);
+        stats.recordSave(conversationId, entries.size(), entries.stream().mapToInt(ChatJournalEntry::tokens).sum());
+        recordWrite(conversationId);
+        List<ChatJournalEntry> saved = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            ChatJournalEntry entry = entries.get(i);
+            saved.add(new ChatJournalEntry(indexes.get(i), entry.messageType(), entry.content(), entry.tokens()));
+        }
+        return saved;
+    }
+
+    private List<Long> insertEntriesReturningIndexes(String conversationId, List<ChatJournalEntry> entries) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        String sql = insertSql();
         jdbcTemplate.batchUpdate(
-                "INSERT INTO chat_journal (conversation_id, message_type, content, tokens) VALUES (?, ?, ?, ?)",
-                entries,
-                entries.size(),
-                (ps, entry) -> {
-                    ps.setString(1, conversationId);
-                    ps.setString(2, entry.messageType());
-                    ps.setString(3, entry.content());
-                    ps.setInt(4, entry.tokens());
-                }
+                con -> con.prepareStatement(sql, new String[]{COL_MESSAGE_INDEX}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindInsert(ps, conversationId, entries.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entries.size();
+                    }
+                },
+                keys
         );
+        // Drivers name the key column differently (MySQL reports GENERATED_KEY), so take the only value
+        return keys.getKeyList().stream()
+                .map(key -> ((Number) key.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private List<Long> insertEntriesAndReadIndexes(String conversationId, List<ChatJournalEntry> entries) {
+        insertEntries(conversationId, entries);
+        List<Long> indexes = new ArrayList<>(jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            "SELECT message_index FROM chat_journal WHERE conversation_id = ? ORDER BY message_index DESC");
+                    ps.setString(1, conversationId);
+                    ps.setMaxRows(entries.size());
+                    return ps;
+                },
+                (rs, rowNum) -> rs.getLong(1)
+        ));
+        Collections.reverse(indexes);
+        return indexes;
+    }
+
+    private String insertSql() {
+        return tokenEncoding == null ? INSERT_SQL : INSERT_WITH_TOKEN_ENCODING_SQL;
+    }
+
+    private void bindInsert(PreparedStatement ps, String conversationId, ChatJournalEntry entry) throws SQLException {
+        ps.setString(1, conversationId);
+        ps.setString(2, entry.messageType());
+        contentColumn.set(ps, 3, entry.content());
+        ps.setInt(4, entry.tokens());
+        if (tokenEncoding != null) {
+            ps.setString(5, tokenEncoding);
+        }
     }
 
     @Override
     public List<ChatJournalEntry> findAll(String conversationId) {
         validateConversationId(conversationId);
-        return jdbcTemplate.query(
-                "SELECT message_index, message_type, content, tokens FROM chat_journal WHERE conversation_id = ? ORDER BY message_index",
+        return historyJdbcTemplate(conversationId).query(
+                "SELECT message_index, message_type, content, tokens FROM " + history("conversation_id = ?") + " ORDER BY message_index",
                 this::mapRow,
-                conversationId
+                historyArgs(List.of(conversationId))
         );
     }
 
@@ -87,12 +325,23 @@ public class JdbcChatJournalEntryRepository implements ChatJournalEntryRepositor
         if (limit <= 0) {
             throw new IllegalArgumentException("limit must be positive");
         }
-        return jdbcTemplate.query(
-                "SELECT message_index, message_type, content, tokens FROM chat_journal WHERE conversation_id = ? AND message_type IN ('USER', 'ASSISTANT') ORDER BY message_index DESC LIMIT ? OFFSET ?",
+        return historyJdbcTemplate(conversationId).query(
+                "SELECT message_index, message_type, content, tokens FROM " + history(VISIBLE_PREDICATE) + " ORDER BY message_index DESC LIMIT ? OFFSET ?",
                 this::mapRow,
-                conversationId,
-                limit,
-                offset
+                historyArgs(List.of(conversationId), limit, offset)
+        );
+    }
+
+    @Override
+    public List<ChatJournalEntry> findVisibleEntriesBefore(String conversationId, long beforeIndex, int limit) {
+        validateConversationId(conversationId);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return historyJdbcTemplate(conversationId).query(
+                "SELECT message_index, message_type, content, tokens FROM " + history(VISIBLE_PREDICATE + " AND message_index < ?") + " ORDER BY message_index DESC LIMIT ?",
+                this::mapRow,
+                historyArgs(List.of(conversationId, beforeIndex), limit)
         );
     }
 
@@ -100,32 +349,100 @@ public class JdbcChatJournalEntryRepository implements ChatJournalEntryRepositor
     public int countVisibleEntries(String conversationId) {
         validateConversationId(conversationId);
         //noinspection DataFlowIssue - COUNT guarantees non-null result
-        return jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM chat_journal WHERE conversation_id = ? AND message_type IN ('USER', 'ASSISTANT')",
+        return historyJdbcTemplate(conversationId).queryForObject(
+                "SELECT COUNT(*) FROM " + history(VISIBLE_PREDICATE),
                 Integer.class,
-                conversationId
+                historyArgs(List.of(conversationId))
         );
     }
 
+    @Override
+    public int countEntries(String conversationId) {
+        validateConversationId(conversationId);
+        return stats.countEntries(conversationId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The checkpoint table is read directly, so the given checkpoint repository is not consulted.
+     */
+    @Override
+    public int getEffectiveTokens(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        validateConversationId(conversationId);
+        return stats.getEffectiveTokens(conversationId);
+    }
+
     @Override
     public List<ChatJournalEntry> findEntriesAfterIndex(String conversationId, long messageIndex) {
+        validateConversationId(conversationId);
+        return jdbcTemplate.query(FIND_ENTRIES_AFTER_INDEX_SQL, this::mapRow, conversationId, messageIndex);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachEntryAfterIndex(String conversationId, long messageIndex, Consumer<ChatJournalEntry> visitor) {
+        validateConversationId(conversationId);
+        Objects.requireNonNull(visitor, "visitor must not be null");
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(FIND_ENTRIES_AFTER_INDEX_SQL);
+                    ps.setFetchSize(fetchSize);
+                    ps.setString(1, conversationId);
+                    ps.setLong(2, messageIndex);
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> visitor.accept(mapRow(rs, 0))
+        );
+    }
+
+    @Override
+    public List<ChatJournalEntry> findEntriesInRange(String conversationId, long afterIndex, long upToIndex) {
         validateConversationId(conversationId);
         return jdbcTemplate.query(
-                "SELECT message_index, message_type, content, tokens FROM chat_journal WHERE conversation_id = ? AND message_index > ? ORDER BY message_index",
+                "SELECT message_index, message_type, content, tokens FROM chat_journal WHERE conversation_id = ? AND message_index > ? AND message_index <= ? ORDER BY message_index",
                 this::mapRow,
                 conversationId,
+                afterIndex,
+                upToIndex
+        );
+    }
+
+    @Override
+    public List<ChatJournalEntryTokens> findEntryTokensAfterIndex(String conversationId, long messageIndex) {
+        validateConversationId(conversationId);
+        return jdbcTemplate.query(
+                FIND_ENTRY_TOKENS_SQL,
+                (rs, rowNum) -> new ChatJournalEntryTokens(
+                        rs.getLong(COL_MESSAGE_INDEX),
+                        rs.getInt(COL_TOKENS),
+                        rs.getInt(COL_TAIL_TOKENS)
+                ),
+                conversationId,
                 messageIndex
         );
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The checkpoint table is read directly, so the given checkpoint repository is not consulted.
+     */
+    @Override
+    public ChatJournalContext findContext(String conversationId, ChatJournalCheckpointRepository checkpointRepository) {
+        validateConversationId(conversationId);
+        return jdbcTemplate.query(FIND_CONTEXT_SQL, (ResultSetExtractor<ChatJournalContext>) this::extractContext,
+                conversationId, conversationId);
+    }
+
     @Override
     public int sumTokens(String conversationId) {
         validateConversationId(conversationId);
         //noinspection DataFlowIssue - COALESCE guarantees non-null result
-        return jdbcTemplate.queryForObject(
-                "SELECT COALESCE(SUM(tokens), 0) FROM chat_journal WHERE conversation_id = ?",
+        return historyJdbcTemplate(conversationId).queryForObject(
+                "SELECT COALESCE(SUM(tokens), 0) FROM " + history("conversation_id = ?"),
                 Integer.class,
-                conversationId
+                historyArgs(List.of(conversationId))
         );
     }
 
@@ -133,18 +450,98 @@ public class JdbcChatJournalEntryRepository implements ChatJournalEntryRepositor
     public int sumTokensAfterIndex(String conversationId, long messageIndex) {
         validateConversationId(conversationId);
         //noinspection DataFlowIssue - COALESCE guarantees non-null result
-        return jdbcTemplate.queryForObject(
-                "SELECT COALESCE(SUM(tokens), 0) FROM chat_journal WHERE conversation_id = ? AND message_index > ?",
+        return historyJdbcTemplate(conversationId).queryForObject(
+                "SELECT COALESCE(SUM(tokens), 0) FROM " + history("conversation_id = ? AND message_index > ?"),
                 Integer.class,
-                conversationId,
-                messageIndex
+                historyArgs(List.of(conversationId, messageIndex))
         );
     }
 
     @Override
+    @Transactional
     public void deleteAll(String conversationId) {
         validateConversationId(conversationId);
         jdbcTemplate.update("DELETE FROM chat_journal WHERE conversation_id = ?", conversationId);
+        if (archived) {
+            jdbcTemplate.update("DELETE FROM chat_journal_archive WHERE conversation_id = ?", conversationId);
+        }
+        stats.delete(conversationId);
+        recordWrite(conversationId);
+    }
+
+    private JdbcTemplate historyJdbcTemplate(String conversationId) {
+        Long lastWrite = recentWrites.get(conversationId);
+        if (lastWrite != null && System.nanoTime() - lastWrite < maxStalenessNanos) {
+            return jdbcTemplate;
+        }
+        return replicaJdbcTemplate;
+    }
+
+    private void recordWrite(String conversationId) {
+        if (replicaJdbcTemplate == jdbcTemplate || maxStalenessNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        recentWrites.put(conversationId, now);
+        if (recentWrites.size() > RECENT_WRITES_PRUNE_THRESHOLD) {
+            pruneRecentWrites(now);
+        }
+    }
+
+    /**
+     * Drops writes older than the staleness window, at most once per window: entries only
+     * expire a window after they are written, so pruning more often would rescan the map on
+     * every write without finding anything more to remove.
+     */
+    private void pruneRecentWrites(long now) {
+        long due = nextPruneNanos.get();
+        if (now - due >= 0 && nextPruneNanos.compareAndSet(due, now + maxStalenessNanos)) {
+            recentWrites.values().removeIf(lastWrite -> now - lastWrite >= maxStalenessNanos);
+        }
+    }
+
+    private ChatJournalContext extractContext(java.sql.ResultSet rs) throws java.sql.SQLException {
+        ChatJournalCheckpoint checkpoint = null;
+        List<ChatJournalEntry> entries = new ArrayList<>();
+        while (rs.next()) {
+            if (rs.getInt(COL_ROW_KIND) == ROW_KIND_CHECKPOINT) {
+                checkpoint = new ChatJournalCheckpoint(
+                        rs.getLong(COL_MESSAGE_INDEX),
+                        contentColumn.get(rs, COL_CONTENT),
+                        rs.getInt(COL_TOKENS)
+                );
+            } else {
+                entries.add(mapRow(rs, entries.size()));
+            }
+        }
+        return new ChatJournalContext(checkpoint, entries);
+    }
+
+    /**
+     * Returns the source of a history read filtered by the given predicate. When archived entries
+     * are included, the predicate is repeated inside each {@code UNION ALL} branch so both tables
+     * are read through their conversation index, whether or not the optimizer would push an outer
+     * predicate into the derived table.
+     */
+    private String history(String predicate) {
+        if (!archived) {
+            return "chat_journal WHERE " + predicate;
+        }
+        return "(" + HISTORY_SELECT + "chat_journal_archive WHERE " + predicate
+                + " UNION ALL " + HISTORY_SELECT + "chat_journal WHERE " + predicate + ") h";
+    }
+
+    /**
+     * Returns the bind arguments for a {@link #history(String)} read: the predicate arguments,
+     * once per branch, followed by the arguments of the rest of the statement.
+     */
+    private Object[] historyArgs(List<?> predicateArgs, Object... trailingArgs) {
+        List<Object> args = new ArrayList<>(predicateArgs);
+        if (archived) {
+            args.addAll(predicateArgs);
+        }
+        args.addAll(Arrays.asList(trailingArgs));
+        return args.toArray();
     }
 
     private static void validateConversationId(String conversationId) {
@@ -158,7 +555,7 @@ public class JdbcChatJournalEntryRepository implements ChatJournalEntryRepositor
         return new ChatJournalEntry(
                 rs.getLong(COL_MESSAGE_INDEX),
                 rs.getString(COL_MESSAGE_TYPE),
-                rs.getString(COL_CONTENT),
+                contentColumn.get(rs, COL_CONTENT),
                 rs.getInt(COL_TOKENS)
         );
     }
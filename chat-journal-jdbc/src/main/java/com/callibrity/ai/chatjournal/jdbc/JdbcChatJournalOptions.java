@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimPolicy;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+/**
+ * Optional settings of a {@link JdbcChatJournalEntryRepository}.
+ *
+ * <p>Every setting has a default, so only the ones that differ need to be given:
+ * <pre>{@code
+ * new JdbcChatJournalEntryRepository(jdbcTemplate, JdbcChatJournalOptions.builder()
+ *         .reclaimPolicy(ChatJournalReclaimPolicy.ARCHIVE)
+ *         .tokenEncoding("o200k_base")
+ *         .build());
+ * }</pre>
+ *
+ * <p>Values are validated by the repository they are passed to.
+ *
+ * @see JdbcChatJournalEntryRepository
+ */
+@Getter
+@Builder(toBuilder = true)
+public class JdbcChatJournalOptions {
+
+    /**
+     * The JdbcTemplate for history and analytics reads, typically backed by a read replica;
+     * null (the default) to serve every read from the primary.
+     */
+    private final JdbcTemplate replicaJdbcTemplate;
+
+    /**
+     * How long after a write a conversation's history is still read from the primary; must not
+     * be negative. Defaults to zero.
+     */
+    @Builder.Default
+    private final Duration maxStaleness = Duration.ZERO;
+
+    /**
+     * The number of rows fetched per round trip when streaming entries; must be positive.
+     * Defaults to {@link JdbcChatJournalEntryRepository#DEFAULT_FETCH_SIZE}.
+     */
+    @Builder.Default
+    private final int fetchSize = JdbcChatJournalEntryRepository.DEFAULT_FETCH_SIZE;
+
+    /**
+     * The policy applied to compacted entries; with {@link ChatJournalReclaimPolicy#ARCHIVE},
+     * history reads include the {@code chat_journal_archive} table. Defaults to
+     * {@link ChatJournalReclaimPolicy#KEEP}.
+     */
+    @Builder.Default
+    private final ChatJournalReclaimPolicy reclaimPolicy = ChatJournalReclaimPolicy.KEEP;
+
+    /**
+     * The codec for message content and checkpoint summaries, which are then stored in binary
+     * columns; null (the default) to store them as text.
+     */
+    private final ChatJournalContentCodec contentCodec;
+
+    /**
+     * The name of the encoding that produced the token counts of saved entries, stored in the
+     * {@code token_encoding} column; null (the default) to leave the column unset.
+     *
+     * @see com.callibrity.ai.chatjournal.token.TokenUsageCalculator#encodingName()
+     */
+    private final String tokenEncoding;
+
+    /**
+     * Returns options with every setting at its default.
+     *
+     * @return the default options
+     */
+    public static JdbcChatJournalOptions defaults() {
+        return builder().build();
+    }
+}
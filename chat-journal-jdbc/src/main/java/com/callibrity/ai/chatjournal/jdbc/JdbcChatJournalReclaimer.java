@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimPolicy;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * JDBC-based implementation of {@link ChatJournalReclaimer}.
+ *
+ * <p>A {@link #sweep()} walks the conversations in {@code chat_journal_checkpoint} and reclaims
+ * the {@code chat_journal} rows at or below each checkpoint index, at most {@code batchSize}
+ * rows per transaction:
+ * <ul>
+ *   <li>{@link ChatJournalReclaimPolicy#ARCHIVE} copies the rows, with their original message
+ *       indexes, into {@code chat_journal_archive} and deletes them from {@code chat_journal};</li>
+ *   <li>{@link ChatJournalReclaimPolicy#DELETE} only deletes them.</li>
+ * </ul>
+ * The sweep pauses for {@code batchPause} between batches so that it never competes with the
+ * application for the journal table for long. Each batch is its own transaction, so an
+ * interrupted sweep leaves no partially moved batch and the next sweep picks up where it stopped.
+ *
+ * <p>Only entries already summarized by a checkpoint are touched, and checkpoints only move
+ * forward, so sweeps are safe to run while conversations are in use. Per-conversation statistics
+ * (entry count and effective tokens) are not changed by reclaiming.
+ *
+ * <p>This class is thread-safe, but sweeps are meant to run one at a time (see
+ * {@link com.callibrity.ai.chatjournal.repository.ChatJournalReclaimScheduler}).
+ */
+public class JdbcChatJournalReclaimer implements ChatJournalReclaimer {
+
+    /**
+     * The maximum number of rows reclaimed per transaction unless another batch size is given.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final String FIRST_CHECKPOINTS_SQL = "SELECT conversation_id, checkpoint_index "
+            + "FROM chat_journal_checkpoint ORDER BY conversation_id";
+
+    private static final String NEXT_CHECKPOINTS_SQL = "SELECT conversation_id, checkpoint_index "
+            + "FROM chat_journal_checkpoint WHERE conversation_id > ? ORDER BY conversation_id";
+
+    private static final String RECLAIMABLE_INDEXES_SQL = "SELECT message_index FROM chat_journal "
+            + "WHERE conversation_id = ? AND message_index <= ? ORDER BY message_index";
+
+    static final String ARCHIVE_SQL = "INSERT INTO chat_journal_archive "
+            + "(conversation_id, message_index, message_type, content, tokens, created_at) "
+            + "SELECT conversation_id, message_index, message_type, content, tokens, created_at "
+            + "FROM chat_journal WHERE conversation_id = ? AND message_index <= ?";
+
+    static final String DELETE_SQL = "DELETE FROM chat_journal WHERE conversation_id = ? AND message_index <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean archive;
+    private final int batchSize;
+    private final long batchPauseMillis;
+
+    /**
+     * Creates a new JdbcChatJournalReclaimer with the {@link #DEFAULT_BATCH_SIZE} and no pause between batches.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param policy the reclaim policy; must be {@link ChatJournalReclaimPolicy#ARCHIVE} or {@link ChatJournalReclaimPolicy#DELETE}
+     * @throws NullPointerException if any parameter is null
+     * @throws IllegalArgumentException if policy is {@link ChatJournalReclaimPolicy#KEEP}
+     */
+    public JdbcChatJournalReclaimer(JdbcTemplate jdbcTemplate, ChatJournalReclaimPolicy policy) {
+        this(jdbcTemplate, policy, DEFAULT_BATCH_SIZE, Duration.ZERO);
+    }
+
+    /**
+     * Creates a new JdbcChatJournalReclaimer.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param policy the reclaim policy; must be {@link ChatJournalReclaimPolicy#ARCHIVE} or {@link ChatJournalReclaimPolicy#DELETE}
+     * @param batchSize the maximum number of rows reclaimed per transaction; must be positive
+     * @param batchPause how long to pause between batches; must not be negative
+     * @throws NullPointerException if any object parameter is null
+     * @throws IllegalArgumentException if policy is {@link ChatJournalReclaimPolicy#KEEP},
+     *                                  batchSize is not positive or batchPause is negative
+     */
+    public JdbcChatJournalReclaimer(JdbcTemplate jdbcTemplate,
+                                    ChatJournalReclaimPolicy policy,
+                                    int batchSize,
+                                    Duration batchPause) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate, "jdbcTemplate must not be null");
+        Objects.requireNonNull(policy, "policy must not be null");
+        Objects.requireNonNull(batchPause, "batchPause must not be null");
+        if (policy == ChatJournalReclaimPolicy.KEEP) {
+            throw new IllegalArgumentException("policy must be ARCHIVE or DELETE");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if (batchPause.isNegative()) {
+            throw new IllegalArgumentException("batchPause must not be negative");
+        }
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(
+                Objects.requireNonNull(jdbcTemplate.getDataSource(), "dataSource must not be null")));
+        this.archive = policy == ChatJournalReclaimPolicy.ARCHIVE;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPause.toMillis();
+    }
+
+    @Override
+    public int sweep() {
+        int reclaimed = 0;
+        List<Checkpoint> page = jdbcTemplate.query(limited(FIRST_CHECKPOINTS_SQL), this::mapCheckpoint);
+        while (!page.isEmpty()) {
+            for (Checkpoint checkpoint : page) {
+                List<Long> indexes = reclaimableIndexes(checkpoint);
+                while (!indexes.isEmpty()) {
+                    if (reclaimed > 0 && !pause()) {
+                        return reclaimed;
+                    }
+                    reclaimed += reclaim(checkpoint.conversationId(), indexes.getLast());
+                    indexes = indexes.size() < batchSize ? List.of() : reclaimableIndexes(checkpoint);
+                }
+            }
+            if (page.size() < batchSize) {
+                break;
+            }
+            page = jdbcTemplate.query(limited(NEXT_CHECKPOINTS_SQL, page.getLast().conversationId()), this::mapCheckpoint);
+        }
+        return reclaimed;
+    }
+
+    private List<Long> reclaimableIndexes(Checkpoint checkpoint) {
+        return jdbcTemplate.query(
+                limited(RECLAIMABLE_INDEXES_SQL, checkpoint.conversationId(), checkpoint.checkpointIndex()),
+                (rs, rowNum) -> rs.getLong(1));
+    }
+
+    private int reclaim(String conversationId, long upToIndex) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            if (archive) {
+                jdbcTemplate.update(ARCHIVE_SQL, conversationId, upToIndex);
+            }
+            return jdbcTemplate.update(DELETE_SQL, conversationId, upToIndex);
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    private boolean pause() {
+        if (batchPauseMillis == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Creates a statement limited to {@code batchSize} rows without dialect-specific SQL.
+     */
+    private PreparedStatementCreator limited(String sql, Object... args) {
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setMaxRows(batchSize);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        };
+    }
+
+    private Checkpoint mapCheckpoint(ResultSet rs, int rowNum) throws SQLException {
+        return new Checkpoint(rs.getString("conversation_id"), rs.getLong("checkpoint_index"));
+    }
+
+    private record Checkpoint(String conversationId, long checkpointIndex) {
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.memory.ChatJournalEntryMapper;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Recounts the tokens of stored journal entries with the current {@link TokenUsageCalculator}.
+ *
+ * <p>Every {@code chat_journal} row records the name of the encoding that produced its token
+ * count in the {@code token_encoding} column (see {@link TokenUsageCalculator#encodingName()}).
+ * When the application moves to a model with a different tokenizer, the stored counts no longer
+ * match what the model will see and checkpoints are triggered too early or too late. A
+ * {@link #recount()} walks the rows whose encoding differs from the calculator's, or is unknown,
+ * in keyset order of {@code message_index}, at most {@code batchSize} rows at a time:
+ * <ol>
+ *   <li>the batch is re-tokenized in parallel on a {@link ForkJoinPool};</li>
+ *   <li>the new counts and the encoding name are written with one batched update, and the
+ *       effective token counts of the conversations whose counts changed are recomputed, all in
+ *       one transaction.</li>
+ * </ol>
+ * The recount pauses for {@code batchPause} between batches so that it can run against a live
+ * database. Recounted rows no longer match, so an interrupted recount resumes where it stopped
+ * when simply run again; {@link #lastMessageIndex()} additionally allows skipping the rows
+ * already scanned with {@link #recount(long)}.
+ *
+ * <p>Rows are recounted with the calculator's {@link TokenUsageCalculator#exactCalculator()}, whose
+ * encoding name differs from that of a calculator that estimates some counts, so estimated counts
+ * are replaced with exact ones.
+ *
+ * <p>Counts recorded from provider-reported usage are replaced by the calculator's estimate as
+ * well, since they were reported by the previous model. Checkpoint summaries and archived entries
+ * are not recounted; summaries are replaced at the next checkpoint.
+ *
+ * <p>Rows are updated by {@code (conversation_id, message_index)}, so the lookup uses the
+ * conversation index of the standard schemas and the primary key of the partitioned PostgreSQL
+ * schema, whose {@code message_index} index serves the keyset scan.
+ *
+ * <p>This class is thread-safe. An update only applies to a row that is still stale, so recounts
+ * running concurrently, in this or another instance, never count a row twice or recompute effective
+ * tokens for rows they did not change. They still repeat each other's scanning and tokenizing, so
+ * recounts are meant to run on one instance at a time.
+ */
+public class JdbcChatJournalTokenRecounter {
+
+    /**
+     * The maximum number of rows recounted per transaction unless another batch size is given.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String STALE_ENTRIES_SQL = "SELECT message_index, conversation_id, message_type, content, tokens "
+            + "FROM chat_journal WHERE message_index > ? AND (token_encoding IS NULL OR token_encoding <> ?) "
+            + "ORDER BY message_index";
+
+    // Keyed by the full primary key of the partitioned schema, and skipping rows another recount already updated
+    private static final String UPDATE_SQL = "UPDATE chat_journal SET tokens = ?, token_encoding = ? "
+            + "WHERE conversation_id = ? AND message_index = ? AND (token_encoding IS NULL OR token_encoding <> ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcConversationStats stats;
+    private final JdbcContentColumn contentColumn;
+    private final TokenUsageCalculator tokenUsageCalculator;
+    private final ChatJournalEntryMapper mapper;
+    private final String encodingName;
+    private final int batchSize;
+    private final long batchPauseMillis;
+    private final int parallelism;
+    private volatile long lastMessageIndex = -1;
+
+    /**
+     * Creates a new JdbcChatJournalTokenRecounter for text content with the {@link #DEFAULT_BATCH_SIZE},
+     * no pause between batches and the common fork-join pool.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param tokenUsageCalculator the calculator whose {@link TokenUsageCalculator#exactCalculator() exact calculator}
+     *                             to recount with; must report an encoding name
+     * @throws NullPointerException if any parameter is null
+     * @throws IllegalArgumentException if the calculator does not report an encoding name
+     */
+    public JdbcChatJournalTokenRecounter(JdbcTemplate jdbcTemplate, TokenUsageCalculator tokenUsageCalculator) {
+        this(jdbcTemplate, tokenUsageCalculator, null, DEFAULT_BATCH_SIZE, Duration.ZERO, 0);
+    }
+
+    /**
+     * Creates a new JdbcChatJournalTokenRecounter.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param tokenUsageCalculator the calculator whose {@link TokenUsageCalculator#exactCalculator() exact calculator}
+     *                             to recount with; must report an encoding name
+     * @param contentCodec the codec the repositories store content with, or null if content is stored as text
+     * @param batchSize the maximum number of rows recounted per transaction; must be positive
+     * @param batchPause how long to pause between batches; must not be negative
+     * @param parallelism the number of threads re-tokenizing each batch, or 0 to use the common fork-join pool;
+     *                    must not be negative
+     * @throws NullPointerException if any object parameter other than contentCodec is null
+     * @throws IllegalArgumentException if the calculator does not report an encoding name, batchSize is
+     *                                  not positive, or batchPause or parallelism is negative
+     */
+    public JdbcChatJournalTokenRecounter(JdbcTemplate jdbcTemplate,
+                                         TokenUsageCalculator tokenUsageCalculator,
+                                         ChatJournalContentCodec contentCodec,
+                                         int batchSize,
+                                         Duration batchPause,
+                                         int parallelism) {
+        this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate, "jdbcTemplate must not be null");
+        this.tokenUsageCalculator = Objects.requireNonNull(tokenUsageCalculator, "tokenUsageCalculator must not be null")
+                .exactCalculator();
+        Objects.requireNonNull(batchPause, "batchPause must not be null");
+        this.encodingName = this.tokenUsageCalculator.encodingName();
+        if (encodingName == null) {
+            throw new IllegalArgumentException("tokenUsageCalculator must report an encoding name");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if (batchPause.isNegative()) {
+            throw new IllegalArgumentException("batchPause must not be negative");
+        }
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("parallelism must not be negative");
+        }
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(
+                Objects.requireNonNull(jdbcTemplate.getDataSource(), "dataSource must not be null")));
+        this.stats = new JdbcConversationStats(jdbcTemplate);
+        this.contentColumn = contentCodec == null ? JdbcContentColumn.TEXT : JdbcContentColumn.encodedWith(contentCodec);
+        this.mapper = new ChatJournalEntryMapper(this.tokenUsageCalculator);
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPause.toMillis();
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the name of the encoding entries are recounted with.
+     *
+     * @return the encoding name
+     */
+    public String encodingName() {
+        return encodingName;
+    }
+
+    /**
+     * Returns the message index of the last row scanned by the current or most recent recount.
+     *
+     * @return the last scanned message index, or -1 if no row has been scanned yet
+     */
+    public long lastMessageIndex() {
+        return lastMessageIndex;
+    }
+
+    /**
+     * Recounts every row whose token count was not produced by the calculator's encoding.
+     *
+     * @return the number of rows recounted
+     */
+    public int recount() {
+        return recount(-1);
+    }
+
+    /**
+     * Recounts the rows after the given message index whose token count was not produced by the
+     * calculator's encoding. Stops early, with the interrupt status set, if the thread is
+     * interrupted while pausing between batches.
+     *
+     * @param afterIndex the message index to resume after, typically a previous {@link #lastMessageIndex()}
+     * @return the number of rows recounted
+     */
+    public int recount(long afterIndex) {
+        int recounted = 0;
+        long after = afterIndex;
+        try (ForkJoinPool pool = parallelism == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism)) {
+            while (true) {
+                List<StaleEntry> batch = staleEntries(after);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Recount> recounts = pool.submit(() -> batch.parallelStream().map(this::recount).toList()).join();
+                recounted += update(recounts);
+                after = batch.getLast().entry().messageIndex();
+                lastMessageIndex = after;
+                if (batch.size() < batchSize || !pause()) {
+                    break;
+                }
+            }
+        }
+        return recounted;
+    }
+
+    private List<StaleEntry> staleEntries(long afterIndex) {
+        return jdbcTemplate.query(limited(STALE_ENTRIES_SQL, afterIndex, encodingName), this::mapStaleEntry);
+    }
+
+    private Recount recount(StaleEntry stale) {
+        ChatJournalEntry entry = stale.entry();
+        Message message = mapper.toMessage(entry);
+        int tokens = message == null ? entry.tokens() : tokenUsageCalculator.calculateTokenUsage(List.of(message));
+        return new Recount(stale.conversationId(), entry.messageIndex(), tokens, tokens != entry.tokens());
+    }
+
+    private int update(List<Recount> recounts) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, recounts, recounts.size(), (ps, recount) -> {
+                ps.setInt(1, recount.tokens());
+                ps.setString(2, encodingName);
+                ps.setString(3, recount.conversationId());
+                ps.setLong(4, recount.messageIndex());
+                ps.setString(5, encodingName);
+            });
+            List<Recount> applied = applied(recounts, counts);
+            applied.stream()
+                    .filter(Recount::changed)
+                    .map(Recount::conversationId)
+                    .distinct()
+                    .forEach(stats::recomputeEffectiveTokens);
+            return applied.size();
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    // Drivers that report Statement.SUCCESS_NO_INFO rather than a row count are taken to have updated the row
+    private static List<Recount> applied(List<Recount> recounts, int[][] counts) {
+        List<Recount> applied = new ArrayList<>(recounts.size());
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    applied.add(recounts.get(i));
+                }
+                i++;
+            }
+        }
+        return applied;
+    }
+
+    private boolean pause() {
+        if (batchPauseMillis == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Creates a statement limited to {@code batchSize} rows without dialect-specific SQL.
+     */
+    private PreparedStatementCreator limited(String sql, Object... args) {
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setMaxRows(batchSize);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        };
+    }
+
+    private StaleEntry mapStaleEntry(ResultSet rs, int rowNum) throws SQLException {
+        return new StaleEntry(rs.getString("conversation_id"), new ChatJournalEntry(
+                rs.getLong("message_index"),
+                rs.getString("message_type"),
+                contentColumn.get(rs, "content"),
+                rs.getInt("tokens")));
+    }
+
+    private record StaleEntry(String conversationId, ChatJournalEntry entry) {
+    }
+
+    private record Recount(String conversationId, long messageIndex, int tokens, boolean changed) {
+    }
+}
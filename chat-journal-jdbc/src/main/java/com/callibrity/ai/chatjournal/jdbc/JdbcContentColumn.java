@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Binds and reads the {@code content} and {@code summary} columns, which hold either plain text
+ * or, when a {@link ChatJournalContentCodec} is configured, the codec's encoded bytes.
+ *
+ * <p>It is shared by the entry and checkpoint repositories and the batch writer so that all of
+ * them agree on how content is stored.
+ */
+final class JdbcContentColumn {
+
+    static final JdbcContentColumn TEXT = new JdbcContentColumn(null);
+
+    private final ChatJournalContentCodec codec;
+
+    private JdbcContentColumn(ChatJournalContentCodec codec) {
+        this.codec = codec;
+    }
+
+    static JdbcContentColumn encodedWith(ChatJournalContentCodec codec) {
+        return new JdbcContentColumn(Objects.requireNonNull(codec, "contentCodec must not be null"));
+    }
+
+    void set(PreparedStatement ps, int parameterIndex, String content) throws SQLException {
+        if (codec == null) {
+            ps.setString(parameterIndex, content);
+        } else {
+            ps.setBytes(parameterIndex, codec.encode(content));
+        }
+    }
+
+    Object parameter(String content) {
+        return codec == null ? content : codec.encode(content);
+    }
+
+    String get(ResultSet rs, String column) throws SQLException {
+        if (codec == null) {
+            return rs.getString(column);
+        }
+        byte[] encoded = rs.getBytes(column);
+        return encoded == null ? null : codec.decode(encoded);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maintains the per-conversation statistics row in the {@code chat_journal_conversation} table.
+ *
+ * <p>The row holds the total entry count and the effective token count (checkpoint tokens
+ * plus tokens of entries after the checkpoint) so that both can be answered with a single
+ * primary key lookup. It is shared by the entry and checkpoint repositories, each of which
+ * calls into it from within its own transaction.
+ *
+ * <p>Conversations that have no statistics row (for example, those written before the table
+ * existed) are computed from {@code chat_journal} and {@code chat_journal_checkpoint} directly,
+ * and the row is initialized from the same computation on the conversation's next save. The
+ * row is initialized with the dialect's insert-if-absent statement (see {@link JdbcDialect}) to
+ * the computed totals <em>minus</em> the save being recorded, and the save is then applied as an
+ * ordinary increment, so concurrent first saves of a conversation neither fail with a duplicate
+ * key nor lose each other's counts.
+ *
+ * <p>Recomputing the effective tokens after a checkpoint change locks the row first (see
+ * {@link JdbcDialect#conversationLockSql()}). A save holding the row's lock from its increment
+ * has therefore committed before the recompute reads the journal, and a save that increments
+ * afterwards applies its delta on top of the recomputed value, so the absolute update never
+ * overwrites a concurrent increment.
+ */
+class JdbcConversationStats {
+
+    /**
+     * Entry count and effective tokens computed from the underlying tables. Used both to
+     * initialize a missing statistics row and as the read fallback when none exists.
+     */
+    private static final String COMPUTED_STATS = "COUNT(*), "
+            + "COALESCE(SUM(CASE WHEN j.message_index > COALESCE(c.checkpoint_index, -1) THEN j.tokens ELSE 0 END), 0) + COALESCE(MAX(c.tokens), 0) "
+            + "FROM chat_journal j LEFT JOIN chat_journal_checkpoint c ON c.conversation_id = j.conversation_id "
+            + "WHERE j.conversation_id = ?";
+
+    /**
+     * The initial {@code entry_count} and {@code effective_tokens} columns of a statistics row:
+     * the computed totals less the save being recorded, which is applied afterwards by the increment.
+     */
+    static final String INITIAL_STATS = "COUNT(*) - :entryCount AS entry_count, "
+            + "COALESCE(SUM(CASE WHEN j.message_index > COALESCE(c.checkpoint_index, -1) THEN j.tokens ELSE 0 END), 0) "
+            + "+ COALESCE(MAX(c.tokens), 0) - :tokens AS effective_tokens "
+            + "FROM chat_journal j LEFT JOIN chat_journal_checkpoint c ON c.conversation_id = j.conversation_id "
+            + "WHERE j.conversation_id = :conversationId";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE chat_journal_conversation SET entry_count = entry_count + ?, effective_tokens = effective_tokens + ? WHERE conversation_id = ?";
+
+    private static final int EXISTING_LOOKUP_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private volatile JdbcDialect dialect;
+
+    JdbcConversationStats(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Records newly appended entries. Must be called after the entries have been inserted.
+     */
+    void recordSave(String conversationId, int entryCount, int tokens) {
+        if (jdbcTemplate.update(INCREMENT_SQL, entryCount, tokens, conversationId) == 0) {
+            // First save since the statistics table was introduced (or a brand-new conversation);
+            // initialize from the journal itself so pre-existing entries are accounted for
+            initialize(new Delta(conversationId, entryCount, tokens));
+            jdbcTemplate.update(INCREMENT_SQL, entryCount, tokens, conversationId);
+        }
+    }
+
+    /**
+     * Records newly appended entries for several conversations with one batched update.
+     * Must be called after the entries have been inserted.
+     *
+     * <p>Missing rows are found with a key lookup and initialized before the batch runs rather
+     * than from the batch's update counts, which drivers reporting
+     * {@link java.sql.Statement#SUCCESS_NO_INFO} leave unknown.
+     */
+    void recordSaves(List<Delta> deltas) {
+        Set<String> existing = existingConversations(deltas);
+        deltas.stream()
+                .filter(delta -> !existing.contains(delta.conversationId()))
+                .forEach(this::initialize);
+        jdbcTemplate.batchUpdate(
+                INCREMENT_SQL,
+                deltas,
+                deltas.size(),
+                (ps, delta) -> {
+                    ps.setInt(1, delta.entryCount());
+                    ps.setInt(2, delta.tokens());
+                    ps.setString(3, delta.conversationId());
+                }
+        );
+    }
+
+    /**
+     * Recomputes the effective token count after the conversation's checkpoint has changed.
+     * Must be called within a transaction, which holds the statistics row's lock until it ends.
+     */
+    void recomputeEffectiveTokens(String conversationId) {
+        jdbcTemplate.queryForList(dialect().conversationLockSql(), String.class, conversationId);
+        jdbcTemplate.update(
+                "UPDATE chat_journal_conversation SET effective_tokens = "
+                        + "COALESCE((SELECT tokens FROM chat_journal_checkpoint WHERE conversation_id = ?), 0) "
+                        + "+ (SELECT COALESCE(SUM(tokens), 0) FROM chat_journal WHERE conversation_id = ? "
+                        + "AND message_index > COALESCE((SELECT checkpoint_index FROM chat_journal_checkpoint WHERE conversation_id = ?), -1)) "
+                        + "WHERE conversation_id = ?",
+                conversationId,
+                conversationId,
+                conversationId,
+                conversationId
+        );
+    }
+
+    /**
+     * Locks the conversation's statistics row, initializing it first if there is none, so that
+     * saves of the conversation wait at their increment until the caller's transaction ends.
+     * Must be called within a transaction.
+     */
+    void lock(String conversationId) {
+        if (jdbcTemplate.queryForList(dialect().conversationLockSql(), String.class, conversationId).isEmpty()) {
+            initialize(new Delta(conversationId, 0, 0));
+            jdbcTemplate.queryForList(dialect().conversationLockSql(), String.class, conversationId);
+        }
+    }
+
+    int countEntries(String conversationId) {
+        return read(conversationId, "entry_count", 1);
+    }
+
+    int getEffectiveTokens(String conversationId) {
+        return read(conversationId, "effective_tokens", 2);
+    }
+
+    void delete(String conversationId) {
+        jdbcTemplate.update("DELETE FROM chat_journal_conversation WHERE conversation_id = ?", conversationId);
+    }
+
+    private Set<String> existingConversations(List<Delta> deltas) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < deltas.size(); from += EXISTING_LOOKUP_SIZE) {
+            List<String> ids = deltas.subList(from, Math.min(from + EXISTING_LOOKUP_SIZE, deltas.size())).stream()
+                    .map(Delta::conversationId)
+                    .toList();
+            existing.addAll(namedParameterJdbcTemplate.queryForList(
+                    "SELECT conversation_id FROM chat_journal_conversation WHERE conversation_id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids),
+                    String.class
+            ));
+        }
+        return existing;
+    }
+
+    /**
+     * Inserts the statistics row for a conversation unless one exists, leaving the delta to be
+     * applied by the caller's increment.
+     */
+    private void initialize(Delta delta) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("conversationId", delta.conversationId())
+                .addValue("entryCount", delta.entryCount())
+                .addValue("tokens", delta.tokens());
+        String insertSql = dialect().conversationInsertSql();
+        if (insertSql != null) {
+            namedParameterJdbcTemplate.update(insertSql, params);
+            return;
+        }
+        try {
+            namedParameterJdbcTemplate.update(
+                    "INSERT INTO chat_journal_conversation (conversation_id, entry_count, effective_tokens) "
+                            + "SELECT :conversationId, " + INITIAL_STATS,
+                    params
+            );
+        } catch (DuplicateKeyException e) {
+            // A concurrent save initialized the row first; the caller's increment still applies
+        }
+    }
+
+    JdbcDialect dialect() {
+        JdbcDialect current = dialect;
+        if (current == null) {
+            current = JdbcDialect.detect(Objects.requireNonNull(jdbcTemplate.getDataSource(), "dataSource must not be null"));
+            dialect = current;
+        }
+        return current;
+    }
+
+    private int read(String conversationId, String column, int computedColumn) {
+        List<Integer> values = jdbcTemplate.queryForList(
+                "SELECT " + column + " FROM chat_journal_conversation WHERE conversation_id = ?",
+                Integer.class,
+                conversationId
+        );
+        if (!values.isEmpty()) {
+            return values.getFirst();
+        }
+        //noinspection DataFlowIssue - aggregates guarantee a single non-null row
+        return jdbcTemplate.queryForObject(
+                "SELECT " + COMPUTED_STATS,
+                (rs, rowNum) -> rs.getInt(computedColumn),
+                conversationId
+        );
+    }
+
+    /**
+     * The entries and tokens appended to one conversation by a batched save.
+     */
+    record Delta(String conversationId, int entryCount, int tokens) {
+    }
+}
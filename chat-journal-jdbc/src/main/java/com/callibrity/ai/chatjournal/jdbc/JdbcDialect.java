@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The SQL dialects for which the JDBC repositories use database-specific statements.
+ *
+ * <p>Each dialect supplies a single-statement checkpoint upsert using named parameters
+ * {@code :conversationId}, {@code :checkpointIndex}, {@code :summary} and {@code :tokens}.
+ * Every upsert only replaces an existing checkpoint whose index is not greater than the new one,
+ * so a slow compaction can never overwrite the result of a newer one.
+ *
+ * <p>Each dialect also supplies an insert that initializes a conversation's statistics row in
+ * {@code chat_journal_conversation} and does nothing if a concurrent save already created it,
+ * using named parameters {@code :conversationId}, {@code :entryCount} and {@code :tokens}.
+ *
+ * <p>{@link #conversationLockSql()} locks a conversation's statistics row for the rest of the
+ * caller's transaction.
+ *
+ * <p>{@link #GENERIC} is used for databases without a shipped schema file and falls back to
+ * a guarded update followed by an insert within the caller's transaction.
+ */
+public enum JdbcDialect {
+
+    POSTGRESQL("INSERT INTO chat_journal_checkpoint (conversation_id, checkpoint_index, summary, tokens) "
+            + "VALUES (:conversationId, :checkpointIndex, :summary, :tokens) "
+            + "ON CONFLICT (conversation_id) DO UPDATE SET checkpoint_index = EXCLUDED.checkpoint_index, "
+            + "summary = EXCLUDED.summary, tokens = EXCLUDED.tokens, created_at = CURRENT_TIMESTAMP "
+            + "WHERE chat_journal_checkpoint.checkpoint_index <= EXCLUDED.checkpoint_index",
+            "INSERT INTO chat_journal_conversation (conversation_id, entry_count, effective_tokens) "
+                    + "SELECT :conversationId, " + JdbcConversationStats.INITIAL_STATS
+                    + " ON CONFLICT (conversation_id) DO NOTHING"),
+
+    H2("MERGE INTO chat_journal_checkpoint t "
+            + "USING (SELECT CAST(:conversationId AS VARCHAR(255)) AS conversation_id) s "
+            + "ON t.conversation_id = s.conversation_id "
+            + "WHEN MATCHED AND t.checkpoint_index <= :checkpointIndex THEN UPDATE SET "
+            + "checkpoint_index = :checkpointIndex, summary = :summary, tokens = :tokens, created_at = CURRENT_TIMESTAMP "
+            + "WHEN NOT MATCHED THEN INSERT (conversation_id, checkpoint_index, summary, tokens) "
+            + "VALUES (s.conversation_id, :checkpointIndex, :summary, :tokens)",
+            "MERGE INTO chat_journal_conversation t "
+                    + "USING (SELECT CAST(:conversationId AS VARCHAR(255)) AS conversation_id, " + JdbcConversationStats.INITIAL_STATS + ") s "
+                    + "ON t.conversation_id = s.conversation_id "
+                    + "WHEN NOT MATCHED THEN INSERT (conversation_id, entry_count, effective_tokens) "
+                    + "VALUES (s.conversation_id, s.entry_count, s.effective_tokens)"),
+
+    // Assignments are applied left to right, so checkpoint_index must be updated last
+    MYSQL("INSERT INTO chat_journal_checkpoint (conversation_id, checkpoint_index, summary, tokens) "
+            + "VALUES (:conversationId, :checkpointIndex, :summary, :tokens) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "summary = IF(checkpoint_index <= :checkpointIndex, :summary, summary), "
+            + "tokens = IF(checkpoint_index <= :checkpointIndex, :tokens, tokens), "
+            + "created_at = IF(checkpoint_index <= :checkpointIndex, CURRENT_TIMESTAMP, created_at), "
+            + "checkpoint_index = IF(checkpoint_index <= :checkpointIndex, :checkpointIndex, checkpoint_index)",
+            "INSERT INTO chat_journal_conversation (conversation_id, entry_count, effective_tokens) "
+                    + "SELECT :conversationId, " + JdbcConversationStats.INITIAL_STATS + " "
+                    + "ON DUPLICATE KEY UPDATE chat_journal_conversation.conversation_id = chat_journal_conversation.conversation_id"),
+
+    MARIADB(MYSQL.checkpointUpsertSql, MYSQL.conversationInsertSql),
+
+    ORACLE("MERGE INTO chat_journal_checkpoint t "
+            + "USING (SELECT :conversationId AS conversation_id FROM dual) s "
+            + "ON (t.conversation_id = s.conversation_id) "
+            + "WHEN MATCHED THEN UPDATE SET t.checkpoint_index = :checkpointIndex, t.summary = :summary, "
+            + "t.tokens = :tokens, t.created_at = CURRENT_TIMESTAMP WHERE t.checkpoint_index <= :checkpointIndex "
+            + "WHEN NOT MATCHED THEN INSERT (conversation_id, checkpoint_index, summary, tokens) "
+            + "VALUES (s.conversation_id, :checkpointIndex, :summary, :tokens)",
+            "MERGE INTO chat_journal_conversation t "
+                    + "USING (SELECT :conversationId AS conversation_id, " + JdbcConversationStats.INITIAL_STATS + ") s "
+                    + "ON (t.conversation_id = s.conversation_id) "
+                    + "WHEN NOT MATCHED THEN INSERT (conversation_id, entry_count, effective_tokens) "
+                    + "VALUES (s.conversation_id, s.entry_count, s.effective_tokens)"),
+
+    // HOLDLOCK keeps concurrent first-time saves from both taking the insert branch
+    SQLSERVER("MERGE chat_journal_checkpoint WITH (HOLDLOCK) AS t "
+            + "USING (SELECT :conversationId AS conversation_id) AS s "
+            + "ON t.conversation_id = s.conversation_id "
+            + "WHEN MATCHED AND t.checkpoint_index <= :checkpointIndex THEN UPDATE SET "
+            + "checkpoint_index = :checkpointIndex, summary = :summary, tokens = :tokens, created_at = GETDATE() "
+            + "WHEN NOT MATCHED THEN INSERT (conversation_id, checkpoint_index, summary, tokens) "
+            + "VALUES (s.conversation_id, :checkpointIndex, :summary, :tokens);",
+            "MERGE chat_journal_conversation WITH (HOLDLOCK) AS t "
+                    + "USING (SELECT :conversationId AS conversation_id, " + JdbcConversationStats.INITIAL_STATS + ") AS s "
+                    + "ON t.conversation_id = s.conversation_id "
+                    + "WHEN NOT MATCHED THEN INSERT (conversation_id, entry_count, effective_tokens) "
+                    + "VALUES (s.conversation_id, s.entry_count, s.effective_tokens);"),
+
+    GENERIC(null, null);
+
+    private final String checkpointUpsertSql;
+    private final String conversationInsertSql;
+
+    JdbcDialect(String checkpointUpsertSql, String conversationInsertSql) {
+        this.checkpointUpsertSql = checkpointUpsertSql;
+        this.conversationInsertSql = conversationInsertSql;
+    }
+
+    /**
+     * Returns the single-statement checkpoint upsert for this dialect.
+     *
+     * @return the upsert statement, or null for {@link #GENERIC}
+     */
+    String checkpointUpsertSql() {
+        return checkpointUpsertSql;
+    }
+
+    /**
+     * Returns the single-statement insert that initializes a conversation's statistics row
+     * only if it does not exist yet.
+     *
+     * @return the insert statement, or null for {@link #GENERIC}
+     */
+    String conversationInsertSql() {
+        return conversationInsertSql;
+    }
+
+    /**
+     * Returns the statement that locks a conversation's statistics row in
+     * {@code chat_journal_conversation} until the caller's transaction ends, using a single
+     * positional parameter for the conversation id.
+     *
+     * @return the locking select statement
+     */
+    String conversationLockSql() {
+        if (this == SQLSERVER) {
+            return "SELECT conversation_id FROM chat_journal_conversation WITH (UPDLOCK, ROWLOCK) WHERE conversation_id = ?";
+        }
+        return "SELECT conversation_id FROM chat_journal_conversation WHERE conversation_id = ? FOR UPDATE";
+    }
+
+    /**
+     * Returns whether the driver reports the generated {@code message_index} of every row of a
+     * batched insert. SQL Server and Oracle drivers do not support generated keys for batches.
+     *
+     * @return true if batched inserts can return their generated keys
+     */
+    boolean batchGeneratedKeys() {
+        return this == POSTGRESQL || this == H2 || this == MYSQL || this == MARIADB;
+    }
+
+    /**
+     * Determines the dialect from a database product name as reported by
+     * {@link DatabaseMetaData#getDatabaseProductName()}.
+     *
+     * @param databaseProductName the product name; may be null
+     * @return the matching dialect, or {@link #GENERIC} if the product is not recognized
+     */
+    public static JdbcDialect fromDatabaseProductName(String databaseProductName) {
+        if (databaseProductName == null) {
+            return GENERIC;
+        }
+        String name = databaseProductName.toLowerCase(Locale.ROOT);
+        if (name.contains("postgresql")) {
+            return POSTGRESQL;
+        }
+        if (name.equals("h2")) {
+            return H2;
+        }
+        if (name.contains("mariadb")) {
+            return MARIADB;
+        }
+        if (name.contains("mysql")) {
+            return MYSQL;
+        }
+        if (name.contains("oracle")) {
+            return ORACLE;
+        }
+        if (name.contains("sql server")) {
+            return SQLSERVER;
+        }
+        return GENERIC;
+    }
+
+    /**
+     * Determines the dialect from the metadata of a {@link DataSource}.
+     *
+     * @param dataSource the data source to inspect
+     * @return the matching dialect, or {@link #GENERIC} if the product is not recognized
+     * @throws NullPointerException if dataSource is null
+     * @throws IllegalStateException if the database metadata cannot be read
+     */
+    public static JdbcDialect detect(DataSource dataSource) {
+        Objects.requireNonNull(dataSource, "dataSource must not be null");
+        try {
+            return fromDatabaseProductName(
+                    JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to detect database dialect", e);
+        }
+    }
+}
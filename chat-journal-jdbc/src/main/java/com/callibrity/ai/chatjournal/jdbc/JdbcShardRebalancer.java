@@ -0,0 +1,328 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimPolicy;
+import com.callibrity.ai.chatjournal.repository.ConsistentHashRing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Moves conversations to the shard that owns them after the shard list of a
+ * {@link com.callibrity.ai.chatjournal.repository.ShardedChatJournalRepository} changes.
+ *
+ * <p>Given the new shard list (with the same names and virtual node count as the sharded
+ * repository), {@link #rebalance()} scans every shard for conversations that the
+ * {@link ConsistentHashRing} now assigns elsewhere and migrates each one:
+ * <ol>
+ *   <li>its entries and checkpoint are copied to the owning shard in one transaction there;</li>
+ *   <li>they are then deleted from the old shard in one transaction there.</li>
+ * </ol>
+ * Entries the conversation has already received on its new shard (written after the shard list
+ * changed but before the migration) are kept, after the migrated ones. If both shards hold a
+ * checkpoint, the new shard's (more recent) checkpoint wins. Since message indexes are assigned
+ * by each database, the checkpoint index is remapped to the same position in the copied entries.
+ *
+ * <p>With {@link ChatJournalReclaimPolicy#ARCHIVE}, conversations are also found through
+ * {@code chat_journal_archive}. Their archived entries are copied ahead of the live ones and
+ * archived again on the owning shard, under the new message indexes. The delete from the old
+ * shard follows the reclaim policy, so archived entries are removed there too.
+ *
+ * <p>The two steps are not atomic across databases. If a run is interrupted between them, the
+ * next run detects that the copy already took place and only completes the delete.
+ *
+ * <p>A conversation's statistics row is locked on both shards for the duration of its migration
+ * (see {@link JdbcDialect#conversationLockSql()}), so concurrent saves on either shard wait until
+ * it is complete instead of being interleaved with the rewrite or lost by the delete. Give the
+ * sharded repository the previous ring as well, so that conversations keep being served by their
+ * old shard until they have been moved. A save that has already inserted its entries when the lock
+ * is taken leaves them behind on the old shard; running the rebalancer again is always safe and
+ * moves whatever is still misplaced.
+ */
+@Slf4j
+public class JdbcShardRebalancer {
+
+    private static final String CONVERSATIONS_SQL =
+            "SELECT conversation_id FROM chat_journal UNION SELECT conversation_id FROM chat_journal_checkpoint";
+
+    private static final String ARCHIVED_CONVERSATIONS_SQL =
+            CONVERSATIONS_SQL + " UNION SELECT conversation_id FROM chat_journal_archive";
+
+    private static final String ARCHIVED_ENTRIES_SQL = "SELECT message_index, message_type, content, tokens "
+            + "FROM chat_journal_archive WHERE conversation_id = ? ORDER BY message_index";
+
+    private final ConsistentHashRing<Shard> ring;
+    private final boolean archived;
+
+    /**
+     * Creates a new JdbcShardRebalancer using {@link ConsistentHashRing#DEFAULT_VIRTUAL_NODES}.
+     *
+     * @param shards the JdbcTemplate of each shard, keyed by shard name; must not be empty
+     * @throws NullPointerException if shards is null
+     * @throws IllegalArgumentException if shards is empty
+     */
+    public JdbcShardRebalancer(Map<String, JdbcTemplate> shards) {
+        this(shards, ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Creates a new JdbcShardRebalancer.
+     *
+     * @param shards the JdbcTemplate of each shard, keyed by shard name; must not be empty
+     * @param virtualNodes the number of ring points per shard; must match the sharded repository
+     * @throws NullPointerException if shards is null
+     * @throws IllegalArgumentException if shards is empty or virtualNodes is not positive
+     */
+    public JdbcShardRebalancer(Map<String, JdbcTemplate> shards, int virtualNodes) {
+        this(shards, virtualNodes, null);
+    }
+
+    /**
+     * Creates a new JdbcShardRebalancer for shards whose content is encoded with the given codec.
+     *
+     * @param shards the JdbcTemplate of each shard, keyed by shard name; must not be empty
+     * @param virtualNodes the number of ring points per shard; must match the sharded repository
+     * @param contentCodec the codec the shards' repositories store content with, or {@code null} if
+     *                     they store plain text
+     * @throws NullPointerException if shards is null
+     * @throws IllegalArgumentException if shards is empty or virtualNodes is not positive
+     */
+    public JdbcShardRebalancer(Map<String, JdbcTemplate> shards, int virtualNodes, ChatJournalContentCodec contentCodec) {
+        this(shards, virtualNodes, contentCodec, ChatJournalReclaimPolicy.KEEP);
+    }
+
+    /**
+     * Creates a new JdbcShardRebalancer for shards whose compacted entries are reclaimed with the
+     * given policy.
+     *
+     * @param shards the JdbcTemplate of each shard, keyed by shard name; must not be empty
+     * @param virtualNodes the number of ring points per shard; must match the sharded repository
+     * @param contentCodec the codec the shards' repositories store content with, or {@code null} if
+     *                     they store plain text
+     * @param reclaimPolicy the reclaim policy of the shards' repositories; with
+     *                      {@link ChatJournalReclaimPolicy#ARCHIVE}, archived entries are migrated too
+     * @throws NullPointerException if shards or reclaimPolicy is null
+     * @throws IllegalArgumentException if shards is empty or virtualNodes is not positive
+     */
+    public JdbcShardRebalancer(Map<String, JdbcTemplate> shards,
+                               int virtualNodes,
+                               ChatJournalContentCodec contentCodec,
+                               ChatJournalReclaimPolicy reclaimPolicy) {
+        this(shards, virtualNodes, contentCodec, reclaimPolicy, null);
+    }
+
+    /**
+     * Creates a new JdbcShardRebalancer for shards whose repositories record the encoding of
+     * their token counts.
+     *
+     * @param shards the JdbcTemplate of each shard, keyed by shard name; must not be empty
+     * @param virtualNodes the number of ring points per shard; must match the sharded repository
+     * @param contentCodec the codec the shards' repositories store content with, or {@code null} if
+     *                     they store plain text
+     * @param reclaimPolicy the reclaim policy of the shards' repositories; with
+     *                      {@link ChatJournalReclaimPolicy#ARCHIVE}, archived entries are migrated too
+     * @param tokenEncoding the token encoding the shards' repositories record, stored on migrated
+     *                      entries; or {@code null} to leave the {@code token_encoding} column unset
+     * @throws NullPointerException if shards or reclaimPolicy is null
+     * @throws IllegalArgumentException if shards is empty or virtualNodes is not positive
+     */
+    public JdbcShardRebalancer(Map<String, JdbcTemplate> shards,
+                               int virtualNodes,
+                               ChatJournalContentCodec contentCodec,
+                               ChatJournalReclaimPolicy reclaimPolicy,
+                               String tokenEncoding) {
+        Objects.requireNonNull(shards, "shards must not be null");
+        Objects.requireNonNull(reclaimPolicy, "reclaimPolicy must not be null");
+        Map<String, Shard> nodes = new LinkedHashMap<>();
+        shards.forEach((name, jdbcTemplate) -> nodes.put(name, new Shard(name, jdbcTemplate, contentCodec, reclaimPolicy, tokenEncoding)));
+        this.ring = new ConsistentHashRing<>(nodes, virtualNodes);
+        this.archived = reclaimPolicy == ChatJournalReclaimPolicy.ARCHIVE;
+    }
+
+    /**
+     * Migrates every conversation that is not stored on the shard that owns it.
+     *
+     * @return the number of conversations migrated
+     */
+    public int rebalance() {
+        int migrated = 0;
+        for (Shard source : ring.nodes().values()) {
+            List<String> misplaced = new ArrayList<>();
+            source.jdbcTemplate.query(
+                    archived ? ARCHIVED_CONVERSATIONS_SQL : CONVERSATIONS_SQL,
+                    rs -> {
+                        String conversationId = rs.getString(1);
+                        if (!ring.nodeNameFor(conversationId).equals(source.name)) {
+                            misplaced.add(conversationId);
+                        }
+                    }
+            );
+            if (!misplaced.isEmpty()) {
+                log.info("Migrating {} conversations off shard {}", misplaced.size(), source.name);
+            }
+            for (String conversationId : misplaced) {
+                migrate(conversationId, source, ring.nodeFor(conversationId));
+                migrated++;
+            }
+        }
+        log.info("Shard rebalancing complete; {} conversations migrated", migrated);
+        return migrated;
+    }
+
+    private void migrate(String conversationId, Shard source, Shard target) {
+        source.transactionTemplate.executeWithoutResult(sourceStatus -> {
+            source.stats.lock(conversationId);
+            StoredEntries moving = stored(source, conversationId);
+            Optional<ChatJournalCheckpoint> movingCheckpoint = source.checkpoints.findCheckpoint(conversationId);
+            target.transactionTemplate.executeWithoutResult(status -> copy(conversationId, moving, movingCheckpoint, target));
+            source.checkpoints.deleteCheckpoint(conversationId);
+            source.entries.deleteAll(conversationId);
+        });
+        log.debug("Migrated conversation {} from shard {} to shard {}", conversationId, source.name, target.name);
+    }
+
+    private void copy(String conversationId, StoredEntries moving, Optional<ChatJournalCheckpoint> movingCheckpoint,
+                      Shard target) {
+        target.stats.lock(conversationId);
+        StoredEntries existing = stored(target, conversationId);
+        Optional<ChatJournalCheckpoint> existingCheckpoint = target.checkpoints.findCheckpoint(conversationId);
+        if (alreadyCopied(moving.all(), movingCheckpoint, existing.all(), existingCheckpoint)) {
+            return;
+        }
+        List<ChatJournalEntry> merged = new ArrayList<>(moving.all());
+        merged.addAll(existing.all());
+        ChatJournalCheckpoint checkpoint = existingCheckpoint.or(() -> movingCheckpoint).orElse(null);
+        int checkpointPosition = existingCheckpoint.isPresent()
+                ? moving.all().size() + countUpTo(existing.all(), existingCheckpoint.get().checkpointIndex())
+                : movingCheckpoint.map(c -> countUpTo(moving.all(), c.checkpointIndex())).orElse(0);
+        // Archived entries precede the live ones on both shards, so the entries to archive again form a prefix.
+        int archivedPosition = existing.archivedCount() > 0
+                ? moving.all().size() + existing.archivedCount()
+                : moving.archivedCount();
+
+        target.checkpoints.deleteCheckpoint(conversationId);
+        target.entries.deleteAll(conversationId);
+        target.entries.save(conversationId, merged);
+        List<Long> indexes = new ArrayList<>(merged.size());
+        target.entries.forEachEntryAfterIndex(conversationId, -1, entry -> indexes.add(entry.messageIndex()));
+        if (archivedPosition > 0) {
+            long upToIndex = indexes.get(archivedPosition - 1);
+            target.jdbcTemplate.update(JdbcChatJournalReclaimer.ARCHIVE_SQL, conversationId, upToIndex);
+            target.jdbcTemplate.update(JdbcChatJournalReclaimer.DELETE_SQL, conversationId, upToIndex);
+        }
+        if (checkpoint != null) {
+            long checkpointIndex = checkpointPosition == 0 ? -1 : indexes.get(checkpointPosition - 1);
+            target.checkpoints.saveCheckpoint(conversationId,
+                    new ChatJournalCheckpoint(checkpointIndex, checkpoint.summary(), checkpoint.tokens()));
+        }
+    }
+
+    /**
+     * Reads a conversation's archived entries followed by its live ones, streaming the live ones
+     * from {@code chat_journal}.
+     */
+    private StoredEntries stored(Shard shard, String conversationId) {
+        List<ChatJournalEntry> entries = new ArrayList<>();
+        if (archived) {
+            entries.addAll(shard.jdbcTemplate.query(ARCHIVED_ENTRIES_SQL, shard::mapArchivedRow, conversationId));
+        }
+        int archivedCount = entries.size();
+        shard.entries.forEachEntryAfterIndex(conversationId, -1, entries::add);
+        return new StoredEntries(entries, archivedCount);
+    }
+
+    private record StoredEntries(List<ChatJournalEntry> all, int archivedCount) {
+    }
+
+    private static boolean alreadyCopied(List<ChatJournalEntry> moving,
+                                         Optional<ChatJournalCheckpoint> movingCheckpoint,
+                                         List<ChatJournalEntry> existing,
+                                         Optional<ChatJournalCheckpoint> existingCheckpoint) {
+        if (moving.isEmpty()) {
+            return movingCheckpoint.isEmpty() || existingCheckpoint.isPresent();
+        }
+        if (existing.size() < moving.size()) {
+            return false;
+        }
+        for (int i = 0; i < moving.size(); i++) {
+            if (!sameMessage(moving.get(i), existing.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameMessage(ChatJournalEntry a, ChatJournalEntry b) {
+        return a.messageType().equals(b.messageType())
+                && a.content().equals(b.content())
+                && a.tokens() == b.tokens();
+    }
+
+    private static int countUpTo(List<ChatJournalEntry> entries, long messageIndex) {
+        return (int) entries.stream().filter(entry -> entry.messageIndex() <= messageIndex).count();
+    }
+
+    private static final class Shard {
+
+        private final String name;
+        private final JdbcTemplate jdbcTemplate;
+        private final JdbcChatJournalEntryRepository entries;
+        private final JdbcChatJournalCheckpointRepository checkpoints;
+        private final JdbcConversationStats stats;
+        private final JdbcContentColumn contentColumn;
+        private final TransactionTemplate transactionTemplate;
+
+        private Shard(String name, JdbcTemplate jdbcTemplate, ChatJournalContentCodec contentCodec,
+                      ChatJournalReclaimPolicy reclaimPolicy, String tokenEncoding) {
+            this.name = name;
+            this.jdbcTemplate = Objects.requireNonNull(jdbcTemplate, "shard JdbcTemplate must not be null");
+            this.entries = new JdbcChatJournalEntryRepository(jdbcTemplate, JdbcChatJournalOptions.builder()
+                    .reclaimPolicy(reclaimPolicy)
+                    .contentCodec(contentCodec)
+                    .tokenEncoding(tokenEncoding)
+                    .build());
+            if (contentCodec == null) {
+                this.checkpoints = new JdbcChatJournalCheckpointRepository(jdbcTemplate);
+                this.contentColumn = JdbcContentColumn.TEXT;
+            } else {
+                this.checkpoints = new JdbcChatJournalCheckpointRepository(jdbcTemplate, contentCodec);
+                this.contentColumn = JdbcContentColumn.encodedWith(contentCodec);
+            }
+            this.stats = new JdbcConversationStats(jdbcTemplate);
+            this.transactionTemplate = new TransactionTemplate(
+                    new DataSourceTransactionManager(Objects.requireNonNull(jdbcTemplate.getDataSource())));
+        }
+
+        private ChatJournalEntry mapArchivedRow(ResultSet rs, int rowNum) throws SQLException {
+            return new ChatJournalEntry(rs.getLong("message_index"), rs.getString("message_type"),
+                    contentColumn.get(rs, "content"), rs.getInt("tokens"));
+        }
+    }
+}
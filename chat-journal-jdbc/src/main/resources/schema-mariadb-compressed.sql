@@ -0,0 +1,39 @@
+-- Variant of schema-mariadb.sql for repositories configured with a ChatJournalContentCodec: content and summary
+-- hold encoded bytes rather than text, while tokens stay plain integers so token aggregates never decode content.
+
+CREATE TABLE IF NOT EXISTS chat_journal (
+    message_index   BIGINT AUTO_INCREMENT PRIMARY KEY,
+    conversation_id VARCHAR(255) NOT NULL,
+    message_type    VARCHAR(20) NOT NULL,
+    content         LONGBLOB NOT NULL,
+    tokens          INTEGER NOT NULL,
+    token_encoding  VARCHAR(64),
+    created_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Key columns after message_index let token aggregates and visible-entry counts be answered from the index alone
+    INDEX idx_chat_journal_conversation_message (conversation_id, message_index, message_type, tokens)
+);
+
+-- Compacted entries moved out of chat_journal by the ARCHIVE reclaim policy, keeping their message indexes
+CREATE TABLE IF NOT EXISTS chat_journal_archive (
+    conversation_id VARCHAR(255) NOT NULL,
+    message_index   BIGINT NOT NULL,
+    message_type    VARCHAR(20) NOT NULL,
+    content         LONGBLOB NOT NULL,
+    tokens          INTEGER NOT NULL,
+    created_at      TIMESTAMP NULL,
+    PRIMARY KEY (conversation_id, message_index)
+);
+
+CREATE TABLE IF NOT EXISTS chat_journal_checkpoint (
+    conversation_id  VARCHAR(255) PRIMARY KEY,
+    checkpoint_index BIGINT NOT NULL,
+    summary          LONGBLOB NOT NULL,
+    tokens           INTEGER NOT NULL,
+    created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS chat_journal_conversation (
+    conversation_id  VARCHAR(255) PRIMARY KEY,
+    entry_count      INTEGER NOT NULL,
+    effective_tokens INTEGER NOT NULL
+);
@@ -4,8 +4,21 @@ CREATE TABLE IF NOT EXISTS chat_journal (
     message_type    VARCHAR(20) NOT NULL,
     content         LONGTEXT NOT NULL,
     tokens          INTEGER NOT NULL,
+    token_encoding  VARCHAR(64),
     created_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    INDEX idx_chat_journal_conversation_id (conversation_id)
+    -- Key columns after message_index let token aggregates and visible-entry counts be answered from the index alone
+    INDEX idx_chat_journal_conversation_message (conversation_id, message_index, message_type, tokens)
+);
+
+-- Compacted entries moved out of chat_journal by the ARCHIVE reclaim policy, keeping their message indexes
+CREATE TABLE IF NOT EXISTS chat_journal_archive (
+    conversation_id VARCHAR(255) NOT NULL,
+    message_index   BIGINT NOT NULL,
+    message_type    VARCHAR(20) NOT NULL,
+    content         LONGTEXT NOT NULL,
+    tokens          INTEGER NOT NULL,
+    created_at      TIMESTAMP NULL,
+    PRIMARY KEY (conversation_id, message_index)
 );
 
 CREATE TABLE IF NOT EXISTS chat_journal_checkpoint (
@@ -15,3 +28,9 @@ CREATE TABLE IF NOT EXISTS chat_journal_checkpoint (
     tokens           INTEGER NOT NULL,
     created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+
+CREATE TABLE IF NOT EXISTS chat_journal_conversation (
+    conversation_id  VARCHAR(255) PRIMARY KEY,
+    entry_count      INTEGER NOT NULL,
+    effective_tokens INTEGER NOT NULL
+);
@@ -4,10 +4,23 @@ CREATE TABLE chat_journal (
     message_type    VARCHAR2(20) NOT NULL,
     content         CLOB NOT NULL,
     tokens          NUMBER(10) NOT NULL,
+    token_encoding  VARCHAR2(64),
     created_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
-CREATE INDEX idx_chat_journal_conversation_id ON chat_journal (conversation_id);
+-- Key columns after message_index let token aggregates and visible-entry counts be answered from the index alone
+CREATE INDEX idx_chat_journal_conversation_message ON chat_journal (conversation_id, message_index, message_type, tokens);
+
+-- Compacted entries moved out of chat_journal by the ARCHIVE reclaim policy, keeping their message indexes
+CREATE TABLE chat_journal_archive (
+    conversation_id VARCHAR2(255) NOT NULL,
+    message_index   NUMBER(19) NOT NULL,
+    message_type    VARCHAR2(20) NOT NULL,
+    content         CLOB NOT NULL,
+    tokens          NUMBER(10) NOT NULL,
+    created_at      TIMESTAMP,
+    PRIMARY KEY (conversation_id, message_index)
+);
 
 CREATE TABLE chat_journal_checkpoint (
     conversation_id  VARCHAR2(255) PRIMARY KEY,
@@ -16,3 +29,9 @@ CREATE TABLE chat_journal_checkpoint (
     tokens           NUMBER(10) NOT NULL,
     created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+
+CREATE TABLE chat_journal_conversation (
+    conversation_id  VARCHAR2(255) PRIMARY KEY,
+    entry_count      NUMBER(10) NOT NULL,
+    effective_tokens NUMBER(10) NOT NULL
+);
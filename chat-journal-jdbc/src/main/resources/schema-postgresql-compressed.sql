@@ -0,0 +1,43 @@
+-- Variant of schema-postgresql.sql for repositories configured with a ChatJournalContentCodec: content and summary
+-- hold encoded bytes rather than text, while tokens stay plain integers so token aggregates never decode content.
+
+CREATE TABLE IF NOT EXISTS chat_journal (
+    message_index   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    conversation_id VARCHAR(255) NOT NULL,
+    message_type    VARCHAR(20) NOT NULL,
+    content         BYTEA NOT NULL,
+    tokens          INTEGER NOT NULL,
+    token_encoding  VARCHAR(64),
+    created_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Content is already compressed by the codec, so store it out of line without recompressing it
+ALTER TABLE chat_journal ALTER COLUMN content SET STORAGE EXTERNAL;
+
+-- INCLUDE columns let token aggregates and visible-entry counts be answered with index-only scans
+CREATE INDEX IF NOT EXISTS idx_chat_journal_conversation_message ON chat_journal (conversation_id, message_index) INCLUDE (message_type, tokens);
+
+-- Compacted entries moved out of chat_journal by the ARCHIVE reclaim policy, keeping their message indexes
+CREATE TABLE IF NOT EXISTS chat_journal_archive (
+    conversation_id VARCHAR(255) NOT NULL,
+    message_index   BIGINT NOT NULL,
+    message_type    VARCHAR(20) NOT NULL,
+    content         BYTEA NOT NULL,
+    tokens          INTEGER NOT NULL,
+    created_at      TIMESTAMP,
+    PRIMARY KEY (conversation_id, message_index)
+);
+
+CREATE TABLE IF NOT EXISTS chat_journal_checkpoint (
+    conversation_id  VARCHAR(255) PRIMARY KEY,
+    checkpoint_index BIGINT NOT NULL,
+    summary          BYTEA NOT NULL,
+    tokens           INTEGER NOT NULL,
+    created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS chat_journal_conversation (
+    conversation_id  VARCHAR(255) PRIMARY KEY,
+    entry_count      INTEGER NOT NULL,
+    effective_tokens INTEGER NOT NULL
+);
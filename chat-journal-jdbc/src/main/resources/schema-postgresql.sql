@@ -4,10 +4,23 @@ CREATE TABLE IF NOT EXISTS chat_journal (
     message_type    VARCHAR(20) NOT NULL,
     content         TEXT NOT NULL,
     tokens          INTEGER NOT NULL,
+    token_encoding  VARCHAR(64),
     created_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
-CREATE INDEX IF NOT EXISTS idx_chat_journal_conversation_id ON chat_journal (conversation_id);
+-- INCLUDE columns let token aggregates and visible-entry counts be answered with index-only scans
+CREATE INDEX IF NOT EXISTS idx_chat_journal_conversation_message ON chat_journal (conversation_id, message_index) INCLUDE (message_type, tokens);
+
+-- Compacted entries moved out of chat_journal by the ARCHIVE reclaim policy, keeping their message indexes
+CREATE TABLE IF NOT EXISTS chat_journal_archive (
+    conversation_id VARCHAR(255) NOT NULL,
+    message_index   BIGINT NOT NULL,
+    message_type    VARCHAR(20) NOT NULL,
+    content         TEXT NOT NULL,
+    tokens          INTEGER NOT NULL,
+    created_at      TIMESTAMP,
+    PRIMARY KEY (conversation_id, message_index)
+);
 
 CREATE TABLE IF NOT EXISTS chat_journal_checkpoint (
     conversation_id  VARCHAR(255) PRIMARY KEY,
@@ -16,3 +29,9 @@ CREATE TABLE IF NOT EXISTS chat_journal_checkpoint (
     tokens           INTEGER NOT NULL,
     created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+
+CREATE TABLE IF NOT EXISTS chat_journal_conversation (
+    conversation_id  VARCHAR(255) PRIMARY KEY,
+    entry_count      INTEGER NOT NULL,
+    effective_tokens INTEGER NOT NULL
+);
@@ -0,0 +1,40 @@
+-- Variant of schema-sqlserver.sql for repositories configured with a ChatJournalContentCodec: content and summary
+-- hold encoded bytes rather than text, while tokens stay plain integers so token aggregates never decode content.
+
+CREATE TABLE chat_journal (
+    message_index   BIGINT IDENTITY(1,1) PRIMARY KEY,
+    conversation_id NVARCHAR(255) NOT NULL,
+    message_type    NVARCHAR(20) NOT NULL,
+    content         VARBINARY(MAX) NOT NULL,
+    tokens          INT NOT NULL,
+    token_encoding  NVARCHAR(64),
+    created_at      DATETIME2 DEFAULT GETDATE()
+);
+
+-- INCLUDE columns let token aggregates and visible-entry counts be answered from the index alone
+CREATE INDEX idx_chat_journal_conversation_message ON chat_journal (conversation_id, message_index) INCLUDE (message_type, tokens);
+
+-- Compacted entries moved out of chat_journal by the ARCHIVE reclaim policy, keeping their message indexes
+CREATE TABLE chat_journal_archive (
+    conversation_id NVARCHAR(255) NOT NULL,
+    message_index   BIGINT NOT NULL,
+    message_type    NVARCHAR(20) NOT NULL,
+    content         VARBINARY(MAX) NOT NULL,
+    tokens          INT NOT NULL,
+    created_at      DATETIME2,
+    PRIMARY KEY (conversation_id, message_index)
+);
+
+CREATE TABLE chat_journal_checkpoint (
+    conversation_id  NVARCHAR(255) PRIMARY KEY,
+    checkpoint_index BIGINT NOT NULL,
+    summary          VARBINARY(MAX) NOT NULL,
+    tokens           INT NOT NULL,
+    created_at       DATETIME2 DEFAULT GETDATE()
+);
+
+CREATE TABLE chat_journal_conversation (
+    conversation_id  NVARCHAR(255) PRIMARY KEY,
+    entry_count      INT NOT NULL,
+    effective_tokens INT NOT NULL
+);
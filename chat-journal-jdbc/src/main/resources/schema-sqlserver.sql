@@ -4,10 +4,23 @@ CREATE TABLE chat_journal (
     message_type    NVARCHAR(20) NOT NULL,
     content         NVARCHAR(MAX) NOT NULL,
     tokens          INT NOT NULL,
+    token_encoding  NVARCHAR(64),
     created_at      DATETIME2 DEFAULT GETDATE()
 );
 
-CREATE INDEX idx_chat_journal_conversation_id ON chat_journal (conversation_id);
+-- INCLUDE columns let token aggregates and visible-entry counts be answered from the index alone
+CREATE INDEX idx_chat_journal_conversation_message ON chat_journal (conversation_id, message_index) INCLUDE (message_type, tokens);
+
+-- Compacted entries moved out of chat_journal by the ARCHIVE reclaim policy, keeping their message indexes
+CREATE TABLE chat_journal_archive (
+    conversation_id NVARCHAR(255) NOT NULL,
+    message_index   BIGINT NOT NULL,
+    message_type    NVARCHAR(20) NOT NULL,
+    content         NVARCHAR(MAX) NOT NULL,
+    tokens          INT NOT NULL,
+    created_at      DATETIME2,
+    PRIMARY KEY (conversation_id, message_index)
+);
 
 CREATE TABLE chat_journal_checkpoint (
     conversation_id  NVARCHAR(255) PRIMARY KEY,
@@ -16,3 +29,9 @@ CREATE TABLE chat_journal_checkpoint (
     tokens           INT NOT NULL,
     created_at       DATETIME2 DEFAULT GETDATE()
 );
+
+CREATE TABLE chat_journal_conversation (
+    conversation_id  NVARCHAR(255) PRIMARY KEY,
+    entry_count      INT NOT NULL,
+    effective_tokens INT NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Adds the archive table used by the ARCHIVE reclaim policy for installs created
+-- from an earlier schema-mariadb.sql.
+CREATE TABLE IF NOT EXISTS chat_journal_archive (
+    conversation_id VARCHAR(255) NOT NULL,
+    message_index   BIGINT NOT NULL,
+    message_type    VARCHAR(20) NOT NULL,
+    content         LONGTEXT NOT NULL,
+    tokens          INTEGER NOT NULL,
+    created_at      TIMESTAMP NULL,
+    PRIMARY KEY (conversation_id, message_index)
+);
@@ -0,0 +1,11 @@
+-- Adds the archive table used by the ARCHIVE reclaim policy for installs created
+-- from an earlier schema-oracle.sql.
+CREATE TABLE chat_journal_archive (
+    conversation_id VARCHAR2(255) NOT NULL,
+    message_index   NUMBER(19) NOT NULL,
+    message_type    VARCHAR2(20) NOT NULL,
+    content         CLOB NOT NULL,
+    tokens          NUMBER(10) NOT NULL,
+    created_at      TIMESTAMP,
+    PRIMARY KEY (conversation_id, message_index)
+);
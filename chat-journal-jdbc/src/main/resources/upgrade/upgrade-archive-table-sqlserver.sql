@@ -0,0 +1,11 @@
+-- Adds the archive table used by the ARCHIVE reclaim policy for installs created
+-- from an earlier schema-sqlserver.sql.
+CREATE TABLE chat_journal_archive (
+    conversation_id NVARCHAR(255) NOT NULL,
+    message_index   BIGINT NOT NULL,
+    message_type    NVARCHAR(20) NOT NULL,
+    content         NVARCHAR(MAX) NOT NULL,
+    tokens          INT NOT NULL,
+    created_at      DATETIME2,
+    PRIMARY KEY (conversation_id, message_index)
+);
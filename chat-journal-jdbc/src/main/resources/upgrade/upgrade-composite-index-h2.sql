@@ -0,0 +1,5 @@
+-- Replaces the single-column conversation index with a composite index for installs created
+-- from an earlier schema-h2.sql.
+CREATE INDEX IF NOT EXISTS idx_chat_journal_conversation_message ON chat_journal (conversation_id, message_index, message_type, tokens);
+
+DROP INDEX IF EXISTS idx_chat_journal_conversation_id;
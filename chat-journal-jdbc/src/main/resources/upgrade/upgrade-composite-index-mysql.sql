@@ -0,0 +1,6 @@
+-- Replaces the single-column conversation index with a composite index for installs created
+-- from an earlier schema-mysql.sql. InnoDB builds the index online without blocking writes.
+ALTER TABLE chat_journal
+    ADD INDEX idx_chat_journal_conversation_message (conversation_id, message_index, message_type, tokens),
+    DROP INDEX idx_chat_journal_conversation_id,
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,5 @@
+-- Replaces the single-column conversation index with a composite index for installs created
+-- from an earlier schema-oracle.sql. ONLINE avoids blocking writes while the index builds.
+CREATE INDEX idx_chat_journal_conversation_message ON chat_journal (conversation_id, message_index, message_type, tokens) ONLINE;
+
+DROP INDEX idx_chat_journal_conversation_id;
@@ -0,0 +1,6 @@
+-- Replaces the single-column conversation index with a covering composite index for installs
+-- created from an earlier schema-postgresql.sql. CONCURRENTLY avoids blocking writes while the
+-- index builds, but cannot run inside a transaction block.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_journal_conversation_message ON chat_journal (conversation_id, message_index) INCLUDE (message_type, tokens);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_chat_journal_conversation_id;
@@ -0,0 +1,6 @@
+-- Replaces the single-column conversation index with a covering composite index for installs
+-- created from an earlier schema-sqlserver.sql. ONLINE index builds require an edition that
+-- supports them; remove the WITH clause otherwise.
+CREATE INDEX idx_chat_journal_conversation_message ON chat_journal (conversation_id, message_index) INCLUDE (message_type, tokens) WITH (ONLINE = ON);
+
+DROP INDEX idx_chat_journal_conversation_id ON chat_journal;
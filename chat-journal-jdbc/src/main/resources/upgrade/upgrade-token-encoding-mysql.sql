@@ -0,0 +1,4 @@
+-- Adds the token_encoding column recording which encoding produced each entry's token count, for
+-- installs created from an earlier schema-mysql.sql. Existing rows are left NULL (unknown) until
+-- recounted by JdbcChatJournalTokenRecounter.
+ALTER TABLE chat_journal ADD COLUMN token_encoding VARCHAR(64), ALGORITHM=INSTANT;
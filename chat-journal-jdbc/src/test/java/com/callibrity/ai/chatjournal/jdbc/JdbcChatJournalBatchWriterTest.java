@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+@JdbcTest
+@Sql("/schema-h2.sql")
+class JdbcChatJournalBatchWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcChatJournalBatchWriter batchWriter;
+    private JdbcChatJournalEntryRepository repository;
+    private JdbcChatJournalCheckpointRepository checkpointRepository;
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository = new JdbcChatJournalCheckpointRepository(jdbcTemplate);
+        batchWriter = new JdbcChatJournalBatchWriter(jdbcTemplate);
+        repository = new JdbcChatJournalEntryRepository(jdbcTemplate);
+        jdbcTemplate.update("DELETE FROM chat_journal_checkpoint");
+        jdbcTemplate.update("DELETE FROM chat_journal_conversation");
+        jdbcTemplate.update("DELETE FROM chat_journal");
+    }
+
+    @Test
+    void shouldInsertEntriesForAllConversationsInOrder() {
+        Map<String, List<ChatJournalEntry>> batch = new LinkedHashMap<>();
+        batch.put("conversation-1", List.of(
+                new ChatJournalEntry(0, "USER", "One", 10),
+                new ChatJournalEntry(0, "ASSISTANT", "Two", 15)
+        ));
+        batch.put("conversation-2", List.of(new ChatJournalEntry(0, "USER", "Three", 20)));
+
+        batchWriter.saveAll(batch);
+
+        assertThat(repository.findAll("conversation-1")).extracting(ChatJournalEntry::content).containsExactly("One", "Two");
+        assertThat(repository.findAll("conversation-2")).extracting(ChatJournalEntry::content).containsExactly("Three");
+    }
+
+    @Test
+    void shouldInitializeStatisticsForNewConversations() {
+        batchWriter.saveAll(Map.of("conversation-1", List.of(
+                new ChatJournalEntry(0, "USER", "One", 10),
+                new ChatJournalEntry(0, "ASSISTANT", "Two", 15)
+        )));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT entry_count FROM chat_journal_conversation WHERE conversation_id = 'conversation-1'", Integer.class))
+                .isEqualTo(2);
+        assertThat(repository.getEffectiveTokens("conversation-1", checkpointRepository)).isEqualTo(25);
+    }
+
+    @Test
+    void shouldIncrementExistingStatistics() {
+        repository.save("conversation-1", List.of(new ChatJournalEntry(0, "USER", "One", 10)));
+
+        batchWriter.saveAll(Map.of("conversation-1", List.of(new ChatJournalEntry(0, "ASSISTANT", "Two", 15))));
+
+        assertThat(repository.countEntries("conversation-1")).isEqualTo(2);
+        assertThat(repository.getEffectiveTokens("conversation-1", checkpointRepository)).isEqualTo(25);
+    }
+
+    @Test
+    void shouldIgnoreEmptyBatch() {
+        batchWriter.saveAll(Map.of("conversation-1", List.of()));
+
+        assertThat(repository.countEntries("conversation-1")).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM chat_journal_conversation", Integer.class)).isZero();
+    }
+
+    @Test
+    void shouldRecordTokenEncodingWhenConfigured() {
+        new JdbcChatJournalBatchWriter(jdbcTemplate, null, "cl100k_base")
+                .saveAll(Map.of("conversation-1", List.of(new ChatJournalEntry(0, "USER", "One", 10))));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT token_encoding FROM chat_journal", String.class))
+                .isEqualTo("cl100k_base");
+        assertThat(repository.findAll("conversation-1")).extracting(ChatJournalEntry::content).containsExactly("One");
+    }
+
+    @Test
+    void shouldRejectNullJdbcTemplate() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> new JdbcChatJournalBatchWriter(null))
+                .withMessage("jdbcTemplate must not be null");
+    }
+
+    @Test
+    void shouldRejectNullBatch() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> batchWriter.saveAll(null))
+                .withMessage("entriesByConversation must not be null");
+    }
+}
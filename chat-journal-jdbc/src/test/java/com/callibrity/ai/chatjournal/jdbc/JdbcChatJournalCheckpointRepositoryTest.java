@@ -45,6 +45,7 @@ class JdbcChatJournalCheckpointRepositoryTest {
     void setUp() {
         repository = new JdbcChatJournalCheckpointRepository(jdbcTemplate);
         jdbcTemplate.update("DELETE FROM chat_journal_checkpoint");
+        jdbcTemplate.update("DELETE FROM chat_journal_conversation");
     }
 
     @Nested
@@ -98,6 +99,24 @@ class JdbcChatJournalCheckpointRepositoryTest {
             assertThat(retrieved.get().tokens()).isEqualTo(75);
         }
 
+        @Test
+        void shouldNotReplaceNewerCheckpointWithOlderOne() {
+            repository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(200, "Newer summary", 75));
+            repository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(100, "Older summary", 50));
+
+            assertThat(repository.findCheckpoint(CONVERSATION_ID))
+                    .contains(new ChatJournalCheckpoint(200, "Newer summary", 75));
+        }
+
+        @Test
+        void shouldReplaceCheckpointWithSameIndex() {
+            repository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(100, "First summary", 50));
+            repository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(100, "Second summary", 40));
+
+            assertThat(repository.findCheckpoint(CONVERSATION_ID))
+                    .contains(new ChatJournalCheckpoint(100, "Second summary", 40));
+        }
+
         @Test
         void shouldNotAffectOtherConversationCheckpoints() {
             repository.saveCheckpoint("conversation-1", new ChatJournalCheckpoint(100, "Summary 1", 50));
@@ -108,6 +127,43 @@ class JdbcChatJournalCheckpointRepositoryTest {
         }
     }
 
+    @Nested
+    class GenericDialect {
+
+        private JdbcChatJournalCheckpointRepository genericRepository;
+
+        @BeforeEach
+        void setUp() {
+            genericRepository = new JdbcChatJournalCheckpointRepository(jdbcTemplate, JdbcDialect.GENERIC);
+        }
+
+        @Test
+        void shouldSaveNewCheckpoint() {
+            genericRepository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(100, "Summary", 50));
+
+            assertThat(genericRepository.findCheckpoint(CONVERSATION_ID))
+                    .contains(new ChatJournalCheckpoint(100, "Summary", 50));
+        }
+
+        @Test
+        void shouldReplaceOlderCheckpoint() {
+            genericRepository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(100, "First summary", 50));
+            genericRepository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(200, "Second summary", 75));
+
+            assertThat(genericRepository.findCheckpoint(CONVERSATION_ID))
+                    .contains(new ChatJournalCheckpoint(200, "Second summary", 75));
+        }
+
+        @Test
+        void shouldNotReplaceNewerCheckpointWithOlderOne() {
+            genericRepository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(200, "Newer summary", 75));
+            genericRepository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(100, "Older summary", 50));
+
+            assertThat(genericRepository.findCheckpoint(CONVERSATION_ID))
+                    .contains(new ChatJournalCheckpoint(200, "Newer summary", 75));
+        }
+    }
+
     @Nested
     class DeleteCheckpoint {
 
@@ -148,6 +204,13 @@ class JdbcChatJournalCheckpointRepositoryTest {
                     .isThrownBy(() -> new JdbcChatJournalCheckpointRepository(null))
                     .withMessage("jdbcTemplate must not be null");
         }
+
+        @Test
+        void shouldRejectNullDialect() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new JdbcChatJournalCheckpointRepository(jdbcTemplate, (JdbcDialect) null))
+                    .withMessage("dialect must not be null");
+        }
     }
 
     @Nested
@@ -15,20 +15,39 @@
  */
 package com.callibrity.ai.chatjournal.jdbc;
 
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContext;
 import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryTokens;
+import com.callibrity.ai.chatjournal.repository.DeflateChatJournalContentCodec;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 import org.springframework.test.context.jdbc.Sql;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @JdbcTest
 @Sql("/schema-h2.sql")
@@ -45,6 +64,8 @@ class JdbcChatJournalEntryRepositoryTest {
     void setUp() {
         repository = new JdbcChatJournalEntryRepository(jdbcTemplate);
         jdbcTemplate.update("DELETE FROM chat_journal_checkpoint");
+        jdbcTemplate.update("DELETE FROM chat_journal_conversation");
+        jdbcTemplate.update("DELETE FROM chat_journal_archive");
         jdbcTemplate.update("DELETE FROM chat_journal");
     }
 
@@ -85,6 +106,20 @@ class JdbcChatJournalEntryRepositoryTest {
             List<ChatJournalEntry> entries = repository.findAll(CONVERSATION_ID);
             assertThat(entries.get(0).messageIndex()).isLessThan(entries.get(1).messageIndex());
         }
+
+        @Test
+        void shouldReturnSavedEntriesWithGeneratedIndexes() {
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "First", 10)));
+
+            List<ChatJournalEntry> saved = repository.saveAndReturn(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "Hello", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Hi there!", 15)
+            ));
+
+            assertThat(saved).isEqualTo(repository.findAll(CONVERSATION_ID).subList(1, 3));
+            assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(3);
+            assertThat(repository.saveAndReturn(CONVERSATION_ID, List.of())).isEmpty();
+        }
     }
 
     @Nested
@@ -176,6 +211,49 @@ class JdbcChatJournalEntryRepositoryTest {
         }
     }
 
+    @Nested
+    class FindVisibleEntriesBefore {
+
+        @Test
+        void shouldReturnMostRecentEntriesWhenStartingFromMaxIndex() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "SYSTEM", "System message", 15),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15),
+                    new ChatJournalEntry(0, "USER", "Third", 10)
+            ));
+
+            List<ChatJournalEntry> entries = repository.findVisibleEntriesBefore(CONVERSATION_ID, Long.MAX_VALUE, 2);
+
+            assertThat(entries).extracting(ChatJournalEntry::content).containsExactly("Third", "Second");
+        }
+
+        @Test
+        void shouldPageBackwardsFromCursor() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15),
+                    new ChatJournalEntry(0, "USER", "Third", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Fourth", 15)
+            ));
+            List<ChatJournalEntry> firstPage = repository.findVisibleEntriesBefore(CONVERSATION_ID, Long.MAX_VALUE, 3);
+
+            List<ChatJournalEntry> secondPage = repository.findVisibleEntriesBefore(
+                    CONVERSATION_ID, firstPage.getLast().messageIndex(), 3);
+
+            assertThat(firstPage).extracting(ChatJournalEntry::content).containsExactly("Fourth", "Third", "Second");
+            assertThat(secondPage).extracting(ChatJournalEntry::content).containsExactly("First");
+        }
+
+        @Test
+        void shouldReturnEmptyListWhenNoOlderEntries() {
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "First", 10)));
+            long firstIndex = repository.findAll(CONVERSATION_ID).getFirst().messageIndex();
+
+            assertThat(repository.findVisibleEntriesBefore(CONVERSATION_ID, firstIndex, 10)).isEmpty();
+        }
+    }
+
     @Nested
     class CountVisibleEntries {
 
@@ -204,6 +282,57 @@ class JdbcChatJournalEntryRepositoryTest {
         }
     }
 
+    @Nested
+    class CountEntries {
+
+        @Test
+        void shouldCountAllMessageTypesAcrossSaves() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "User message", 10),
+                    new ChatJournalEntry(0, "SYSTEM", "System message", 15)
+            ));
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "ASSISTANT", "Assistant message", 10)
+            ));
+
+            assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(3);
+        }
+
+        @Test
+        void shouldReturnZeroWhenNoEntries() {
+            assertThat(repository.countEntries(CONVERSATION_ID)).isZero();
+        }
+
+        @Test
+        void shouldCountEntriesWrittenBeforeCounterExisted() {
+            jdbcTemplate.update(
+                    "INSERT INTO chat_journal (conversation_id, message_type, content, tokens) VALUES (?, ?, ?, ?)",
+                    CONVERSATION_ID, "USER", "Legacy", 10);
+
+            assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(1);
+
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "ASSISTANT", "Reply", 10)));
+
+            assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(2);
+        }
+
+        @Test
+        void shouldResetCountAfterDeleteAll() {
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+
+            repository.deleteAll(CONVERSATION_ID);
+
+            assertThat(repository.countEntries(CONVERSATION_ID)).isZero();
+        }
+
+        @Test
+        void shouldIgnoreEmptySaves() {
+            repository.save(CONVERSATION_ID, List.of());
+
+            assertThat(repository.countEntries(CONVERSATION_ID)).isZero();
+        }
+    }
+
     @Nested
     class FindEntriesAfterIndex {
 
@@ -227,6 +356,223 @@ class JdbcChatJournalEntryRepositoryTest {
         }
     }
 
+    @Nested
+    class ForEachEntryAfterIndex {
+
+        @Test
+        void shouldVisitAllEntriesInOrderFromSentinelIndex() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15),
+                    new ChatJournalEntry(0, "USER", "Third", 10)
+            ));
+            repository.save("other-conversation", List.of(new ChatJournalEntry(0, "USER", "Other", 5)));
+
+            List<ChatJournalEntry> visited = new ArrayList<>();
+            repository.forEachEntryAfterIndex(CONVERSATION_ID, -1, visited::add);
+
+            assertThat(visited).containsExactlyElementsOf(repository.findAll(CONVERSATION_ID));
+        }
+
+        @Test
+        void shouldVisitOnlyEntriesAfterIndex() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15),
+                    new ChatJournalEntry(0, "USER", "Third", 10)
+            ));
+            long firstIndex = repository.findAll(CONVERSATION_ID).getFirst().messageIndex();
+
+            List<String> visited = new ArrayList<>();
+            repository.forEachEntryAfterIndex(CONVERSATION_ID, firstIndex, entry -> visited.add(entry.content()));
+
+            assertThat(visited).containsExactly("Second", "Third");
+        }
+
+        @Test
+        void shouldVisitEveryEntryAcrossMultipleFetches() {
+            JdbcChatJournalEntryRepository smallFetchRepository = new JdbcChatJournalEntryRepository(
+                    jdbcTemplate, JdbcChatJournalOptions.builder().fetchSize(2).build());
+            List<ChatJournalEntry> entries = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                entries.add(new ChatJournalEntry(0, "USER", "Message " + i, 1));
+            }
+            smallFetchRepository.save(CONVERSATION_ID, entries);
+
+            List<String> visited = new ArrayList<>();
+            smallFetchRepository.forEachEntryAfterIndex(CONVERSATION_ID, -1, entry -> visited.add(entry.content()));
+
+            assertThat(visited).hasSize(7).startsWith("Message 0").endsWith("Message 6");
+        }
+
+        @Test
+        void shouldApplyConfiguredFetchSize() throws Exception {
+            DataSource dataSource = mock(DataSource.class);
+            Connection connection = mock(Connection.class);
+            PreparedStatement statement = mock(PreparedStatement.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(anyString())).thenReturn(statement);
+            when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+
+            new JdbcChatJournalEntryRepository(new JdbcTemplate(dataSource), JdbcChatJournalOptions.builder().fetchSize(250).build())
+                    .forEachEntryAfterIndex(CONVERSATION_ID, -1, entry -> {
+                    });
+
+            verify(statement).setFetchSize(250);
+        }
+
+        @Test
+        void shouldNotVisitAnythingForUnknownConversation() {
+            List<ChatJournalEntry> visited = new ArrayList<>();
+            repository.forEachEntryAfterIndex("unknown", -1, visited::add);
+
+            assertThat(visited).isEmpty();
+        }
+    }
+
+    @Nested
+    class FindEntriesInRange {
+
+        @Test
+        void shouldReturnEntriesAfterExclusiveAndUpToInclusiveIndex() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15),
+                    new ChatJournalEntry(0, "USER", "Third", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Fourth", 15)
+            ));
+            List<ChatJournalEntry> allEntries = repository.findAll(CONVERSATION_ID);
+
+            List<ChatJournalEntry> entries = repository.findEntriesInRange(CONVERSATION_ID,
+                    allEntries.get(0).messageIndex(), allEntries.get(2).messageIndex());
+
+            assertThat(entries).extracting(ChatJournalEntry::content).containsExactly("Second", "Third");
+        }
+
+        @Test
+        void shouldReturnEmptyListForEmptyRange() {
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "First", 10)));
+            long index = repository.findAll(CONVERSATION_ID).getFirst().messageIndex();
+
+            assertThat(repository.findEntriesInRange(CONVERSATION_ID, index, index)).isEmpty();
+        }
+    }
+
+    @Nested
+    class FindEntryTokensAfterIndex {
+
+        @Test
+        void shouldReturnTokensWithRunningTailSums() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 20),
+                    new ChatJournalEntry(0, "USER", "Third", 30),
+                    new ChatJournalEntry(0, "ASSISTANT", "Fourth", 40)
+            ));
+            List<ChatJournalEntry> allEntries = repository.findAll(CONVERSATION_ID);
+
+            List<ChatJournalEntryTokens> entryTokens = repository.findEntryTokensAfterIndex(
+                    CONVERSATION_ID, allEntries.get(0).messageIndex());
+
+            assertThat(entryTokens).containsExactly(
+                    new ChatJournalEntryTokens(allEntries.get(1).messageIndex(), 20, 90),
+                    new ChatJournalEntryTokens(allEntries.get(2).messageIndex(), 30, 70),
+                    new ChatJournalEntryTokens(allEntries.get(3).messageIndex(), 40, 40)
+            );
+        }
+
+        @Test
+        void shouldIgnoreOtherConversations() {
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "Mine", 10)));
+            repository.save("other-conversation", List.of(new ChatJournalEntry(0, "USER", "Theirs", 99)));
+
+            List<ChatJournalEntryTokens> entryTokens = repository.findEntryTokensAfterIndex(CONVERSATION_ID, -1);
+
+            assertThat(entryTokens).extracting(ChatJournalEntryTokens::tailTokens).containsExactly(10);
+        }
+
+        @Test
+        void shouldReturnEmptyListForUnknownConversation() {
+            assertThat(repository.findEntryTokensAfterIndex("unknown", -1)).isEmpty();
+        }
+    }
+
+    @Nested
+    class FindContext {
+
+        private JdbcChatJournalCheckpointRepository checkpointRepository;
+
+        @BeforeEach
+        void setUp() {
+            checkpointRepository = new JdbcChatJournalCheckpointRepository(jdbcTemplate);
+        }
+
+        @Test
+        void shouldReturnAllEntriesWhenNoCheckpoint() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15)
+            ));
+
+            ChatJournalContext context = repository.findContext(CONVERSATION_ID, checkpointRepository);
+
+            assertThat(context.checkpoint()).isNull();
+            assertThat(context.entries()).extracting(ChatJournalEntry::content).containsExactly("First", "Second");
+        }
+
+        @Test
+        void shouldReturnCheckpointAndEntriesAfterIt() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15),
+                    new ChatJournalEntry(0, "USER", "Third", 20)
+            ));
+            long secondIndex = repository.findAll(CONVERSATION_ID).get(1).messageIndex();
+            checkpointRepository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(secondIndex, "Summary", 5));
+
+            ChatJournalContext context = repository.findContext(CONVERSATION_ID, checkpointRepository);
+
+            assertThat(context.checkpoint()).isEqualTo(new ChatJournalCheckpoint(secondIndex, "Summary", 5));
+            assertThat(context.entries()).hasSize(1);
+            assertThat(context.entries().getFirst().content()).isEqualTo("Third");
+            assertThat(context.entries().getFirst().messageType()).isEqualTo("USER");
+            assertThat(context.entries().getFirst().tokens()).isEqualTo(20);
+        }
+
+        @Test
+        void shouldReturnCheckpointWhenNoEntriesAfterIt() {
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "First", 10)));
+            long firstIndex = repository.findAll(CONVERSATION_ID).getFirst().messageIndex();
+            checkpointRepository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(firstIndex, "Summary", 5));
+
+            ChatJournalContext context = repository.findContext(CONVERSATION_ID, checkpointRepository);
+
+            assertThat(context.findCheckpoint()).isPresent();
+            assertThat(context.entries()).isEmpty();
+        }
+
+        @Test
+        void shouldReturnEmptyContextWhenNoData() {
+            ChatJournalContext context = repository.findContext(CONVERSATION_ID, checkpointRepository);
+
+            assertThat(context.findCheckpoint()).isEmpty();
+            assertThat(context.entries()).isEmpty();
+        }
+
+        @Test
+        void shouldIgnoreOtherConversations() {
+            repository.save("conversation-1", List.of(new ChatJournalEntry(0, "USER", "Conv 1", 10)));
+            repository.save("conversation-2", List.of(new ChatJournalEntry(0, "USER", "Conv 2", 10)));
+            long conv2Index = repository.findAll("conversation-2").getFirst().messageIndex();
+            checkpointRepository.saveCheckpoint("conversation-2", new ChatJournalCheckpoint(conv2Index, "Summary", 5));
+
+            ChatJournalContext context = repository.findContext("conversation-1", checkpointRepository);
+
+            assertThat(context.checkpoint()).isNull();
+            assertThat(context.entries()).extracting(ChatJournalEntry::content).containsExactly("Conv 1");
+        }
+    }
+
     @Nested
     class SumTokens {
 
@@ -273,6 +619,84 @@ class JdbcChatJournalEntryRepositoryTest {
         }
     }
 
+    @Nested
+    class GetEffectiveTokens {
+
+        private JdbcChatJournalCheckpointRepository checkpointRepository;
+
+        @BeforeEach
+        void setUp() {
+            checkpointRepository = new JdbcChatJournalCheckpointRepository(jdbcTemplate);
+        }
+
+        @Test
+        void shouldAccumulateTokensAcrossSaves() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 20)
+            ));
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "Third", 30)));
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(60);
+        }
+
+        @Test
+        void shouldReturnZeroWhenNoEntries() {
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isZero();
+        }
+
+        @Test
+        void shouldReplaceCompactedTokensWithCheckpointTokens() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 20),
+                    new ChatJournalEntry(0, "USER", "Third", 30)
+            ));
+            long secondIndex = repository.findAll(CONVERSATION_ID).get(1).messageIndex();
+
+            checkpointRepository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(secondIndex, "Summary", 5));
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(35);
+
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "ASSISTANT", "Fourth", 40)));
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(75);
+        }
+
+        @Test
+        void shouldRestoreFullTotalWhenCheckpointDeleted() {
+            repository.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 20)
+            ));
+            long firstIndex = repository.findAll(CONVERSATION_ID).getFirst().messageIndex();
+            checkpointRepository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(firstIndex, "Summary", 5));
+
+            checkpointRepository.deleteCheckpoint(CONVERSATION_ID);
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(30);
+        }
+
+        @Test
+        void shouldComputeTokensWrittenBeforeStatisticsExisted() {
+            jdbcTemplate.update(
+                    "INSERT INTO chat_journal (conversation_id, message_type, content, tokens) VALUES (?, ?, ?, ?)",
+                    CONVERSATION_ID, "USER", "Legacy", 10);
+            jdbcTemplate.update(
+                    "INSERT INTO chat_journal (conversation_id, message_type, content, tokens) VALUES (?, ?, ?, ?)",
+                    CONVERSATION_ID, "ASSISTANT", "Legacy reply", 20);
+            long firstIndex = repository.findAll(CONVERSATION_ID).getFirst().messageIndex();
+            jdbcTemplate.update(
+                    "INSERT INTO chat_journal_checkpoint (conversation_id, checkpoint_index, summary, tokens) VALUES (?, ?, ?, ?)",
+                    CONVERSATION_ID, firstIndex, "Summary", 5);
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(25);
+
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "New", 30)));
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(55);
+            assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(3);
+        }
+    }
+
     @Nested
     class DeleteAll {
 
@@ -300,6 +724,209 @@ class JdbcChatJournalEntryRepositoryTest {
         }
     }
 
+    @Nested
+    class ReadReplica {
+
+        private EmbeddedDatabase replica;
+        private JdbcTemplate replicaJdbcTemplate;
+
+        @BeforeEach
+        void setUp() {
+            // An empty replica stands in for one that has not caught up with the primary yet.
+            replica = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("schema-h2.sql")
+                    .build();
+            replicaJdbcTemplate = new JdbcTemplate(replica);
+        }
+
+        @AfterEach
+        void tearDown() {
+            replica.shutdown();
+        }
+
+        @Test
+        void shouldServeHistoryReadsFromReplica() {
+            JdbcChatJournalEntryRepository routing = new JdbcChatJournalEntryRepository(
+                    jdbcTemplate, JdbcChatJournalOptions.builder().replicaJdbcTemplate(replicaJdbcTemplate).build());
+            routing.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+
+            assertThat(routing.findAll(CONVERSATION_ID)).isEmpty();
+            assertThat(routing.findVisibleEntries(CONVERSATION_ID, 0, 10)).isEmpty();
+            assertThat(routing.findVisibleEntriesBefore(CONVERSATION_ID, Long.MAX_VALUE, 10)).isEmpty();
+            assertThat(routing.countVisibleEntries(CONVERSATION_ID)).isZero();
+            assertThat(routing.sumTokens(CONVERSATION_ID)).isZero();
+            assertThat(routing.sumTokensAfterIndex(CONVERSATION_ID, -1)).isZero();
+        }
+
+        @Test
+        void shouldServeConsistentReadsFromPrimary() {
+            JdbcChatJournalEntryRepository routing = new JdbcChatJournalEntryRepository(
+                    jdbcTemplate, JdbcChatJournalOptions.builder().replicaJdbcTemplate(replicaJdbcTemplate).build());
+            routing.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+
+            assertThat(routing.findContext(CONVERSATION_ID, new JdbcChatJournalCheckpointRepository(jdbcTemplate)).entries()).hasSize(1);
+            assertThat(routing.countEntries(CONVERSATION_ID)).isEqualTo(1);
+            assertThat(routing.getEffectiveTokens(CONVERSATION_ID, new JdbcChatJournalCheckpointRepository(jdbcTemplate))).isEqualTo(10);
+            assertThat(routing.findEntriesAfterIndex(CONVERSATION_ID, -1)).hasSize(1);
+            assertThat(routing.findEntryTokensAfterIndex(CONVERSATION_ID, -1)).hasSize(1);
+        }
+
+        @Test
+        void shouldReadRecentlyWrittenConversationFromPrimary() {
+            JdbcChatJournalEntryRepository routing = new JdbcChatJournalEntryRepository(jdbcTemplate, JdbcChatJournalOptions.builder()
+                    .replicaJdbcTemplate(replicaJdbcTemplate)
+                    .maxStaleness(Duration.ofHours(1))
+                    .build());
+            routing.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+            repository.save("other-conversation", List.of(new ChatJournalEntry(0, "USER", "Hi", 5)));
+
+            assertThat(routing.findVisibleEntries(CONVERSATION_ID, 0, 10)).hasSize(1);
+            assertThat(routing.countVisibleEntries(CONVERSATION_ID)).isEqualTo(1);
+            assertThat(routing.findVisibleEntries("other-conversation", 0, 10)).isEmpty();
+        }
+
+        @Test
+        void shouldServeHistoryReadsFromPrimaryWithoutReplica() {
+            JdbcChatJournalEntryRepository primaryOnly = new JdbcChatJournalEntryRepository(
+                    jdbcTemplate, JdbcChatJournalOptions.builder().replicaJdbcTemplate(null).build());
+            primaryOnly.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+
+            assertThat(primaryOnly.findAll(CONVERSATION_ID)).hasSize(1);
+        }
+
+        @Test
+        void shouldRejectNullMaxStaleness() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new JdbcChatJournalEntryRepository(
+                            jdbcTemplate, JdbcChatJournalOptions.builder().maxStaleness(null).build()))
+                    .withMessage("maxStaleness must not be null");
+        }
+
+        @Test
+        void shouldRejectNegativeMaxStaleness() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new JdbcChatJournalEntryRepository(
+                            jdbcTemplate, JdbcChatJournalOptions.builder().maxStaleness(Duration.ofSeconds(-1)).build()))
+                    .withMessage("maxStaleness must not be negative");
+        }
+    }
+
+    @Nested
+    class EncodedContent {
+
+        private static final String LONG_CONTENT = "A pasted document that repeats itself. ".repeat(200);
+
+        private final DeflateChatJournalContentCodec codec = new DeflateChatJournalContentCodec();
+
+        private EmbeddedDatabase database;
+        private JdbcTemplate binaryJdbcTemplate;
+        private JdbcChatJournalEntryRepository encoded;
+
+        @BeforeEach
+        void setUp() {
+            database = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("schema-h2-compressed.sql")
+                    .build();
+            binaryJdbcTemplate = new JdbcTemplate(database);
+            encoded = new JdbcChatJournalEntryRepository(
+                    binaryJdbcTemplate, JdbcChatJournalOptions.builder().contentCodec(codec).build());
+        }
+
+        @AfterEach
+        void tearDown() {
+            database.shutdown();
+        }
+
+        @Test
+        void shouldStoreLongContentDeflated() {
+            encoded.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", LONG_CONTENT, 1000)));
+
+            byte[] stored = binaryJdbcTemplate.queryForObject("SELECT content FROM chat_journal", byte[].class);
+            assertThat(stored[0]).isEqualTo(DeflateChatJournalContentCodec.FORMAT_DEFLATE);
+            assertThat(stored.length).isLessThan(LONG_CONTENT.length() / 5);
+        }
+
+        @Test
+        void shouldRoundTripContentThroughEveryRead() {
+            encoded.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "Short question", 3),
+                    new ChatJournalEntry(0, "ASSISTANT", LONG_CONTENT, 1000)
+            ));
+
+            assertThat(encoded.findAll(CONVERSATION_ID))
+                    .extracting(ChatJournalEntry::content)
+                    .containsExactly("Short question", LONG_CONTENT);
+            assertThat(encoded.findVisibleEntries(CONVERSATION_ID, 0, 1))
+                    .extracting(ChatJournalEntry::content)
+                    .containsExactly(LONG_CONTENT);
+            List<String> streamed = new ArrayList<>();
+            encoded.forEachEntryAfterIndex(CONVERSATION_ID, -1, entry -> streamed.add(entry.content()));
+            assertThat(streamed).containsExactly("Short question", LONG_CONTENT);
+            assertThat(encoded.sumTokens(CONVERSATION_ID)).isEqualTo(1003);
+        }
+
+        @Test
+        void shouldDecodeCheckpointSummaryInContext() {
+            encoded.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "First", 3),
+                    new ChatJournalEntry(0, "ASSISTANT", LONG_CONTENT, 1000)
+            ));
+            long firstIndex = encoded.findAll(CONVERSATION_ID).getFirst().messageIndex();
+            JdbcChatJournalCheckpointRepository checkpoints = new JdbcChatJournalCheckpointRepository(binaryJdbcTemplate, codec);
+            checkpoints.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(firstIndex, LONG_CONTENT, 50));
+
+            ChatJournalContext context = encoded.findContext(CONVERSATION_ID, checkpoints);
+
+            assertThat(context.findCheckpoint()).map(ChatJournalCheckpoint::summary).contains(LONG_CONTENT);
+            assertThat(context.entries()).extracting(ChatJournalEntry::content).containsExactly(LONG_CONTENT);
+        }
+
+        @Test
+        void shouldReadContentWrittenByBatchWriter() {
+            new JdbcChatJournalBatchWriter(binaryJdbcTemplate, codec)
+                    .saveAll(Map.of(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", LONG_CONTENT, 1000))));
+
+            assertThat(encoded.findAll(CONVERSATION_ID))
+                    .extracting(ChatJournalEntry::content)
+                    .containsExactly(LONG_CONTENT);
+        }
+    }
+
+    @Nested
+    class TokenEncoding {
+
+        private List<String> storedEncodings() {
+            return jdbcTemplate.queryForList(
+                    "SELECT token_encoding FROM chat_journal WHERE conversation_id = ? ORDER BY message_index",
+                    String.class, CONVERSATION_ID);
+        }
+
+        @Test
+        void shouldRecordTokenEncodingWhenConfigured() {
+            JdbcChatJournalEntryRepository recording = new JdbcChatJournalEntryRepository(
+                    jdbcTemplate, JdbcChatJournalOptions.builder().tokenEncoding("o200k_base").build());
+
+            recording.save(CONVERSATION_ID, List.of(
+                    new ChatJournalEntry(0, "USER", "Hello", 5),
+                    new ChatJournalEntry(0, "ASSISTANT", "Hi", 3)
+            ));
+
+            assertThat(storedEncodings()).containsExactly("o200k_base", "o200k_base");
+            assertThat(recording.findAll(CONVERSATION_ID)).extracting(ChatJournalEntry::content).containsExactly("Hello", "Hi");
+        }
+
+        @Test
+        void shouldLeaveTokenEncodingUnsetByDefault() {
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "Hello", 5)));
+
+            assertThat(storedEncodings()).containsExactly((String) null);
+        }
+    }
+
     @Nested
     class ConstructorValidation {
 
@@ -309,6 +936,29 @@ class JdbcChatJournalEntryRepositoryTest {
                     .isThrownBy(() -> new JdbcChatJournalEntryRepository(null))
                     .withMessage("jdbcTemplate must not be null");
         }
+
+        @Test
+        void shouldRejectNullOptions() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new JdbcChatJournalEntryRepository(jdbcTemplate, null))
+                    .withMessage("options must not be null");
+        }
+
+        @Test
+        void shouldRejectNullReclaimPolicy() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new JdbcChatJournalEntryRepository(
+                            jdbcTemplate, JdbcChatJournalOptions.builder().reclaimPolicy(null).build()))
+                    .withMessage("reclaimPolicy must not be null");
+        }
+
+        @Test
+        void shouldRejectNonPositiveFetchSize() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new JdbcChatJournalEntryRepository(
+                            jdbcTemplate, JdbcChatJournalOptions.builder().fetchSize(0).build()))
+                    .withMessage("fetchSize must be positive");
+        }
     }
 
     @Nested
@@ -335,6 +985,21 @@ class JdbcChatJournalEntryRepositoryTest {
                     .withMessage("entries must not be null");
         }
 
+        @Test
+        void forEachEntryAfterIndexShouldRejectNullVisitor() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> repository.forEachEntryAfterIndex(CONVERSATION_ID, -1, null))
+                    .withMessage("visitor must not be null");
+        }
+
+        @Test
+        void forEachEntryAfterIndexShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.forEachEntryAfterIndex("", -1, entry -> {
+                    }))
+                    .withMessage("conversationId must not be empty");
+        }
+
         @Test
         void findAllShouldRejectNullConversationId() {
             assertThatNullPointerException()
@@ -349,6 +1014,62 @@ class JdbcChatJournalEntryRepositoryTest {
                     .withMessage("conversationId must not be empty");
         }
 
+        @Test
+        void countEntriesShouldRejectNullConversationId() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> repository.countEntries(null))
+                    .withMessage("conversationId must not be null");
+        }
+
+        @Test
+        void countEntriesShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.countEntries(""))
+                    .withMessage("conversationId must not be empty");
+        }
+
+        @Test
+        void getEffectiveTokensShouldRejectNullConversationId() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> repository.getEffectiveTokens(null, new JdbcChatJournalCheckpointRepository(jdbcTemplate)))
+                    .withMessage("conversationId must not be null");
+        }
+
+        @Test
+        void getEffectiveTokensShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.getEffectiveTokens("", new JdbcChatJournalCheckpointRepository(jdbcTemplate)))
+                    .withMessage("conversationId must not be empty");
+        }
+
+        @Test
+        void findEntriesInRangeShouldRejectNullConversationId() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> repository.findEntriesInRange(null, 0, 1))
+                    .withMessage("conversationId must not be null");
+        }
+
+        @Test
+        void findEntryTokensAfterIndexShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.findEntryTokensAfterIndex("", 0))
+                    .withMessage("conversationId must not be empty");
+        }
+
+        @Test
+        void findContextShouldRejectNullConversationId() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> repository.findContext(null, new JdbcChatJournalCheckpointRepository(jdbcTemplate)))
+                    .withMessage("conversationId must not be null");
+        }
+
+        @Test
+        void findContextShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.findContext("", new JdbcChatJournalCheckpointRepository(jdbcTemplate)))
+                    .withMessage("conversationId must not be empty");
+        }
+
         @Test
         void sumTokensShouldRejectNullConversationId() {
             assertThatNullPointerException()
@@ -397,5 +1118,19 @@ class JdbcChatJournalEntryRepositoryTest {
                     .isThrownBy(() -> repository.findVisibleEntries(CONVERSATION_ID, 0, -1))
                     .withMessage("limit must be positive");
         }
+
+        @Test
+        void findVisibleEntriesBeforeShouldRejectZeroLimit() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.findVisibleEntriesBefore(CONVERSATION_ID, 10, 0))
+                    .withMessage("limit must be positive");
+        }
+
+        @Test
+        void findVisibleEntriesBeforeShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.findVisibleEntriesBefore("", 10, 10))
+                    .withMessage("conversationId must not be empty");
+        }
     }
 }
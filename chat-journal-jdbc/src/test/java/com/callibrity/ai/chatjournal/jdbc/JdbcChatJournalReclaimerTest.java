@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+@JdbcTest
+@Sql("/schema-h2.sql")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcChatJournalReclaimerTest {
+
+    private static final String CONVERSATION_ID = "test-conversation";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcChatJournalEntryRepository repository;
+    private JdbcChatJournalCheckpointRepository checkpointRepository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new JdbcChatJournalEntryRepository(
+                jdbcTemplate, JdbcChatJournalOptions.builder().reclaimPolicy(ChatJournalReclaimPolicy.ARCHIVE).build());
+        checkpointRepository = new JdbcChatJournalCheckpointRepository(jdbcTemplate);
+        jdbcTemplate.update("DELETE FROM chat_journal_checkpoint");
+        jdbcTemplate.update("DELETE FROM chat_journal_conversation");
+        jdbcTemplate.update("DELETE FROM chat_journal_archive");
+        jdbcTemplate.update("DELETE FROM chat_journal");
+    }
+
+    private List<ChatJournalEntry> saveEntries(String conversationId, int count) {
+        repository.save(conversationId, IntStream.range(0, count)
+                .mapToObj(i -> new ChatJournalEntry(0, i % 2 == 0 ? "USER" : "ASSISTANT", "Message " + i, 10))
+                .toList());
+        return repository.findAll(conversationId);
+    }
+
+    private void checkpointAt(String conversationId, ChatJournalEntry entry) {
+        checkpointRepository.saveCheckpoint(conversationId, new ChatJournalCheckpoint(entry.messageIndex(), "Summary", 5));
+    }
+
+    private int hotRows(String conversationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chat_journal WHERE conversation_id = ?", Integer.class, conversationId);
+    }
+
+    private int archivedRows(String conversationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM chat_journal_archive WHERE conversation_id = ?", Integer.class, conversationId);
+    }
+
+    @Nested
+    class ConstructorValidation {
+
+        @Test
+        void shouldRejectNullJdbcTemplate() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new JdbcChatJournalReclaimer(null, ChatJournalReclaimPolicy.ARCHIVE))
+                    .withMessage("jdbcTemplate must not be null");
+        }
+
+        @Test
+        void shouldRejectKeepPolicy() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.KEEP))
+                    .withMessage("policy must be ARCHIVE or DELETE");
+        }
+
+        @Test
+        void shouldRejectNonPositiveBatchSize() {
+            Duration pause = Duration.ZERO;
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.DELETE, 0, pause))
+                    .withMessage("batchSize must be positive");
+        }
+
+        @Test
+        void shouldRejectNegativeBatchPause() {
+            Duration pause = Duration.ofMillis(-1);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.DELETE, 10, pause))
+                    .withMessage("batchPause must not be negative");
+        }
+    }
+
+    @Nested
+    class Archive {
+
+        @Test
+        void shouldMoveEntriesUpToTheCheckpointToTheArchive() {
+            List<ChatJournalEntry> entries = saveEntries(CONVERSATION_ID, 6);
+            checkpointAt(CONVERSATION_ID, entries.get(3));
+
+            int reclaimed = new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.ARCHIVE).sweep();
+
+            assertThat(reclaimed).isEqualTo(4);
+            assertThat(hotRows(CONVERSATION_ID)).isEqualTo(2);
+            assertThat(archivedRows(CONVERSATION_ID)).isEqualTo(4);
+        }
+
+        @Test
+        void shouldKeepHistoryReadsComplete() {
+            List<ChatJournalEntry> entries = saveEntries(CONVERSATION_ID, 6);
+            checkpointAt(CONVERSATION_ID, entries.get(3));
+
+            new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.ARCHIVE).sweep();
+
+            assertThat(repository.findAll(CONVERSATION_ID)).isEqualTo(entries);
+            assertThat(repository.findVisibleEntries(CONVERSATION_ID, 0, 10)).hasSize(6);
+            assertThat(repository.findVisibleEntriesBefore(CONVERSATION_ID, entries.get(2).messageIndex(), 10))
+                    .containsExactly(entries.get(1), entries.get(0));
+            assertThat(repository.countVisibleEntries(CONVERSATION_ID)).isEqualTo(6);
+            assertThat(repository.sumTokens(CONVERSATION_ID)).isEqualTo(60);
+            assertThat(repository.sumTokensAfterIndex(CONVERSATION_ID, entries.get(0).messageIndex())).isEqualTo(50);
+        }
+
+        @Test
+        void shouldLeaveChatMemoryReadsAndStatisticsUnchanged() {
+            List<ChatJournalEntry> entries = saveEntries(CONVERSATION_ID, 6);
+            checkpointAt(CONVERSATION_ID, entries.get(3));
+            int effectiveTokens = repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository);
+
+            new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.ARCHIVE).sweep();
+
+            assertThat(repository.findContext(CONVERSATION_ID, checkpointRepository).entries()).containsExactly(entries.get(4), entries.get(5));
+            assertThat(repository.countEntries(CONVERSATION_ID)).isEqualTo(6);
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(effectiveTokens);
+        }
+
+        @Test
+        void shouldDeleteArchivedEntriesWithTheConversation() {
+            List<ChatJournalEntry> entries = saveEntries(CONVERSATION_ID, 4);
+            checkpointAt(CONVERSATION_ID, entries.get(1));
+            new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.ARCHIVE).sweep();
+
+            repository.deleteAll(CONVERSATION_ID);
+
+            assertThat(archivedRows(CONVERSATION_ID)).isZero();
+            assertThat(repository.findAll(CONVERSATION_ID)).isEmpty();
+        }
+    }
+
+    @Nested
+    class Delete {
+
+        @Test
+        void shouldDeleteEntriesUpToTheCheckpoint() {
+            List<ChatJournalEntry> entries = saveEntries(CONVERSATION_ID, 6);
+            checkpointAt(CONVERSATION_ID, entries.get(3));
+
+            int reclaimed = new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.DELETE).sweep();
+
+            assertThat(reclaimed).isEqualTo(4);
+            assertThat(hotRows(CONVERSATION_ID)).isEqualTo(2);
+            assertThat(archivedRows(CONVERSATION_ID)).isZero();
+            assertThat(repository.findContext(CONVERSATION_ID, checkpointRepository).entries()).containsExactly(entries.get(4), entries.get(5));
+        }
+    }
+
+    @Nested
+    class Sweeping {
+
+        @Test
+        void shouldReclaimInBatchesAcrossConversations() {
+            List<ChatJournalEntry> first = saveEntries("conversation-1", 7);
+            List<ChatJournalEntry> second = saveEntries("conversation-2", 3);
+            List<ChatJournalEntry> third = saveEntries("conversation-3", 5);
+            checkpointAt("conversation-1", first.get(5));
+            checkpointAt("conversation-2", second.get(0));
+            checkpointAt("conversation-3", third.get(4));
+
+            int reclaimed = new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.ARCHIVE, 2, Duration.ofMillis(1)).sweep();
+
+            assertThat(reclaimed).isEqualTo(12);
+            assertThat(hotRows("conversation-1")).isEqualTo(1);
+            assertThat(hotRows("conversation-2")).isEqualTo(2);
+            assertThat(hotRows("conversation-3")).isZero();
+            assertThat(repository.findAll("conversation-1")).isEqualTo(first);
+        }
+
+        @Test
+        void shouldIgnoreConversationsWithoutCheckpoints() {
+            saveEntries(CONVERSATION_ID, 4);
+
+            int reclaimed = new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.DELETE).sweep();
+
+            assertThat(reclaimed).isZero();
+            assertThat(hotRows(CONVERSATION_ID)).isEqualTo(4);
+        }
+
+        @Test
+        void shouldReclaimNothingOnASecondSweep() {
+            List<ChatJournalEntry> entries = saveEntries(CONVERSATION_ID, 4);
+            checkpointAt(CONVERSATION_ID, entries.get(2));
+            JdbcChatJournalReclaimer reclaimer = new JdbcChatJournalReclaimer(jdbcTemplate, ChatJournalReclaimPolicy.ARCHIVE);
+            reclaimer.sweep();
+
+            assertThat(reclaimer.sweep()).isZero();
+            assertThat(archivedRows(CONVERSATION_ID)).isEqualTo(3);
+        }
+
+        @Test
+        void shouldStopWhenInterrupted() {
+            List<ChatJournalEntry> entries = saveEntries(CONVERSATION_ID, 6);
+            checkpointAt(CONVERSATION_ID, entries.get(5));
+            JdbcChatJournalReclaimer reclaimer = new JdbcChatJournalReclaimer(
+                    jdbcTemplate, ChatJournalReclaimPolicy.DELETE, 2, Duration.ofSeconds(10));
+
+            Thread.currentThread().interrupt();
+            int reclaimed;
+            try {
+                reclaimed = reclaimer.sweep();
+            } finally {
+                assertThat(Thread.interrupted()).isTrue();
+            }
+
+            assertThat(reclaimed).isEqualTo(2);
+            assertThat(hotRows(CONVERSATION_ID)).isEqualTo(4);
+        }
+    }
+}
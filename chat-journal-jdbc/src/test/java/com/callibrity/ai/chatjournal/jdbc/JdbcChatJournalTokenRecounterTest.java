@@ -0,0 +1,323 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.DeflateChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.token.SimpleTokenUsageCalculator;
+import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+@JdbcTest
+@Sql("/schema-h2.sql")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcChatJournalTokenRecounterTest {
+
+    private static final String CONVERSATION_ID = "test-conversation";
+
+    // Twelve characters: 3 tokens at 4 characters per token, 6 at 2
+    private static final String CONTENT = "Message text";
+
+    private final TokenUsageCalculator previous = new SimpleTokenUsageCalculator(4);
+    private final TokenUsageCalculator current = new SimpleTokenUsageCalculator(2);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcChatJournalEntryRepository repository;
+    private JdbcChatJournalCheckpointRepository checkpointRepository;
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository = new JdbcChatJournalCheckpointRepository(jdbcTemplate);
+        repository = repositoryFor(jdbcTemplate, previous.encodingName());
+        jdbcTemplate.update("DELETE FROM chat_journal_checkpoint");
+        jdbcTemplate.update("DELETE FROM chat_journal_conversation");
+        jdbcTemplate.update("DELETE FROM chat_journal");
+    }
+
+    private static JdbcChatJournalEntryRepository repositoryFor(JdbcTemplate jdbcTemplate, String tokenEncoding) {
+        return new JdbcChatJournalEntryRepository(
+                jdbcTemplate, JdbcChatJournalOptions.builder().tokenEncoding(tokenEncoding).build());
+    }
+
+    private void saveEntries(String conversationId, int count) {
+        repository.save(conversationId, IntStream.range(0, count)
+                .mapToObj(i -> new ChatJournalEntry(0, i % 2 == 0 ? "USER" : "ASSISTANT", CONTENT, 3))
+                .toList());
+    }
+
+    private JdbcChatJournalTokenRecounter recounter(int batchSize) {
+        return new JdbcChatJournalTokenRecounter(jdbcTemplate, current, null, batchSize, Duration.ZERO, 2);
+    }
+
+    private List<String> storedEncodings() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT token_encoding FROM chat_journal", String.class);
+    }
+
+    @Nested
+    class ConstructorValidation {
+
+        @Test
+        void shouldRejectNullJdbcTemplate() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new JdbcChatJournalTokenRecounter(null, current))
+                    .withMessage("jdbcTemplate must not be null");
+        }
+
+        @Test
+        void shouldRejectNullTokenUsageCalculator() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new JdbcChatJournalTokenRecounter(jdbcTemplate, null))
+                    .withMessage("tokenUsageCalculator must not be null");
+        }
+
+        @Test
+        void shouldRejectCalculatorWithoutEncodingName() {
+            TokenUsageCalculator unnamed = messages -> 1;
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new JdbcChatJournalTokenRecounter(jdbcTemplate, unnamed))
+                    .withMessage("tokenUsageCalculator must report an encoding name");
+        }
+
+        @Test
+        void shouldRejectNonPositiveBatchSize() {
+            Duration pause = Duration.ZERO;
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new JdbcChatJournalTokenRecounter(jdbcTemplate, current, null, 0, pause, 0))
+                    .withMessage("batchSize must be positive");
+        }
+
+        @Test
+        void shouldRejectNegativeBatchPause() {
+            Duration pause = Duration.ofMillis(-1);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new JdbcChatJournalTokenRecounter(jdbcTemplate, current, null, 10, pause, 0))
+                    .withMessage("batchPause must not be negative");
+        }
+
+        @Test
+        void shouldRejectNegativeParallelism() {
+            Duration pause = Duration.ZERO;
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new JdbcChatJournalTokenRecounter(jdbcTemplate, current, null, 10, pause, -1))
+                    .withMessage("parallelism must not be negative");
+        }
+    }
+
+    @Nested
+    class Recount {
+
+        @Test
+        void shouldRecountEntriesCountedWithAnotherEncoding() {
+            saveEntries(CONVERSATION_ID, 5);
+
+            int recounted = recounter(2).recount();
+
+            assertThat(recounted).isEqualTo(5);
+            assertThat(repository.findAll(CONVERSATION_ID)).extracting(ChatJournalEntry::tokens).containsOnly(6);
+            assertThat(storedEncodings()).containsExactly("chars/2");
+        }
+
+        @Test
+        void shouldRecountEntriesOfUnknownEncoding() {
+            repositoryFor(jdbcTemplate, null).save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", CONTENT, 3)));
+
+            assertThat(recounter(10).recount()).isEqualTo(1);
+            assertThat(storedEncodings()).containsExactly("chars/2");
+        }
+
+        @Test
+        void shouldSkipEntriesAlreadyCountedWithTheEncoding() {
+            saveEntries(CONVERSATION_ID, 3);
+            repositoryFor(jdbcTemplate, current.encodingName())
+                    .save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", CONTENT, 6)));
+
+            assertThat(recounter(10).recount()).isEqualTo(3);
+            assertThat(recounter(10).recount()).isZero();
+        }
+
+        @Test
+        void shouldRecountEstimatesWithTheExactCalculator() {
+            TokenUsageCalculator estimating = new TokenUsageCalculator() {
+                @Override
+                public int calculateTokenUsage(List<Message> messages) {
+                    return 1;
+                }
+
+                @Override
+                public String encodingName() {
+                    return "chars/2+estimated";
+                }
+
+                @Override
+                public TokenUsageCalculator exactCalculator() {
+                    return current;
+                }
+            };
+            repositoryFor(jdbcTemplate, estimating.encodingName())
+                    .save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", CONTENT, 1)));
+            JdbcChatJournalTokenRecounter recounter =
+                    new JdbcChatJournalTokenRecounter(jdbcTemplate, estimating, null, 10, Duration.ZERO, 0);
+
+            assertThat(recounter.encodingName()).isEqualTo("chars/2");
+            assertThat(recounter.recount()).isEqualTo(1);
+            assertThat(repository.findAll(CONVERSATION_ID)).extracting(ChatJournalEntry::tokens).containsExactly(6);
+            assertThat(storedEncodings()).containsExactly("chars/2");
+        }
+
+        @Test
+        void shouldRecomputeEffectiveTokens() {
+            saveEntries(CONVERSATION_ID, 4);
+            saveEntries("other-conversation", 2);
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(12);
+
+            recounter(3).recount();
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(24);
+            assertThat(repository.getEffectiveTokens("other-conversation", checkpointRepository)).isEqualTo(12);
+        }
+
+        @Test
+        void shouldKeepCheckpointTokensInEffectiveTokens() {
+            saveEntries(CONVERSATION_ID, 4);
+            long checkpointIndex = repository.findAll(CONVERSATION_ID).get(1).messageIndex();
+            new JdbcChatJournalCheckpointRepository(jdbcTemplate)
+                    .saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(checkpointIndex, "Summary", 5));
+
+            recounter(10).recount();
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(5 + 6 + 6);
+        }
+
+        @Test
+        void shouldResumeAfterTheLastScannedIndex() {
+            saveEntries(CONVERSATION_ID, 4);
+            List<ChatJournalEntry> entries = repository.findAll(CONVERSATION_ID);
+            JdbcChatJournalTokenRecounter recounter = recounter(10);
+
+            int recounted = recounter.recount(entries.get(1).messageIndex());
+
+            assertThat(recounted).isEqualTo(2);
+            assertThat(recounter.lastMessageIndex()).isEqualTo(entries.getLast().messageIndex());
+            assertThat(repository.findAll(CONVERSATION_ID)).extracting(ChatJournalEntry::tokens).containsExactly(3, 3, 6, 6);
+        }
+
+        @Test
+        void shouldReportNoScannedIndexBeforeRecounting() {
+            JdbcChatJournalTokenRecounter recounter = recounter(10);
+
+            assertThat(recounter.recount()).isZero();
+            assertThat(recounter.lastMessageIndex()).isEqualTo(-1);
+            assertThat(recounter.encodingName()).isEqualTo("chars/2");
+        }
+
+        @Test
+        void shouldSkipRowsRecountedConcurrently() {
+            saveEntries(CONVERSATION_ID, 2);
+            AtomicBoolean raced = new AtomicBoolean();
+            TokenUsageCalculator racing = new TokenUsageCalculator() {
+                @Override
+                public int calculateTokenUsage(List<Message> messages) {
+                    if (raced.compareAndSet(false, true)) {
+                        recounter(10).recount();
+                    }
+                    return current.calculateTokenUsage(messages);
+                }
+
+                @Override
+                public String encodingName() {
+                    return current.encodingName();
+                }
+            };
+
+            int recounted = new JdbcChatJournalTokenRecounter(jdbcTemplate, racing, null, 10, Duration.ZERO, 1).recount();
+
+            assertThat(recounted).isZero();
+            assertThat(repository.findAll(CONVERSATION_ID)).extracting(ChatJournalEntry::tokens).containsExactly(6, 6);
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(12);
+        }
+
+        @Test
+        void shouldStopWhenInterruptedBetweenBatches() {
+            saveEntries(CONVERSATION_ID, 4);
+            JdbcChatJournalTokenRecounter recounter =
+                    new JdbcChatJournalTokenRecounter(jdbcTemplate, current, null, 2, Duration.ofSeconds(10), 0);
+
+            Thread.currentThread().interrupt();
+            try {
+                assertThat(recounter.recount()).isEqualTo(2);
+                assertThat(Thread.currentThread().isInterrupted()).isTrue();
+            } finally {
+                Thread.interrupted();
+            }
+        }
+    }
+
+    @Nested
+    class EncodedContent {
+
+        @Test
+        void shouldDecodeContentBeforeRecounting() {
+            DeflateChatJournalContentCodec codec = new DeflateChatJournalContentCodec();
+            EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("schema-h2-compressed.sql")
+                    .build();
+            try {
+                JdbcTemplate binaryJdbcTemplate = new JdbcTemplate(database);
+                new JdbcChatJournalBatchWriter(binaryJdbcTemplate, codec)
+                        .saveAll(Map.of(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", CONTENT, 3))));
+
+                int recounted = new JdbcChatJournalTokenRecounter(binaryJdbcTemplate, current, codec, 10, Duration.ZERO, 0)
+                        .recount();
+
+                assertThat(recounted).isEqualTo(1);
+                assertThat(binaryJdbcTemplate.queryForObject("SELECT tokens FROM chat_journal", Integer.class)).isEqualTo(6);
+            } finally {
+                database.shutdown();
+            }
+        }
+    }
+}
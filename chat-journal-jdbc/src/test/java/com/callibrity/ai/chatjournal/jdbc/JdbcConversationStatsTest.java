@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@Sql("/schema-h2.sql")
+class JdbcConversationStatsTest {
+
+    private static final String CONVERSATION_ID = "conversation-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcConversationStats stats;
+    private JdbcChatJournalEntryRepository repository;
+    private JdbcChatJournalCheckpointRepository checkpointRepository;
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository = new JdbcChatJournalCheckpointRepository(jdbcTemplate);
+        stats = new JdbcConversationStats(jdbcTemplate);
+        repository = new JdbcChatJournalEntryRepository(jdbcTemplate);
+        jdbcTemplate.update("DELETE FROM chat_journal_checkpoint");
+        jdbcTemplate.update("DELETE FROM chat_journal_conversation");
+        jdbcTemplate.update("DELETE FROM chat_journal");
+    }
+
+    @Test
+    void shouldInitializeMissingRowIncludingEarlierEntries() {
+        insertEntry(CONVERSATION_ID, 10);
+        insertEntry(CONVERSATION_ID, 15);
+
+        stats.recordSave(CONVERSATION_ID, 1, 15);
+
+        assertThat(entryCount(CONVERSATION_ID)).isEqualTo(2);
+        assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(25);
+    }
+
+    @Test
+    void shouldInitializeMissingRowsAndIncrementExistingOnesInBatch() {
+        repository.save("conversation-1", List.of(new ChatJournalEntry(0, "USER", "One", 10)));
+        insertEntry("conversation-1", 15);
+        insertEntry("conversation-2", 20);
+
+        stats.recordSaves(List.of(
+                new JdbcConversationStats.Delta("conversation-1", 1, 15),
+                new JdbcConversationStats.Delta("conversation-2", 1, 20)));
+
+        assertThat(entryCount("conversation-1")).isEqualTo(2);
+        assertThat(repository.getEffectiveTokens("conversation-1", checkpointRepository)).isEqualTo(25);
+        assertThat(entryCount("conversation-2")).isEqualTo(1);
+        assertThat(repository.getEffectiveTokens("conversation-2", checkpointRepository)).isEqualTo(20);
+    }
+
+    @Test
+    void shouldLeaveRowCreatedByConcurrentSaveInPlace() {
+        insertEntry(CONVERSATION_ID, 10);
+        jdbcTemplate.update("INSERT INTO chat_journal_conversation (conversation_id, entry_count, effective_tokens) VALUES (?, 1, 10)",
+                CONVERSATION_ID);
+
+        int inserted = new NamedParameterJdbcTemplate(jdbcTemplate).update(JdbcDialect.H2.conversationInsertSql(),
+                new MapSqlParameterSource()
+                        .addValue("conversationId", CONVERSATION_ID)
+                        .addValue("entryCount", 1)
+                        .addValue("tokens", 10));
+
+        assertThat(inserted).isZero();
+        assertThat(entryCount(CONVERSATION_ID)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyIncrementAfterInitializingToTotalsLessTheSave() {
+        insertEntry(CONVERSATION_ID, 10);
+
+        new NamedParameterJdbcTemplate(jdbcTemplate).update(JdbcDialect.H2.conversationInsertSql(),
+                new MapSqlParameterSource()
+                        .addValue("conversationId", CONVERSATION_ID)
+                        .addValue("entryCount", 1)
+                        .addValue("tokens", 10));
+
+        assertThat(entryCount(CONVERSATION_ID)).isZero();
+        assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isZero();
+    }
+
+    @Test
+    void shouldRecomputeEffectiveTokensAfterLockingRow() {
+        repository.save(CONVERSATION_ID, List.of(
+                new ChatJournalEntry(0, "USER", "One", 10),
+                new ChatJournalEntry(0, "ASSISTANT", "Two", 15)));
+        long firstIndex = repository.findAll(CONVERSATION_ID).getFirst().messageIndex();
+        jdbcTemplate.update("INSERT INTO chat_journal_checkpoint (conversation_id, checkpoint_index, summary, tokens) VALUES (?, ?, 'Summary', 5)",
+                CONVERSATION_ID, firstIndex);
+
+        stats.recomputeEffectiveTokens(CONVERSATION_ID);
+
+        assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(20);
+    }
+
+    @Test
+    void shouldInitializeMissingRowWhenLocking() {
+        insertEntry(CONVERSATION_ID, 10);
+
+        stats.lock(CONVERSATION_ID);
+
+        assertThat(entryCount(CONVERSATION_ID)).isEqualTo(1);
+        assertThat(repository.getEffectiveTokens(CONVERSATION_ID, checkpointRepository)).isEqualTo(10);
+    }
+
+    private void insertEntry(String conversationId, int tokens) {
+        jdbcTemplate.update("INSERT INTO chat_journal (conversation_id, message_type, content, tokens) VALUES (?, 'USER', 'Hello', ?)",
+                conversationId, tokens);
+    }
+
+    private Integer entryCount(String conversationId) {
+        return jdbcTemplate.queryForObject("SELECT entry_count FROM chat_journal_conversation WHERE conversation_id = ?",
+                Integer.class, conversationId);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JdbcDialectTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "PostgreSQL, POSTGRESQL",
+            "H2, H2",
+            "MySQL, MYSQL",
+            "MariaDB, MARIADB",
+            "Oracle, ORACLE",
+            "Microsoft SQL Server, SQLSERVER",
+            "Apache Derby, GENERIC"
+    })
+    void shouldMapDatabaseProductName(String productName, JdbcDialect expected) {
+        assertThat(JdbcDialect.fromDatabaseProductName(productName)).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldMapNullProductNameToGeneric() {
+        assertThat(JdbcDialect.fromDatabaseProductName(null)).isEqualTo(JdbcDialect.GENERIC);
+    }
+
+    @Test
+    void shouldDetectDialectFromDataSource() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:dialect-test", "sa", "");
+
+        assertThat(JdbcDialect.detect(dataSource)).isEqualTo(JdbcDialect.H2);
+    }
+
+    @Test
+    void shouldFailWhenMetadataCannotBeRead() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("unavailable"));
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> JdbcDialect.detect(dataSource))
+                .withMessage("Unable to detect database dialect");
+    }
+
+    @Test
+    void shouldRejectNullDataSource() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> JdbcDialect.detect(null))
+                .withMessage("dataSource must not be null");
+    }
+
+    @Test
+    void shouldProvideUpsertForEveryDialectExceptGeneric() {
+        for (JdbcDialect dialect : JdbcDialect.values()) {
+            if (dialect == JdbcDialect.GENERIC) {
+                assertThat(dialect.checkpointUpsertSql()).isNull();
+            } else {
+                assertThat(dialect.checkpointUpsertSql()).contains("chat_journal_checkpoint");
+            }
+        }
+    }
+
+    @Test
+    void shouldProvideConversationInsertForEveryDialectExceptGeneric() {
+        for (JdbcDialect dialect : JdbcDialect.values()) {
+            if (dialect == JdbcDialect.GENERIC) {
+                assertThat(dialect.conversationInsertSql()).isNull();
+            } else {
+                assertThat(dialect.conversationInsertSql()).contains("chat_journal_conversation");
+            }
+        }
+    }
+
+    @Test
+    void shouldLockConversationRowWithDialectSyntax() {
+        for (JdbcDialect dialect : JdbcDialect.values()) {
+            if (dialect == JdbcDialect.SQLSERVER) {
+                assertThat(dialect.conversationLockSql()).contains("WITH (UPDLOCK, ROWLOCK)");
+            } else {
+                assertThat(dialect.conversationLockSql()).endsWith("FOR UPDATE");
+            }
+        }
+    }
+
+    @Test
+    void shouldReturnBatchGeneratedKeysOnlyWhereDriversSupportIt() {
+        assertThat(JdbcDialect.values())
+                .filteredOn(JdbcDialect::batchGeneratedKeys)
+                .containsExactlyInAnyOrder(JdbcDialect.POSTGRESQL, JdbcDialect.H2, JdbcDialect.MYSQL, JdbcDialect.MARIADB);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares query latency on H2 with the original single-column {@code conversation_id} index
+ * against the composite {@code (conversation_id, message_index, ...)} index.
+ *
+ * <p>Disabled by default; run with {@code mvn test -pl chat-journal-jdbc -Dtest=JdbcIndexBenchmarkTest
+ * -Dchat.journal.benchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "chat.journal.benchmark", matches = "true")
+class JdbcIndexBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcIndexBenchmarkTest.class);
+
+    private static final int CONVERSATIONS = 200;
+    private static final int ENTRIES_PER_CONVERSATION = 500;
+    private static final int ITERATIONS = 2_000;
+    private static final String CONVERSATION_ID = "conversation-" + (CONVERSATIONS / 2);
+
+    @Test
+    void compareSingleColumnAndCompositeIndexes() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:chat-journal-index-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        JdbcChatJournalEntryRepository repository = new JdbcChatJournalEntryRepository(jdbcTemplate);
+
+        new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).execute(dataSource);
+        populate(repository);
+        long midpoint = repository.findAll(CONVERSATION_ID).get(ENTRIES_PER_CONVERSATION / 2).messageIndex();
+
+        jdbcTemplate.execute("DROP INDEX idx_chat_journal_conversation_message");
+        jdbcTemplate.execute("CREATE INDEX idx_chat_journal_conversation_id ON chat_journal (conversation_id)");
+        Map<String, Double> singleColumn = measure(repository, midpoint);
+
+        new ResourceDatabasePopulator(new ClassPathResource("upgrade/upgrade-composite-index-h2.sql")).execute(dataSource);
+        Map<String, Double> composite = measure(repository, midpoint);
+
+        StringBuilder report = new StringBuilder(String.format("%n%-28s %14s %14s%n", "query", "single (us)", "composite (us)"));
+        singleColumn.forEach((query, micros) ->
+                report.append(String.format("%-28s %14.1f %14.1f%n", query, micros, composite.get(query))));
+        log.info("{} conversations x {} entries, {} iterations:{}",
+                CONVERSATIONS, ENTRIES_PER_CONVERSATION, ITERATIONS, report);
+
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    private static void populate(JdbcChatJournalEntryRepository repository) {
+        for (int c = 0; c < CONVERSATIONS; c++) {
+            List<ChatJournalEntry> entries = new ArrayList<>(ENTRIES_PER_CONVERSATION);
+            for (int i = 0; i < ENTRIES_PER_CONVERSATION; i++) {
+                entries.add(new ChatJournalEntry(0, i % 2 == 0 ? "USER" : "ASSISTANT", "Message " + i, 10 + i % 7));
+            }
+            repository.save("conversation-" + c, entries);
+        }
+    }
+
+    private static Map<String, Double> measure(JdbcChatJournalEntryRepository repository, long midpoint) {
+        Map<String, Double> results = new LinkedHashMap<>();
+        results.put("sumTokensAfterIndex", time(() -> repository.sumTokensAfterIndex(CONVERSATION_ID, midpoint)));
+        results.put("countVisibleEntries", time(() -> repository.countVisibleEntries(CONVERSATION_ID)));
+        results.put("findEntryTokensAfterIndex", time(() -> repository.findEntryTokensAfterIndex(CONVERSATION_ID, midpoint)));
+        results.put("findVisibleEntriesBefore", time(() -> repository.findVisibleEntriesBefore(CONVERSATION_ID, midpoint, 50)));
+        return results;
+    }
+
+    private static double time(Runnable query) {
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            query.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.run();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@Sql("/schema-h2.sql")
+class JdbcSchemaIndexTest {
+
+    private static final String COMPOSITE_INDEX = "IDX_CHAT_JOURNAL_CONVERSATION_MESSAGE";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void sumTokensAfterIndexShouldBeAnsweredFromCompositeIndex() {
+        String plan = explain("SELECT COALESCE(SUM(tokens), 0) FROM chat_journal WHERE conversation_id = 'c' AND message_index > 10");
+
+        assertThat(plan).contains(COMPOSITE_INDEX);
+    }
+
+    @Test
+    void countVisibleEntriesShouldBeAnsweredFromCompositeIndex() {
+        String plan = explain("SELECT COUNT(*) FROM chat_journal WHERE conversation_id = 'c' AND message_type IN ('USER', 'ASSISTANT')");
+
+        assertThat(plan).contains(COMPOSITE_INDEX);
+    }
+
+    @Test
+    void visibleEntriesBeforeShouldSeekOnCompositeIndex() {
+        String plan = explain("SELECT message_index, message_type, content, tokens FROM chat_journal WHERE conversation_id = 'c' AND message_type IN ('USER', 'ASSISTANT') AND message_index < 10 ORDER BY message_index DESC LIMIT 5");
+
+        assertThat(plan).contains(COMPOSITE_INDEX);
+    }
+
+    @Test
+    void upgradeScriptShouldReplaceSingleColumnIndex() {
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_chat_journal_conversation_message");
+        jdbcTemplate.execute("CREATE INDEX idx_chat_journal_conversation_id ON chat_journal (conversation_id)");
+
+        new ResourceDatabasePopulator(new ClassPathResource("upgrade/upgrade-composite-index-h2.sql")).execute(dataSource);
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_name = 'CHAT_JOURNAL'", String.class))
+                .contains(COMPOSITE_INDEX)
+                .doesNotContain("IDX_CHAT_JOURNAL_CONVERSATION_ID");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
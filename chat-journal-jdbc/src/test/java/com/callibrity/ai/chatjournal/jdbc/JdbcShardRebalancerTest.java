@@ -0,0 +1,291 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jdbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ChatJournalReclaimPolicy;
+import com.callibrity.ai.chatjournal.repository.ChatJournalShard;
+import com.callibrity.ai.chatjournal.repository.ConsistentHashRing;
+import com.callibrity.ai.chatjournal.repository.ShardedChatJournalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class JdbcShardRebalancerTest {
+
+    private static final int CONVERSATIONS = 30;
+
+    private final Map<String, EmbeddedDatabase> databases = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("a", "b", "c")) {
+            databases.put(name, new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("schema-h2.sql")
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        databases.values().forEach(EmbeddedDatabase::shutdown);
+    }
+
+    @Test
+    void shouldMoveOnlyConversationsOwnedByAddedShard() {
+        ShardedChatJournalRepository before = sharded("a", "b");
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            before.save("conversation-" + i, List.of(
+                    new ChatJournalEntry(0, "USER", "Question " + i, 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Answer " + i, 20)
+            ));
+        }
+        ShardedChatJournalRepository after = sharded("a", "b", "c");
+        long expectedMoves = IntStream.range(0, CONVERSATIONS)
+                .filter(i -> after.shardNameFor("conversation-" + i).equals("c"))
+                .count();
+
+        int migrated = rebalancer("a", "b", "c").rebalance();
+
+        assertThat(migrated).isEqualTo(expectedMoves).isPositive();
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            assertThat(after.findAll("conversation-" + i))
+                    .extracting(ChatJournalEntry::content)
+                    .containsExactly("Question " + i, "Answer " + i);
+            assertThat(after.countEntries("conversation-" + i)).isEqualTo(2);
+        }
+        assertThat(countRows("a") + countRows("b")).isEqualTo(2 * (CONVERSATIONS - expectedMoves));
+        assertThat(countRows("c")).isEqualTo(2 * expectedMoves);
+    }
+
+    @Test
+    void shouldRemapCheckpointToSamePositionOnNewShard() {
+        String conversationId = conversationOwnedBy("c");
+        ShardedChatJournalRepository before = sharded("a", "b");
+        before.save(conversationId, List.of(
+                new ChatJournalEntry(0, "USER", "One", 10),
+                new ChatJournalEntry(0, "ASSISTANT", "Two", 10),
+                new ChatJournalEntry(0, "USER", "Three", 10)
+        ));
+        long secondIndex = before.findAll(conversationId).get(1).messageIndex();
+        before.saveCheckpoint(conversationId, new ChatJournalCheckpoint(secondIndex, "Summary", 5));
+        // Skew the new shard's identity sequence so indexes cannot line up by accident.
+        sharded("c").save(conversationOwnedBy("c", 1), List.of(new ChatJournalEntry(0, "USER", "Filler", 1)));
+
+        rebalancer("a", "b", "c").rebalance();
+
+        ShardedChatJournalRepository after = sharded("a", "b", "c");
+        assertThat(after.findContext(conversationId, after).entries())
+                .extracting(ChatJournalEntry::content)
+                .containsExactly("Three");
+        assertThat(after.findContext(conversationId, after).checkpoint().summary()).isEqualTo("Summary");
+        assertThat(after.getEffectiveTokens(conversationId, after)).isEqualTo(15);
+    }
+
+    @Test
+    void shouldKeepEntriesWrittenToNewShardAfterMigratedOnes() {
+        String conversationId = conversationOwnedBy("c");
+        sharded("a", "b").save(conversationId, List.of(new ChatJournalEntry(0, "USER", "Old", 10)));
+        ShardedChatJournalRepository after = sharded("a", "b", "c");
+        after.save(conversationId, List.of(new ChatJournalEntry(0, "USER", "New", 10)));
+
+        rebalancer("a", "b", "c").rebalance();
+
+        assertThat(after.findAll(conversationId))
+                .extracting(ChatJournalEntry::content)
+                .containsExactly("Old", "New");
+        assertThat(after.countEntries(conversationId)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFinishInterruptedMigrationWithoutDuplicating() {
+        String conversationId = conversationOwnedBy("c");
+        ShardedChatJournalRepository before = sharded("a", "b");
+        List<ChatJournalEntry> entries = List.of(new ChatJournalEntry(0, "USER", "Hello", 10));
+        before.save(conversationId, entries);
+        rebalancer("a", "b", "c").rebalance();
+        // Simulate a run that copied the conversation but died before deleting the original.
+        before.save(conversationId, entries);
+
+        int migrated = rebalancer("a", "b", "c").rebalance();
+
+        assertThat(migrated).isEqualTo(1);
+        assertThat(before.findAll(conversationId)).isEmpty();
+        assertThat(sharded("a", "b", "c").findAll(conversationId)).hasSize(1);
+    }
+
+    @Test
+    void shouldMigrateArchivedEntriesWithArchivePolicy() {
+        String conversationId = conversationOwnedBy("c");
+        ShardedChatJournalRepository before = sharded(ChatJournalReclaimPolicy.ARCHIVE, "a", "b");
+        before.save(conversationId, List.of(
+                new ChatJournalEntry(0, "USER", "One", 10),
+                new ChatJournalEntry(0, "ASSISTANT", "Two", 10),
+                new ChatJournalEntry(0, "USER", "Three", 10)
+        ));
+        long secondIndex = before.findAll(conversationId).get(1).messageIndex();
+        before.saveCheckpoint(conversationId, new ChatJournalCheckpoint(secondIndex, "Summary", 5));
+        String source = before.shardNameFor(conversationId);
+        new JdbcChatJournalReclaimer(new JdbcTemplate(databases.get(source)), ChatJournalReclaimPolicy.ARCHIVE).sweep();
+        sharded("c").save(conversationOwnedBy("c", 1), List.of(new ChatJournalEntry(0, "USER", "Filler", 1)));
+
+        int migrated = rebalancer(ChatJournalReclaimPolicy.ARCHIVE, "a", "b", "c").rebalance();
+
+        assertThat(migrated).isEqualTo(1);
+        ShardedChatJournalRepository after = sharded(ChatJournalReclaimPolicy.ARCHIVE, "a", "b", "c");
+        assertThat(after.findAll(conversationId))
+                .extracting(ChatJournalEntry::content)
+                .containsExactly("One", "Two", "Three");
+        assertThat(after.findContext(conversationId, after).entries())
+                .extracting(ChatJournalEntry::content)
+                .containsExactly("Three");
+        assertThat(after.findContext(conversationId, after).checkpoint().summary()).isEqualTo("Summary");
+        assertThat(countRows("c", "chat_journal_archive")).isEqualTo(2);
+        assertThat(countRows(source, "chat_journal_archive")).isZero();
+    }
+
+    @Test
+    void shouldServeConversationFromPreviousShardUntilMigrated() {
+        String conversationId = conversationOwnedBy("c");
+        ShardedChatJournalRepository before = sharded("a", "b");
+        before.save(conversationId, List.of(new ChatJournalEntry(0, "USER", "Old", 10)));
+        Map<String, ChatJournalShard> shards = shards(ChatJournalReclaimPolicy.KEEP, "a", "b", "c");
+        ShardedChatJournalRepository migrating = new ShardedChatJournalRepository(new ConsistentHashRing<>(shards),
+                new ConsistentHashRing<>(Map.of("a", shards.get("a"), "b", shards.get("b"))));
+
+        migrating.save(conversationId, List.of(new ChatJournalEntry(0, "USER", "New", 10)));
+
+        assertThat(migrating.findAll(conversationId))
+                .extracting(ChatJournalEntry::content)
+                .containsExactly("Old", "New");
+        assertThat(countRows("c")).isZero();
+
+        rebalancer("a", "b", "c").rebalance();
+
+        assertThat(countRows("c")).isEqualTo(2);
+        assertThat(migrating.findAll(conversationId))
+                .extracting(ChatJournalEntry::content)
+                .containsExactly("Old", "New");
+        assertThat(migrating.countEntries(conversationId)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRecordTokenEncodingOnMigratedEntries() {
+        String conversationId = conversationOwnedBy("c");
+        sharded("a", "b").save(conversationId, List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+        Map<String, JdbcTemplate> shards = new LinkedHashMap<>();
+        for (String name : List.of("a", "b", "c")) {
+            shards.put(name, new JdbcTemplate(databases.get(name)));
+        }
+
+        new JdbcShardRebalancer(shards, ConsistentHashRing.DEFAULT_VIRTUAL_NODES, null,
+                ChatJournalReclaimPolicy.KEEP, "o200k_base").rebalance();
+
+        assertThat(shards.get("c").queryForList("SELECT token_encoding FROM chat_journal WHERE conversation_id = ?",
+                String.class, conversationId)).containsExactly("o200k_base");
+    }
+
+    @Test
+    void shouldDoNothingWhenAlreadyBalanced() {
+        ShardedChatJournalRepository sharded = sharded("a", "b", "c");
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            sharded.save("conversation-" + i, List.of(new ChatJournalEntry(0, "USER", "Hello", 10)));
+        }
+
+        assertThat(rebalancer("a", "b", "c").rebalance()).isZero();
+    }
+
+    @Test
+    void shouldRejectNullShards() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> new JdbcShardRebalancer(null))
+                .withMessage("shards must not be null");
+    }
+
+    private ShardedChatJournalRepository sharded(String... names) {
+        return sharded(ChatJournalReclaimPolicy.KEEP, names);
+    }
+
+    private ShardedChatJournalRepository sharded(ChatJournalReclaimPolicy reclaimPolicy, String... names) {
+        return new ShardedChatJournalRepository(new ConsistentHashRing<>(shards(reclaimPolicy, names)));
+    }
+
+    private Map<String, ChatJournalShard> shards(ChatJournalReclaimPolicy reclaimPolicy, String... names) {
+        Map<String, ChatJournalShard> shards = new LinkedHashMap<>();
+        for (String name : names) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(databases.get(name));
+            shards.put(name, new ChatJournalShard(
+                    new JdbcChatJournalEntryRepository(
+                            jdbcTemplate, JdbcChatJournalOptions.builder().reclaimPolicy(reclaimPolicy).build()),
+                    new JdbcChatJournalCheckpointRepository(jdbcTemplate)));
+        }
+        return shards;
+    }
+
+    private JdbcShardRebalancer rebalancer(String... names) {
+        Map<String, JdbcTemplate> shards = new LinkedHashMap<>();
+        for (String name : names) {
+            shards.put(name, new JdbcTemplate(databases.get(name)));
+        }
+        return new JdbcShardRebalancer(shards);
+    }
+
+    private JdbcShardRebalancer rebalancer(ChatJournalReclaimPolicy reclaimPolicy, String... names) {
+        Map<String, JdbcTemplate> shards = new LinkedHashMap<>();
+        for (String name : names) {
+            shards.put(name, new JdbcTemplate(databases.get(name)));
+        }
+        return new JdbcShardRebalancer(shards, ConsistentHashRing.DEFAULT_VIRTUAL_NODES, null, reclaimPolicy);
+    }
+
+    private String conversationOwnedBy(String shard) {
+        return conversationOwnedBy(shard, 0);
+    }
+
+    private String conversationOwnedBy(String shard, int skip) {
+        ShardedChatJournalRepository sharded = sharded("a", "b", "c");
+        for (int i = 0; ; i++) {
+            String conversationId = "owned-" + i;
+            if (sharded.shardNameFor(conversationId).equals(shard) && skip-- == 0) {
+                return conversationId;
+            }
+        }
+    }
+
+    private long countRows(String shard) {
+        return countRows(shard, "chat_journal");
+    }
+
+    private long countRows(String shard, String table) {
+        //noinspection DataFlowIssue - COUNT guarantees non-null result
+        return new JdbcTemplate(databases.get(shard)).queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
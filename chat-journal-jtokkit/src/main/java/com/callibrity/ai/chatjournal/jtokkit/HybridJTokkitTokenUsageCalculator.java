@@ -0,0 +1,345 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jtokkit;
+
+import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A {@link TokenUsageCalculator} that counts exactly with a JTokkit {@link Encoding} below a size
+ * threshold and estimates from samples above it.
+ *
+ * <p>Byte-pair encoding costs time proportional to the text, so a pasted log or document of a few
+ * hundred kilobytes takes milliseconds of CPU on the request thread. Text shorter than
+ * {@code exactThreshold} characters (nearly every chat message) is counted exactly. Longer text is
+ * estimated:
+ * <ol>
+ *   <li>The text is split into equal strata and a segment of {@value #SEGMENT_LENGTH} characters,
+ *       snapped to whitespace, is tokenized exactly from the middle of each.</li>
+ *   <li>The tokens per character of the segments give a 95% confidence interval for the whole
+ *       text. While its half-width exceeds {@code maxRelativeError} of the estimate, the number of
+ *       segments is doubled. Once the segments would cover half of the text, it is counted
+ *       exactly instead.</li>
+ *   <li>The sampled ratio is blended with the ratio learned so far for the text's content class
+ *       (prose, code and data, or non-Latin script), weighted as {@value #PRIOR_CHARACTERS}
+ *       sampled characters, and multiplied by the text's length. The blend moves the estimate
+ *       no further from the sampled ratio than the error the sample leaves unused, so it stays
+ *       within {@code maxRelativeError}.</li>
+ * </ol>
+ * The learned ratio of each content class is an exponentially weighted average of the exact
+ * counts of messages of at least {@value #MIN_LEARNING_LENGTH} characters and of the samples
+ * taken, so estimates keep calibrating to the traffic they see.
+ *
+ * <p>Because some of its counts are estimates, this calculator reports the encoding's name with
+ * {@value #ESTIMATED_SUFFIX} appended, and its {@link #exactCalculator()} counts everything with
+ * the encoding itself, so a recount finds and corrects the stored estimates.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @see JTokkitTokenUsageCalculator
+ */
+public class HybridJTokkitTokenUsageCalculator implements TokenUsageCalculator {
+
+    /**
+     * The shortest text, in characters, that is estimated unless another threshold is given.
+     */
+    public static final int DEFAULT_EXACT_THRESHOLD = 32_768;
+
+    /**
+     * The largest relative error of an estimate, at 95% confidence, unless another bound is given.
+     */
+    public static final double DEFAULT_MAX_RELATIVE_ERROR = 0.02;
+
+    /**
+     * The suffix appended to the encoding's name, marking token counts that may be estimates.
+     */
+    public static final String ESTIMATED_SUFFIX = "+estimated";
+
+    static final int SEGMENT_LENGTH = 1024;
+    static final int MIN_SEGMENTS = 8;
+    static final int MIN_EXACT_THRESHOLD = 2 * SEGMENT_LENGTH * MIN_SEGMENTS;
+    static final int PRIOR_CHARACTERS = 2048;
+    static final int MIN_LEARNING_LENGTH = 256;
+
+    private static final double Z_95 = 1.96;
+    private static final double LEARNING_RATE = 0.05;
+    private static final int MAX_SNAP = 64;
+    private static final int CLASSIFICATION_SAMPLES = 4096;
+
+    private final Supplier<Encoding> encoding;
+    private final String encodingName;
+    private final JTokkitTokenUsageCalculator exactCalculator;
+    private final int exactThreshold;
+    private final double maxRelativeError;
+    private final Map<ContentClass, LearnedRatio> learnedRatios = new EnumMap<>(ContentClass.class);
+
+    /**
+     * Creates a new HybridJTokkitTokenUsageCalculator with the {@link #DEFAULT_EXACT_THRESHOLD} and
+     * the {@link #DEFAULT_MAX_RELATIVE_ERROR}.
+     *
+     * @param encoding the encoding to count with
+     * @throws NullPointerException if encoding is null
+     */
+    public HybridJTokkitTokenUsageCalculator(Encoding encoding) {
+        this(encoding, DEFAULT_EXACT_THRESHOLD, DEFAULT_MAX_RELATIVE_ERROR);
+    }
+
+    /**
+     * Creates a new HybridJTokkitTokenUsageCalculator for an encoding type.
+     *
+     * @param encodingType the type of the encoding to count with
+     * @param exactThreshold the shortest text, in characters, that is estimated rather than counted exactly
+     * @param maxRelativeError the largest relative error of an estimate at 95% confidence, between 0 and 0.5
+     * @throws NullPointerException if encodingType is null
+     * @throws IllegalArgumentException if exactThreshold or maxRelativeError is out of range
+     */
+    public HybridJTokkitTokenUsageCalculator(EncodingType encodingType, int exactThreshold, double maxRelativeError) {
+        this(sharedEncoding(encodingType), new JTokkitTokenUsageCalculator(encodingType), exactThreshold, maxRelativeError);
+    }
+
+    /**
+     * Creates a new HybridJTokkitTokenUsageCalculator.
+     *
+     * @param encoding the encoding to count with
+     * @param exactThreshold the shortest text, in characters, that is estimated rather than counted
+     *                       exactly; must be at least 16384
+     * @param maxRelativeError the largest relative error of an estimate at 95% confidence, between 0 and 0.5
+     * @throws NullPointerException if encoding is null
+     * @throws IllegalArgumentException if exactThreshold or maxRelativeError is out of range
+     */
+    public HybridJTokkitTokenUsageCalculator(Encoding encoding, int exactThreshold, double maxRelativeError) {
+        this(fixedEncoding(encoding), new JTokkitTokenUsageCalculator(encoding), exactThreshold, maxRelativeError);
+    }
+
+    private HybridJTokkitTokenUsageCalculator(Supplier<Encoding> encoding,
+                                              JTokkitTokenUsageCalculator exactCalculator,
+                                              int exactThreshold,
+                                              double maxRelativeError) {
+        this.encoding = encoding;
+        this.exactCalculator = exactCalculator;
+        this.encodingName = exactCalculator.encodingName() + ESTIMATED_SUFFIX;
+        if (exactThreshold < MIN_EXACT_THRESHOLD) {
+            throw new IllegalArgumentException("exactThreshold must be at least " + MIN_EXACT_THRESHOLD);
+        }
+        if (!(maxRelativeError > 0 && maxRelativeError <= 0.5)) {
+            throw new IllegalArgumentException("maxRelativeError must be greater than 0 and at most 0.5");
+        }
+        this.exactThreshold = exactThreshold;
+        this.maxRelativeError = maxRelativeError;
+        for (ContentClass contentClass : ContentClass.values()) {
+            learnedRatios.put(contentClass, new LearnedRatio());
+        }
+    }
+
+    // The shared encoding is resolved on first use, so creating the calculator does not load its vocabulary
+    private static Supplier<Encoding> sharedEncoding(EncodingType encodingType) {
+        Objects.requireNonNull(encodingType, "encodingType must not be null");
+        return () -> JTokkitEncodings.getEncoding(encodingType);
+    }
+
+    private static Supplier<Encoding> fixedEncoding(Encoding encoding) {
+        Objects.requireNonNull(encoding, "encoding must not be null");
+        return () -> encoding;
+    }
+
+    /**
+     * Calculates the token usage for a single message, exactly or by estimation depending on its length.
+     *
+     * @param message the message to calculate tokens for
+     * @return the exact or estimated token count
+     */
+    public int calculateTokenUsage(Message message) {
+        String text = message.getText();
+        if (text == null) {
+            return 0;
+        }
+        if (text.length() < exactThreshold) {
+            return countExactly(text);
+        }
+        return estimate(text);
+    }
+
+    @Override
+    public int calculateTokenUsage(List<Message> messages) {
+        return messages.stream()
+                .mapToInt(this::calculateTokenUsage)
+                .sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This is the encoding's name with {@value #ESTIMATED_SUFFIX} appended, so counts that may
+     * be estimates are told apart from the exact counts of {@link #exactCalculator()}.
+     */
+    @Override
+    public String encodingName() {
+        return encodingName;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This is a {@link JTokkitTokenUsageCalculator} counting with the same encoding.
+     */
+    @Override
+    public TokenUsageCalculator exactCalculator() {
+        return exactCalculator;
+    }
+
+    /**
+     * Returns the tokens per character learned so far for a content class.
+     *
+     * @param contentClass the content class
+     * @return the learned ratio, or {@code NaN} if nothing of this class has been counted yet
+     */
+    double learnedRatio(ContentClass contentClass) {
+        return learnedRatios.get(contentClass).get();
+    }
+
+    private int countExactly(String text) {
+        int tokens = encoding.get().countTokens(text);
+        if (text.length() >= MIN_LEARNING_LENGTH) {
+            learnedRatios.get(ContentClass.of(text)).update((double) tokens / text.length());
+        }
+        return tokens;
+    }
+
+    private int estimate(String text) {
+        int length = text.length();
+        int segments = MIN_SEGMENTS;
+        while (true) {
+            if ((long) segments * SEGMENT_LENGTH * 2 > length) {
+                return encoding.get().countTokens(text);
+            }
+            Sample sample = sample(text, segments);
+            double error = sample.relativeError(length);
+            if (error <= maxRelativeError) {
+                LearnedRatio learned = learnedRatios.get(ContentClass.of(text));
+                double prior = learned.get();
+                double sampled = sample.ratio();
+                double slack = (maxRelativeError - error) * sampled;
+                double ratio = Double.isNaN(prior)
+                        ? sampled
+                        : Math.clamp((sample.tokens + prior * PRIOR_CHARACTERS) / (sample.characters + PRIOR_CHARACTERS),
+                        sampled - slack, sampled + slack);
+                learned.update(sampled);
+                return (int) Math.round(ratio * length);
+            }
+            segments *= 2;
+        }
+    }
+
+    private Sample sample(String text, int segments) {
+        int stride = text.length() / segments;
+        double[] ratios = new double[segments];
+        long tokens = 0;
+        long characters = 0;
+        for (int i = 0; i < segments; i++) {
+            int start = snapToWhitespace(text, i * stride + (stride - SEGMENT_LENGTH) / 2);
+            int end = snapToWhitespace(text, start + SEGMENT_LENGTH);
+            int segmentTokens = encoding.get().countTokens(text.substring(start, end));
+            ratios[i] = (double) segmentTokens / (end - start);
+            tokens += segmentTokens;
+            characters += end - start;
+        }
+        return new Sample(ratios, tokens, characters);
+    }
+
+    // Moves forward to just after the next whitespace, so segments do not start or end mid-token
+    private static int snapToWhitespace(String text, int index) {
+        int limit = Math.min(text.length(), index + MAX_SNAP);
+        for (int i = index; i < limit; i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return Math.min(index, text.length());
+    }
+
+    private record Sample(double[] ratios, long tokens, long characters) {
+
+        double ratio() {
+            return (double) tokens / characters;
+        }
+
+        double relativeError(int length) {
+            double mean = 0;
+            for (double r : ratios) {
+                mean += r;
+            }
+            mean /= ratios.length;
+            double variance = 0;
+            for (double r : ratios) {
+                variance += (r - mean) * (r - mean);
+            }
+            variance /= ratios.length - 1;
+            double finitePopulation = Math.max(0, 1 - (double) characters / length);
+            double halfWidth = Z_95 * Math.sqrt(variance / ratios.length * finitePopulation);
+            return mean == 0 ? 0 : halfWidth / mean;
+        }
+    }
+
+    /**
+     * Broad kinds of text whose tokens per character differ markedly.
+     */
+    enum ContentClass {
+        PROSE,
+        CODE_OR_DATA,
+        NON_LATIN;
+
+        static ContentClass of(String text) {
+            int step = Math.max(1, text.length() / CLASSIFICATION_SAMPLES);
+            int sampled = 0;
+            int nonAscii = 0;
+            int symbols = 0;
+            for (int i = 0; i < text.length(); i += step) {
+                char c = text.charAt(i);
+                sampled++;
+                if (c > 0x7f) {
+                    nonAscii++;
+                } else if (!Character.isLetter(c) && !Character.isWhitespace(c)) {
+                    symbols++;
+                }
+            }
+            if (nonAscii * 5 > sampled) {
+                return NON_LATIN;
+            }
+            return symbols * 100 > sampled * 15 ? CODE_OR_DATA : PROSE;
+        }
+    }
+
+    private static final class LearnedRatio {
+
+        private double ratio = Double.NaN;
+
+        synchronized double get() {
+            return ratio;
+        }
+
+        synchronized void update(double observed) {
+            ratio = Double.isNaN(ratio) ? observed : ratio + LEARNING_RATE * (observed - ratio);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jtokkit;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingType;
+
+import java.util.Objects;
+
+/**
+ * A process-wide, lazily populated registry of JTokkit encodings.
+ *
+ * <p>{@link Encodings#newDefaultEncodingRegistry()} parses every BPE vocabulary JTokkit ships as soon as it
+ * is created, and each call creates and parses them again. This registry parses an encoding's vocabulary
+ * only the first time that encoding is requested, and shares it with every later caller in the process,
+ * so a service that counts tokens with one encoding pays for one vocabulary, once.
+ *
+ * <p>This class is thread-safe; concurrent first requests for the same encoding parse it once.
+ */
+public final class JTokkitEncodings {
+
+    private JTokkitEncodings() {
+    }
+
+    /**
+     * Returns the shared encoding of a type, loading its vocabulary if this is the first request for it.
+     *
+     * @param encodingType the type of the encoding
+     * @return the shared encoding
+     * @throws NullPointerException if encodingType is null
+     */
+    public static Encoding getEncoding(EncodingType encodingType) {
+        Objects.requireNonNull(encodingType, "encodingType must not be null");
+        return Registry.INSTANCE.getEncoding(encodingType);
+    }
+
+    // Holder idiom: the registry itself is only created when an encoding is first requested
+    private static final class Registry {
+        private static final EncodingRegistry INSTANCE = Encodings.newLazyEncodingRegistry();
+    }
+}
@@ -16,34 +16,37 @@
 package com.callibrity.ai.chatjournal.jtokkit;
 
 import com.callibrity.ai.chatjournal.token.TokenUsageCalculator;
-import com.knuddels.jtokkit.Encodings;
 import com.knuddels.jtokkit.api.Encoding;
-import com.knuddels.jtokkit.api.EncodingRegistry;
 import com.knuddels.jtokkit.api.EncodingType;
 import org.springframework.ai.chat.messages.Message;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import static java.util.Optional.ofNullable;
 
 public class JTokkitTokenUsageCalculator implements TokenUsageCalculator {
 
-    private final Encoding encoding;
+    private final Supplier<Encoding> encoding;
+    private final String encodingName;
 
     public JTokkitTokenUsageCalculator(Encoding encoding) {
-        this.encoding = Objects.requireNonNull(encoding, "encoding must not be null");
+        Objects.requireNonNull(encoding, "encoding must not be null");
+        this.encoding = () -> encoding;
+        this.encodingName = encoding.getName();
     }
 
+    // The shared encoding is resolved on first use, so creating the calculator does not load its vocabulary
     public JTokkitTokenUsageCalculator(EncodingType encodingType) {
         Objects.requireNonNull(encodingType, "encodingType must not be null");
-        EncodingRegistry registry = Encodings.newDefaultEncodingRegistry();
-        this.encoding = registry.getEncoding(encodingType);
+        this.encoding = () -> JTokkitEncodings.getEncoding(encodingType);
+        this.encodingName = encodingType.getName();
     }
 
     public int calculateTokenUsage(Message message) {
         return ofNullable(message.getText())
-                .map(encoding::countTokens)
+                .map(text -> encoding.get().countTokens(text))
                 .orElse(0);
     }
 
@@ -53,4 +56,9 @@ public class JTokkitTokenUsageCalculator implements TokenUsageCalculator {
                 .mapToInt(this::calculateTokenUsage)
                 .sum();
     }
+
+    @Override
+    public String encodingName() {
+        return encodingName;
+    }
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jtokkit;
+
+import com.callibrity.ai.chatjournal.jtokkit.HybridJTokkitTokenUsageCalculator.ContentClass;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HybridJTokkitTokenUsageCalculatorTest {
+
+    private static final String[] WORDS = {
+            "the", "journal", "conversation", "assistant", "checkpoint", "summary", "token", "message",
+            "of", "and", "window", "context", "compaction", "retrieval", "a", "is", "with", "model"
+    };
+
+    private static String prose(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+            text.append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        return text.substring(0, length);
+    }
+
+    @Nested
+    class WithMockedEncoding {
+
+        @Mock
+        private Encoding encoding;
+
+        private HybridJTokkitTokenUsageCalculator calculator;
+
+        @BeforeEach
+        void setUp() {
+            calculator = new HybridJTokkitTokenUsageCalculator(encoding);
+        }
+
+        @Test
+        void shouldCountShortTextExactly() {
+            when(encoding.countTokens("Hello")).thenReturn(2);
+
+            int tokens = calculator.calculateTokenUsage(List.of(new UserMessage("Hello")));
+
+            assertThat(tokens).isEqualTo(2);
+        }
+
+        @Test
+        void shouldReturnZeroForNullText() {
+            int tokens = calculator.calculateTokenUsage(List.of(new AssistantMessage(null)));
+
+            assertThat(tokens).isZero();
+        }
+
+        @Test
+        void shouldNotTokenizeLongTextWhole() {
+            String text = prose(HybridJTokkitTokenUsageCalculator.DEFAULT_EXACT_THRESHOLD * 4, 1);
+            when(encoding.countTokens(anyString())).thenAnswer(invocation ->
+                    invocation.<String>getArgument(0).length() / 4);
+
+            int tokens = calculator.calculateTokenUsage(new UserMessage(text));
+
+            assertThat(tokens).isCloseTo(text.length() / 4, within(text.length() / 100));
+            verify(encoding, never()).countTokens(text);
+            verify(encoding, atLeastOnce()).countTokens(anyString());
+        }
+
+        @Test
+        void shouldLearnRatioFromExactCounts() {
+            String text = prose(1000, 2);
+            when(encoding.countTokens(text)).thenReturn(250);
+
+            calculator.calculateTokenUsage(new UserMessage(text));
+
+            assertThat(calculator.learnedRatio(ContentClass.PROSE)).isEqualTo(0.25);
+        }
+
+        @Test
+        void shouldNotLearnFromShortText() {
+            when(encoding.countTokens("Hello")).thenReturn(2);
+
+            calculator.calculateTokenUsage(new UserMessage("Hello"));
+
+            assertThat(calculator.learnedRatio(ContentClass.PROSE)).isNaN();
+        }
+    }
+
+    @Nested
+    class WithRealEncoding {
+
+        private final Encoding encoding = Encodings.newDefaultEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+        @Test
+        void shouldEstimateLongProseWithinBound() {
+            HybridJTokkitTokenUsageCalculator calculator = new HybridJTokkitTokenUsageCalculator(encoding);
+            String text = prose(200_000, 3);
+            int exact = encoding.countTokens(text);
+
+            int estimate = calculator.calculateTokenUsage(new UserMessage(text));
+
+            assertThat((double) estimate).isCloseTo(exact, within(exact * 0.04));
+        }
+
+        @Test
+        void shouldStayWithinBoundWhenLearnedRatioIsFarOff() {
+            HybridJTokkitTokenUsageCalculator calculator = new HybridJTokkitTokenUsageCalculator(encoding);
+            String learned = "a ".repeat(5_000);
+            calculator.calculateTokenUsage(new UserMessage(learned));
+            String text = prose(200_000, 5);
+            int exact = encoding.countTokens(text);
+            assertThat(calculator.learnedRatio(ContentClass.PROSE)).isGreaterThan(1.5 * exact / text.length());
+
+            int estimate = calculator.calculateTokenUsage(new UserMessage(text));
+
+            assertThat((double) estimate).isCloseTo(exact, within(exact * HybridJTokkitTokenUsageCalculator.DEFAULT_MAX_RELATIVE_ERROR));
+        }
+
+        @Test
+        void shouldMarkEncodingNameAsEstimated() {
+            assertThat(new HybridJTokkitTokenUsageCalculator(encoding).encodingName())
+                    .isEqualTo("cl100k_base" + HybridJTokkitTokenUsageCalculator.ESTIMATED_SUFFIX)
+                    .isNotEqualTo(new JTokkitTokenUsageCalculator(EncodingType.CL100K_BASE).encodingName());
+        }
+
+        @Test
+        void shouldProvideExactCalculatorWithSameEncoding() {
+            HybridJTokkitTokenUsageCalculator calculator = new HybridJTokkitTokenUsageCalculator(EncodingType.CL100K_BASE,
+                    HybridJTokkitTokenUsageCalculator.DEFAULT_EXACT_THRESHOLD,
+                    HybridJTokkitTokenUsageCalculator.DEFAULT_MAX_RELATIVE_ERROR);
+            String text = prose(100_000, 6);
+
+            assertThat(calculator.exactCalculator()).isInstanceOf(JTokkitTokenUsageCalculator.class);
+            assertThat(calculator.exactCalculator().encodingName()).isEqualTo("cl100k_base");
+            assertThat(calculator.exactCalculator().calculateTokenUsage(List.of(new UserMessage(text))))
+                    .isEqualTo(encoding.countTokens(text));
+        }
+
+        @Test
+        void shouldCountTextBelowThresholdExactly() {
+            HybridJTokkitTokenUsageCalculator calculator = new HybridJTokkitTokenUsageCalculator(encoding);
+            String text = prose(10_000, 4);
+
+            int tokens = calculator.calculateTokenUsage(new UserMessage(text));
+
+            assertThat(tokens).isEqualTo(encoding.countTokens(text));
+        }
+
+        @Test
+        void shouldAgreeWithExactCalculatorOnChatMessages() {
+            HybridJTokkitTokenUsageCalculator calculator = new HybridJTokkitTokenUsageCalculator(EncodingType.CL100K_BASE,
+                    HybridJTokkitTokenUsageCalculator.DEFAULT_EXACT_THRESHOLD,
+                    HybridJTokkitTokenUsageCalculator.DEFAULT_MAX_RELATIVE_ERROR);
+            JTokkitTokenUsageCalculator exact = new JTokkitTokenUsageCalculator(encoding);
+            List<Message> messages = List.of(
+                    new UserMessage("Hello, world!"),
+                    new AssistantMessage("The quick brown fox jumps over the lazy dog.")
+            );
+
+            assertThat(calculator.calculateTokenUsage(messages)).isEqualTo(exact.calculateTokenUsage(messages));
+        }
+    }
+
+    @Nested
+    class ContentClassification {
+
+        @Test
+        void shouldClassifyProse() {
+            assertThat(ContentClass.of(prose(2000, 5))).isEqualTo(ContentClass.PROSE);
+        }
+
+        @Test
+        void shouldClassifyCode() {
+            String code = "if (x[i] != null) { total += x[i].get(0); } // 42\n".repeat(40);
+
+            assertThat(ContentClass.of(code)).isEqualTo(ContentClass.CODE_OR_DATA);
+        }
+
+        @Test
+        void shouldClassifyNonLatinScript() {
+            String text = "日本語のテキストはトークンが多くなります。".repeat(50);
+
+            assertThat(ContentClass.of(text)).isEqualTo(ContentClass.NON_LATIN);
+        }
+    }
+
+    @Nested
+    class ConstructorValidation {
+
+        @Test
+        void shouldRejectNullEncoding() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new HybridJTokkitTokenUsageCalculator((Encoding) null))
+                    .withMessage("encoding must not be null");
+        }
+
+        @Test
+        void shouldRejectNullEncodingType() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new HybridJTokkitTokenUsageCalculator((EncodingType) null, 32_768, 0.02))
+                    .withMessage("encodingType must not be null");
+        }
+
+        @Test
+        void shouldRejectSmallExactThreshold(@Mock Encoding encoding) {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new HybridJTokkitTokenUsageCalculator(encoding, 1000, 0.02))
+                    .withMessage("exactThreshold must be at least 16384");
+        }
+
+        @Test
+        void shouldRejectNonPositiveMaxRelativeError(@Mock Encoding encoding) {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new HybridJTokkitTokenUsageCalculator(encoding, 32_768, 0))
+                    .withMessage("maxRelativeError must be greater than 0 and at most 0.5");
+        }
+
+        @Test
+        void shouldRejectLargeMaxRelativeError(@Mock Encoding encoding) {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new HybridJTokkitTokenUsageCalculator(encoding, 32_768, 0.6))
+                    .withMessage("maxRelativeError must be greater than 0 and at most 0.5");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jtokkit;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the time and retained heap of creating calculators that each load every vocabulary through
+ * {@link Encodings#newDefaultEncodingRegistry()} against calculators sharing the one encoding they use
+ * through {@link JTokkitEncodings}.
+ *
+ * <p>Disabled by default; run with {@code mvn test -pl chat-journal-jtokkit -Dtest=JTokkitEncodingsBenchmarkTest
+ * -Dchat.journal.benchmark=true}. The retained heap is measured after {@link System#gc()}, so it is indicative
+ * rather than exact.
+ */
+@EnabledIfSystemProperty(named = "chat.journal.benchmark", matches = "true")
+class JTokkitEncodingsBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JTokkitEncodingsBenchmarkTest.class);
+
+    private static final int CALCULATORS = 3;
+    private static final EncodingType ENCODING_TYPE = EncodingType.O200K_BASE;
+
+    @Test
+    void compareDefaultAndSharedLazyRegistries() {
+        List<Object> retained = new ArrayList<>();
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        for (int i = 0; i < CALCULATORS; i++) {
+            EncodingRegistry registry = Encodings.newDefaultEncodingRegistry();
+            Encoding encoding = registry.getEncoding(ENCODING_TYPE);
+            retained.add(registry);
+            retained.add(new JTokkitTokenUsageCalculator(encoding));
+        }
+        double defaultMillis = (System.nanoTime() - start) / 1_000_000.0;
+        long defaultBytes = usedHeap() - heapBefore;
+        retained.clear();
+
+        heapBefore = usedHeap();
+        start = System.nanoTime();
+        for (int i = 0; i < CALCULATORS; i++) {
+            JTokkitTokenUsageCalculator calculator = new JTokkitTokenUsageCalculator(ENCODING_TYPE);
+            JTokkitEncodings.getEncoding(ENCODING_TYPE);
+            retained.add(calculator);
+        }
+        double sharedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        long sharedBytes = usedHeap() - heapBefore;
+
+        log.info("{} calculators using {}:{}", CALCULATORS, ENCODING_TYPE, String.format(
+                "%n%-24s %12s %14s%n%-24s %12.1f %14.1f%n%-24s %12.1f %14.1f%n",
+                "registry", "time (ms)", "heap (MiB)",
+                "default per calculator", defaultMillis, defaultBytes / 1_048_576.0,
+                "shared lazy", sharedMillis, sharedBytes / 1_048_576.0));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
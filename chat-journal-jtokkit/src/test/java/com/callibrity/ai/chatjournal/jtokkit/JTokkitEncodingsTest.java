@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.jtokkit;
+
+import com.knuddels.jtokkit.api.EncodingType;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class JTokkitEncodingsTest {
+
+    @Test
+    void shouldShareEncodingAcrossCallers() {
+        assertThat(JTokkitEncodings.getEncoding(EncodingType.CL100K_BASE))
+                .isSameAs(JTokkitEncodings.getEncoding(EncodingType.CL100K_BASE));
+    }
+
+    @Test
+    void shouldReturnEncodingOfRequestedType() {
+        assertThat(JTokkitEncodings.getEncoding(EncodingType.O200K_BASE).getName())
+                .isEqualTo(EncodingType.O200K_BASE.getName());
+    }
+
+    @Test
+    void shouldCountWithSharedEncoding() {
+        JTokkitTokenUsageCalculator calculator = new JTokkitTokenUsageCalculator(EncodingType.CL100K_BASE);
+
+        assertThat(calculator.calculateTokenUsage(new UserMessage("Hello, world!")))
+                .isEqualTo(JTokkitEncodings.getEncoding(EncodingType.CL100K_BASE).countTokens("Hello, world!"));
+    }
+
+    @Test
+    void shouldRejectNullEncodingType() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> JTokkitEncodings.getEncoding(null))
+                .withMessage("encodingType must not be null");
+    }
+}
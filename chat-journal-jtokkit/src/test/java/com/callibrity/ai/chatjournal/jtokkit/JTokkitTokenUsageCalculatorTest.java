@@ -122,6 +122,11 @@ class JTokkitTokenUsageCalculatorTest {
             assertThat(tokens).isGreaterThan(10);
         }
 
+        @Test
+        void shouldReportEncodingName() {
+            assertThat(calculator.encodingName()).isEqualTo("cl100k_base");
+        }
+
         @Test
         void shouldHandleEmptyString() {
             UserMessage message = new UserMessage("");
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.postgres;
+
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalBatchWriter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PostgreSQL-optimized {@link JdbcChatJournalBatchWriter}.
+ *
+ * <p>Write-behind batches of at least {@code copyThreshold} entries, across all of their
+ * conversations, are loaded with a single {@code COPY ... FROM STDIN} instead of a JDBC batch of
+ * {@code INSERT} statements. Entries are copied in conversation order, so each conversation's
+ * entries still receive ascending message indexes in the order they were appended. If the
+ * underlying connection turns out not to be a PostgreSQL connection, batches fall back to
+ * {@code INSERT}.
+ *
+ * <p>This class is thread-safe as it delegates all operations to the thread-safe JdbcTemplate.
+ *
+ * @see PostgresChatJournalEntryRepository
+ */
+public class PostgresChatJournalBatchWriter extends JdbcChatJournalBatchWriter {
+
+    private final PostgresCopyLoader copyLoader;
+    private final int copyThreshold;
+
+    /**
+     * Creates a new PostgresChatJournalBatchWriter with the
+     * {@link PostgresChatJournalEntryRepository#DEFAULT_COPY_THRESHOLD default copy threshold}.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @throws NullPointerException if jdbcTemplate is null
+     */
+    public PostgresChatJournalBatchWriter(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, PostgresChatJournalEntryRepository.DEFAULT_COPY_THRESHOLD);
+    }
+
+    /**
+     * Creates a new PostgresChatJournalBatchWriter.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param copyThreshold the smallest number of entries in a batch that is loaded with {@code COPY}; must be positive
+     * @throws NullPointerException if jdbcTemplate is null
+     * @throws IllegalArgumentException if copyThreshold is not positive
+     */
+    public PostgresChatJournalBatchWriter(JdbcTemplate jdbcTemplate, int copyThreshold) {
+        super(jdbcTemplate);
+        this.copyThreshold = PostgresChatJournalEntryRepository.validateCopyThreshold(copyThreshold);
+        this.copyLoader = new PostgresCopyLoader(jdbcTemplate, null);
+    }
+
+    /**
+     * Creates a new PostgresChatJournalBatchWriter that stores content encoded with the given codec.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param copyThreshold the smallest number of entries in a batch that is loaded with {@code COPY}; must be positive
+     * @param contentCodec the codec for message content, which is then stored in a {@code bytea} column
+     * @throws NullPointerException if any object parameter is null
+     * @throws IllegalArgumentException if copyThreshold is not positive
+     */
+    public PostgresChatJournalBatchWriter(JdbcTemplate jdbcTemplate, int copyThreshold, ChatJournalContentCodec contentCodec) {
+        super(jdbcTemplate, contentCodec);
+        this.copyThreshold = PostgresChatJournalEntryRepository.validateCopyThreshold(copyThreshold);
+        this.copyLoader = new PostgresCopyLoader(jdbcTemplate, contentCodec);
+    }
+
+    /**
+     * Creates a new PostgresChatJournalBatchWriter that records the encoding of every token count it writes.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @param copyThreshold the smallest number of entries in a batch that is loaded with {@code COPY}; must be positive
+     * @param contentCodec the codec for message content, which is then stored in a {@code bytea} column; or null
+     *                     to store content as text
+     * @param tokenEncoding the name of the encoding that produced the token counts of saved entries, stored
+     *                      in the {@code token_encoding} column; or null to leave the column unset
+     * @throws NullPointerException if jdbcTemplate is null
+     * @throws IllegalArgumentException if copyThreshold is not positive
+     */
+    public PostgresChatJournalBatchWriter(JdbcTemplate jdbcTemplate,
+                                          int copyThreshold,
+                                          ChatJournalContentCodec contentCodec,
+                                          String tokenEncoding) {
+        super(jdbcTemplate, contentCodec, tokenEncoding);
+        this.copyThreshold = PostgresChatJournalEntryRepository.validateCopyThreshold(copyThreshold);
+        this.copyLoader = new PostgresCopyLoader(jdbcTemplate, contentCodec, tokenEncoding);
+    }
+
+    @Override
+    protected void insertEntries(Map<String, List<ChatJournalEntry>> entriesByConversation) {
+        int entryCount = entriesByConversation.values().stream().mapToInt(List::size).sum();
+        if (entryCount < copyThreshold || !copyLoader.copyIn(entriesByConversation)) {
+            super.insertEntries(entriesByConversation);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.postgres;
+
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalOptions;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PostgreSQL-optimized {@link JdbcChatJournalEntryRepository}.
+ *
+ * <p>Saves of at least {@code copyThreshold} entries (bulk appends and imports) are loaded with
+ * {@code COPY ... FROM STDIN} instead of a JDBC batch of {@code INSERT} statements. Smaller saves,
+ * the common one-or-two-message append, keep using {@code INSERT}, where the fixed cost of starting
+ * a copy outweighs its per-row savings. If the underlying connection turns out not to be a
+ * PostgreSQL connection, every save falls back to {@code INSERT}.
+ *
+ * <p>All reads are inherited unchanged. The repository works with the generic
+ * {@code schema-postgresql.sql} as well as with the hash-partitioned
+ * {@code schema-postgresql-partitioned.sql} shipped with this module. With a
+ * {@link ChatJournalContentCodec}, copied content is encoded the same way as inserted content and
+ * the binary-column {@code schema-postgresql-compressed.sql} is required instead.
+ *
+ * <p>This class is thread-safe as it delegates all operations to the thread-safe JdbcTemplate.
+ *
+ * @see PostgresChatJournalBatchWriter
+ */
+public class PostgresChatJournalEntryRepository extends JdbcChatJournalEntryRepository {
+
+    /**
+     * The smallest save loaded with {@code COPY} unless another threshold is given.
+     */
+    public static final int DEFAULT_COPY_THRESHOLD = 8;
+
+    private final PostgresCopyLoader copyLoader;
+    private final int copyThreshold;
+
+    /**
+     * Creates a new PostgresChatJournalEntryRepository with the {@linkplain JdbcChatJournalOptions#defaults()
+     * default options} and the {@link #DEFAULT_COPY_THRESHOLD}.
+     *
+     * @param jdbcTemplate the JdbcTemplate for database operations
+     * @throws NullPointerException if jdbcTemplate is null
+     */
+    public PostgresChatJournalEntryRepository(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, JdbcChatJournalOptions.defaults(), DEFAULT_COPY_THRESHOLD);
+    }
+
+    /**
+     * Creates a new PostgresChatJournalEntryRepository.
+     *
+     * @param jdbcTemplate the JdbcTemplate for writes and consistent reads
+     * @param options the replica, streaming, reclaim, content and token encoding settings; with a
+     *                content codec, content is stored in {@code bytea} columns
+     * @param copyThreshold the smallest number of entries saved at once that is loaded with {@code COPY}; must be positive
+     * @throws NullPointerException if jdbcTemplate, options, or the options' maxStaleness or reclaimPolicy is null
+     * @throws IllegalArgumentException if maxStaleness is negative, or fetchSize or copyThreshold is not positive
+     */
+    public PostgresChatJournalEntryRepository(JdbcTemplate jdbcTemplate, JdbcChatJournalOptions options, int copyThreshold) {
+        super(jdbcTemplate, options);
+        this.copyThreshold = validateCopyThreshold(copyThreshold);
+        this.copyLoader = new PostgresCopyLoader(jdbcTemplate, options.getContentCodec(), options.getTokenEncoding());
+    }
+
+    @Override
+    protected void insertEntries(String conversationId, List<ChatJournalEntry> entries) {
+        if (entries.size() < copyThreshold || !copyLoader.copyIn(Map.of(conversationId, entries))) {
+            super.insertEntries(conversationId, entries);
+        }
+    }
+
+    static int validateCopyThreshold(int copyThreshold) {
+        if (copyThreshold <= 0) {
+            throw new IllegalArgumentException("copyThreshold must be positive");
+        }
+        return copyThreshold;
+    }
+}
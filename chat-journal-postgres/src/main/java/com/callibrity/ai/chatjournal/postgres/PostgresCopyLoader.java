@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.postgres;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalContentCodec;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk-loads journal entries into {@code chat_journal} with PostgreSQL's {@code COPY ... FROM STDIN}.
+ *
+ * <p>{@code COPY} streams every row to the server in a single protocol exchange, skipping the
+ * per-statement parse, bind and execute round trips of a JDBC batch. Rows are sent in CSV format,
+ * with every text field quoted so empty content is never mistaken for {@code NULL}. Content
+ * encoded with a {@link ChatJournalContentCodec} is sent in {@code bytea} hex format.
+ *
+ * <p>The copy runs on the JdbcTemplate's transaction-bound connection, so it commits or rolls
+ * back together with the statistics update that follows it.
+ */
+final class PostgresCopyLoader {
+
+    static final String COPY_SQL =
+            "COPY chat_journal (conversation_id, message_type, content, tokens) FROM STDIN WITH (FORMAT csv)";
+
+    static final String COPY_WITH_TOKEN_ENCODING_SQL =
+            "COPY chat_journal (conversation_id, message_type, content, tokens, token_encoding) FROM STDIN WITH (FORMAT csv)";
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChatJournalContentCodec contentCodec;
+    private final String tokenEncoding;
+
+    /**
+     * @param contentCodec the codec content is encoded with, or {@code null} to copy it as text
+     */
+    PostgresCopyLoader(JdbcTemplate jdbcTemplate, ChatJournalContentCodec contentCodec) {
+        this(jdbcTemplate, contentCodec, null);
+    }
+
+    /**
+     * @param contentCodec the codec content is encoded with, or {@code null} to copy it as text
+     * @param tokenEncoding the encoding name copied into {@code token_encoding}, or {@code null} to leave it unset
+     */
+    PostgresCopyLoader(JdbcTemplate jdbcTemplate, ChatJournalContentCodec contentCodec, String tokenEncoding) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.contentCodec = contentCodec;
+        this.tokenEncoding = tokenEncoding;
+    }
+
+    /**
+     * Copies the entries into {@code chat_journal}, conversation by conversation, in the order given.
+     *
+     * @param entriesByConversation the entries to copy, keyed by conversation ID
+     * @return {@code true} if the entries were copied, or {@code false} if the connection is not a
+     *         PostgreSQL connection and the caller should fall back to plain inserts
+     */
+    boolean copyIn(Map<String, List<ChatJournalEntry>> entriesByConversation) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            if (!con.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            String csv = toCsv(entriesByConversation, contentCodec, tokenEncoding);
+            try {
+                con.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        tokenEncoding == null ? COPY_SQL : COPY_WITH_TOKEN_ENCODING_SQL, new StringReader(csv));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }));
+    }
+
+    static String toCsv(Map<String, List<ChatJournalEntry>> entriesByConversation, ChatJournalContentCodec contentCodec) {
+        return toCsv(entriesByConversation, contentCodec, null);
+    }
+
+    static String toCsv(Map<String, List<ChatJournalEntry>> entriesByConversation,
+                        ChatJournalContentCodec contentCodec,
+                        String tokenEncoding) {
+        StringBuilder csv = new StringBuilder();
+        entriesByConversation.forEach((conversationId, entries) -> {
+            for (ChatJournalEntry entry : entries) {
+                appendQuoted(csv, conversationId).append(',');
+                appendQuoted(csv, entry.messageType()).append(',');
+                if (contentCodec == null) {
+                    appendQuoted(csv, entry.content()).append(',');
+                } else {
+                    csv.append("\\x").append(HEX.formatHex(contentCodec.encode(entry.content()))).append(',');
+                }
+                csv.append(entry.tokens());
+                if (tokenEncoding != null) {
+                    appendQuoted(csv.append(','), tokenEncoding);
+                }
+                csv.append('\n');
+            }
+        });
+        return csv.toString();
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+}
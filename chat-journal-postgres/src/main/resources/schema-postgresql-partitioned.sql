@@ -0,0 +1,80 @@
+-- Hash-partitioned PostgreSQL schema for chat-journal-postgres (PostgreSQL 12 or later).
+-- Use instead of schema-postgresql.sql from chat-journal-jdbc; the two are not compatible in place,
+-- so existing journals must be copied into the new table.
+
+-- message_index stays globally ascending across partitions, as the repositories require
+CREATE SEQUENCE IF NOT EXISTS chat_journal_message_index_seq;
+
+-- Fixed-width columns come first and content last, so the metadata read by token sums and
+-- compaction planning sits at fixed offsets at the front of every tuple
+CREATE TABLE IF NOT EXISTS chat_journal (
+    message_index   BIGINT NOT NULL DEFAULT nextval('chat_journal_message_index_seq'),
+    tokens          INTEGER NOT NULL,
+    created_at      TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    conversation_id VARCHAR(255) NOT NULL,
+    message_type    VARCHAR(20) NOT NULL,
+    token_encoding  VARCHAR(64),
+    content         TEXT NOT NULL,
+    -- INCLUDE columns let token aggregates and visible-entry counts be answered with index-only scans
+    PRIMARY KEY (conversation_id, message_index) INCLUDE (message_type, tokens)
+) PARTITION BY HASH (conversation_id);
+
+ALTER SEQUENCE chat_journal_message_index_seq OWNED BY chat_journal.message_index;
+
+-- Every conversation lives in exactly one partition, so per-conversation queries prune to it.
+-- A low toast_tuple_target moves all but short message content out of line into TOAST,
+-- keeping heap pages dense with rows for scans that never read content.
+CREATE TABLE IF NOT EXISTS chat_journal_p00 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 0) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p01 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 1) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p02 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 2) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p03 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 3) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p04 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 4) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p05 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 5) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p06 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 6) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p07 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 7) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p08 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 8) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p09 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 9) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p10 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 10) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p11 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 11) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p12 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 12) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p13 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 13) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p14 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 14) WITH (toast_tuple_target = 256);
+CREATE TABLE IF NOT EXISTS chat_journal_p15 PARTITION OF chat_journal FOR VALUES WITH (MODULUS 16, REMAINDER 15) WITH (toast_tuple_target = 256);
+
+-- On PostgreSQL 14 or later, lz4 compresses and decompresses TOASTed content faster than pglz:
+-- ALTER TABLE chat_journal ALTER COLUMN content SET COMPRESSION lz4;
+-- With a ChatJournalContentCodec, declare content, archived content and summary as BYTEA instead and skip
+-- the line above, since the codec has already compressed them (see schema-postgresql-compressed.sql).
+
+-- created_at grows with insertion order, so a BRIN index finds old rows for retention sweeps
+-- at a tiny fraction of a B-tree's size
+CREATE INDEX IF NOT EXISTS idx_chat_journal_created_at ON chat_journal USING BRIN (created_at);
+
+-- The primary key leads with conversation_id, so keyset scans across all conversations in message_index
+-- order (JdbcChatJournalTokenRecounter) need their own index, merged across partitions
+CREATE INDEX IF NOT EXISTS idx_chat_journal_message_index ON chat_journal (message_index);
+
+-- Compacted entries moved out of chat_journal by the ARCHIVE reclaim policy, keeping their message indexes
+CREATE TABLE IF NOT EXISTS chat_journal_archive (
+    conversation_id VARCHAR(255) NOT NULL,
+    message_index   BIGINT NOT NULL,
+    message_type    VARCHAR(20) NOT NULL,
+    content         TEXT NOT NULL,
+    tokens          INTEGER NOT NULL,
+    created_at      TIMESTAMP,
+    PRIMARY KEY (conversation_id, message_index)
+);
+
+CREATE TABLE IF NOT EXISTS chat_journal_checkpoint (
+    conversation_id  VARCHAR(255) PRIMARY KEY,
+    checkpoint_index BIGINT NOT NULL,
+    summary          TEXT NOT NULL,
+    tokens           INTEGER NOT NULL,
+    created_at       TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS chat_journal_conversation (
+    conversation_id  VARCHAR(255) PRIMARY KEY,
+    entry_count      INTEGER NOT NULL,
+    effective_tokens INTEGER NOT NULL
+);
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.postgres;
+
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalEntryRepository;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostgresChatJournalBatchWriterTest {
+
+    private static Map<String, List<ChatJournalEntry>> batch() {
+        Map<String, List<ChatJournalEntry>> batch = new LinkedHashMap<>();
+        batch.put("conv-1", List.of(new ChatJournalEntry(0, "USER", "One", 10), new ChatJournalEntry(0, "ASSISTANT", "Two", 15)));
+        batch.put("conv-2", List.of(new ChatJournalEntry(0, "USER", "Three", 20)));
+        return batch;
+    }
+
+    @Test
+    void shouldRejectNonPositiveCopyThreshold() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate();
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new PostgresChatJournalBatchWriter(jdbcTemplate, 0))
+                .withMessage("copyThreshold must be positive");
+    }
+
+    @Nested
+    @ExtendWith(MockitoExtension.class)
+    class CopyRouting {
+
+        @Mock
+        private JdbcTemplate jdbcTemplate;
+
+        @Mock
+        private Connection connection;
+
+        @Mock
+        private PGConnection pgConnection;
+
+        @Mock
+        private CopyManager copyManager;
+
+        @Test
+        void shouldCopyBatchesAcrossConversationsOnceTheirTotalReachesTheThreshold() throws Exception {
+            PostgresTestSupport.routeCopiesTo(jdbcTemplate, connection, pgConnection, copyManager);
+            PostgresTestSupport.reportPostgresDialect(jdbcTemplate);
+            when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][]{{1, 1}});
+
+            new PostgresChatJournalBatchWriter(jdbcTemplate, 3).saveAll(batch());
+
+            verify(copyManager).copyIn(eq(PostgresCopyLoader.COPY_SQL), any(Reader.class));
+            verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO chat_journal "), anyCollection(), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class));
+        }
+
+        @Test
+        void shouldInsertBatchesBelowTheThreshold() throws Exception {
+            PostgresTestSupport.reportPostgresDialect(jdbcTemplate);
+            when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][]{{1, 1}});
+
+            new PostgresChatJournalBatchWriter(jdbcTemplate, 4).saveAll(batch());
+
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO chat_journal "), anyCollection(), eq(3),
+                    any(ParameterizedPreparedStatementSetter.class));
+            verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+        }
+    }
+
+    @Test
+    void shouldFallBackToInsertsOnNonPostgresDatabases() {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema-h2.sql")
+                .build();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            JdbcChatJournalEntryRepository repository = new JdbcChatJournalEntryRepository(jdbcTemplate);
+
+            new PostgresChatJournalBatchWriter(jdbcTemplate, 1).saveAll(batch());
+
+            assertThat(repository.findAll("conv-1")).extracting(ChatJournalEntry::content).containsExactly("One", "Two");
+            assertThat(repository.findAll("conv-2")).extracting(ChatJournalEntry::content).containsExactly("Three");
+            assertThat(repository.getEffectiveTokens("conv-1", new JdbcChatJournalCheckpointRepository(jdbcTemplate))).isEqualTo(25);
+        } finally {
+            database.shutdown();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.postgres;
+
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalOptions;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PostgresChatJournalEntryRepositoryTest {
+
+    private static List<ChatJournalEntry> entries(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ChatJournalEntry(0, i % 2 == 0 ? "USER" : "ASSISTANT", "Message " + i, 10))
+                .toList();
+    }
+
+    @Nested
+    class Construction {
+
+        @Test
+        void shouldRejectNonPositiveCopyThreshold() {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate();
+            JdbcChatJournalOptions options = JdbcChatJournalOptions.defaults();
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new PostgresChatJournalEntryRepository(jdbcTemplate, options, 0))
+                    .withMessage("copyThreshold must be positive");
+        }
+
+        @Test
+        void shouldValidateInheritedParameters() {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate();
+            JdbcChatJournalOptions options = JdbcChatJournalOptions.builder().maxStaleness(Duration.ofSeconds(-1)).build();
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new PostgresChatJournalEntryRepository(jdbcTemplate, options, 8))
+                    .withMessage("maxStaleness must not be negative");
+        }
+    }
+
+    @Nested
+    @ExtendWith(MockitoExtension.class)
+    class CopyRouting {
+
+        @Mock
+        private JdbcTemplate jdbcTemplate;
+
+        @Mock
+        private Connection connection;
+
+        @Mock
+        private PGConnection pgConnection;
+
+        @Mock
+        private CopyManager copyManager;
+
+        @Test
+        void shouldCopyLargeSaves() throws Exception {
+            PostgresTestSupport.routeCopiesTo(jdbcTemplate, connection, pgConnection, copyManager);
+            PostgresTestSupport.reportPostgresDialect(jdbcTemplate);
+            PostgresChatJournalEntryRepository repository = new PostgresChatJournalEntryRepository(jdbcTemplate, JdbcChatJournalOptions.defaults(), 4);
+
+            repository.save("conv-1", entries(4));
+
+            verify(copyManager).copyIn(eq(PostgresCopyLoader.COPY_SQL), any(Reader.class));
+            verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO chat_journal "), anyCollection(), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class));
+        }
+
+        @Test
+        void shouldInsertSmallSaves() throws Exception {
+            PostgresTestSupport.reportPostgresDialect(jdbcTemplate);
+            PostgresChatJournalEntryRepository repository = new PostgresChatJournalEntryRepository(jdbcTemplate, JdbcChatJournalOptions.defaults(), 4);
+
+            repository.save("conv-1", entries(3));
+
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO chat_journal "), anyCollection(), eq(3),
+                    any(ParameterizedPreparedStatementSetter.class));
+            verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+        }
+    }
+
+    @Nested
+    class NonPostgresDatabase {
+
+        private EmbeddedDatabase database;
+        private PostgresChatJournalEntryRepository repository;
+        private JdbcChatJournalCheckpointRepository checkpointRepository;
+
+        @BeforeEach
+        void setUp() {
+            database = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("schema-h2.sql")
+                    .build();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            repository = new PostgresChatJournalEntryRepository(jdbcTemplate, JdbcChatJournalOptions.defaults(), 4);
+            checkpointRepository = new JdbcChatJournalCheckpointRepository(jdbcTemplate);
+        }
+
+        @AfterEach
+        void tearDown() {
+            database.shutdown();
+        }
+
+        @Test
+        void shouldFallBackToInsertsForLargeSaves() {
+            repository.save("conv-1", entries(10));
+
+            assertThat(repository.findAll("conv-1")).extracting(ChatJournalEntry::content)
+                    .containsExactlyElementsOf(entries(10).stream().map(ChatJournalEntry::content).toList());
+            assertThat(repository.countEntries("conv-1")).isEqualTo(10);
+            assertThat(repository.getEffectiveTokens("conv-1", checkpointRepository)).isEqualTo(100);
+        }
+
+        @Test
+        void shouldInsertSmallSaves() {
+            repository.save("conv-1", entries(2));
+
+            assertThat(repository.findAll("conv-1")).hasSize(2);
+            assertThat(repository.countEntries("conv-1")).isEqualTo(2);
+        }
+    }
+}
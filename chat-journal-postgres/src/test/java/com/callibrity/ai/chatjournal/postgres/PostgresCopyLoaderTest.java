@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.postgres;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.DeflateChatJournalContentCodec;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class PostgresCopyLoaderTest {
+
+    @Nested
+    class ToCsv {
+
+        @Test
+        void shouldQuoteTextFieldsAndLeaveTokensBare() {
+            String csv = PostgresCopyLoader.toCsv(Map.of("conv-1", List.of(new ChatJournalEntry(0, "USER", "Hello", 5))), null);
+
+            assertThat(csv).isEqualTo("\"conv-1\",\"USER\",\"Hello\",5\n");
+        }
+
+        @Test
+        void shouldDoubleEmbeddedQuotes() {
+            String csv = PostgresCopyLoader.toCsv(Map.of("conv-1", List.of(new ChatJournalEntry(0, "USER", "say \"hi\"", 5))), null);
+
+            assertThat(csv).isEqualTo("\"conv-1\",\"USER\",\"say \"\"hi\"\"\",5\n");
+        }
+
+        @Test
+        void shouldKeepDelimitersAndLineBreaksInsideQuotes() {
+            String csv = PostgresCopyLoader.toCsv(Map.of("conv-1", List.of(new ChatJournalEntry(0, "USER", "a,b\r\nc\\d", 5))), null);
+
+            assertThat(csv).isEqualTo("\"conv-1\",\"USER\",\"a,b\r\nc\\d\",5\n");
+        }
+
+        @Test
+        void shouldQuoteEmptyContentSoItIsNotReadAsNull() {
+            String csv = PostgresCopyLoader.toCsv(Map.of("conv-1", List.of(new ChatJournalEntry(0, "USER", "", 0))), null);
+
+            assertThat(csv).isEqualTo("\"conv-1\",\"USER\",\"\",0\n");
+        }
+
+        @Test
+        void shouldWriteEncodedContentAsByteaHex() {
+            String csv = PostgresCopyLoader.toCsv(Map.of("conv-1", List.of(new ChatJournalEntry(0, "USER", "Hi", 5))),
+                    new DeflateChatJournalContentCodec());
+
+            assertThat(csv).isEqualTo("\"conv-1\",\"USER\",\\x004869,5\n");
+        }
+
+        @Test
+        void shouldAppendTokenEncodingWhenGiven() {
+            String csv = PostgresCopyLoader.toCsv(Map.of("conv-1", List.of(new ChatJournalEntry(0, "USER", "Hi", 5))),
+                    null, "o200k_base");
+
+            assertThat(csv).isEqualTo("\"conv-1\",\"USER\",\"Hi\",5,\"o200k_base\"\n");
+        }
+
+        @Test
+        void shouldWriteConversationsAndEntriesInOrder() {
+            Map<String, List<ChatJournalEntry>> batch = new LinkedHashMap<>();
+            batch.put("conv-2", List.of(new ChatJournalEntry(0, "USER", "One", 1), new ChatJournalEntry(0, "ASSISTANT", "Two", 2)));
+            batch.put("conv-1", List.of(new ChatJournalEntry(0, "USER", "Three", 3)));
+
+            assertThat(PostgresCopyLoader.toCsv(batch, null)).isEqualTo(
+                    "\"conv-2\",\"USER\",\"One\",1\n"
+                            + "\"conv-2\",\"ASSISTANT\",\"Two\",2\n"
+                            + "\"conv-1\",\"USER\",\"Three\",3\n");
+        }
+    }
+
+    @Nested
+    @ExtendWith(MockitoExtension.class)
+    class CopyIn {
+
+        @Mock
+        private JdbcTemplate jdbcTemplate;
+
+        @Mock
+        private Connection connection;
+
+        @Mock
+        private PGConnection pgConnection;
+
+        @Mock
+        private CopyManager copyManager;
+
+        @Test
+        void shouldCopyCsvThroughThePostgresCopyApi() throws Exception {
+            PostgresTestSupport.routeCopiesTo(jdbcTemplate, connection, pgConnection, copyManager);
+            StringWriter copied = new StringWriter();
+            when(copyManager.copyIn(eq(PostgresCopyLoader.COPY_SQL), any(Reader.class))).thenAnswer(invocation -> {
+                invocation.<Reader>getArgument(1).transferTo(copied);
+                return 1L;
+            });
+
+            boolean result = new PostgresCopyLoader(jdbcTemplate, null)
+                    .copyIn(Map.of("conv-1", List.of(new ChatJournalEntry(0, "USER", "Hello", 5))));
+
+            assertThat(result).isTrue();
+            assertThat(copied).hasToString("\"conv-1\",\"USER\",\"Hello\",5\n");
+        }
+
+        @Test
+        void shouldWrapIoFailures() throws Exception {
+            PostgresTestSupport.routeCopiesTo(jdbcTemplate, connection, pgConnection, copyManager);
+            when(copyManager.copyIn(eq(PostgresCopyLoader.COPY_SQL), any(Reader.class))).thenThrow(new IOException("broken pipe"));
+            PostgresCopyLoader loader = new PostgresCopyLoader(jdbcTemplate, null);
+            Map<String, List<ChatJournalEntry>> batch = Map.of("conv-1", List.of(new ChatJournalEntry(0, "USER", "Hello", 5)));
+
+            assertThatThrownBy(() -> loader.copyIn(batch))
+                    .isInstanceOf(UncheckedIOException.class)
+                    .hasMessageContaining("broken pipe");
+        }
+    }
+
+    @Nested
+    class NonPostgresConnection {
+
+        @Test
+        void shouldReportThatNothingWasCopied() {
+            EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .generateUniqueName(true)
+                    .addScript("schema-h2.sql")
+                    .build();
+            try {
+                JdbcTemplate h2 = new JdbcTemplate(database);
+
+                boolean result = new PostgresCopyLoader(h2, null)
+                        .copyIn(Map.of("conv-1", List.of(new ChatJournalEntry(0, "USER", "Hello", 5))));
+
+                assertThat(result).isFalse();
+                assertThat(h2.queryForObject("SELECT COUNT(*) FROM chat_journal", Integer.class)).isZero();
+            } finally {
+                database.shutdown();
+            }
+        }
+    }
+}
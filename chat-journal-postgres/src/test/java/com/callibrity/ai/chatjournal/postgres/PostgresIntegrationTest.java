@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.postgres;
+
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalCheckpointRepository;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalOptions;
+import com.callibrity.ai.chatjournal.jdbc.JdbcChatJournalTokenRecounter;
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.token.SimpleTokenUsageCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against a real PostgreSQL database, given with
+ * {@code -Dchat.journal.postgres.url=jdbc:postgresql://host/db} (plus optional
+ * {@code chat.journal.postgres.username} and {@code chat.journal.postgres.password}), or with
+ * the {@code postgres-it} Maven profile, which CI runs against a PostgreSQL service container.
+ * The chat journal tables in that database are dropped and recreated.
+ */
+@EnabledIfSystemProperty(named = "chat.journal.postgres.url", matches = ".+")
+class PostgresIntegrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PostgresChatJournalEntryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("chat.journal.postgres.url"),
+                System.getProperty("chat.journal.postgres.username", "postgres"),
+                System.getProperty("chat.journal.postgres.password", "postgres"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS chat_journal, chat_journal_archive, chat_journal_checkpoint, chat_journal_conversation CASCADE");
+        new ResourceDatabasePopulator(new ClassPathResource("schema-postgresql-partitioned.sql")).execute(dataSource);
+        repository = new PostgresChatJournalEntryRepository(jdbcTemplate, JdbcChatJournalOptions.defaults(), 4);
+    }
+
+    private static List<ChatJournalEntry> entries(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ChatJournalEntry(0, i % 2 == 0 ? "USER" : "ASSISTANT", "Message \"" + i + "\",\n", i))
+                .toList();
+    }
+
+    @Test
+    void shouldCreateAHashPartitionedJournal() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_inherits WHERE inhparent = 'chat_journal'::regclass", Integer.class))
+                .isEqualTo(16);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT am.amname FROM pg_class c JOIN pg_am am ON am.oid = c.relam WHERE c.relname = 'idx_chat_journal_created_at'",
+                String.class))
+                .isEqualTo("brin");
+    }
+
+    @Test
+    void shouldCopyLargeSavesAndKeepStatistics() {
+        List<ChatJournalEntry> saved = entries(50);
+
+        repository.save("conv-1", saved);
+
+        assertThat(repository.findAll("conv-1")).extracting(ChatJournalEntry::content)
+                .containsExactlyElementsOf(saved.stream().map(ChatJournalEntry::content).toList());
+        assertThat(repository.countEntries("conv-1")).isEqualTo(50);
+        assertThat(repository.getEffectiveTokens("conv-1", new JdbcChatJournalCheckpointRepository(jdbcTemplate))).isEqualTo(IntStream.range(0, 50).sum());
+    }
+
+    @Test
+    void shouldPreserveEmptyContent() {
+        repository.save("conv-1", List.of(
+                new ChatJournalEntry(0, "USER", "", 0),
+                new ChatJournalEntry(0, "ASSISTANT", "", 0),
+                new ChatJournalEntry(0, "USER", "", 0),
+                new ChatJournalEntry(0, "ASSISTANT", "", 0)));
+
+        assertThat(repository.findAll("conv-1")).extracting(ChatJournalEntry::content).containsOnly("");
+    }
+
+    @Test
+    void shouldInterleaveCopiedAndInsertedEntriesInOrder() {
+        repository.save("conv-1", entries(2));
+        repository.save("conv-1", entries(6));
+        repository.save("conv-1", entries(1));
+
+        List<ChatJournalEntry> all = repository.findAll("conv-1");
+
+        assertThat(all).hasSize(9);
+        assertThat(all).extracting(ChatJournalEntry::messageIndex).isSorted();
+    }
+
+    @Test
+    void shouldSupportCheckpointsOnThePartitionedJournal() {
+        repository.save("conv-1", entries(10));
+        long checkpointIndex = repository.findAll("conv-1").get(5).messageIndex();
+        new JdbcChatJournalCheckpointRepository(jdbcTemplate)
+                .saveCheckpoint("conv-1", new ChatJournalCheckpoint(checkpointIndex, "Summary", 3));
+
+        assertThat(repository.findContext("conv-1", new JdbcChatJournalCheckpointRepository(jdbcTemplate)).entries()).hasSize(4);
+    }
+
+    @Test
+    void shouldRecountTokensOnThePartitionedJournal() {
+        repository.save("conv-1", entries(6));
+        repository.save("conv-2", entries(4));
+        JdbcChatJournalTokenRecounter recounter = new JdbcChatJournalTokenRecounter(jdbcTemplate,
+                new SimpleTokenUsageCalculator(4), null, 3, Duration.ZERO, 0);
+
+        assertThat(recounter.recount()).isEqualTo(10);
+        assertThat(recounter.recount()).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT token_encoding FROM chat_journal", String.class))
+                .containsExactly("chars/4");
+        assertThat(repository.getEffectiveTokens("conv-1", new JdbcChatJournalCheckpointRepository(jdbcTemplate))).isEqualTo(repository.sumTokens("conv-1"));
+    }
+
+    @Test
+    void shouldCopyWriteBehindBatches() {
+        Map<String, List<ChatJournalEntry>> batch = new LinkedHashMap<>();
+        batch.put("conv-1", entries(3));
+        batch.put("conv-2", entries(5));
+
+        new PostgresChatJournalBatchWriter(jdbcTemplate, 4).saveAll(batch);
+
+        assertThat(repository.countEntries("conv-1")).isEqualTo(3);
+        assertThat(repository.countEntries("conv-2")).isEqualTo(5);
+    }
+}
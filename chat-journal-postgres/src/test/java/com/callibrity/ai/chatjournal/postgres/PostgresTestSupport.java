@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.postgres;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+final class PostgresTestSupport {
+
+    private PostgresTestSupport() {
+    }
+
+    /**
+     * Stubs a mock JdbcTemplate so connection callbacks run against a mock PostgreSQL connection
+     * whose copy API is the given CopyManager.
+     */
+    static void routeCopiesTo(JdbcTemplate jdbcTemplate,
+                              Connection connection,
+                              PGConnection pgConnection,
+                              CopyManager copyManager) throws SQLException {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+    }
+
+    /**
+     * Stubs a mock JdbcTemplate with a data source reporting PostgreSQL, so the conversation
+     * statistics can pick their dialect when initializing a conversation's row.
+     */
+    static void reportPostgresDialect(JdbcTemplate jdbcTemplate) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+    }
+}
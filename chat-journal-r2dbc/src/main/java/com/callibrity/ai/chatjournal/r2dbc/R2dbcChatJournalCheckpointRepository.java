@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.r2dbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalCheckpointRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+/**
+ * R2DBC-based implementation of {@link ReactiveChatJournalCheckpointRepository}.
+ *
+ * <p>This implementation stores chat journal checkpoints using Spring's non-blocking
+ * {@link DatabaseClient}. It requires a table named {@code chat_journal_checkpoint}.
+ *
+ * <p>Saving or deleting a checkpoint also refreshes the effective token count held in the
+ * {@code chat_journal_conversation} table, since that count depends on the checkpoint.
+ *
+ * <p>This class is thread-safe as it delegates all operations to the thread-safe DatabaseClient.
+ *
+ * @see ReactiveChatJournalCheckpointRepository
+ */
+public class R2dbcChatJournalCheckpointRepository implements ReactiveChatJournalCheckpointRepository {
+
+    private static final String COL_CHECKPOINT_INDEX = "checkpoint_index";
+    private static final String COL_SUMMARY = "summary";
+    private static final String COL_TOKENS = "tokens";
+
+    private static final String CONVERSATION_ID = "conversationId";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConversationStats stats;
+
+    /**
+     * Creates a new R2dbcChatJournalCheckpointRepository.
+     *
+     * @param databaseClient the DatabaseClient for database operations
+     * @throws NullPointerException if databaseClient is null
+     */
+    public R2dbcChatJournalCheckpointRepository(DatabaseClient databaseClient) {
+        this.databaseClient = Objects.requireNonNull(databaseClient, "databaseClient must not be null");
+        this.stats = new R2dbcConversationStats(databaseClient);
+    }
+
+    @Override
+    public Mono<ChatJournalCheckpoint> findCheckpoint(String conversationId) {
+        validateConversationId(conversationId);
+        return databaseClient.sql("SELECT checkpoint_index, summary, tokens FROM chat_journal_checkpoint WHERE conversation_id = :conversationId")
+                .bind(CONVERSATION_ID, conversationId)
+                .map(R2dbcChatJournalCheckpointRepository::mapRow)
+                .first();
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> saveCheckpoint(String conversationId, ChatJournalCheckpoint checkpoint) {
+        validateConversationId(conversationId);
+        Objects.requireNonNull(checkpoint, "checkpoint must not be null");
+        return delete(conversationId)
+                .then(databaseClient.sql("INSERT INTO chat_journal_checkpoint (conversation_id, checkpoint_index, summary, tokens) "
+                                + "VALUES (:conversationId, :checkpointIndex, :summary, :tokens)")
+                        .bind(CONVERSATION_ID, conversationId)
+                        .bind("checkpointIndex", checkpoint.checkpointIndex())
+                        .bind("summary", checkpoint.summary())
+                        .bind("tokens", checkpoint.tokens())
+                        .then())
+                .then(Mono.defer(() -> stats.recomputeEffectiveTokens(conversationId)));
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteCheckpoint(String conversationId) {
+        validateConversationId(conversationId);
+        return delete(conversationId)
+                .then(Mono.defer(() -> stats.recomputeEffectiveTokens(conversationId)));
+    }
+
+    private Mono<Void> delete(String conversationId) {
+        return databaseClient.sql("DELETE FROM chat_journal_checkpoint WHERE conversation_id = :conversationId")
+                .bind(CONVERSATION_ID, conversationId)
+                .then();
+    }
+
+    private static void validateConversationId(String conversationId) {
+        Objects.requireNonNull(conversationId, "conversationId must not be null");
+        if (conversationId.isEmpty()) {
+            throw new IllegalArgumentException("conversationId must not be empty");
+        }
+    }
+
+    private static ChatJournalCheckpoint mapRow(Readable row) {
+        return new ChatJournalCheckpoint(
+                Objects.requireNonNull(row.get(COL_CHECKPOINT_INDEX, Number.class)).longValue(),
+                row.get(COL_SUMMARY, String.class),
+                Objects.requireNonNull(row.get(COL_TOKENS, Number.class)).intValue()
+        );
+    }
+}
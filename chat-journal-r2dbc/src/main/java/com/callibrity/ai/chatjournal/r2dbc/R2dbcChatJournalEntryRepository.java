@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.r2dbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContext;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryTokens;
+import com.callibrity.ai.chatjournal.repository.ReactiveChatJournalEntryRepository;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * R2DBC-based implementation of {@link ReactiveChatJournalEntryRepository}.
+ *
+ * <p>This implementation stores chat journal entries using Spring's non-blocking
+ * {@link DatabaseClient}. It uses the same tables as the JDBC module (see the {@code schema-*.sql}
+ * scripts shipped in {@code chat-journal-jdbc}), including the {@code chat_journal_conversation}
+ * statistics table, so both modules can read and write the same conversations.
+ *
+ * <p>Save and delete operations are annotated {@link Transactional}; they run in a reactive
+ * transaction when the repository is a Spring bean and a {@code ReactiveTransactionManager}
+ * is available.
+ *
+ * <p>This class is thread-safe as it delegates all operations to the thread-safe DatabaseClient.
+ *
+ * @see ReactiveChatJournalEntryRepository
+ */
+public class R2dbcChatJournalEntryRepository implements ReactiveChatJournalEntryRepository {
+
+    private static final String COL_MESSAGE_INDEX = "message_index";
+    private static final String COL_MESSAGE_TYPE = "message_type";
+    private static final String COL_CONTENT = "content";
+    private static final String COL_TOKENS = "tokens";
+    private static final String COL_ROW_KIND = "row_kind";
+    private static final String COL_TAIL_TOKENS = "tail_tokens";
+
+    private static final String CONVERSATION_ID = "conversationId";
+
+    private static final int ROW_KIND_CHECKPOINT = 0;
+
+    private static final String ENTRY_COLUMNS = "SELECT message_index, message_type, content, tokens FROM chat_journal ";
+
+    private static final String FIND_CONTEXT_SQL = "SELECT 0 AS row_kind, c.checkpoint_index AS message_index, NULL AS message_type, c.summary AS content, c.tokens AS tokens "
+            + "FROM chat_journal_checkpoint c WHERE c.conversation_id = :conversationId "
+            + "UNION ALL "
+            + "SELECT 1 AS row_kind, j.message_index, j.message_type, j.content, j.tokens "
+            + "FROM chat_journal j LEFT JOIN chat_journal_checkpoint c ON c.conversation_id = j.conversation_id "
+            + "WHERE j.conversation_id = :conversationId AND j.message_index > COALESCE(c.checkpoint_index, -1) "
+            + "ORDER BY row_kind, message_index";
+
+    private static final String FIND_ENTRY_TOKENS_SQL = "SELECT message_index, tokens, "
+            + "SUM(tokens) OVER (ORDER BY message_index DESC ROWS BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW) AS tail_tokens "
+            + "FROM chat_journal WHERE conversation_id = :conversationId AND message_index > :messageIndex ORDER BY message_index";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConversationStats stats;
+
+    /**
+     * Creates a new R2dbcChatJournalEntryRepository.
+     *
+     * @param databaseClient the DatabaseClient for database operations
+     * @throws NullPointerException if databaseClient is null
+     */
+    public R2dbcChatJournalEntryRepository(DatabaseClient databaseClient) {
+        this.databaseClient = Objects.requireNonNull(databaseClient, "databaseClient must not be null");
+        this.stats = new R2dbcConversationStats(databaseClient);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> save(String conversationId, List<ChatJournalEntry> entries) {
+        validateConversationId(conversationId);
+        Objects.requireNonNull(entries, "entries must not be null");
+        if (entries.isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(entries)
+                .concatMap(entry -> databaseClient.sql(
+                                "INSERT INTO chat_journal (conversation_id, message_type, content, tokens) VALUES (:conversationId, :messageType, :content, :tokens)")
+                        .bind(CONVERSATION_ID, conversationId)
+                        .bind("messageType", entry.messageType())
+                        .bind("content", entry.content())
+                        .bind("tokens", entry.tokens())
+                        .then())
+                .then(Mono.defer(() -> stats.recordSave(
+                        conversationId,
+                        entries.size(),
+                        entries.stream().mapToInt(ChatJournalEntry::tokens).sum())));
+    }
+
+    @Override
+    public Flux<ChatJournalEntry> findVisibleEntries(String conversationId, int offset, int limit) {
+        validateConversationId(conversationId);
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return databaseClient.sql(ENTRY_COLUMNS + "WHERE conversation_id = :conversationId AND message_type IN ('USER', 'ASSISTANT') "
+                        + "ORDER BY message_index DESC LIMIT :limit OFFSET :offset")
+                .bind(CONVERSATION_ID, conversationId)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(R2dbcChatJournalEntryRepository::mapEntry)
+                .all();
+    }
+
+    @Override
+    public Mono<Integer> countEntries(String conversationId) {
+        validateConversationId(conversationId);
+        return stats.countEntries(conversationId);
+    }
+
+    @Override
+    public Mono<ChatJournalContext> findContext(String conversationId) {
+        validateConversationId(conversationId);
+        return databaseClient.sql(FIND_CONTEXT_SQL)
+                .bind(CONVERSATION_ID, conversationId)
+                .map(R2dbcChatJournalEntryRepository::mapContextRow)
+                .all()
+                .collectList()
+                .map(R2dbcChatJournalEntryRepository::toContext);
+    }
+
+    @Override
+    public Flux<ChatJournalEntryTokens> findEntryTokensAfterIndex(String conversationId, long messageIndex) {
+        validateConversationId(conversationId);
+        return databaseClient.sql(FIND_ENTRY_TOKENS_SQL)
+                .bind(CONVERSATION_ID, conversationId)
+                .bind("messageIndex", messageIndex)
+                .map(row -> new ChatJournalEntryTokens(
+                        getLong(row, COL_MESSAGE_INDEX),
+                        getInt(row, COL_TOKENS),
+                        getInt(row, COL_TAIL_TOKENS)
+                ))
+                .all();
+    }
+
+    @Override
+    public Flux<ChatJournalEntry> findEntriesInRange(String conversationId, long afterIndex, long upToIndex) {
+        validateConversationId(conversationId);
+        return databaseClient.sql(ENTRY_COLUMNS + "WHERE conversation_id = :conversationId "
+                        + "AND message_index > :afterIndex AND message_index <= :upToIndex ORDER BY message_index")
+                .bind(CONVERSATION_ID, conversationId)
+                .bind("afterIndex", afterIndex)
+                .bind("upToIndex", upToIndex)
+                .map(R2dbcChatJournalEntryRepository::mapEntry)
+                .all();
+    }
+
+    @Override
+    public Mono<Integer> getEffectiveTokens(String conversationId) {
+        validateConversationId(conversationId);
+        return stats.getEffectiveTokens(conversationId);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteAll(String conversationId) {
+        validateConversationId(conversationId);
+        return databaseClient.sql("DELETE FROM chat_journal WHERE conversation_id = :conversationId")
+                .bind(CONVERSATION_ID, conversationId)
+                .then()
+                .then(Mono.defer(() -> stats.delete(conversationId)));
+    }
+
+    private static ContextRow mapContextRow(Readable row) {
+        if (getInt(row, COL_ROW_KIND) == ROW_KIND_CHECKPOINT) {
+            return new ContextRow(new ChatJournalCheckpoint(
+                    getLong(row, COL_MESSAGE_INDEX),
+                    row.get(COL_CONTENT, String.class),
+                    getInt(row, COL_TOKENS)
+            ), null);
+        }
+        return new ContextRow(null, mapEntry(row));
+    }
+
+    private static ChatJournalContext toContext(List<ContextRow> rows) {
+        ChatJournalCheckpoint checkpoint = null;
+        List<ChatJournalEntry> entries = new ArrayList<>(rows.size());
+        for (ContextRow row : rows) {
+            if (row.checkpoint() != null) {
+                checkpoint = row.checkpoint();
+            } else {
+                entries.add(row.entry());
+            }
+        }
+        return new ChatJournalContext(checkpoint, entries);
+    }
+
+    private static ChatJournalEntry mapEntry(Readable row) {
+        return new ChatJournalEntry(
+                getLong(row, COL_MESSAGE_INDEX),
+                row.get(COL_MESSAGE_TYPE, String.class),
+                row.get(COL_CONTENT, String.class),
+                getInt(row, COL_TOKENS)
+        );
+    }
+
+    private static long getLong(Readable row, String column) {
+        return Objects.requireNonNull(row.get(column, Number.class)).longValue();
+    }
+
+    private static int getInt(Readable row, String column) {
+        return Objects.requireNonNull(row.get(column, Number.class)).intValue();
+    }
+
+    private static void validateConversationId(String conversationId) {
+        Objects.requireNonNull(conversationId, "conversationId must not be null");
+        if (conversationId.isEmpty()) {
+            throw new IllegalArgumentException("conversationId must not be empty");
+        }
+    }
+
+    private record ContextRow(ChatJournalCheckpoint checkpoint, ChatJournalEntry entry) {
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.r2dbc;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * Maintains the per-conversation statistics row in the {@code chat_journal_conversation} table.
+ *
+ * <p>This is the reactive counterpart of the JDBC module's statistics maintenance and keeps
+ * the row in exactly the same shape, so JDBC and R2DBC repositories can share a database.
+ * Conversations without a statistics row are computed from {@code chat_journal} and
+ * {@code chat_journal_checkpoint} directly, and the row is initialized on the next save.
+ *
+ * <p>As in the JDBC module, a missing row is initialized to the computed totals less the save
+ * being recorded with an insert that does nothing if the row already exists, and the save is
+ * then applied as an ordinary increment. Concurrent first saves of a conversation therefore
+ * neither fail with a duplicate key nor lose each other's counts. The insert-if-absent statement
+ * is chosen from the connection factory's database name; other databases insert and ignore a
+ * {@link DuplicateKeyException}.
+ *
+ * <p>Recomputing the effective tokens after a checkpoint change locks the row first, as the
+ * JDBC module does, so the absolute update never overwrites a concurrent save's increment.
+ */
+class R2dbcConversationStats {
+
+    private static final String COMPUTED_STATS = "COUNT(*) AS entry_count, "
+            + "COALESCE(SUM(CASE WHEN j.message_index > COALESCE(c.checkpoint_index, -1) THEN j.tokens ELSE 0 END), 0) + COALESCE(MAX(c.tokens), 0) AS effective_tokens "
+            + "FROM chat_journal j LEFT JOIN chat_journal_checkpoint c ON c.conversation_id = j.conversation_id "
+            + "WHERE j.conversation_id = :conversationId";
+
+    private static final String INITIAL_STATS = "COUNT(*) - :entryCount AS entry_count, "
+            + "COALESCE(SUM(CASE WHEN j.message_index > COALESCE(c.checkpoint_index, -1) THEN j.tokens ELSE 0 END), 0) "
+            + "+ COALESCE(MAX(c.tokens), 0) - :tokens AS effective_tokens "
+            + "FROM chat_journal j LEFT JOIN chat_journal_checkpoint c ON c.conversation_id = j.conversation_id "
+            + "WHERE j.conversation_id = :conversationId";
+
+    private static final String INSERT_STATS = "INSERT INTO chat_journal_conversation (conversation_id, entry_count, effective_tokens) "
+            + "SELECT :conversationId, " + INITIAL_STATS;
+
+    private static final String CONVERSATION_ID = "conversationId";
+
+    private final DatabaseClient databaseClient;
+    private final String insertIfAbsentSql;
+    private final String lockSql;
+
+    R2dbcConversationStats(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        String databaseName = databaseClient.getConnectionFactory().getMetadata().getName();
+        this.insertIfAbsentSql = insertIfAbsentSql(databaseName);
+        this.lockSql = lockSql(databaseName);
+    }
+
+    /**
+     * Records newly appended entries. Must be subscribed after the entries have been inserted.
+     */
+    Mono<Void> recordSave(String conversationId, int entryCount, int tokens) {
+        return increment(conversationId, entryCount, tokens)
+                .flatMap(updated -> updated > 0 ? Mono.empty() : initialize(conversationId, entryCount, tokens)
+                        .then(increment(conversationId, entryCount, tokens)))
+                .then();
+    }
+
+    /**
+     * Returns the statement that inserts a statistics row only if it does not exist yet, or
+     * null if the database has no such statement and the plain insert must be used instead.
+     */
+    static String insertIfAbsentSql(String databaseName) {
+        String name = databaseName == null ? "" : databaseName.toLowerCase(Locale.ROOT);
+        if (name.contains("postgresql")) {
+            return INSERT_STATS + " ON CONFLICT (conversation_id) DO NOTHING";
+        }
+        if (name.contains("mysql") || name.contains("mariadb")) {
+            return INSERT_STATS + " ON DUPLICATE KEY UPDATE chat_journal_conversation.conversation_id = chat_journal_conversation.conversation_id";
+        }
+        if (name.equals("h2")) {
+            return "MERGE INTO chat_journal_conversation t "
+                    + "USING (SELECT CAST(:conversationId AS VARCHAR(255)) AS conversation_id, " + INITIAL_STATS + ") s "
+                    + "ON t.conversation_id = s.conversation_id "
+                    + "WHEN NOT MATCHED THEN INSERT (conversation_id, entry_count, effective_tokens) "
+                    + "VALUES (s.conversation_id, s.entry_count, s.effective_tokens)";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the statement that locks a conversation's statistics row until the caller's
+     * transaction ends.
+     */
+    static String lockSql(String databaseName) {
+        String name = databaseName == null ? "" : databaseName.toLowerCase(Locale.ROOT);
+        if (name.contains("sql server")) {
+            return "SELECT conversation_id FROM chat_journal_conversation WITH (UPDLOCK, ROWLOCK) WHERE conversation_id = :conversationId";
+        }
+        return "SELECT conversation_id FROM chat_journal_conversation WHERE conversation_id = :conversationId FOR UPDATE";
+    }
+
+    private Mono<Long> increment(String conversationId, int entryCount, int tokens) {
+        return databaseClient.sql("UPDATE chat_journal_conversation SET entry_count = entry_count + :entryCount, "
+                        + "effective_tokens = effective_tokens + :tokens WHERE conversation_id = :conversationId")
+                .bind("entryCount", entryCount)
+                .bind("tokens", tokens)
+                .bind(CONVERSATION_ID, conversationId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Void> initialize(String conversationId, int entryCount, int tokens) {
+        Mono<Void> insert = databaseClient.sql(insertIfAbsentSql != null ? insertIfAbsentSql : INSERT_STATS)
+                .bind(CONVERSATION_ID, conversationId)
+                .bind("entryCount", entryCount)
+                .bind("tokens", tokens)
+                .then();
+        // A concurrent save initialized the row first; the retried increment still applies
+        return insertIfAbsentSql != null ? insert : insert.onErrorResume(DuplicateKeyException.class, e -> Mono.empty());
+    }
+
+    /**
+     * Recomputes the effective token count after the conversation's checkpoint has changed.
+     * Must be subscribed within a transaction, which holds the statistics row's lock until it ends.
+     */
+    Mono<Void> recomputeEffectiveTokens(String conversationId) {
+        return databaseClient.sql(lockSql)
+                .bind(CONVERSATION_ID, conversationId)
+                .fetch()
+                .all()
+                .then(databaseClient.sql("UPDATE chat_journal_conversation SET effective_tokens = "
+                        + "COALESCE((SELECT tokens FROM chat_journal_checkpoint WHERE conversation_id = :conversationId), 0) "
+                        + "+ (SELECT COALESCE(SUM(tokens), 0) FROM chat_journal WHERE conversation_id = :conversationId "
+                        + "AND message_index > COALESCE((SELECT checkpoint_index FROM chat_journal_checkpoint WHERE conversation_id = :conversationId), -1)) "
+                        + "WHERE conversation_id = :conversationId")
+                .bind(CONVERSATION_ID, conversationId)
+                .then());
+    }
+
+    Mono<Integer> countEntries(String conversationId) {
+        return read(conversationId, "entry_count");
+    }
+
+    Mono<Integer> getEffectiveTokens(String conversationId) {
+        return read(conversationId, "effective_tokens");
+    }
+
+    Mono<Void> delete(String conversationId) {
+        return databaseClient.sql("DELETE FROM chat_journal_conversation WHERE conversation_id = :conversationId")
+                .bind(CONVERSATION_ID, conversationId)
+                .then();
+    }
+
+    private Mono<Integer> read(String conversationId, String column) {
+        return databaseClient.sql("SELECT " + column + " FROM chat_journal_conversation WHERE conversation_id = :conversationId")
+                .bind(CONVERSATION_ID, conversationId)
+                .map(row -> row.get(column, Number.class).intValue())
+                .first()
+                .switchIfEmpty(Mono.defer(() -> databaseClient.sql("SELECT " + COMPUTED_STATS)
+                        .bind(CONVERSATION_ID, conversationId)
+                        .map(row -> row.get(column, Number.class).intValue())
+                        .one()));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.r2dbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class R2dbcChatJournalCheckpointRepositoryTest {
+
+    private static final String CONVERSATION_ID = "test-conversation";
+
+    private static final ConnectionFactory CONNECTION_FACTORY =
+            ConnectionFactories.get("r2dbc:h2:mem:///r2dbc-checkpoint-test;DB_CLOSE_DELAY=-1");
+
+    private final DatabaseClient databaseClient = DatabaseClient.create(CONNECTION_FACTORY);
+
+    private R2dbcChatJournalCheckpointRepository repository;
+
+    @BeforeAll
+    static void createSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).populate(CONNECTION_FACTORY).block();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = new R2dbcChatJournalCheckpointRepository(databaseClient);
+        databaseClient.sql("DELETE FROM chat_journal_checkpoint").then().block();
+        databaseClient.sql("DELETE FROM chat_journal_conversation").then().block();
+        databaseClient.sql("DELETE FROM chat_journal").then().block();
+    }
+
+    @Test
+    void shouldReturnEmptyWhenNoCheckpoint() {
+        assertThat(repository.findCheckpoint(CONVERSATION_ID).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void shouldSaveAndFindCheckpoint() {
+        ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(5, "Summary", 42);
+
+        repository.saveCheckpoint(CONVERSATION_ID, checkpoint).block();
+
+        assertThat(repository.findCheckpoint(CONVERSATION_ID).block()).isEqualTo(checkpoint);
+    }
+
+    @Test
+    void shouldReplaceExistingCheckpoint() {
+        repository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(5, "Old", 42)).block();
+        ChatJournalCheckpoint replacement = new ChatJournalCheckpoint(9, "New", 50);
+
+        repository.saveCheckpoint(CONVERSATION_ID, replacement).block();
+
+        assertThat(repository.findCheckpoint(CONVERSATION_ID).block()).isEqualTo(replacement);
+    }
+
+    @Test
+    void shouldDeleteCheckpointAndRestoreEffectiveTokens() {
+        R2dbcChatJournalEntryRepository entryRepository = new R2dbcChatJournalEntryRepository(databaseClient);
+        entryRepository.save(CONVERSATION_ID, List.of(
+                new ChatJournalEntry(0, "USER", "First", 100),
+                new ChatJournalEntry(0, "ASSISTANT", "Second", 200)
+        )).block();
+        long firstIndex = entryRepository.findEntryTokensAfterIndex(CONVERSATION_ID, -1).blockFirst().messageIndex();
+        repository.saveCheckpoint(CONVERSATION_ID, new ChatJournalCheckpoint(firstIndex, "Summary", 10)).block();
+        assertThat(entryRepository.getEffectiveTokens(CONVERSATION_ID).block()).isEqualTo(210);
+
+        repository.deleteCheckpoint(CONVERSATION_ID).block();
+
+        assertThat(repository.findCheckpoint(CONVERSATION_ID).blockOptional()).isEmpty();
+        assertThat(entryRepository.getEffectiveTokens(CONVERSATION_ID).block()).isEqualTo(300);
+    }
+
+    @Test
+    void shouldRejectNullDatabaseClient() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> new R2dbcChatJournalCheckpointRepository(null))
+                .withMessage("databaseClient must not be null");
+    }
+
+    @Test
+    void saveCheckpointShouldRejectNullCheckpoint() {
+        assertThatNullPointerException()
+                .isThrownBy(() -> repository.saveCheckpoint(CONVERSATION_ID, null))
+                .withMessage("checkpoint must not be null");
+    }
+
+    @Test
+    void findCheckpointShouldRejectEmptyConversationId() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> repository.findCheckpoint(""))
+                .withMessage("conversationId must not be empty");
+    }
+}
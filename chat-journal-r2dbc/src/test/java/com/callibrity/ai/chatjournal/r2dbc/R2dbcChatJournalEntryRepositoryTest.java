@@ -0,0 +1,335 @@
+/*
+ * Copyright © 2025 Callibrity, Inc. (contactus@callibrity.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.callibrity.ai.chatjournal.r2dbc;
+
+import com.callibrity.ai.chatjournal.repository.ChatJournalCheckpoint;
+import com.callibrity.ai.chatjournal.repository.ChatJournalContext;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntry;
+import com.callibrity.ai.chatjournal.repository.ChatJournalEntryTokens;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+class R2dbcChatJournalEntryRepositoryTest {
+
+    private static final String CONVERSATION_ID = "test-conversation";
+
+    private static final ConnectionFactory CONNECTION_FACTORY =
+            ConnectionFactories.get("r2dbc:h2:mem:///r2dbc-entry-test;DB_CLOSE_DELAY=-1");
+
+    private final DatabaseClient databaseClient = DatabaseClient.create(CONNECTION_FACTORY);
+
+    private R2dbcChatJournalEntryRepository repository;
+    private R2dbcChatJournalCheckpointRepository checkpointRepository;
+
+    @BeforeAll
+    static void createSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema-h2.sql")).populate(CONNECTION_FACTORY).block();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = new R2dbcChatJournalEntryRepository(databaseClient);
+        checkpointRepository = new R2dbcChatJournalCheckpointRepository(databaseClient);
+        databaseClient.sql("DELETE FROM chat_journal_checkpoint").then().block();
+        databaseClient.sql("DELETE FROM chat_journal_conversation").then().block();
+        databaseClient.sql("DELETE FROM chat_journal").then().block();
+    }
+
+    private List<ChatJournalEntry> saveAndFindAll(ChatJournalEntry... entries) {
+        repository.save(CONVERSATION_ID, List.of(entries)).block();
+        return repository.findEntriesInRange(CONVERSATION_ID, -1, Long.MAX_VALUE).collectList().block();
+    }
+
+    @Nested
+    class Save {
+
+        @Test
+        void shouldInsertEntriesInOrder() {
+            List<ChatJournalEntry> entries = saveAndFindAll(
+                    new ChatJournalEntry(0, "USER", "Hello", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Hi there!", 15)
+            );
+
+            assertThat(entries).extracting(ChatJournalEntry::content).containsExactly("Hello", "Hi there!");
+            assertThat(entries.get(0).messageIndex()).isLessThan(entries.get(1).messageIndex());
+        }
+
+        @Test
+        void shouldMaintainConversationStatistics() {
+            saveAndFindAll(new ChatJournalEntry(0, "USER", "Hello", 10));
+            repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "ASSISTANT", "Hi", 15))).block();
+
+            assertThat(repository.countEntries(CONVERSATION_ID).block()).isEqualTo(2);
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID).block()).isEqualTo(25);
+        }
+
+        @Test
+        void shouldIgnoreEmptyList() {
+            repository.save(CONVERSATION_ID, List.of()).block();
+
+            assertThat(repository.countEntries(CONVERSATION_ID).block()).isZero();
+        }
+    }
+
+    @Nested
+    class CountEntriesAndEffectiveTokens {
+
+        @Test
+        void shouldReturnZeroForUnknownConversation() {
+            assertThat(repository.countEntries("unknown").block()).isZero();
+            assertThat(repository.getEffectiveTokens("unknown").block()).isZero();
+        }
+
+        @Test
+        void shouldComputeFromJournalWhenStatisticsRowMissing() {
+            saveAndFindAll(new ChatJournalEntry(0, "USER", "Hello", 10));
+            databaseClient.sql("DELETE FROM chat_journal_conversation").then().block();
+
+            assertThat(repository.countEntries(CONVERSATION_ID).block()).isEqualTo(1);
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID).block()).isEqualTo(10);
+        }
+
+        @Test
+        void shouldUseCheckpointTokensInEffectiveTokens() {
+            List<ChatJournalEntry> entries = saveAndFindAll(
+                    new ChatJournalEntry(0, "USER", "First", 100),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 200),
+                    new ChatJournalEntry(0, "USER", "Third", 300)
+            );
+
+            checkpointRepository.saveCheckpoint(CONVERSATION_ID,
+                    new ChatJournalCheckpoint(entries.get(1).messageIndex(), "Summary", 40)).block();
+
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID).block()).isEqualTo(340);
+        }
+
+        @Test
+        void shouldInitializeMissingStatisticsRowIncludingEarlierEntries() {
+            saveAndFindAll(new ChatJournalEntry(0, "USER", "Hello", 10));
+            databaseClient.sql("DELETE FROM chat_journal_conversation").then().block();
+
+            saveAndFindAll(new ChatJournalEntry(0, "ASSISTANT", "Hi", 15));
+
+            assertThat(databaseClient.sql("SELECT entry_count FROM chat_journal_conversation WHERE conversation_id = :id")
+                    .bind("id", CONVERSATION_ID)
+                    .map(row -> row.get("entry_count", Number.class).intValue())
+                    .one()
+                    .block()).isEqualTo(2);
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID).block()).isEqualTo(25);
+        }
+
+        @Test
+        void shouldCountConcurrentFirstSaves() {
+            Flux.range(0, 8)
+                    .flatMap(i -> repository.save(CONVERSATION_ID, List.of(new ChatJournalEntry(0, "USER", "Hello " + i, 10))))
+                    .blockLast();
+
+            assertThat(repository.countEntries(CONVERSATION_ID).block()).isEqualTo(8);
+            assertThat(repository.getEffectiveTokens(CONVERSATION_ID).block()).isEqualTo(80);
+        }
+    }
+
+    @Nested
+    class InsertIfAbsentSql {
+
+        @Test
+        void shouldUseDatabaseSpecificStatements() {
+            assertThat(R2dbcConversationStats.insertIfAbsentSql("PostgreSQL")).endsWith("ON CONFLICT (conversation_id) DO NOTHING");
+            assertThat(R2dbcConversationStats.insertIfAbsentSql("MariaDB")).contains("ON DUPLICATE KEY UPDATE");
+            assertThat(R2dbcConversationStats.insertIfAbsentSql("H2")).startsWith("MERGE INTO chat_journal_conversation");
+        }
+
+        @Test
+        void shouldFallBackToPlainInsertForOtherDatabases() {
+            assertThat(R2dbcConversationStats.insertIfAbsentSql("Oracle Database")).isNull();
+            assertThat(R2dbcConversationStats.insertIfAbsentSql(null)).isNull();
+        }
+    }
+
+    @Nested
+    class LockSql {
+
+        @Test
+        void shouldUseLockHintsOnSqlServer() {
+            assertThat(R2dbcConversationStats.lockSql("Microsoft SQL Server")).contains("WITH (UPDLOCK, ROWLOCK)");
+        }
+
+        @Test
+        void shouldSelectForUpdateOnOtherDatabases() {
+            assertThat(R2dbcConversationStats.lockSql("PostgreSQL")).endsWith("FOR UPDATE");
+            assertThat(R2dbcConversationStats.lockSql(null)).endsWith("FOR UPDATE");
+        }
+    }
+
+    @Nested
+    class FindVisibleEntries {
+
+        @Test
+        void shouldReturnUserAndAssistantEntriesMostRecentFirst() {
+            saveAndFindAll(
+                    new ChatJournalEntry(0, "SYSTEM", "Prompt", 5),
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 10),
+                    new ChatJournalEntry(0, "USER", "Third", 10)
+            );
+
+            List<ChatJournalEntry> page = repository.findVisibleEntries(CONVERSATION_ID, 1, 2).collectList().block();
+
+            assertThat(page).extracting(ChatJournalEntry::content).containsExactly("Second", "First");
+        }
+    }
+
+    @Nested
+    class FindContext {
+
+        @Test
+        void shouldReturnAllEntriesWhenNoCheckpoint() {
+            saveAndFindAll(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15)
+            );
+
+            ChatJournalContext context = repository.findContext(CONVERSATION_ID).block();
+
+            assertThat(context.findCheckpoint()).isEmpty();
+            assertThat(context.entries()).extracting(ChatJournalEntry::content).containsExactly("First", "Second");
+        }
+
+        @Test
+        void shouldReturnCheckpointAndEntriesAfterIt() {
+            List<ChatJournalEntry> entries = saveAndFindAll(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15),
+                    new ChatJournalEntry(0, "USER", "Third", 10)
+            );
+            ChatJournalCheckpoint checkpoint = new ChatJournalCheckpoint(entries.get(1).messageIndex(), "Summary", 20);
+            checkpointRepository.saveCheckpoint(CONVERSATION_ID, checkpoint).block();
+
+            ChatJournalContext context = repository.findContext(CONVERSATION_ID).block();
+
+            assertThat(context.findCheckpoint()).contains(checkpoint);
+            assertThat(context.entries()).extracting(ChatJournalEntry::content).containsExactly("Third");
+        }
+
+        @Test
+        void shouldReturnEmptyContextForUnknownConversation() {
+            ChatJournalContext context = repository.findContext("unknown").block();
+
+            assertThat(context.findCheckpoint()).isEmpty();
+            assertThat(context.entries()).isEmpty();
+        }
+    }
+
+    @Nested
+    class FindEntryTokensAfterIndex {
+
+        @Test
+        void shouldReturnTokensWithRunningTailSums() {
+            List<ChatJournalEntry> entries = saveAndFindAll(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 20),
+                    new ChatJournalEntry(0, "USER", "Third", 30)
+            );
+
+            List<ChatJournalEntryTokens> entryTokens = repository.findEntryTokensAfterIndex(
+                    CONVERSATION_ID, entries.get(0).messageIndex()).collectList().block();
+
+            assertThat(entryTokens).containsExactly(
+                    new ChatJournalEntryTokens(entries.get(1).messageIndex(), 20, 50),
+                    new ChatJournalEntryTokens(entries.get(2).messageIndex(), 30, 30)
+            );
+        }
+    }
+
+    @Nested
+    class FindEntriesInRange {
+
+        @Test
+        void shouldReturnEntriesAfterExclusiveAndUpToInclusiveIndex() {
+            List<ChatJournalEntry> entries = saveAndFindAll(
+                    new ChatJournalEntry(0, "USER", "First", 10),
+                    new ChatJournalEntry(0, "ASSISTANT", "Second", 15),
+                    new ChatJournalEntry(0, "USER", "Third", 10)
+            );
+
+            List<ChatJournalEntry> range = repository.findEntriesInRange(CONVERSATION_ID,
+                    entries.get(0).messageIndex(), entries.get(1).messageIndex()).collectList().block();
+
+            assertThat(range).extracting(ChatJournalEntry::content).containsExactly("Second");
+        }
+    }
+
+    @Nested
+    class DeleteAll {
+
+        @Test
+        void shouldDeleteEntriesAndStatistics() {
+            saveAndFindAll(new ChatJournalEntry(0, "USER", "Hello", 10));
+            repository.save("other-conversation", List.of(new ChatJournalEntry(0, "USER", "Other", 10))).block();
+
+            repository.deleteAll(CONVERSATION_ID).block();
+
+            assertThat(repository.countEntries(CONVERSATION_ID).block()).isZero();
+            assertThat(repository.countEntries("other-conversation").block()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void shouldRejectNullDatabaseClient() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> new R2dbcChatJournalEntryRepository(null))
+                    .withMessage("databaseClient must not be null");
+        }
+
+        @Test
+        void saveShouldRejectNullEntries() {
+            assertThatNullPointerException()
+                    .isThrownBy(() -> repository.save(CONVERSATION_ID, null))
+                    .withMessage("entries must not be null");
+        }
+
+        @Test
+        void findContextShouldRejectEmptyConversationId() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.findContext(""))
+                    .withMessage("conversationId must not be empty");
+        }
+
+        @Test
+        void findVisibleEntriesShouldRejectNonPositiveLimit() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> repository.findVisibleEntries(CONVERSATION_ID, 0, 0))
+                    .withMessage("limit must be positive");
+        }
+    }
+}